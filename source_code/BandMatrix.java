@@ -1,5 +1,7 @@
 package assignmenttwo;
 
+import java.util.Arrays;
+
 /**
  * Represents a symmetrical band matrix.
  * Band matrices have a diagonal and a fixed number of sub-diagonals and super-diagonals.
@@ -23,6 +25,9 @@ public class BandMatrix implements MatrixInterface {
     /** Array storing the values of the bands, starting with the main diagonal (enforces symmetry).*/
     private int[] bands;
 
+    /** The number of changes of this BandMatrix Instance. */
+    private long modifications;
+
     /**
      * Constructs a BandMatrix of the given size starting with just the main diagonal.
      *
@@ -67,6 +72,35 @@ public class BandMatrix implements MatrixInterface {
         return this.size;
     }
 
+    /**
+     * @return the number of changes so far.
+     */
+    @Override
+    public long getModificationCount() {
+        return this.modifications;
+    }
+
+    /**
+     * @return the number of stored bands, including the main diagonal.
+     */
+    public int getBandCount() {
+        return this.bands.length;
+    }
+
+    /**
+     * Returns the value of a band (0 is the main diagonal, n stands for both the n-th
+     * super-diagonal and the n-th sub-diagonal). Bands outside the stored ones are 0.
+     *
+     * @param bandIndex The band index.
+     * @return The value of the band.
+     */
+    public int getBandValue(int bandIndex) {
+        if (bandIndex < 0) {
+            throw new IllegalArgumentException("The band index can not be negative.");
+        }
+        return bandIndex < this.bands.length ? this.bands[bandIndex] : 0;
+    }
+
     /**
      * Retrieves the value at the specified row and column in the matrix.
      *
@@ -115,12 +149,13 @@ public class BandMatrix implements MatrixInterface {
      * <ul>
      *     <li>Allowed operations:</li>
      *     <ul>
-     *         <li>When user wants to remove the outermost bands.</li>
+     *         <li>When user wants to remove the outermost bands (zero bands that become outermost go too).</li>
      *         <li>If user wants to add new bands 1 tier outside outermost band.</li>
      *     </ul>
      *     <li>Forbidden operations:</li>
      *     <ul>
-     *         <li>If user tries to set bands further in than the outermost non-zero bands to zero.</li>
+     *         <li>If user tries to set bands further in than the outermost non-zero bands to zero
+     *         (unless the band already is zero, which changes nothing).</li>
      *         <li>If user tries to set non-zero value for bands 2 tiers outside outermost bands.</li>
      *     </ul>
      * </ul>
@@ -129,15 +164,15 @@ public class BandMatrix implements MatrixInterface {
      * @param value The value to be assigned.
      */
     public void setHelper(int bandIndex, int value) {
+        this.modifications++;
         if (value == 0) {
-            if (bandIndex < this.bands.length - 1) {
+            if (bandIndex < this.bands.length - 1 && this.bands[bandIndex] != 0) {
                 throw new IllegalArgumentException("Adding values to these bands will ruin the symmetric band matrix " +
                         "structure.");
             }
             if (bandIndex == this.bands.length - 1) {
-                int[] newBands = new int[this.bands.length - 1];
-                System.arraycopy(bands, 0, newBands, 0, this.bands.length - 1);
-                this.bands = newBands;
+                this.bands = Arrays.copyOf(this.bands, this.bands.length - 1);
+                trimBands();
             }
         }
 
@@ -179,16 +214,8 @@ public class BandMatrix implements MatrixInterface {
     public int[][] toArray() {
         int[][] array = new int[this.size][this.size];
 
-        for (int i = 0; i < this.size; i++) {
-            for (int j = 0; j < this.size; j++) {
-                int bandIndex = j >= i ? j - i : i - j;
-
-                // Only set values inside the bands
-                if (bandIndex < bands.length) {
-                    array[i][j] = get(i, j);
-                }
-            }
-        }
+        // Only visits the values inside the bands
+        forEachNonZero((i, j, value) -> array[i][j] = value);
 
         return array;
     }
@@ -300,30 +327,23 @@ public class BandMatrix implements MatrixInterface {
 
     /**
      * Multiplies the current BandMatrix with another BandMatrix.
-     * Optimized for symmetric BandMatrix multiplication.
+     * Optimized for symmetric BandMatrix multiplication:
+     * the product is computed in band storage (see timesBanded) and only the cells inside
+     * the resulting band are copied into the SquareMatrix.
      *
      * @param other The BandMatrix to multiply by.
      * @return A new matrix that is the result of the multiplication.
      */
     public SquareMatrix times(BandMatrix other) {
-        validateMultiplication(other);
+        GeneralBandMatrix product = timesBanded(other);
         SquareMatrix result = new SquareMatrix(this.size);
-
+        int lower = product.getLowerBandwidth();
+        int upper = product.getUpperBandwidth();
         for (int i = 0; i < this.size; i++) {
-            for (int j = 0; j < this.size; j++) {
-                int sum = 0;
-
-                int minK = Math.max(0, Math.max(i - (this.bands.length - 1), j - (other.bands.length - 1)));
-                int maxK = Math.min(this.size, Math.min(i + this.bands.length, j + other.bands.length));
-
-//                int minK = Math.max(i - this.bands.length + 1, j - other.bands.length + 1);
-//                int maxK = Math.min(i + this.bands.length, j + other.bands.length);
-
-                for (int k = minK; k < maxK; k++) {
-                    sum += this.get(i, k) * other.get(k, j);
-                }
-                if (sum != 0) {
-                    result.set(i, j, sum);
+            for (int j = Math.max(0, i - lower); j <= Math.min(this.size - 1, i + upper); j++) {
+                int value = product.get(i, j);
+                if (value != 0) {
+                    result.set(i, j, value);
                 }
             }
         }
@@ -331,6 +351,67 @@ public class BandMatrix implements MatrixInterface {
         return result;
     }
 
+    /**
+     * Multiplies the current BandMatrix with another BandMatrix and keeps the result banded.
+     * The product of two band matrices with b1 and b2 bands above the diagonal has b1 + b2 bands
+     * above and below the diagonal (the values along a diagonal are not constant anymore near the edges),
+     * so it is returned as a GeneralBandMatrix. Takes O(size * b1 * b2) time and O(size * (b1 + b2)) memory.
+     *
+     * @param other The BandMatrix to multiply by.
+     * @return A new GeneralBandMatrix that is the result of the multiplication.
+     */
+    public GeneralBandMatrix timesBanded(BandMatrix other) {
+        validateMultiplication(other);
+        return GeneralBandMatrix.from(this).times(GeneralBandMatrix.from(other));
+    }
+
+
+    /**
+     * Raises this matrix to a power by binary exponentiation. Every product adds the bandwidths, so the
+     * products stay in band storage (O(size * b1 * b2) each) until the band would be as wide as the matrix,
+     * and the remaining products are dense. Integer arithmetic wraps the same way as times().
+     *
+     * @param exponent The exponent (0 gives the identity).
+     * @return A new GeneralBandMatrix, or a DenseMatrix once the band fills the matrix.
+     */
+    public MatrixInterface pow(long exponent) {
+        MatrixPower.validateExponent(exponent);
+        return power(exponent, 0);
+    }
+
+    /**
+     * Raises this matrix to a power modulo a modulus, like pow(exponent). The intermediate values
+     * stay in [0, modulus), so large exponents can't overflow.
+     *
+     * @param exponent The exponent (0 gives the identity).
+     * @param modulus The modulus.
+     * @return A new GeneralBandMatrix or DenseMatrix with values in [0, modulus).
+     */
+    public MatrixInterface pow(long exponent, int modulus) {
+        MatrixPower.validateExponent(exponent);
+        MatrixPower.validateModulus(modulus);
+        return power(exponent, modulus);
+    }
+
+    /**
+     * @param exponent The exponent.
+     * @param modulus The modulus, or 0 for wrapping integer arithmetic.
+     * @return the power.
+     */
+    private MatrixInterface power(long exponent, int modulus) {
+        if (exponent == 0) {
+            GeneralBandMatrix identity = new GeneralBandMatrix(this.size, 0, 0);
+            for (int i = 0; i < this.size; i++) {
+                identity.set(i, i, modulus == 1 ? 0 : 1);
+            }
+            return identity;
+        }
+        GeneralBandMatrix base = GeneralBandMatrix.from(this);
+        if (modulus != 0) {
+            base.reduceModulo(modulus);
+        }
+        return MatrixPower.bandPower(base, exponent, modulus);
+    }
 
     /**
      * Multiplies the current BandMatrix with a Matrix.
@@ -341,7 +422,7 @@ public class BandMatrix implements MatrixInterface {
     @Override
     public Matrix times(MatrixInterface other) {
         validateMultiplication(other);
-        Matrix result = new Matrix(this.size, other.getRows());
+        Matrix result = new Matrix(this.size, other.getColumns());
         performMultiplication(result, other);
         return result;
     }
@@ -365,12 +446,34 @@ public class BandMatrix implements MatrixInterface {
     /**
      * Facilitates matrix addition for the plus method.
      * Omits value from resulting sparse matrix if entry is 0.
+     * For a sparse result, a sparse Matrix operand is added by walking its stored entries and our bands,
+     * and a BandMatrix operand by walking the union of both bands.
      *
      * @param result The empty result matrix to be populated.
      * @param other The matrix to be added to our Matrix instance.
      */
     @Override
     public void performAddition(MatrixInterface result, MatrixInterface other) {
+        if (result instanceof Matrix) {
+            if (other instanceof Matrix) {
+                other.performAddition(result, this); // addition commutes
+                return;
+            }
+            if (other instanceof BandMatrix) {
+                BandMatrix band = (BandMatrix) other;
+                int bandCount = Math.max(this.bands.length, band.bands.length);
+                for (int d = 0; d < bandCount; d++) {
+                    int sum = this.getBandValue(d) + band.getBandValue(d);
+                    if (sum != 0) {
+                        for (int i = 0; i + d < this.size; i++) {
+                            result.set(i, i + d, sum);
+                            result.set(i + d, i, sum);
+                        }
+                    }
+                }
+                return;
+            }
+        }
         for (int i = 0; i < this.size; i++) {
             for (int j = 0; j < this.size; j++) {
                 int sum = this.get(i, j) + other.get(i, j);
@@ -384,18 +487,26 @@ public class BandMatrix implements MatrixInterface {
     /**
      * Facilitates matrix multiplication for the times method.
      * Omits value from resulting sparse matrix if entry is 0.
-     * Optimized for BandMatrix multiplication with a regular Matrix.
+     * Optimized for BandMatrix multiplication with a regular Matrix:
+     * for row i only the k inside the band (|i - k| < number of bands) can contribute.
+     * A sparse Matrix operand is walked by its stored entries instead (O(nnz * bands)).
      *
      * @param result The empty result matrix to be populated.
      * @param other The matrix to be multiplied with our Matrix instance.
      */
     @Override
     public void performMultiplication(MatrixInterface result, MatrixInterface other) {
+        if (other instanceof Matrix) {
+            MatrixKernels.bandTimesSparse(this, (Matrix) other, result);
+            return;
+        }
         for (int i = 0; i < this.size; i++) {
+            int minK = Math.max(0, i - this.bands.length + 1);
+            int maxK = Math.min(this.size, i + this.bands.length);
             for (int j = 0; j < other.getColumns(); j++) {
                 int sum = 0;
-                for (int k = 0; k < this.size; k++) {
-                    int value = this.get(i, k);
+                for (int k = minK; k < maxK; k++) {
+                    int value = this.bands[k >= i ? k - i : i - k];
                     if (value != 0) {
                         sum += value * other.get(k, j);
                     }
@@ -407,4 +518,155 @@ public class BandMatrix implements MatrixInterface {
         }
     }
 
+    /**
+     * Multiplies this BandMatrix with a column vector: y = A * x.
+     * Every band is a single constant, so band d is loaded once and applied to both the
+     * d-th super-diagonal and the d-th sub-diagonal in O(size) (O(size * bands) in total).
+     *
+     * @param x The vector to multiply by.
+     * @param y The vector receiving the product (overwritten).
+     */
+    @Override
+    public void timesInto(int[] x, int[] y) {
+        validateVectorMultiplication(x, y);
+        int diagonal = this.bands.length > 0 ? this.bands[0] : 0;
+        for (int i = 0; i < this.size; i++) {
+            y[i] = diagonal * x[i];
+        }
+        for (int d = 1; d < Math.min(this.bands.length, this.size); d++) {
+            int value = this.bands[d];
+            if (value == 0) {
+                continue;
+            }
+            for (int i = 0; i + d < this.size; i++) {
+                y[i] += value * x[i + d];
+                y[i + d] += value * x[i];
+            }
+        }
+    }
+
+    /**
+     * Passes the non-zero entries of the rows [fromRow, toRow) to the action row by row.
+     * For row i only the columns inside the band are visited, O((toRow - fromRow) * bands).
+     *
+     * @param fromRow The first row (inclusive).
+     * @param toRow The last row (exclusive).
+     * @param action The action receiving (row, column, value).
+     */
+    @Override
+    public void forEachNonZero(int fromRow, int toRow, IntTriConsumer action) {
+        validateRowRange(fromRow, toRow, action);
+        int reach = this.bands.length - 1;
+        for (int i = fromRow; i < toRow; i++) {
+            for (int j = Math.max(0, i - reach); j <= Math.min(this.size - 1, i + reach); j++) {
+                int value = this.bands[j >= i ? j - i : i - j];
+                if (value != 0) {
+                    action.accept(i, j, value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds another BandMatrix in place, band by band in O(bands) (the band array only grows if the other
+     * matrix has more bands, outermost bands that cancel out are dropped). Any other matrix would break the
+     * symmetric band structure.
+     *
+     * @param other The BandMatrix to add.
+     */
+    @Override
+    public void addInPlace(MatrixInterface other) {
+        validateAddition(other);
+        if (!(other instanceof BandMatrix)) {
+            throw new IllegalArgumentException("Adding this matrix in place will ruin the symmetric band matrix " +
+                    "structure.");
+        }
+        this.modifications++;
+        BandMatrix band = (BandMatrix) other;
+        int[] otherBands = band.bands;
+        if (otherBands.length > this.bands.length) {
+            this.bands = Arrays.copyOf(this.bands, otherBands.length);
+        }
+        for (int d = 0; d < otherBands.length; d++) {
+            this.bands[d] += otherBands[d];
+        }
+        trimBands();
+    }
+
+    /**
+     * Multiplies every band by a factor in place, O(bands). Outermost bands that become 0 are dropped.
+     *
+     * @param factor The factor.
+     */
+    @Override
+    public void scaleInPlace(int factor) {
+        this.modifications++;
+        for (int d = 0; d < this.bands.length; d++) {
+            this.bands[d] *= factor;
+        }
+        trimBands();
+    }
+
+    /**
+     * Computes result += alpha * this * other. A BandMatrix result is only accepted when both operands are
+     * BandMatrix and one of them is diagonal (see holdsProduct), so the product is the other operand scaled
+     * by the diagonal value and is added band by band in O(bands). Other results use the generic kernel.
+     *
+     * @param result The matrix accumulating the product.
+     * @param alpha The factor of the product.
+     * @param other The matrix to multiply by.
+     */
+    @Override
+    public void multiplyAccumulate(MatrixInterface result, int alpha, MatrixInterface other) {
+        validateResult(result, other);
+        if (alpha == 0) {
+            return;
+        }
+        if (!(result instanceof BandMatrix)) {
+            MatrixInterface.super.multiplyAccumulate(result, alpha, other);
+            return;
+        }
+        BandMatrix target = (BandMatrix) result;
+        BandMatrix band = (BandMatrix) other;
+        boolean diagonal = this.bands.length == 1;
+        int scale = alpha * (diagonal ? this.bands[0] : band.bands[0]);
+        int[] source = diagonal ? band.bands : this.bands;
+        target.modifications++;
+        if (source.length > target.bands.length) {
+            target.bands = Arrays.copyOf(target.bands, source.length);
+        }
+        for (int d = 0; d < source.length; d++) {
+            target.bands[d] += scale * source[d];
+        }
+        target.trimBands();
+    }
+
+    /**
+     * Tells whether a BandMatrix can hold the product of two matrices. The product of two band matrices is
+     * generally not constant along its diagonals (the rows near the edges differ), so only a product with a
+     * diagonal BandMatrix (a multiple of the identity) keeps the symmetric band structure.
+     *
+     * @param left The left operand.
+     * @param right The right operand.
+     * @return true if both operands are BandMatrix and one of them only has the main diagonal.
+     */
+    static boolean holdsProduct(MatrixInterface left, MatrixInterface right) {
+        return left instanceof BandMatrix && right instanceof BandMatrix
+                && (((BandMatrix) left).bands.length == 1 || ((BandMatrix) right).bands.length == 1);
+    }
+
+    /**
+     * Drops the outermost bands that are 0 (e.g. after addInPlace or scaleInPlace(0)), keeping at least
+     * the main diagonal, so the outermost stored band is non-zero again as set and setHelper expect.
+     */
+    private void trimBands() {
+        int count = this.bands.length;
+        while (count > 1 && this.bands[count - 1] == 0) {
+            count--;
+        }
+        if (count < this.bands.length) {
+            this.bands = Arrays.copyOf(this.bands, count);
+        }
+    }
+
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package assignmenttwo;
 
+import java.util.Spliterator;
+
 /**
  * This is a tester class for the BandMatrix class.
  * We test all methods and a lot of edge cases.
@@ -20,6 +22,10 @@ public class BandMatrixTester {
         testToArrayAndToString();
         testAddition();
         testMultiplication();
+        testVectorMultiplication();
+        testNonZeroIteration();
+        testInPlaceOperations();
+        testPow();
         System.out.println("All BandMatrix tests passed!");
     }
 
@@ -177,4 +183,191 @@ public class BandMatrixTester {
 
     }
 
+    /**
+     * Multiplies a matrix with a vector through toArray().
+     *
+     * @param matrix The matrix.
+     * @param x The vector.
+     * @return the expected product.
+     */
+    private static int[] naiveVectorProduct(MatrixInterface matrix, int[] x) {
+        int[][] array = matrix.toArray();
+        int[] y = new int[array.length];
+        for (int i = 0; i < array.length; i++) {
+            for (int j = 0; j < x.length; j++) {
+                y[i] += array[i][j] * x[j];
+            }
+        }
+        return y;
+    }
+
+    /**
+     * Tests the matrix-vector product, which walks every band once.
+     */
+    private void testVectorMultiplication() {
+        BandMatrix matrix = new BandMatrix(6, 2);
+        matrix.set(0, 0, 3);
+        matrix.set(0, 1, -2);
+        matrix.set(0, 2, 1);
+        int[] x = {1, -1, 2, 0, 5, 4};
+        int[] expected = naiveVectorProduct(matrix, x);
+        int[] y = matrix.times(x);
+        for (int i = 0; i < y.length; i++) {
+            assert y[i] == expected[i] : "BandMatrix times vector failed.";
+        }
+
+        BandMatrix wide = new BandMatrix(2, 3);
+        wide.set(0, 0, 1);
+        wide.set(0, 1, 2);
+        y = wide.times(new int[]{3, 4});
+        assert y[0] == 11 && y[1] == 10 : "BandMatrix with more bands than its size failed.";
+    }
+
+    /**
+     * Tests that the non-zero iteration only visits the bands, and the spliterator splits by rows.
+     */
+    private void testNonZeroIteration() {
+        BandMatrix matrix = new BandMatrix(1000, 1);
+        matrix.set(0, 0, 2);
+        matrix.set(0, 1, -1);
+        int[] count = {0};
+        matrix.forEachNonZero((i, j, value) -> {
+            assert Math.abs(i - j) <= 1 && value == matrix.get(i, j) : "Entry outside the band.";
+            count[0]++;
+        });
+        assert count[0] == 1000 + 2 * 999 : "forEachNonZero missed entries.";
+
+        Spliterator<MatrixEntry> first = matrix.spliterator();
+        Spliterator<MatrixEntry> prefix = first.trySplit();
+        assert prefix != null : "Spliterator did not split.";
+        long[] counts = {0, 0};
+        prefix.forEachRemaining(entry -> {
+            assert entry.getRow() < 500 : "Prefix covers the wrong rows.";
+            counts[0]++;
+        });
+        while (first.tryAdvance(entry -> counts[1]++)) {
+            // Advance one entry at a time
+        }
+        assert counts[0] + counts[1] == count[0] : "Split spliterators lost entries.";
+        assert matrix.nonZeros().parallel().mapToInt(MatrixEntry::getValue).sum() == 2 * 1000 - 2 * 999;
+    }
+
+    /**
+     * Tests the in-place operations, which have to keep the symmetric band structure.
+     */
+    private void testInPlaceOperations() {
+        BandMatrix matrix = new BandMatrix(5, 1);
+        matrix.set(0, 0, 3);
+        matrix.set(0, 1, 1);
+        BandMatrix wider = new BandMatrix(5, 2);
+        wider.set(0, 0, 1);
+        wider.set(0, 2, 4);
+        matrix.addInPlace(wider);
+        assert matrix.get(2, 2) == 4 && matrix.get(1, 2) == 1 && matrix.get(0, 2) == 4 : "addInPlace failed.";
+        matrix.scaleInPlace(2);
+        assert matrix.get(4, 4) == 8 && matrix.get(4, 2) == 8 : "scaleInPlace failed.";
+
+        boolean thrown = false;
+        try {
+            matrix.addInPlace(new Matrix(5, 5));
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Adding a non-band matrix in place should throw.";
+
+        SquareMatrix result = new SquareMatrix(5);
+        matrix.multiplyInto(result, wider);
+        int[][] expected = matrix.times(wider).toArray();
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j < 5; j++) {
+                assert result.get(i, j) == expected[i][j] : "multiplyInto failed.";
+            }
+        }
+
+        BandMatrix cancelled = new BandMatrix(5, 2);
+        cancelled.set(0, 0, 2);
+        cancelled.set(0, 2, -4);
+        cancelled.addInPlace(wider);
+        assert cancelled.getBandCount() == 1 && cancelled.get(0, 0) == 3 : "Cancelled outer bands should be dropped.";
+        cancelled.set(0, 1, 5);
+        matrix.scaleInPlace(0);
+        assert matrix.getBandCount() == 1 && matrix.get(0, 0) == 0 : "scaleInPlace(0) should drop every band.";
+        matrix.set(0, 1, 7);
+        assert matrix.get(3, 4) == 7 : "set after scaleInPlace(0) failed.";
+        BandMatrix inner = new BandMatrix(5, 2);
+        inner.set(0, 1, 0);
+        assert inner.getBandCount() == 3 : "Zeroing a zero inner band should change nothing.";
+
+        BandMatrix diagonal = new BandMatrix(5);
+        diagonal.set(0, 0, -2);
+        BandMatrix bandResult = new BandMatrix(5, 3);
+        bandResult.set(0, 3, 9);
+        diagonal.multiplyInto(bandResult, wider);
+        wider.multiplyAccumulate(bandResult, 1, diagonal);
+        int[][] scaled = wider.toArray();
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j < 5; j++) {
+                assert bandResult.get(i, j) == -4 * scaled[i][j] : "multiplyInto a BandMatrix failed.";
+            }
+        }
+        assert bandResult.getBandCount() == 3 : "The bands of the result should be trimmed.";
+        for (MatrixInterface left : new MatrixInterface[]{wider, new Matrix(5, 5)}) {
+            thrown = false;
+            try {
+                left.multiplyInto(new BandMatrix(5, 4), wider);
+            } catch (IllegalArgumentException e) {
+                thrown = true;
+            }
+            assert thrown : "A BandMatrix result that can't hold the product should be rejected.";
+        }
+    }
+
+    /**
+     * Tests the band powers against repeated multiplication and the dense powers of a SquareMatrix.
+     */
+    private void testPow() {
+        BandMatrix matrix = new BandMatrix(20, 1);
+        matrix.set(0, 0, 2);
+        matrix.set(0, 1, -1);
+        MatrixInterface expected = SquareMatrix.identityMatrix(20);
+        for (int k = 0; k <= 24; k++) {
+            MatrixInterface power = matrix.pow(k);
+            int[][] values = power.toArray();
+            int[][] expectedValues = expected.toArray();
+            for (int i = 0; i < 20; i++) {
+                for (int j = 0; j < 20; j++) {
+                    assert values[i][j] == expectedValues[i][j] : "pow failed for exponent " + k + ".";
+                }
+            }
+            if (k < 10) {
+                assert power instanceof GeneralBandMatrix
+                        && ((GeneralBandMatrix) power).getUpperBandwidth() == k : "The power should stay banded.";
+            } else {
+                assert power instanceof DenseMatrix : "A band covering the matrix should switch to dense.";
+            }
+            expected = expected.times(matrix);
+        }
+
+        int modulus = 1_000_000_007;
+        SquareMatrix square = new SquareMatrix(matrix.toArray());
+        for (long k : new long[]{1, 5, 9, 10, 37, 123_456_789_012L}) {
+            int[][] values = matrix.pow(k, modulus).toArray();
+            int[][] expectedValues = square.pow(k, modulus).toArray();
+            for (int i = 0; i < 20; i++) {
+                for (int j = 0; j < 20; j++) {
+                    assert values[i][j] == expectedValues[i][j] : "pow with a modulus failed for exponent " + k + ".";
+                }
+            }
+        }
+        assert matrix.pow(3, modulus).get(0, 0) == 14 && matrix.pow(3, modulus).get(0, 3) == modulus - 1
+                : "Negative values should be reduced.";
+
+        boolean thrown = false;
+        try {
+            matrix.pow(2, -3);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "A negative modulus should throw.";
+    }
 }
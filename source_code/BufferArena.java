@@ -0,0 +1,238 @@
+package assignmenttwo;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * OffHeapArena on direct ByteBuffers, used when the foreign memory API is not available.
+ * A ByteBuffer is limited to 2^31 bytes, so every block is split into chunks of 2^chunkShift bytes
+ * and a long index is turned into (chunk, offset) with a shift and a mask. Chunks are a multiple of 8 bytes,
+ * so an int or long never straddles two chunks.
+ * Direct buffers can't be freed explicitly: close() drops the references and fails every later access,
+ * the memory itself is returned when the garbage collector collects the buffers.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public class BufferArena implements OffHeapArena {
+
+    /** Default chunk size: 2^30 bytes. */
+    public static final int DEFAULT_CHUNK_SHIFT = 30;
+
+    /** log2 of the chunk size in bytes. */
+    private final int chunkShift;
+
+    /** The blocks allocated from this arena (their buffers are dropped on close). */
+    private final List<Memory> blocks = new ArrayList<>();
+
+    /** False once the arena was closed. */
+    private volatile boolean alive = true;
+
+    /**
+     * Constructs a BufferArena with the default chunk size.
+     */
+    public BufferArena() {
+        this(DEFAULT_CHUNK_SHIFT);
+    }
+
+    /**
+     * Constructs a BufferArena with chunks of 2^chunkShift bytes (small chunks are useful for testing).
+     *
+     * @param chunkShift log2 of the chunk size, between 3 and 30.
+     */
+    public BufferArena(int chunkShift) {
+        if (chunkShift < 3 || chunkShift > 30) {
+            throw new IllegalArgumentException("The chunk shift must be between 3 and 30.");
+        }
+        this.chunkShift = chunkShift;
+    }
+
+    /**
+     * @return "buffer".
+     */
+    @Override
+    public String name() {
+        return "buffer";
+    }
+
+    /**
+     * Allocates a zeroed block of direct buffer chunks.
+     *
+     * @param byteSize The size in bytes.
+     * @return the block.
+     */
+    @Override
+    public synchronized OffHeapMemory allocate(long byteSize) {
+        if (byteSize < 0) {
+            throw new IllegalArgumentException("The size can not be negative.");
+        }
+        checkAlive();
+        Memory memory = new Memory(this, byteSize);
+        this.blocks.add(memory);
+        return memory;
+    }
+
+    /**
+     * @return true until the arena is closed.
+     */
+    @Override
+    public boolean isAlive() {
+        return this.alive;
+    }
+
+    /**
+     * Drops the chunks of every block, so all later accesses throw an IllegalStateException.
+     */
+    @Override
+    public synchronized void close() {
+        this.alive = false;
+        for (Memory memory : this.blocks) {
+            memory.chunks = null;
+        }
+        this.blocks.clear();
+    }
+
+    /**
+     * Throws an IllegalStateException once the arena was closed.
+     */
+    private void checkAlive() {
+        if (!this.alive) {
+            throw new IllegalStateException("The arena is closed.");
+        }
+    }
+
+    /**
+     * A block split into direct ByteBuffer chunks.
+     */
+    private static final class Memory implements OffHeapMemory {
+
+        /** The arena owning the block. */
+        private final BufferArena arena;
+
+        /** The size in bytes. */
+        private final long byteSize;
+
+        /** log2 of the chunk size. */
+        private final int shift;
+
+        /** offset & mask is the offset inside a chunk. */
+        private final long mask;
+
+        /** The chunks (null once the arena was closed). */
+        private ByteBuffer[] chunks;
+
+        /**
+         * @param arena The arena owning the block.
+         * @param byteSize The size in bytes.
+         */
+        Memory(BufferArena arena, long byteSize) {
+            this.arena = arena;
+            this.byteSize = byteSize;
+            this.shift = arena.chunkShift;
+            this.mask = (1L << this.shift) - 1;
+            int count = (int) ((byteSize + this.mask) >>> this.shift);
+            this.chunks = new ByteBuffer[count];
+            for (int c = 0; c < count; c++) {
+                long size = Math.min(1L << this.shift, byteSize - ((long) c << this.shift));
+                this.chunks[c] = ByteBuffer.allocateDirect((int) size).order(ByteOrder.nativeOrder());
+            }
+        }
+
+        /**
+         * Finds the chunk of a byte offset and checks the bounds and the arena.
+         *
+         * @param offset The byte offset.
+         * @param width The number of bytes accessed.
+         * @return the chunk.
+         */
+        private ByteBuffer chunk(long offset, int width) {
+            ByteBuffer[] current = this.chunks;
+            if (current == null || !this.arena.alive) {
+                throw new IllegalStateException("The arena is closed.");
+            }
+            if (offset < 0 || offset > this.byteSize - width) {
+                throw new IndexOutOfBoundsException("Offset " + offset + " is out of bounds for " + this.byteSize
+                        + " bytes.");
+            }
+            return current[(int) (offset >>> this.shift)];
+        }
+
+        /**
+         * @return the size of the block in bytes.
+         */
+        @Override
+        public long byteSize() {
+            return this.byteSize;
+        }
+
+        /**
+         * Reads the int at an index (in ints, not bytes).
+         *
+         * @param index The index.
+         * @return the value.
+         */
+        @Override
+        public int getInt(long index) {
+            long offset = index << 2;
+            return chunk(offset, Integer.BYTES).getInt((int) (offset & this.mask));
+        }
+
+        /**
+         * Writes the int at an index (in ints, not bytes).
+         *
+         * @param index The index.
+         * @param value The value.
+         */
+        @Override
+        public void setInt(long index, int value) {
+            long offset = index << 2;
+            chunk(offset, Integer.BYTES).putInt((int) (offset & this.mask), value);
+        }
+
+        /**
+         * Reads the long at an index (in longs, not bytes).
+         *
+         * @param index The index.
+         * @return the value.
+         */
+        @Override
+        public long getLong(long index) {
+            long offset = index << 3;
+            return chunk(offset, Long.BYTES).getLong((int) (offset & this.mask));
+        }
+
+        /**
+         * Writes the long at an index (in longs, not bytes).
+         *
+         * @param index The index.
+         * @param value The value.
+         */
+        @Override
+        public void setLong(long index, long value) {
+            long offset = index << 3;
+            chunk(offset, Long.BYTES).putLong((int) (offset & this.mask), value);
+        }
+
+        /**
+         * Sets every byte of every chunk to 0, a long at a time.
+         */
+        @Override
+        public void clear() {
+            ByteBuffer[] current = this.chunks;
+            if (current == null || !this.arena.alive) {
+                throw new IllegalStateException("The arena is closed.");
+            }
+            for (ByteBuffer buffer : current) {
+                int position = 0;
+                for (; position + Long.BYTES <= buffer.capacity(); position += Long.BYTES) {
+                    buffer.putLong(position, 0);
+                }
+                for (; position < buffer.capacity(); position++) {
+                    buffer.put(position, (byte) 0);
+                }
+            }
+        }
+    }
+}
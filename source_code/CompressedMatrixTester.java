@@ -0,0 +1,308 @@
+package assignmenttwo;
+
+import java.util.Arrays;
+
+/**
+ * This is a tester class for the CsrMatrix and CscMatrix classes.
+ * We test the conversions, the slice iteration and the operations against the Matrix results.
+ *
+ * @author Nikola Desnica
+ * @version 1.0
+ */
+public class CompressedMatrixTester {
+
+    /**
+     * Runs all the test methods for the compressed matrix classes.
+     */
+    public void runTests() {
+        testConversions();
+        testBandConversions();
+        testGetAndSet();
+        testValidation();
+        testSliceIteration();
+        testAddition();
+        testMultiplication();
+        testVectorMultiplication();
+        testNonZeroIteration();
+        System.out.println("All CsrMatrix and CscMatrix tests passed!");
+    }
+
+    /**
+     * Builds a small sparse test matrix.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param seed Changes the pattern of the entries.
+     * @return the sparse matrix.
+     */
+    private static Matrix sample(int rows, int columns, int seed) {
+        Matrix matrix = new Matrix(rows, columns);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                if ((i * 7 + j * 3 + seed) % 5 == 0) {
+                    matrix.set(i, j, (i + 1) * (j - seed));
+                }
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Asserts that two matrices hold the same values, reading the actual matrix through get as well
+     * (the binary search of the compressed formats).
+     *
+     * @param expected The expected matrix.
+     * @param actual The actual matrix.
+     * @param message The failure message.
+     */
+    private static void assertSameEntries(MatrixInterface expected, MatrixInterface actual, String message) {
+        TestMatrices.assertSameValues(expected, actual, message);
+        for (int i = 0; i < expected.getRows(); i++) {
+            for (int j = 0; j < expected.getColumns(); j++) {
+                assert actual.get(i, j) == expected.get(i, j) : message;
+            }
+        }
+    }
+
+    /**
+     * Tests the conversions between Matrix, CsrMatrix and CscMatrix in every direction.
+     */
+    private void testConversions() {
+        Matrix matrix = sample(6, 8, 1);
+        CsrMatrix csr = CsrMatrix.fromMatrix(matrix);
+        CscMatrix csc = CscMatrix.fromMatrix(matrix);
+
+        assertSameEntries(matrix, csr, "Conversion from Matrix to CsrMatrix failed.");
+        assertSameEntries(matrix, csc, "Conversion from Matrix to CscMatrix failed.");
+        assert csr.toMatrix().equals(matrix) : "Conversion from CsrMatrix to Matrix failed.";
+        assert csc.toMatrix().equals(matrix) : "Conversion from CscMatrix to Matrix failed.";
+        assert csr.toCsc().equals(csc) : "Conversion from CsrMatrix to CscMatrix failed.";
+        assert csc.toCsr().equals(csr) : "Conversion from CscMatrix to CsrMatrix failed.";
+        assert csr.transpose().transpose().equals(csr) : "Transpose failed.";
+
+        SquareMatrix square = new SquareMatrix(new int[][]{{1, 0, 2}, {0, 0, 3}, {4, 0, 0}});
+        assert CsrMatrix.from(square).toSquareMatrix().equals(square) : "Conversion to SquareMatrix failed.";
+    }
+
+    /**
+     * Tests the conversions from and to BandMatrix, including matrices without a band structure.
+     */
+    private void testBandConversions() {
+        BandMatrix band = new BandMatrix(6);
+        band.set(0, 0, 4);
+        band.set(0, 1, -1);
+        band.set(0, 2, 2);
+
+        CsrMatrix csr = CsrMatrix.fromBandMatrix(band);
+        assertSameEntries(band, csr, "Conversion from BandMatrix to CsrMatrix failed.");
+        assertSameEntries(band, CscMatrix.fromBandMatrix(band), "Conversion from BandMatrix to CscMatrix failed.");
+        assertSameEntries(band, csr.toBandMatrix(), "Conversion from CsrMatrix to BandMatrix failed.");
+        assert csr.getNonZeroCount() == 6 + 2 * 5 + 2 * 4 : "Band conversion stored the wrong number of entries.";
+
+        BandMatrix inner = new BandMatrix(5, 2);
+        inner.set(0, 0, 1);
+        inner.set(0, 2, 3);
+        assertSameEntries(inner, CsrMatrix.from(inner).toBandMatrix(), "A zero inner band should convert.");
+        assertSameEntries(inner, CscMatrix.from(inner).toBandMatrix(), "A zero inner band should convert.");
+        BandMatrix offDiagonal = new BandMatrix(4, 1);
+        offDiagonal.set(0, 1, 7);
+        assertSameEntries(offDiagonal, CsrMatrix.from(offDiagonal).toBandMatrix(),
+                "A zero main diagonal should convert.");
+
+        try {
+            CsrMatrix.fromMatrix(sample(6, 6, 2)).toBandMatrix();
+            assert false : "Expected an exception for a matrix without band structure.";
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Tests get (binary search) and that set is rejected.
+     */
+    private void testGetAndSet() {
+        CsrMatrix csr = new CsrMatrix(3, 4, new int[]{0, 2, 2, 3}, new int[]{1, 3, 0}, new int[]{5, 6, 7});
+
+        assert csr.get(0, 1) == 5 && csr.get(0, 3) == 6 && csr.get(2, 0) == 7 : "Get method failed.";
+        assert csr.get(0, 0) == 0 && csr.get(1, 2) == 0 : "Get method failed for a missing entry.";
+
+        try {
+            csr.set(0, 0, 1);
+            assert false : "Expected an exception for set() on an immutable matrix.";
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        try {
+            csr.toCsc().scaleInPlace(2);
+            assert false : "Expected an exception for scaleInPlace() on an immutable matrix.";
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        try {
+            csr.addInPlace(csr);
+            assert false : "Expected an exception for addInPlace() on an immutable matrix.";
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Tests the validation of the raw arrays and of the indices.
+     */
+    private void testValidation() {
+        try {
+            new CsrMatrix(2, 2, new int[]{0, 2, 2}, new int[]{1, 0}, new int[]{1, 1});
+            assert false : "Expected an exception for unsorted column indices.";
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        try {
+            new CsrMatrix(2, 2, new int[]{0, 1, 1}, new int[]{0}, new int[]{0});
+            assert false : "Expected an exception for an explicit zero.";
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        try {
+            CsrMatrix.fromMatrix(sample(3, 3, 0)).get(3, 0);
+            assert false : "Expected an exception for invalid indices in get().";
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Tests the row slice and column slice iteration.
+     */
+    private void testSliceIteration() {
+        Matrix matrix = sample(5, 7, 3);
+        CsrMatrix csr = CsrMatrix.fromMatrix(matrix);
+        CscMatrix csc = CscMatrix.fromMatrix(matrix);
+
+        int[][] fromRows = new int[5][7];
+        for (int i = 0; i < 5; i++) {
+            int previous = -1;
+            for (int p = csr.rowStart(i); p < csr.rowEnd(i); p++) {
+                assert csr.columnAt(p) > previous : "Row slice is not sorted.";
+                previous = csr.columnAt(p);
+                fromRows[i][csr.columnAt(p)] = csr.valueAt(p);
+            }
+        }
+        int[][] fromColumns = new int[5][7];
+        for (int j = 0; j < 7; j++) {
+            for (int p = csc.columnStart(j); p < csc.columnEnd(j); p++) {
+                fromColumns[csc.rowAt(p)][j] = csc.valueAt(p);
+            }
+        }
+        int[][] expected = matrix.toArray();
+        assert Arrays.deepEquals(expected, fromRows) : "Row slice iteration failed.";
+        assert Arrays.deepEquals(expected, fromColumns) : "Column slice iteration failed.";
+    }
+
+    /**
+     * Tests the addition of compressed matrices with each other and with other matrices.
+     */
+    private void testAddition() {
+        Matrix matrix1 = sample(6, 5, 1);
+        Matrix matrix2 = sample(6, 5, 4);
+        Matrix negated = new Matrix(6, 5);
+        int[][] values = matrix1.toArray();
+        for (int i = 0; i < 6; i++) {
+            for (int j = 0; j < 5; j++) {
+                negated.set(i, j, -values[i][j]);
+            }
+        }
+        Matrix expected = matrix1.plus(matrix2);
+
+        assertSameEntries(expected, CsrMatrix.from(matrix1).plus(CsrMatrix.from(matrix2)), "CSR addition failed.");
+        assertSameEntries(expected, CscMatrix.from(matrix1).plus(CscMatrix.from(matrix2)), "CSC addition failed.");
+        assertSameEntries(expected, CsrMatrix.from(matrix1).plus(matrix2), "CSR addition with Matrix failed.");
+        assertSameEntries(expected, CscMatrix.from(matrix1).plus(matrix2), "CSC addition with Matrix failed.");
+        assert CsrMatrix.from(matrix1).plus(CsrMatrix.from(negated)).getNonZeroCount() == 0
+                : "CSR addition stored cancelled entries.";
+
+        BandMatrix band = new BandMatrix(6);
+        band.set(0, 0, 2);
+        band.set(0, 1, 1);
+        Matrix square = sample(6, 6, 1);
+        assertSameEntries(square.plus(CsrMatrix.from(band).toMatrix()), CsrMatrix.from(square).plus(band),
+                "CSR addition with BandMatrix failed.");
+    }
+
+    /**
+     * Tests the multiplication of compressed matrices with each other and with other matrices.
+     */
+    private void testMultiplication() {
+        Matrix matrix1 = sample(4, 6, 2);
+        Matrix matrix2 = sample(6, 5, 3);
+        Matrix expected = matrix1.times(matrix2);
+
+        assertSameEntries(expected, CsrMatrix.from(matrix1).times(CsrMatrix.from(matrix2)), "CSR product failed.");
+        assertSameEntries(expected, CscMatrix.from(matrix1).times(CscMatrix.from(matrix2)), "CSC product failed.");
+        assertSameEntries(expected, CsrMatrix.from(matrix1).times(matrix2), "CSR product with Matrix failed.");
+        assertSameEntries(expected, CscMatrix.from(matrix1).times(matrix2), "CSC product with Matrix failed.");
+        assertSameEntries(expected, matrix1.times(CsrMatrix.from(matrix2)), "Matrix product with CSR failed.");
+
+        BandMatrix band = new BandMatrix(6);
+        band.set(0, 0, 2);
+        band.set(0, 1, 1);
+        assertSameEntries(matrix1.times(CsrMatrix.from(band).toMatrix()), CsrMatrix.from(matrix1).times(band),
+                "CSR product with BandMatrix failed.");
+    }
+
+    /**
+     * Multiplies a matrix with a vector through toArray().
+     *
+     * @param matrix The matrix.
+     * @param x The vector.
+     * @return the expected product.
+     */
+    private static int[] naiveVectorProduct(MatrixInterface matrix, int[] x) {
+        int[][] array = matrix.toArray();
+        int[] y = new int[array.length];
+        for (int i = 0; i < array.length; i++) {
+            for (int j = 0; j < x.length; j++) {
+                y[i] += array[i][j] * x[j];
+            }
+        }
+        return y;
+    }
+
+    /**
+     * Tests the matrix-vector products of CsrMatrix and CscMatrix against the sparse Matrix.
+     */
+    private void testVectorMultiplication() {
+        Matrix matrix = sample(7, 5, 3);
+        int[] x = {2, -1, 0, 3, 1};
+        int[] expected = naiveVectorProduct(matrix, x);
+        int[] fromCsr = CsrMatrix.from(matrix).times(x);
+        int[] fromCsc = CsrMatrix.from(matrix).toCsc().times(x);
+        int[] y = new int[7];
+        matrix.timesInto(x, y);
+        for (int i = 0; i < 7; i++) {
+            assert fromCsr[i] == expected[i] : "CsrMatrix times vector failed.";
+            assert fromCsc[i] == expected[i] : "CscMatrix times vector failed.";
+            assert y[i] == expected[i] : "Matrix timesInto failed.";
+        }
+    }
+
+    /**
+     * Tests the non-zero iteration of CsrMatrix, CscMatrix and DenseMatrix against the sparse Matrix.
+     */
+    private void testNonZeroIteration() {
+        Matrix matrix = sample(9, 6, 5);
+        MatrixInterface[] formats = {
+                CsrMatrix.from(matrix), CsrMatrix.from(matrix).toCsc(), DenseMatrix.from(matrix)
+        };
+        for (MatrixInterface format : formats) {
+            int[][] array = new int[9][6];
+            format.forEachNonZero((i, j, value) -> array[i][j] = value);
+            assertSameEntries(matrix, new DenseMatrix(array), "forEachNonZero failed.");
+            assert format.nonZeros().parallel().count() == matrix.nonZeros().count() : "Stream count failed.";
+            format.forEachNonZero(3, 4, (i, j, value) -> {
+                assert i == 3 : "Row range ignored.";
+            });
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package assignmenttwo;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Sparse matrix that many threads can read and write at the same time.
+ * <ul>
+ *     <li>Every row has its own open-addressing SparseEntries table (created with the first entry of the row).</li>
+ *     <li>The rows are guarded by striped read-write locks: row i belongs to stripe i % stripes. Writers of rows
+ *     in different stripes never wait for each other, so the write throughput grows with the writer threads
+ *     as long as they touch different rows; readers of a stripe share its lock.</li>
+ *     <li>addTo(row, column, delta) is atomic, so concurrent accumulations into the same cell are never lost.</li>
+ *     <li>forEachNonZero copies one row at a time under its read lock and passes the copy to the action after
+ *     releasing it: every row is seen in a consistent state, the action may write to the matrix, and writers
+ *     of other rows are not blocked by a running iteration. Rows are visited in order, the columns of a row
+ *     in no particular order.</li>
+ * </ul>
+ * Operations that span several cells (addInPlace, scaleInPlace, plus, times) are atomic per row, not for
+ * the whole matrix; use a VersionedMatrix snapshot when readers need one consistent version of everything.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public class ConcurrentSparseMatrix implements MatrixInterface {
+
+    /** The default number of lock stripes. */
+    public static final int DEFAULT_STRIPES = 64;
+
+    /** The number of rows in this ConcurrentSparseMatrix Instance. */
+    private final int rows;
+
+    /** The number of columns in this ConcurrentSparseMatrix Instance. */
+    private final int columns;
+
+    /** The entries of every row, null until the row gets an entry (guarded by the lock of its stripe). */
+    private final SparseEntries[] rowEntries;
+
+    /** The lock stripes. */
+    private final ReentrantReadWriteLock[] locks;
+
+    /** The number of stripes - 1 (the number of stripes is a power of two). */
+    private final int stripeMask;
+
+    /** The number of stored entries. */
+    private final LongAdder nonZeros = new LongAdder();
+
+    /**
+     * Constructs an all-zero ConcurrentSparseMatrix with the default number of lock stripes.
+     *
+     * @param rows The indicated number of rows.
+     * @param columns The indicated number of columns.
+     */
+    public ConcurrentSparseMatrix(int rows, int columns) {
+        this(rows, columns, DEFAULT_STRIPES);
+    }
+
+    /**
+     * Constructs an all-zero ConcurrentSparseMatrix.
+     *
+     * @param rows The indicated number of rows.
+     * @param columns The indicated number of columns.
+     * @param stripes The number of lock stripes (capped at the number of rows and rounded up to a power of two).
+     */
+    public ConcurrentSparseMatrix(int rows, int columns, int stripes) {
+        if (rows <= 0 || columns <= 0) {
+            throw new IllegalArgumentException("Can not construct a matrix " +
+                    "with values of 0 for rows or columns.");
+        }
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("The number of stripes must be positive.");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.rowEntries = new SparseEntries[rows];
+        int count = 1;
+        while (count < Math.min(stripes, rows)) {
+            count <<= 1;
+        }
+        this.locks = new ReentrantReadWriteLock[count];
+        for (int s = 0; s < count; s++) {
+            this.locks[s] = new ReentrantReadWriteLock();
+        }
+        this.stripeMask = count - 1;
+    }
+
+    /**
+     * @param row A row index.
+     * @return the lock of the stripe of the row.
+     */
+    private ReentrantReadWriteLock lockOf(int row) {
+        return this.locks[row & this.stripeMask];
+    }
+
+    /**
+     * @return the number of lock stripes.
+     */
+    public int getStripeCount() {
+        return this.locks.length;
+    }
+
+    /**
+     * @return rows.
+     */
+    @Override
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * @return columns.
+     */
+    @Override
+    public int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * @return the number of stored (non-zero) entries (a moving value while writers are running).
+     */
+    public long getNonZeroCount() {
+        return this.nonZeros.sum();
+    }
+
+    /**
+     * Fetches the value at the specified index under the read lock of its row.
+     *
+     * @param row the row position.
+     * @param column the column position.
+     * @return the value.
+     */
+    @Override
+    public int get(int row, int column) {
+        validateIndices(row, column);
+        ReentrantReadWriteLock.ReadLock lock = lockOf(row).readLock();
+        lock.lock();
+        try {
+            SparseEntries entries = this.rowEntries[row];
+            return entries == null ? 0 : entries.get(row, column);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sets the value at the specified index under the write lock of its row (0 removes the entry).
+     *
+     * @param row The row index.
+     * @param column The column index.
+     * @param value The desired value.
+     */
+    @Override
+    public void set(int row, int column, int value) {
+        validateIndices(row, column);
+        ReentrantReadWriteLock.WriteLock lock = lockOf(row).writeLock();
+        lock.lock();
+        try {
+            SparseEntries entries = this.rowEntries[row];
+            if (entries == null) {
+                if (value == 0) {
+                    return;
+                }
+                entries = new SparseEntries();
+                this.rowEntries[row] = entries;
+            }
+            int before = entries.size();
+            if (value == 0) {
+                entries.remove(row, column);
+            } else {
+                entries.put(row, column, value);
+            }
+            this.nonZeros.add(entries.size() - before);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Atomically adds a delta to the value at the specified index (the entry is removed if the sum is 0).
+     * Concurrent calls for the same cell never lose an update.
+     *
+     * @param row The row index.
+     * @param column The column index.
+     * @param delta The amount to add.
+     * @return the new value.
+     */
+    public int addTo(int row, int column, int delta) {
+        validateIndices(row, column);
+        ReentrantReadWriteLock.WriteLock lock = lockOf(row).writeLock();
+        lock.lock();
+        try {
+            SparseEntries entries = this.rowEntries[row];
+            if (entries == null) {
+                if (delta == 0) {
+                    return 0;
+                }
+                entries = new SparseEntries();
+                this.rowEntries[row] = entries;
+            }
+            int before = entries.size();
+            entries.add(row, column, delta);
+            this.nonZeros.add(entries.size() - before);
+            return entries.get(row, column);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds another matrix of the same dimensions into this matrix with addTo, one entry at a time.
+     *
+     * @param other The matrix to add.
+     */
+    @Override
+    public void addInPlace(MatrixInterface other) {
+        validateAddition(other);
+        if (other == this) {
+            scaleInPlace(2);
+            return;
+        }
+        other.forEachNonZero(this::addTo);
+    }
+
+    /**
+     * Multiplies every entry by a factor, one row at a time under its write lock.
+     *
+     * @param factor The factor.
+     */
+    @Override
+    public void scaleInPlace(int factor) {
+        if (factor == 1) {
+            return;
+        }
+        for (int row = 0; row < this.rows; row++) {
+            ReentrantReadWriteLock.WriteLock lock = lockOf(row).writeLock();
+            lock.lock();
+            try {
+                SparseEntries entries = this.rowEntries[row];
+                if (entries != null) {
+                    int before = entries.size();
+                    entries.scale(factor);
+                    this.nonZeros.add(entries.size() - before);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Validates the passed indices (for get, set and addTo).
+     *
+     * @param row The row index.
+     * @param column The column index.
+     */
+    public void validateIndices(int row, int column) {
+        if (row < 0 || row > this.rows - 1) {
+            throw new IllegalArgumentException("The indicated row index is out of bounds for this matrix.");
+        }
+        if (column < 0 || column > this.columns - 1) {
+            throw new IllegalArgumentException("The indicated column index is out of bounds for this matrix.");
+        }
+    }
+
+    /**
+     * Validates the passed matrix before addition.
+     *
+     * @param other The Matrix to add.
+     */
+    @Override
+    public void validateAddition(MatrixInterface other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot add these two matrices, the passed Matrix is null.");
+        }
+        if (this.rows != other.getRows() || this.columns != other.getColumns()) {
+            throw new IllegalArgumentException("Cannot add these two matrices, their dimensions don't match.");
+        }
+    }
+
+    /**
+     * Validates the passed matrix before multiplication.
+     *
+     * @param other The Matrix to multiply by.
+     */
+    @Override
+    public void validateMultiplication(MatrixInterface other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the passed Matrix is null.");
+        }
+        if (this.columns != other.getRows()) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the columns of this matrix" +
+                    "don't match the rows of the matrix that was passed.");
+        }
+    }
+
+    /**
+     * Adds another matrix into a new sparse Matrix.
+     *
+     * @param other The matrix to add.
+     * @return A new Matrix that is the result of the addition.
+     */
+    @Override
+    public MatrixInterface plus(MatrixInterface other) {
+        validateAddition(other);
+        Matrix result = new Matrix(this.rows, this.columns);
+        performAddition(result, other);
+        return result;
+    }
+
+    /**
+     * Facilitates matrix addition for the plus method: the entries of the other matrix are copied into the
+     * empty result and the entries of this matrix are added on top.
+     *
+     * @param result The empty result matrix to be populated.
+     * @param other The matrix to be added to our ConcurrentSparseMatrix instance.
+     */
+    @Override
+    public void performAddition(MatrixInterface result, MatrixInterface other) {
+        other.forEachNonZero(result::set);
+        forEachNonZero((i, j, value) -> result.set(i, j, result.get(i, j) + value));
+    }
+
+    /**
+     * Multiplies with another matrix into a new sparse Matrix.
+     *
+     * @param other The matrix to multiply by.
+     * @return A new Matrix that is the result of the multiplication.
+     */
+    @Override
+    public MatrixInterface times(MatrixInterface other) {
+        validateMultiplication(other);
+        Matrix result = new Matrix(this.rows, other.getColumns());
+        performMultiplication(result, other);
+        return result;
+    }
+
+    /**
+     * Facilitates matrix multiplication for the times method.
+     *
+     * @param result The empty result matrix to be populated.
+     * @param other The matrix to be multiplied with our ConcurrentSparseMatrix instance.
+     */
+    @Override
+    public void performMultiplication(MatrixInterface result, MatrixInterface other) {
+        multiplyAccumulate(result, 1, other);
+    }
+
+    /**
+     * Multiplies this ConcurrentSparseMatrix with a column vector: y = A * x.
+     *
+     * @param x The vector to multiply by.
+     * @param y The vector receiving the product (overwritten).
+     */
+    @Override
+    public void timesInto(int[] x, int[] y) {
+        validateVectorMultiplication(x, y);
+        Arrays.fill(y, 0);
+        forEachNonZero((i, j, value) -> y[i] += value * x[j]);
+    }
+
+    /**
+     * Passes the entries of the rows [fromRow, toRow) to the action, row by row. Every row is copied under
+     * its read lock and the action runs after the lock was released, so it sees a consistent state of the
+     * row and may change the matrix.
+     *
+     * @param fromRow The first row (inclusive).
+     * @param toRow The last row (exclusive).
+     * @param action The action receiving (row, column, value).
+     */
+    @Override
+    public void forEachNonZero(int fromRow, int toRow, IntTriConsumer action) {
+        validateRowRange(fromRow, toRow, action);
+        int[] columnBuffer = new int[8];
+        int[] valueBuffer = new int[8];
+        for (int row = fromRow; row < toRow; row++) {
+            int count = 0;
+            ReentrantReadWriteLock.ReadLock lock = lockOf(row).readLock();
+            lock.lock();
+            try {
+                SparseEntries entries = this.rowEntries[row];
+                if (entries == null || entries.isEmpty()) {
+                    continue;
+                }
+                if (entries.size() > columnBuffer.length) {
+                    columnBuffer = new int[Math.max(entries.size(), columnBuffer.length * 2)];
+                    valueBuffer = new int[columnBuffer.length];
+                }
+                for (int slot = 0; slot < entries.capacity(); slot++) {
+                    if (entries.isOccupied(slot)) {
+                        columnBuffer[count] = entries.columnAt(slot);
+                        valueBuffer[count++] = entries.valueAt(slot);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            for (int index = 0; index < count; index++) {
+                action.accept(row, columnBuffer[index], valueBuffer[index]);
+            }
+        }
+    }
+
+    /**
+     * Converts the matrix to a 2D array.
+     *
+     * @return A 2D array representation of the matrix.
+     */
+    @Override
+    public int[][] toArray() {
+        int[][] array = new int[this.rows][this.columns];
+        forEachNonZero((i, j, value) -> array[i][j] = value);
+        return array;
+    }
+
+    /**
+     * Transforms a ConcurrentSparseMatrix instance into a String representation of the Matrix
+     * (same layout as Matrix.toString()).
+     *
+     * @return The String representation of this ConcurrentSparseMatrix.
+     */
+    @Override
+    public String toString() {
+        Matrix matrix = new Matrix(this.rows, this.columns);
+        forEachNonZero(matrix::set);
+        return matrix.toString();
+    }
+}
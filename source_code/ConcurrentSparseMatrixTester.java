@@ -0,0 +1,184 @@
+package assignmenttwo;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This is a tester class for the ConcurrentSparseMatrix.
+ * Several threads accumulate into the same cells and iterate while others write; the results are compared
+ * to the same updates applied to a Matrix on one thread.
+ *
+ * @author Nikola Desnica
+ * @version 1.0
+ */
+public class ConcurrentSparseMatrixTester {
+
+    /** The number of writer threads. */
+    private static final int THREADS = 4;
+
+    /** The number of updates of every writer thread. */
+    private static final int UPDATES = 20000;
+
+    /**
+     * Runs all the test methods for ConcurrentSparseMatrix.
+     */
+    public void runTests() {
+        testSetAndAddTo();
+        testConcurrentWrites();
+        testConcurrentIteration();
+        testOperations();
+        System.out.println("All ConcurrentSparseMatrix tests passed!");
+    }
+
+    /**
+     * Starts one thread per task and waits for all of them.
+     *
+     * @param tasks The tasks.
+     */
+    private static void runAll(Runnable... tasks) {
+        Thread[] threads = new Thread[tasks.length];
+        for (int t = 0; t < tasks.length; t++) {
+            threads[t] = new Thread(tasks[t]);
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * The update number n of a writer: the cell and the delta.
+     *
+     * @param thread The writer.
+     * @param n The update number.
+     * @return {row, column, delta}.
+     */
+    private static int[] update(int thread, int n) {
+        return new int[]{(n * 7 + thread) % 40, (n * 13) % 25, thread % 2 == 0 ? n % 5 + 1 : -(n % 3) - 1};
+    }
+
+    /**
+     * Tests single-threaded set, get and addTo.
+     */
+    private void testSetAndAddTo() {
+        ConcurrentSparseMatrix matrix = new ConcurrentSparseMatrix(10, 8, 5);
+        assert matrix.getStripeCount() == 8 : "The stripes should be rounded up to a power of two";
+        assert new ConcurrentSparseMatrix(3, 8).getStripeCount() == 4 : "More stripes than rows are not needed";
+        matrix.set(2, 3, 7);
+        assert matrix.get(2, 3) == 7 && matrix.get(3, 2) == 0 && matrix.getNonZeroCount() == 1;
+        assert matrix.addTo(2, 3, 5) == 12 && matrix.addTo(9, 0, -4) == -4 : "addTo should return the new value";
+        assert matrix.addTo(2, 3, -12) == 0 && matrix.getNonZeroCount() == 1 : "A sum of 0 should remove the entry";
+        matrix.set(9, 0, 0);
+        assert matrix.getNonZeroCount() == 0 && matrix.get(9, 0) == 0 : "Setting 0 should remove the entry";
+
+        boolean thrown = false;
+        try {
+            matrix.addTo(10, 0, 1);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Indices out of bounds should throw";
+    }
+
+    /**
+     * Tests that concurrent accumulations into the same cells are never lost.
+     */
+    private void testConcurrentWrites() {
+        ConcurrentSparseMatrix matrix = new ConcurrentSparseMatrix(40, 25);
+        Runnable[] writers = new Runnable[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            writers[t] = () -> {
+                for (int n = 0; n < UPDATES; n++) {
+                    int[] u = update(thread, n);
+                    matrix.addTo(u[0], u[1], u[2]);
+                }
+            };
+        }
+        runAll(writers);
+
+        Matrix expected = new Matrix(40, 25);
+        for (int t = 0; t < THREADS; t++) {
+            for (int n = 0; n < UPDATES; n++) {
+                int[] u = update(t, n);
+                expected.set(u[0], u[1], expected.get(u[0], u[1]) + u[2]);
+            }
+        }
+        TestMatrices.assertSameValues(expected, matrix, "Concurrent addTo lost updates");
+        assert matrix.getNonZeroCount() == expected.nonZeros().count() : "The entry count is wrong";
+    }
+
+    /**
+     * Tests iterating while other threads write: rows come in order, every value is one that was written,
+     * and the final values are right.
+     */
+    private void testConcurrentIteration() {
+        ConcurrentSparseMatrix matrix = new ConcurrentSparseMatrix(40, 25, 8);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicBoolean failed = new AtomicBoolean();
+        Runnable reader = () -> {
+            do {
+                int[] previous = {-1};
+                matrix.forEachNonZero((i, j, value) -> {
+                    if (i < previous[0] || value <= 0 || value > UPDATES) {
+                        failed.set(true);
+                    }
+                    previous[0] = i;
+                });
+            } while (!done.get());
+        };
+        Runnable[] tasks = new Runnable[THREADS];
+        tasks[0] = reader;
+        for (int t = 1; t < THREADS; t++) {
+            int thread = t;
+            tasks[t] = () -> {
+                for (int n = 1; n <= UPDATES; n++) {
+                    matrix.set((n * 3 + thread) % 40, (n + thread) % 25, n);
+                }
+                if (thread == THREADS - 1) {
+                    done.set(true);
+                }
+            };
+        }
+        runAll(tasks);
+        assert !failed.get() : "Iteration saw rows out of order or values that were never written";
+        for (int n = UPDATES - 200; n <= UPDATES; n++) {
+            int i = (n * 3 + 1) % 40;
+            int j = (n + 1) % 25;
+            assert matrix.get(i, j) > 0 : "A written cell was lost";
+        }
+    }
+
+    /**
+     * Tests the arithmetic and the in-place operations against Matrix.
+     */
+    private void testOperations() {
+        Matrix a = new Matrix(9, 6);
+        Matrix b = new Matrix(6, 4);
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 6; j++) {
+                if ((i * 2 + j) % 3 == 0) {
+                    a.set(i, j, i - j + 1);
+                }
+                if (i < 6 && j < 4 && (i + j) % 2 == 0) {
+                    b.set(i, j, i * j + 1);
+                }
+            }
+        }
+        ConcurrentSparseMatrix matrix = new ConcurrentSparseMatrix(9, 6);
+        matrix.addInPlace(a);
+        TestMatrices.assertSameValues(a, matrix, "addInPlace failed");
+        TestMatrices.assertSameValues(a.times(b), matrix.times(b), "times failed");
+        TestMatrices.assertSameValues(a.plus(a), matrix.plus(a), "plus failed");
+        matrix.addInPlace(matrix);
+        matrix.scaleInPlace(-1);
+        Matrix expected = a.plus(a);
+        expected.scaleInPlace(-1);
+        TestMatrices.assertSameValues(expected, matrix, "scaleInPlace failed");
+        matrix.scaleInPlace(0);
+        assert matrix.getNonZeroCount() == 0 && matrix.nonZeros().count() == 0 : "Scaling by 0 should clear";
+    }
+}
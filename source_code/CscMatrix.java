@@ -0,0 +1,567 @@
+package assignmenttwo;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+
+/**
+ * Immutable sparse matrix in Compressed Sparse Column (CSC) format.
+ * The non-zero entries of column j are stored at positions colPtr[j] (inclusive) to colPtr[j + 1] (exclusive)
+ * of rowIdx and values, with the row indices of every column in ascending order.
+ * <p>
+ * The CSC arrays of a matrix are exactly the CSR arrays of its transpose, so this class keeps a
+ * CsrMatrix view of the transpose (sharing the same arrays) and reuses its kernels:
+ * (A + B)^T = A^T + B^T and (A * B)^T = B^T * A^T.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public class CscMatrix implements MatrixInterface {
+
+    /** The number of rows in this CscMatrix Instance. */
+    private final int rows;
+
+    /** The number of columns in this CscMatrix Instance. */
+    private final int columns;
+
+    /** Start offsets of each column in rowIdx and values (length columns + 1). */
+    private final int[] colPtr;
+
+    /** Row index of every stored entry, ascending within a column. */
+    private final int[] rowIdx;
+
+    /** Value of every stored entry (never 0). */
+    private final int[] values;
+
+    /** The transpose of this matrix in CSR format, backed by the same arrays. */
+    private final CsrMatrix transposed;
+
+    /**
+     * Constructs a CscMatrix from its raw arrays. The arrays are validated and used as is (not copied),
+     * so the caller must not modify them afterwards.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param colPtr The column start offsets (length columns + 1).
+     * @param rowIdx The row indices, strictly ascending within every column.
+     * @param values The non-zero values.
+     */
+    public CscMatrix(int rows, int columns, int[] colPtr, int[] rowIdx, int[] values) {
+        this(rows, columns, colPtr, rowIdx, values, new CsrMatrix(columns, rows, colPtr, rowIdx, values));
+    }
+
+    /**
+     * Constructs a CscMatrix from arrays that are known to be valid (used by the conversions).
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param colPtr The column start offsets.
+     * @param rowIdx The row indices.
+     * @param values The values.
+     * @param trusted Marker to distinguish this constructor, the arrays are not validated.
+     */
+    CscMatrix(int rows, int columns, int[] colPtr, int[] rowIdx, int[] values, boolean trusted) {
+        this(rows, columns, colPtr, rowIdx, values, new CsrMatrix(columns, rows, colPtr, rowIdx, values, true));
+    }
+
+    /**
+     * Shared constructor body.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param colPtr The column start offsets.
+     * @param rowIdx The row indices.
+     * @param values The values.
+     * @param transposed The CSR view of the transpose over the same arrays.
+     */
+    private CscMatrix(int rows, int columns, int[] colPtr, int[] rowIdx, int[] values, CsrMatrix transposed) {
+        this.rows = rows;
+        this.columns = columns;
+        this.colPtr = colPtr;
+        this.rowIdx = rowIdx;
+        this.values = values;
+        this.transposed = transposed;
+    }
+
+    /**
+     * Wraps the transpose of a CscMatrix given in CSR format.
+     *
+     * @param transposed The transpose in CSR format.
+     * @return the CscMatrix.
+     */
+    private static CscMatrix ofTranspose(CsrMatrix transposed) {
+        SparseRows arrays = transposed.asSparseRows();
+        return new CscMatrix(transposed.getColumns(), transposed.getRows(), arrays.rowPtr, arrays.columns,
+                arrays.values, transposed);
+    }
+
+    /**
+     * Converts any matrix to CSC. Sparse and band matrices are converted in O(nnz).
+     *
+     * @param matrix The matrix to convert.
+     * @return the CscMatrix holding the same values.
+     */
+    public static CscMatrix from(MatrixInterface matrix) {
+        if (matrix instanceof CscMatrix) {
+            return (CscMatrix) matrix;
+        }
+        if (matrix instanceof Matrix) {
+            return fromMatrix((Matrix) matrix);
+        }
+        if (matrix instanceof BandMatrix) {
+            return fromBandMatrix((BandMatrix) matrix);
+        }
+        return CsrMatrix.from(matrix).toCsc();
+    }
+
+    /**
+     * Converts a sparse Matrix (or SquareMatrix) to CSC in O(nnz + rows + columns).
+     *
+     * @param matrix The matrix to convert.
+     * @return the CscMatrix holding the same values.
+     */
+    public static CscMatrix fromMatrix(Matrix matrix) {
+        SparseRows sorted = SparseRows.sorted(matrix.entries, matrix.getRows(), matrix.getColumns(), true);
+        return new CscMatrix(matrix.getRows(), matrix.getColumns(), sorted.rowPtr, sorted.columns,
+                sorted.values, true);
+    }
+
+    /**
+     * Converts a BandMatrix to CSC in O(nnz). A symmetric band matrix is its own transpose,
+     * so its CSC arrays are the same as its CSR arrays.
+     *
+     * @param band The BandMatrix to convert.
+     * @return the CscMatrix holding the same values.
+     */
+    public static CscMatrix fromBandMatrix(BandMatrix band) {
+        return ofTranspose(CsrMatrix.fromBandMatrix(band));
+    }
+
+    /**
+     * Converts this CscMatrix to the compressed row layout in O(nnz + rows).
+     *
+     * @return the CsrMatrix holding the same values.
+     */
+    public CsrMatrix toCsr() {
+        return this.transposed.transpose();
+    }
+
+    /**
+     * Converts this CscMatrix to a (mutable) sparse Matrix in O(nnz).
+     *
+     * @return the Matrix holding the same values.
+     */
+    public Matrix toMatrix() {
+        Matrix matrix = new Matrix(this.rows, this.columns);
+        copyInto(matrix);
+        return matrix;
+    }
+
+    /**
+     * Converts this CscMatrix to a (mutable) SquareMatrix in O(nnz).
+     *
+     * @return the SquareMatrix holding the same values.
+     */
+    public SquareMatrix toSquareMatrix() {
+        if (this.rows != this.columns) {
+            throw new IllegalArgumentException("Only a square CscMatrix can be converted to a SquareMatrix.");
+        }
+        SquareMatrix matrix = new SquareMatrix(this.rows);
+        copyInto(matrix);
+        return matrix;
+    }
+
+    /**
+     * Converts this CscMatrix to a symmetric BandMatrix in O(nnz).
+     * A symmetric band matrix is its own transpose, so the check is done on the transposed view.
+     *
+     * @return the BandMatrix holding the same values.
+     */
+    public BandMatrix toBandMatrix() {
+        return this.transposed.toBandMatrix();
+    }
+
+    /**
+     * Copies the stored entries into an empty matrix.
+     *
+     * @param matrix The matrix to populate.
+     */
+    private void copyInto(MatrixInterface matrix) {
+        for (int j = 0; j < this.columns; j++) {
+            for (int p = this.colPtr[j]; p < this.colPtr[j + 1]; p++) {
+                matrix.set(this.rowIdx[p], j, this.values[p]);
+            }
+        }
+    }
+
+    /**
+     * @return rows.
+     */
+    @Override
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * @return columns.
+     */
+    @Override
+    public int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * @return 0, a CscMatrix never changes.
+     */
+    @Override
+    public long getModificationCount() {
+        return 0;
+    }
+
+    /**
+     * @return the number of stored (non-zero) entries.
+     */
+    public int getNonZeroCount() {
+        return this.colPtr[this.columns];
+    }
+
+    /**
+     * Returns the first position of a column slice. Together with columnEnd, rowAt and valueAt
+     * this lets kernels walk a column without allocating.
+     *
+     * @param column The column index.
+     * @return the position of the first entry of the column.
+     */
+    public int columnStart(int column) {
+        return this.transposed.rowStart(column);
+    }
+
+    /**
+     * @param column The column index.
+     * @return the position after the last entry of the column.
+     */
+    public int columnEnd(int column) {
+        return this.transposed.rowEnd(column);
+    }
+
+    /**
+     * @param position A position inside a column slice.
+     * @return the row index of the entry at that position.
+     */
+    public int rowAt(int position) {
+        return this.rowIdx[position];
+    }
+
+    /**
+     * @param position A position inside a column slice.
+     * @return the value of the entry at that position.
+     */
+    public int valueAt(int position) {
+        return this.values[position];
+    }
+
+    /**
+     * Fetches the value at the specified index with a binary search in the column slice.
+     *
+     * @param row the row position.
+     * @param column the column position.
+     * @return the value.
+     */
+    @Override
+    public int get(int row, int column) {
+        validateIndices(row, column);
+        return this.transposed.get(column, row);
+    }
+
+    /**
+     * A CscMatrix is immutable, convert it with toMatrix() to modify it.
+     *
+     * @param row The row index.
+     * @param column The column index.
+     * @param value The desired value.
+     */
+    @Override
+    public void set(int row, int column, int value) {
+        throw new UnsupportedOperationException("A CscMatrix is immutable, convert it with toMatrix() to modify it.");
+    }
+
+    /**
+     * Not supported, a CscMatrix is immutable.
+     *
+     * @param other The matrix to add.
+     */
+    @Override
+    public void addInPlace(MatrixInterface other) {
+        throw new UnsupportedOperationException("A CscMatrix is immutable, convert it with toMatrix() to modify it.");
+    }
+
+    /**
+     * Not supported, a CscMatrix is immutable.
+     *
+     * @param factor The factor.
+     */
+    @Override
+    public void scaleInPlace(int factor) {
+        throw new UnsupportedOperationException("A CscMatrix is immutable, convert it with toMatrix() to modify it.");
+    }
+
+    /**
+     * Validates the indices passed (for get).
+     *
+     * @param row The row index.
+     * @param column The column index.
+     */
+    public void validateIndices(int row, int column) {
+        if (row < 0 || row > this.rows - 1) {
+            throw new IllegalArgumentException("The indicated row index is out of bounds for this matrix.");
+        }
+        if (column < 0 || column > this.columns - 1) {
+            throw new IllegalArgumentException("The indicated column index is out of bounds for this matrix.");
+        }
+    }
+
+    /**
+     * Validates the passed matrix before addition.
+     *
+     * @param other The Matrix to add.
+     */
+    @Override
+    public void validateAddition(MatrixInterface other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot add these two matrices, the passed Matrix is null.");
+        }
+        if (this.rows != other.getRows() || this.columns != other.getColumns()) {
+            throw new IllegalArgumentException("Cannot add these two matrices, their dimensions don't match.");
+        }
+    }
+
+    /**
+     * Validates the passed matrix before multiplication.
+     *
+     * @param other The Matrix to multiply by.
+     */
+    @Override
+    public void validateMultiplication(MatrixInterface other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the passed Matrix is null.");
+        }
+        if (this.columns != other.getRows()) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the columns of this matrix" +
+                    "don't match the rows of the matrix that was passed.");
+        }
+    }
+
+    /**
+     * Adds another CscMatrix by merging the sorted column slices in O(nnz + other.nnz).
+     *
+     * @param other The CscMatrix to add.
+     * @return A new CscMatrix that is the result of the addition.
+     */
+    public CscMatrix plus(CscMatrix other) {
+        validateAddition(other);
+        return ofTranspose(this.transposed.plus(other.transposed));
+    }
+
+    /**
+     * Adds another matrix. Another CscMatrix is merged into a new CscMatrix,
+     * any other matrix is added into a new sparse Matrix.
+     *
+     * @param other The matrix to add.
+     * @return A new matrix that is the result of the addition.
+     */
+    @Override
+    public MatrixInterface plus(MatrixInterface other) {
+        if (other instanceof CscMatrix) {
+            return plus((CscMatrix) other);
+        }
+        validateAddition(other);
+        Matrix result = new Matrix(this.rows, this.columns);
+        performAddition(result, other);
+        return result;
+    }
+
+    /**
+     * Facilitates matrix addition for the plus method.
+     * Omits value from resulting sparse matrix if entry is 0.
+     * The stored entries of this matrix are copied into the result, then the stored entries of the other
+     * matrix are added to them, so the cost is O(nnz(this) + nnz(other)) get/set calls on the result.
+     *
+     * @param result The empty result matrix to be populated.
+     * @param other The matrix to be added to our CscMatrix instance.
+     */
+    @Override
+    public void performAddition(MatrixInterface result, MatrixInterface other) {
+        for (int j = 0; j < this.columns; j++) {
+            for (int p = this.colPtr[j]; p < this.colPtr[j + 1]; p++) {
+                result.set(this.rowIdx[p], j, this.values[p]);
+            }
+        }
+        other.forEachNonZero((i, j, value) -> result.set(i, j, result.get(i, j) + value));
+    }
+
+    /**
+     * Multiplies with another CscMatrix column by column, computed as (B^T * A^T)^T on the CSR views.
+     *
+     * @param other The CscMatrix to multiply by.
+     * @return A new CscMatrix that is the result of the multiplication.
+     */
+    public CscMatrix times(CscMatrix other) {
+        validateMultiplication(other);
+        return ofTranspose(other.transposed.times(this.transposed));
+    }
+
+    /**
+     * Multiplies with another matrix. Another CscMatrix gives a new CscMatrix,
+     * any other matrix gives a new sparse Matrix.
+     *
+     * @param other The matrix to multiply by.
+     * @return A new matrix that is the result of the multiplication.
+     */
+    @Override
+    public MatrixInterface times(MatrixInterface other) {
+        if (other instanceof CscMatrix) {
+            return times((CscMatrix) other);
+        }
+        validateMultiplication(other);
+        Matrix result = new Matrix(this.rows, other.getColumns());
+        performMultiplication(result, other);
+        return result;
+    }
+
+    /**
+     * Facilitates matrix multiplication for the times method.
+     * Omits value from resulting sparse matrix if entry is 0.
+     * Every column k of this matrix is scaled by other(k, j) and accumulated into column j of the result.
+     * The stored entries of the other matrix are grouped by column once, so only its non-zeros are visited.
+     *
+     * @param result The empty result matrix to be populated.
+     * @param other The matrix to be multiplied with our CscMatrix instance.
+     */
+    @Override
+    public void performMultiplication(MatrixInterface result, MatrixInterface other) {
+        SparseRows right = SparseRows.of(other, true);
+        int[] accumulator = new int[this.rows];
+        for (int j = 0; j < other.getColumns(); j++) {
+            if (right.rowPtr[j] == right.rowPtr[j + 1]) {
+                continue;
+            }
+            Arrays.fill(accumulator, 0);
+            for (int q = right.rowPtr[j]; q < right.rowPtr[j + 1]; q++) {
+                int k = right.columns[q];
+                int factor = right.values[q];
+                for (int p = this.colPtr[k]; p < this.colPtr[k + 1]; p++) {
+                    accumulator[this.rowIdx[p]] += this.values[p] * factor;
+                }
+            }
+            for (int i = 0; i < this.rows; i++) {
+                if (accumulator[i] != 0) {
+                    result.set(i, j, accumulator[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Multiplies this CscMatrix with a column vector: y = A * x.
+     * Every column j is scattered into y with the weight x[j] (columns with x[j] == 0 are skipped), O(nnz + columns).
+     *
+     * @param x The vector to multiply by.
+     * @param y The vector receiving the product (overwritten).
+     */
+    @Override
+    public void timesInto(int[] x, int[] y) {
+        validateVectorMultiplication(x, y);
+        Arrays.fill(y, 0);
+        for (int j = 0; j < this.columns; j++) {
+            int weight = x[j];
+            if (weight == 0) {
+                continue;
+            }
+            for (int p = this.colPtr[j]; p < this.colPtr[j + 1]; p++) {
+                y[this.rowIdx[p]] += this.values[p] * weight;
+            }
+        }
+    }
+
+    /**
+     * Passes the entries of the rows [fromRow, toRow) to the action. The storage is column-major,
+     * so this is one pass over all entries in column order (O(nnz + columns)) that skips the other rows.
+     *
+     * @param fromRow The first row (inclusive).
+     * @param toRow The last row (exclusive).
+     * @param action The action receiving (row, column, value).
+     */
+    @Override
+    public void forEachNonZero(int fromRow, int toRow, IntTriConsumer action) {
+        validateRowRange(fromRow, toRow, action);
+        for (int j = 0; j < this.columns; j++) {
+            for (int p = this.colPtr[j]; p < this.colPtr[j + 1]; p++) {
+                int row = this.rowIdx[p];
+                if (row >= fromRow && row < toRow) {
+                    action.accept(row, j, this.values[p]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Row ranges are not contiguous in column-major storage, so the spliterator runs on the CSR copy.
+     *
+     * @return a spliterator that splits by row ranges.
+     */
+    @Override
+    public Spliterator<MatrixEntry> spliterator() {
+        return toCsr().spliterator();
+    }
+
+    /**
+     * Converts the matrix to a 2D array.
+     *
+     * @return A 2D array representation of the matrix.
+     */
+    @Override
+    public int[][] toArray() {
+        int[][] array = new int[this.rows][this.columns];
+        for (int j = 0; j < this.columns; j++) {
+            for (int p = this.colPtr[j]; p < this.colPtr[j + 1]; p++) {
+                array[this.rowIdx[p]][j] = this.values[p];
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Transforms a CscMatrix instance into a String representation of the Matrix
+     * (same layout as Matrix.toString()).
+     *
+     * @return The String representation of this CscMatrix.
+     */
+    @Override
+    public String toString() {
+        return toMatrix().toString();
+    }
+
+    /**
+     * Two CscMatrix objects are equal if they have the same dimensions and the same entries.
+     *
+     * @param matrix the object to be compared for equality with the current CscMatrix.
+     * @return true if the specified object is equal to the current CscMatrix, false otherwise.
+     */
+    @Override
+    public boolean equals(Object matrix) {
+        if (this == matrix) {
+            return true;
+        }
+        if (!(matrix instanceof CscMatrix)) {
+            return false;
+        }
+        return this.transposed.equals(((CscMatrix) matrix).transposed);
+    }
+
+    /**
+     * @return a hash code consistent with equals.
+     */
+    @Override
+    public int hashCode() {
+        return this.transposed.hashCode();
+    }
+}
@@ -0,0 +1,864 @@
+package assignmenttwo;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+
+/**
+ * Immutable sparse matrix in Compressed Sparse Row (CSR) format.
+ * The non-zero entries of row i are stored at positions rowPtr[i] (inclusive) to rowPtr[i + 1] (exclusive)
+ * of colIdx and values, with the column indices of every row in ascending order.
+ * Compared to the hash based Matrix, rows are contiguous in memory, which makes row traversal
+ * (and therefore matrix-vector and sparse matrix products) cache friendly, and get is a binary search.
+ * <p>
+ * Meant as the read-mostly format once a matrix is assembled: build it with a Matrix, SquareMatrix
+ * or BandMatrix and convert it in O(nnz) with one of the from methods.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public class CsrMatrix implements MatrixInterface {
+
+    /** The number of rows in this CsrMatrix Instance. */
+    private final int rows;
+
+    /** The number of columns in this CsrMatrix Instance. */
+    private final int columns;
+
+    /** Start offsets of each row in colIdx and values (length rows + 1). */
+    private final int[] rowPtr;
+
+    /** Column index of every stored entry, ascending within a row. */
+    private final int[] colIdx;
+
+    /** Value of every stored entry (never 0). */
+    private final int[] values;
+
+    /**
+     * Constructs a CsrMatrix from its raw arrays. The arrays are validated and used as is (not copied),
+     * so the caller must not modify them afterwards.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param rowPtr The row start offsets (length rows + 1).
+     * @param colIdx The column indices, strictly ascending within every row.
+     * @param values The non-zero values.
+     */
+    public CsrMatrix(int rows, int columns, int[] rowPtr, int[] colIdx, int[] values) {
+        this(rows, columns, rowPtr, colIdx, values, false);
+        validateArrays();
+    }
+
+    /**
+     * Constructs a CsrMatrix from arrays that are known to be valid (used by the conversions and kernels).
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param rowPtr The row start offsets.
+     * @param colIdx The column indices.
+     * @param values The values.
+     * @param trusted Marker to distinguish this constructor, the arrays are not validated.
+     */
+    CsrMatrix(int rows, int columns, int[] rowPtr, int[] colIdx, int[] values, boolean trusted) {
+        if (rows <= 0 || columns <= 0) {
+            throw new IllegalArgumentException("Can not construct a matrix " +
+                    "with values of 0 for rows or columns.");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.rowPtr = rowPtr;
+        this.colIdx = colIdx;
+        this.values = values;
+    }
+
+    /**
+     * Validates the CSR structure of the arrays passed to the public constructor.
+     */
+    private void validateArrays() {
+        if (this.rowPtr == null || this.colIdx == null || this.values == null) {
+            throw new IllegalArgumentException("The provided CSR arrays can not be null.");
+        }
+        if (this.rowPtr.length != this.rows + 1 || this.rowPtr[0] != 0) {
+            throw new IllegalArgumentException("The row pointer array must have rows + 1 elements starting at 0.");
+        }
+        int nonZeros = this.rowPtr[this.rows];
+        if (this.colIdx.length != nonZeros || this.values.length != nonZeros) {
+            throw new IllegalArgumentException("The column index and value arrays must have one element per entry.");
+        }
+        for (int i = 0; i < this.rows; i++) {
+            if (this.rowPtr[i] > this.rowPtr[i + 1]) {
+                throw new IllegalArgumentException("The row pointer array must be non-decreasing.");
+            }
+            for (int p = this.rowPtr[i]; p < this.rowPtr[i + 1]; p++) {
+                if (this.colIdx[p] < 0 || this.colIdx[p] >= this.columns) {
+                    throw new IllegalArgumentException("A column index is out of bounds for this matrix.");
+                }
+                if (p > this.rowPtr[i] && this.colIdx[p] <= this.colIdx[p - 1]) {
+                    throw new IllegalArgumentException("The column indices of a row must be strictly ascending.");
+                }
+                if (this.values[p] == 0) {
+                    throw new IllegalArgumentException("A sparse matrix can not store explicit zeros.");
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts any matrix to CSR. Sparse and band matrices are converted in O(nnz),
+     * other implementations are scanned cell by cell.
+     *
+     * @param matrix The matrix to convert.
+     * @return the CsrMatrix holding the same values.
+     */
+    public static CsrMatrix from(MatrixInterface matrix) {
+        if (matrix == null) {
+            throw new IllegalArgumentException("The provided matrix is null.");
+        }
+        if (matrix instanceof CsrMatrix) {
+            return (CsrMatrix) matrix;
+        }
+        if (matrix instanceof Matrix) {
+            return fromMatrix((Matrix) matrix);
+        }
+        if (matrix instanceof BandMatrix) {
+            return fromBandMatrix((BandMatrix) matrix);
+        }
+        if (matrix instanceof CscMatrix) {
+            return ((CscMatrix) matrix).toCsr();
+        }
+        int rows = matrix.getRows();
+        int columns = matrix.getColumns();
+        int[] rowPtr = new int[rows + 1];
+        IntBuffer colIdx = new IntBuffer();
+        IntBuffer values = new IntBuffer();
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                int value = matrix.get(i, j);
+                if (value != 0) {
+                    colIdx.add(j);
+                    values.add(value);
+                }
+            }
+            rowPtr[i + 1] = colIdx.size;
+        }
+        return new CsrMatrix(rows, columns, rowPtr, colIdx.toArray(), values.toArray(), true);
+    }
+
+    /**
+     * Converts a sparse Matrix (or SquareMatrix) to CSR in O(nnz + rows + columns).
+     *
+     * @param matrix The matrix to convert.
+     * @return the CsrMatrix holding the same values.
+     */
+    public static CsrMatrix fromMatrix(Matrix matrix) {
+        SparseRows sorted = SparseRows.sorted(matrix.entries, matrix.getRows(), matrix.getColumns(), false);
+        return new CsrMatrix(matrix.getRows(), matrix.getColumns(), sorted.rowPtr, sorted.columns,
+                sorted.values, true);
+    }
+
+    /**
+     * Converts a BandMatrix to CSR in O(size * bands), i.e. O(nnz). Bands with a value of 0 are skipped.
+     *
+     * @param band The BandMatrix to convert.
+     * @return the CsrMatrix holding the same values.
+     */
+    public static CsrMatrix fromBandMatrix(BandMatrix band) {
+        int size = band.getSize();
+        int bandCount = band.getBandCount();
+        int nonZeroBands = 0;
+        for (int d = 0; d < bandCount; d++) {
+            if (band.getBandValue(d) != 0) {
+                nonZeroBands += d == 0 ? 1 : 2;
+            }
+        }
+        int[] rowPtr = new int[size + 1];
+        int[] colIdx = new int[nonZeroBands * size];
+        int[] values = new int[nonZeroBands * size];
+        int position = 0;
+        for (int i = 0; i < size; i++) {
+            int first = Math.max(0, i - bandCount + 1);
+            int last = Math.min(size - 1, i + bandCount - 1);
+            for (int j = first; j <= last; j++) {
+                int value = band.getBandValue(j >= i ? j - i : i - j);
+                if (value != 0) {
+                    colIdx[position] = j;
+                    values[position] = value;
+                    position++;
+                }
+            }
+            rowPtr[i + 1] = position;
+        }
+        return new CsrMatrix(size, size, rowPtr, Arrays.copyOf(colIdx, position),
+                Arrays.copyOf(values, position), true);
+    }
+
+    /**
+     * Converts this CsrMatrix to a (mutable) sparse Matrix in O(nnz).
+     *
+     * @return the Matrix holding the same values.
+     */
+    public Matrix toMatrix() {
+        Matrix matrix = new Matrix(this.rows, this.columns);
+        copyInto(matrix);
+        return matrix;
+    }
+
+    /**
+     * Converts this CsrMatrix to a (mutable) SquareMatrix in O(nnz).
+     *
+     * @return the SquareMatrix holding the same values.
+     */
+    public SquareMatrix toSquareMatrix() {
+        if (this.rows != this.columns) {
+            throw new IllegalArgumentException("Only a square CsrMatrix can be converted to a SquareMatrix.");
+        }
+        SquareMatrix matrix = new SquareMatrix(this.rows);
+        copyInto(matrix);
+        return matrix;
+    }
+
+    /**
+     * Converts this CsrMatrix to a symmetric BandMatrix in O(nnz).
+     * Every band must be empty or full, holding one value on both sides of the diagonal.
+     *
+     * @return the BandMatrix holding the same values.
+     */
+    public BandMatrix toBandMatrix() {
+        if (this.rows != this.columns) {
+            throw new IllegalArgumentException("Only a square CsrMatrix can be converted to a BandMatrix.");
+        }
+        BandMatrix band = asBandMatrix();
+        if (band == null) {
+            throw new IllegalArgumentException("The matrix does not have a symmetric band structure.");
+        }
+        return band;
+    }
+
+    /**
+     * Detects a symmetric band structure in O(nnz): the matrix is square and every band is either empty
+     * (a zero band) or holds 2 * (size - d) entries (size for the diagonal) with the same value.
+     *
+     * @return the BandMatrix holding the same values, or null if the matrix has no band structure.
+     */
+    BandMatrix asBandMatrix() {
+        if (this.rows != this.columns) {
+            return null;
+        }
+        int size = this.rows;
+        int[] bands = new int[size];
+        int[] counts = new int[size];
+        int bandCount = 0;
+        for (int i = 0; i < size; i++) {
+            for (int p = this.rowPtr[i]; p < this.rowPtr[i + 1]; p++) {
+                int j = this.colIdx[p];
+                int d = j >= i ? j - i : i - j;
+                if (counts[d]++ == 0) {
+                    bands[d] = this.values[p];
+                    bandCount = Math.max(bandCount, d + 1);
+                } else if (bands[d] != this.values[p]) {
+                    return null;
+                }
+            }
+        }
+        for (int d = 0; d < bandCount; d++) {
+            if (counts[d] != 0 && counts[d] != (d == 0 ? size : 2 * (size - d))) {
+                return null;
+            }
+        }
+        BandMatrix band = new BandMatrix(size, Math.max(bandCount - 1, 0));
+        for (int d = 0; d < bandCount; d++) {
+            if (counts[d] != 0) {
+                band.set(0, d, bands[d]);
+            }
+        }
+        return band;
+    }
+
+    /**
+     * Copies the stored entries into an empty matrix.
+     *
+     * @param matrix The matrix to populate.
+     */
+    private void copyInto(MatrixInterface matrix) {
+        for (int i = 0; i < this.rows; i++) {
+            for (int p = this.rowPtr[i]; p < this.rowPtr[i + 1]; p++) {
+                matrix.set(i, this.colIdx[p], this.values[p]);
+            }
+        }
+    }
+
+    /**
+     * Converts this CsrMatrix to the compressed column layout in O(nnz + columns).
+     *
+     * @return the CscMatrix holding the same values.
+     */
+    public CscMatrix toCsc() {
+        CsrMatrix transposed = transpose();
+        return new CscMatrix(this.rows, this.columns, transposed.rowPtr, transposed.colIdx, transposed.values, true);
+    }
+
+    /**
+     * Transposes this matrix with a counting sort over the columns in O(nnz + columns).
+     * Rows are visited in order, so the column indices of the result come out ascending.
+     *
+     * @return the transposed CsrMatrix.
+     */
+    public CsrMatrix transpose() {
+        int nonZeros = getNonZeroCount();
+        int[] transposedPtr = new int[this.columns + 1];
+        for (int p = 0; p < nonZeros; p++) {
+            transposedPtr[this.colIdx[p] + 1]++;
+        }
+        for (int j = 0; j < this.columns; j++) {
+            transposedPtr[j + 1] += transposedPtr[j];
+        }
+        int[] next = Arrays.copyOf(transposedPtr, this.columns);
+        int[] transposedIdx = new int[nonZeros];
+        int[] transposedValues = new int[nonZeros];
+        for (int i = 0; i < this.rows; i++) {
+            for (int p = this.rowPtr[i]; p < this.rowPtr[i + 1]; p++) {
+                int position = next[this.colIdx[p]]++;
+                transposedIdx[position] = i;
+                transposedValues[position] = this.values[p];
+            }
+        }
+        return new CsrMatrix(this.columns, this.rows, transposedPtr, transposedIdx, transposedValues, true);
+    }
+
+    /**
+     * @return rows.
+     */
+    @Override
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * @return columns.
+     */
+    @Override
+    public int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * @return 0, a CsrMatrix never changes.
+     */
+    @Override
+    public long getModificationCount() {
+        return 0;
+    }
+
+    /**
+     * @return the number of stored (non-zero) entries.
+     */
+    public int getNonZeroCount() {
+        return this.rowPtr[this.rows];
+    }
+
+    /**
+     * Returns the first position of a row slice. Together with rowEnd, columnAt and valueAt
+     * this lets kernels walk a row without allocating:
+     * {@code for (int p = m.rowStart(i); p < m.rowEnd(i); p++) { m.columnAt(p); m.valueAt(p); }}
+     *
+     * @param row The row index.
+     * @return the position of the first entry of the row.
+     */
+    public int rowStart(int row) {
+        validateRow(row);
+        return this.rowPtr[row];
+    }
+
+    /**
+     * @param row The row index.
+     * @return the position after the last entry of the row.
+     */
+    public int rowEnd(int row) {
+        validateRow(row);
+        return this.rowPtr[row + 1];
+    }
+
+    /**
+     * @param position A position inside a row slice.
+     * @return the column index of the entry at that position.
+     */
+    public int columnAt(int position) {
+        return this.colIdx[position];
+    }
+
+    /**
+     * @param position A position inside a row slice.
+     * @return the value of the entry at that position.
+     */
+    public int valueAt(int position) {
+        return this.values[position];
+    }
+
+    /**
+     * Exposes the arrays to the sparse kernels without copying.
+     *
+     * @return a row-grouped view of this matrix.
+     */
+    SparseRows asSparseRows() {
+        return new SparseRows(this.rowPtr, this.colIdx, this.values);
+    }
+
+    /**
+     * Fetches the value at the specified index with a binary search in the row slice.
+     *
+     * @param row the row position.
+     * @param column the column position.
+     * @return the value.
+     */
+    @Override
+    public int get(int row, int column) {
+        validateIndices(row, column);
+        int position = Arrays.binarySearch(this.colIdx, this.rowPtr[row], this.rowPtr[row + 1], column);
+        return position >= 0 ? this.values[position] : 0;
+    }
+
+    /**
+     * A CsrMatrix is immutable, convert it with toMatrix() to modify it.
+     *
+     * @param row The row index.
+     * @param column The column index.
+     * @param value The desired value.
+     */
+    @Override
+    public void set(int row, int column, int value) {
+        throw new UnsupportedOperationException("A CsrMatrix is immutable, convert it with toMatrix() to modify it.");
+    }
+
+    /**
+     * Not supported, a CsrMatrix is immutable.
+     *
+     * @param other The matrix to add.
+     */
+    @Override
+    public void addInPlace(MatrixInterface other) {
+        throw new UnsupportedOperationException("A CsrMatrix is immutable, convert it with toMatrix() to modify it.");
+    }
+
+    /**
+     * Not supported, a CsrMatrix is immutable.
+     *
+     * @param factor The factor.
+     */
+    @Override
+    public void scaleInPlace(int factor) {
+        throw new UnsupportedOperationException("A CsrMatrix is immutable, convert it with toMatrix() to modify it.");
+    }
+
+    /**
+     * Validates the indices passed (for get).
+     *
+     * @param row The row index.
+     * @param column The column index.
+     */
+    public void validateIndices(int row, int column) {
+        validateRow(row);
+        if (column < 0 || column > this.columns - 1) {
+            throw new IllegalArgumentException("The indicated column index is out of bounds for this matrix.");
+        }
+    }
+
+    /**
+     * Validates a row index.
+     *
+     * @param row The row index.
+     */
+    private void validateRow(int row) {
+        if (row < 0 || row > this.rows - 1) {
+            throw new IllegalArgumentException("The indicated row index is out of bounds for this matrix.");
+        }
+    }
+
+    /**
+     * Validates the passed matrix before addition.
+     *
+     * @param other The Matrix to add.
+     */
+    @Override
+    public void validateAddition(MatrixInterface other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot add these two matrices, the passed Matrix is null.");
+        }
+        if (this.rows != other.getRows() || this.columns != other.getColumns()) {
+            throw new IllegalArgumentException("Cannot add these two matrices, their dimensions don't match.");
+        }
+    }
+
+    /**
+     * Validates the passed matrix before multiplication.
+     *
+     * @param other The Matrix to multiply by.
+     */
+    @Override
+    public void validateMultiplication(MatrixInterface other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the passed Matrix is null.");
+        }
+        if (this.columns != other.getRows()) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the columns of this matrix" +
+                    "don't match the rows of the matrix that was passed.");
+        }
+    }
+
+    /**
+     * Adds another CsrMatrix by merging the sorted row slices in O(nnz + other.nnz).
+     *
+     * @param other The CsrMatrix to add.
+     * @return A new CsrMatrix that is the result of the addition.
+     */
+    public CsrMatrix plus(CsrMatrix other) {
+        validateAddition(other);
+        int[] resultPtr = new int[this.rows + 1];
+        int[] resultIdx = new int[getNonZeroCount() + other.getNonZeroCount()];
+        int[] resultValues = new int[resultIdx.length];
+        int position = 0;
+        for (int i = 0; i < this.rows; i++) {
+            int p = this.rowPtr[i];
+            int q = other.rowPtr[i];
+            while (p < this.rowPtr[i + 1] || q < other.rowPtr[i + 1]) {
+                int column;
+                int sum;
+                if (q >= other.rowPtr[i + 1] || (p < this.rowPtr[i + 1] && this.colIdx[p] < other.colIdx[q])) {
+                    column = this.colIdx[p];
+                    sum = this.values[p++];
+                } else if (p >= this.rowPtr[i + 1] || other.colIdx[q] < this.colIdx[p]) {
+                    column = other.colIdx[q];
+                    sum = other.values[q++];
+                } else {
+                    column = this.colIdx[p];
+                    sum = this.values[p++] + other.values[q++];
+                }
+                if (sum != 0) {
+                    resultIdx[position] = column;
+                    resultValues[position] = sum;
+                    position++;
+                }
+            }
+            resultPtr[i + 1] = position;
+        }
+        return new CsrMatrix(this.rows, this.columns, resultPtr, Arrays.copyOf(resultIdx, position),
+                Arrays.copyOf(resultValues, position), true);
+    }
+
+    /**
+     * Adds another matrix. Another CsrMatrix is merged into a new CsrMatrix,
+     * any other matrix is added into a new sparse Matrix.
+     *
+     * @param other The matrix to add.
+     * @return A new matrix that is the result of the addition.
+     */
+    @Override
+    public MatrixInterface plus(MatrixInterface other) {
+        if (other instanceof CsrMatrix) {
+            return plus((CsrMatrix) other);
+        }
+        validateAddition(other);
+        Matrix result = new Matrix(this.rows, this.columns);
+        performAddition(result, other);
+        return result;
+    }
+
+    /**
+     * Facilitates matrix addition for the plus method.
+     * Omits value from resulting sparse matrix if entry is 0.
+     * The stored entries of this matrix are copied into the result, then the stored entries of the other
+     * matrix are added to them, so the cost is O(nnz(this) + nnz(other)) get/set calls on the result.
+     *
+     * @param result The empty result matrix to be populated.
+     * @param other The matrix to be added to our CsrMatrix instance.
+     */
+    @Override
+    public void performAddition(MatrixInterface result, MatrixInterface other) {
+        for (int i = 0; i < this.rows; i++) {
+            for (int p = this.rowPtr[i]; p < this.rowPtr[i + 1]; p++) {
+                result.set(i, this.colIdx[p], this.values[p]);
+            }
+        }
+        other.forEachNonZero((i, j, value) -> result.set(i, j, result.get(i, j) + value));
+    }
+
+    /**
+     * Multiplies with another CsrMatrix (Gustavson's algorithm) straight into CSR arrays.
+     * The columns touched by every output row are sorted before they are appended.
+     *
+     * @param other The CsrMatrix to multiply by.
+     * @return A new CsrMatrix that is the result of the multiplication.
+     */
+    public CsrMatrix times(CsrMatrix other) {
+        validateMultiplication(other);
+        int resultColumns = other.columns;
+        int[] accumulator = new int[resultColumns];
+        int[] lastRow = new int[resultColumns];
+        int[] touched = new int[resultColumns];
+        Arrays.fill(lastRow, -1);
+
+        int[] resultPtr = new int[this.rows + 1];
+        IntBuffer resultIdx = new IntBuffer();
+        IntBuffer resultValues = new IntBuffer();
+        for (int i = 0; i < this.rows; i++) {
+            int count = 0;
+            for (int p = this.rowPtr[i]; p < this.rowPtr[i + 1]; p++) {
+                int k = this.colIdx[p];
+                int value = this.values[p];
+                for (int q = other.rowPtr[k]; q < other.rowPtr[k + 1]; q++) {
+                    int j = other.colIdx[q];
+                    if (lastRow[j] != i) {
+                        lastRow[j] = i;
+                        touched[count++] = j;
+                        accumulator[j] = value * other.values[q];
+                    } else {
+                        accumulator[j] += value * other.values[q];
+                    }
+                }
+            }
+            Arrays.sort(touched, 0, count);
+            for (int t = 0; t < count; t++) {
+                int j = touched[t];
+                if (accumulator[j] != 0) {
+                    resultIdx.add(j);
+                    resultValues.add(accumulator[j]);
+                }
+            }
+            resultPtr[i + 1] = resultIdx.size;
+        }
+        return new CsrMatrix(this.rows, resultColumns, resultPtr, resultIdx.toArray(), resultValues.toArray(), true);
+    }
+
+    /**
+     * Multiplies with another matrix. Another CsrMatrix gives a new CsrMatrix,
+     * any other matrix gives a new sparse Matrix.
+     *
+     * @param other The matrix to multiply by.
+     * @return A new matrix that is the result of the multiplication.
+     */
+    @Override
+    public MatrixInterface times(MatrixInterface other) {
+        if (other instanceof CsrMatrix) {
+            return times((CsrMatrix) other);
+        }
+        validateMultiplication(other);
+        Matrix result = new Matrix(this.rows, other.getColumns());
+        performMultiplication(result, other);
+        return result;
+    }
+
+    /**
+     * Facilitates matrix multiplication for the times method.
+     * Omits value from resulting sparse matrix if entry is 0.
+     * Every operand goes through the sparse kernel. The rows of any other representation are grouped
+     * once from its stored entries (forEachNonZero), so no entry is read with get.
+     *
+     * @param result The empty result matrix to be populated.
+     * @param other The matrix to be multiplied with our CsrMatrix instance.
+     */
+    @Override
+    public void performMultiplication(MatrixInterface result, MatrixInterface other) {
+        if (other instanceof Matrix) {
+            SparseRows.multiply(asSparseRows(), this.rows, SparseRows.of(((Matrix) other).entries, other.getRows()),
+                    other.getColumns(), result);
+            return;
+        }
+        if (other instanceof CsrMatrix) {
+            SparseRows.multiply(asSparseRows(), this.rows, ((CsrMatrix) other).asSparseRows(),
+                    other.getColumns(), result);
+            return;
+        }
+        SparseRows.multiply(asSparseRows(), this.rows, SparseRows.of(other, false), other.getColumns(),
+                result);
+    }
+
+    /**
+     * Multiplies this CsrMatrix with a column vector: y = A * x.
+     * Every row is a contiguous slice, so y[i] is a single dot product over it in O(nnz + rows).
+     *
+     * @param x The vector to multiply by.
+     * @param y The vector receiving the product (overwritten).
+     */
+    @Override
+    public void timesInto(int[] x, int[] y) {
+        validateVectorMultiplication(x, y);
+        for (int i = 0; i < this.rows; i++) {
+            int sum = 0;
+            for (int p = this.rowPtr[i]; p < this.rowPtr[i + 1]; p++) {
+                sum += this.values[p] * x[this.colIdx[p]];
+            }
+            y[i] = sum;
+        }
+    }
+
+    /**
+     * Passes the entries of the rows [fromRow, toRow) to the action, slice by slice in column order.
+     *
+     * @param fromRow The first row (inclusive).
+     * @param toRow The last row (exclusive).
+     * @param action The action receiving (row, column, value).
+     */
+    @Override
+    public void forEachNonZero(int fromRow, int toRow, IntTriConsumer action) {
+        validateRowRange(fromRow, toRow, action);
+        for (int i = fromRow; i < toRow; i++) {
+            for (int p = this.rowPtr[i]; p < this.rowPtr[i + 1]; p++) {
+                action.accept(i, this.colIdx[p], this.values[p]);
+            }
+        }
+    }
+
+    /**
+     * @return a spliterator that splits by row ranges (estimating the average row length).
+     */
+    @Override
+    public Spliterator<MatrixEntry> spliterator() {
+        return new NonZeroSpliterator(this, 0, this.rows, (double) this.values.length / this.rows);
+    }
+
+    /**
+     * Converts the matrix to a 2D array in O(rows * columns) for the allocation and O(nnz) for the copy.
+     *
+     * @return A 2D array representation of the matrix.
+     */
+    @Override
+    public int[][] toArray() {
+        int[][] array = new int[this.rows][this.columns];
+        for (int i = 0; i < this.rows; i++) {
+            for (int p = this.rowPtr[i]; p < this.rowPtr[i + 1]; p++) {
+                array[i][this.colIdx[p]] = this.values[p];
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Transforms a CsrMatrix instance into a String representation of the Matrix
+     * (same layout as Matrix.toString()).
+     *
+     * @return The String representation of this CsrMatrix.
+     */
+    @Override
+    public String toString() {
+        return toMatrix().toString();
+    }
+
+    /**
+     * Two CsrMatrix objects are equal if they have the same dimensions and the same entries.
+     * The CSR layout is canonical (sorted columns, no zeros), so the arrays can be compared directly.
+     *
+     * @param matrix the object to be compared for equality with the current CsrMatrix.
+     * @return true if the specified object is equal to the current CsrMatrix, false otherwise.
+     */
+    @Override
+    public boolean equals(Object matrix) {
+        if (this == matrix) {
+            return true;
+        }
+        if (!(matrix instanceof CsrMatrix)) {
+            return false;
+        }
+        CsrMatrix other = (CsrMatrix) matrix;
+        return this.rows == other.rows && this.columns == other.columns
+                && Arrays.equals(this.rowPtr, other.rowPtr)
+                && Arrays.equals(this.colIdx, other.colIdx)
+                && Arrays.equals(this.values, other.values);
+    }
+
+    /**
+     * @return a hash code consistent with equals.
+     */
+    @Override
+    public int hashCode() {
+        int hash = 31 * this.rows + this.columns;
+        hash = 31 * hash + Arrays.hashCode(this.rowPtr);
+        hash = 31 * hash + Arrays.hashCode(this.colIdx);
+        return 31 * hash + Arrays.hashCode(this.values);
+    }
+
+    /**
+     * Sorts every row by column, adds up duplicate entries and drops zeros, moving the rows to the front of the
+     * arrays. rowPtr is updated to the compacted rows.
+     *
+     * @param rows The number of rows.
+     * @param rowPtr The row start offsets.
+     * @param colIdx The column indices.
+     * @param values The values.
+     * @return the number of entries left.
+     */
+    static int compactRows(int rows, int[] rowPtr, int[] colIdx, int[] values) {
+        long[] scratch = new long[0];
+        int write = 0;
+        for (int i = 0; i < rows; i++) {
+            int start = rowPtr[i];
+            int end = rowPtr[i + 1];
+            boolean sorted = true;
+            for (int p = start + 1; p < end && sorted; p++) {
+                sorted = colIdx[p - 1] < colIdx[p];
+            }
+            if (!sorted) {
+                if (scratch.length < end - start) {
+                    scratch = new long[end - start];
+                }
+                for (int p = start; p < end; p++) {
+                    scratch[p - start] = (long) colIdx[p] << 32 | (values[p] & 0xFFFFFFFFL);
+                }
+                Arrays.sort(scratch, 0, end - start);
+                for (int p = start; p < end; p++) {
+                    colIdx[p] = (int) (scratch[p - start] >>> 32);
+                    values[p] = (int) scratch[p - start];
+                }
+            }
+            rowPtr[i] = write;
+            for (int p = start; p < end; p++) {
+                int value = values[p];
+                while (p + 1 < end && colIdx[p + 1] == colIdx[p]) {
+                    value += values[++p];
+                }
+                if (value != 0) {
+                    colIdx[write] = colIdx[p];
+                    values[write++] = value;
+                }
+            }
+        }
+        rowPtr[rows] = write;
+        return write;
+    }
+
+    /**
+     * Minimal growable int array used while the number of entries is not known yet.
+     */
+    static final class IntBuffer {
+
+        /** The backing array. */
+        private int[] data = new int[16];
+
+        /** The number of elements added. */
+        int size;
+
+        /**
+         * Appends a value, doubling the backing array when it is full.
+         *
+         * @param value The value to append.
+         */
+        void add(int value) {
+            if (this.size == this.data.length) {
+                this.data = Arrays.copyOf(this.data, this.data.length << 1);
+            }
+            this.data[this.size++] = value;
+        }
+
+        /**
+         * @param index The index of the element.
+         * @return the element.
+         */
+        int get(int index) {
+            return this.data[index];
+        }
+
+        /**
+         * @return a trimmed copy of the elements.
+         */
+        int[] toArray() {
+            return Arrays.copyOf(this.data, this.size);
+        }
+    }
+}
@@ -0,0 +1,657 @@
+package assignmenttwo;
+
+import java.util.Arrays;
+
+/**
+ * Dense matrix stored in a single flat int array in row-major order (entry (i, j) at index i * columns + j).
+ * For matrices with a lot of non-zero entries this avoids all hashing and keeps rows contiguous,
+ * so the kernels run straight over the array.
+ * <p>
+ * The multiplication is cache-tiled: the i, k and j loops are split into blocks of blockSize so the
+ * working set of a tile stays in cache, and inside a tile an ikj loop order walks B and C row by row.
+ * The micro-kernel handles four rows of A at once, so every element of B that is loaded is used four times.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public class DenseMatrix implements MatrixInterface {
+
+    /** Tile size used by times() unless another one is passed. */
+    public static final int DEFAULT_BLOCK_SIZE = 64;
+
+    /** The size of the row block buffer used when the product goes into a result that is not dense. */
+    static final int ROW_BLOCK_ENTRIES = 1 << 16;
+
+    /** The number of rows in this DenseMatrix Instance. */
+    private final int rows;
+
+    /** The number of columns in this DenseMatrix Instance. */
+    private final int columns;
+
+    /** The entries in row-major order (package-private so the kernels can work on it directly). */
+    final int[] data;
+
+    /** The number of changes of this DenseMatrix Instance. */
+    private long modifications;
+
+    /**
+     * Constructs an all-zero DenseMatrix with the given dimensions.
+     *
+     * @param rows The indicated number of rows.
+     * @param columns The indicated number of columns.
+     */
+    public DenseMatrix(int rows, int columns) {
+        if (rows <= 0 || columns <= 0) {
+            throw new IllegalArgumentException("Can not construct a matrix " +
+                    "with values of 0 for rows or columns.");
+        }
+        if ((long) rows * columns > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("The matrix is too large for a dense array.");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.data = new int[rows * columns];
+    }
+
+    /**
+     * Constructs a DenseMatrix from a rectangular 2D integer array.
+     *
+     * @param array The 2D integer array to copy.
+     */
+    public DenseMatrix(int[][] array) {
+        this(validateArray(array), array[0].length);
+        for (int i = 0; i < this.rows; i++) {
+            System.arraycopy(array[i], 0, this.data, i * this.columns, this.columns);
+        }
+    }
+
+    /**
+     * Validates that the array passed to DenseMatrix(int[][] array) is rectangular.
+     *
+     * @param array the array to be converted to a DenseMatrix instance.
+     * @return the number of rows.
+     */
+    private static int validateArray(int[][] array) {
+        if (array == null || array.length == 0 || array[0] == null) {
+            throw new IllegalArgumentException("The provided 2D array is null or empty.");
+        }
+        for (int[] row : array) {
+            if (row == null || row.length != array[0].length) {
+                throw new IllegalArgumentException("The provided 2D array is not rectangular.");
+            }
+        }
+        return array.length;
+    }
+
+    /**
+     * Copies any matrix into a DenseMatrix. Sparse and band matrices only visit their stored entries.
+     *
+     * @param matrix The matrix to copy.
+     * @return the DenseMatrix holding the same values.
+     */
+    public static DenseMatrix from(MatrixInterface matrix) {
+        if (matrix == null) {
+            throw new IllegalArgumentException("The provided matrix is null.");
+        }
+        DenseMatrix dense = new DenseMatrix(matrix.getRows(), matrix.getColumns());
+        dense.addFrom(matrix);
+        return dense;
+    }
+
+    /**
+     * Adds a matrix into this matrix, visiting only the stored entries of sparse, compressed
+     * and band matrices (other matrices through forEachNonZero).
+     *
+     * @param matrix The matrix to add (same dimensions).
+     */
+    private void addFrom(MatrixInterface matrix) {
+        if (matrix instanceof DenseMatrix) {
+            IntKernels.get().add(((DenseMatrix) matrix).data, 0, this.data, 0, this.data.length);
+        } else if (matrix instanceof Matrix) {
+            SparseEntries entries = ((Matrix) matrix).entries;
+            for (int slot = 0; slot < entries.capacity(); slot++) {
+                if (entries.isOccupied(slot)) {
+                    this.data[entries.rowAt(slot) * this.columns + entries.columnAt(slot)] += entries.valueAt(slot);
+                }
+            }
+        } else if (matrix instanceof CsrMatrix) {
+            CsrMatrix csr = (CsrMatrix) matrix;
+            for (int i = 0; i < this.rows; i++) {
+                for (int p = csr.rowStart(i); p < csr.rowEnd(i); p++) {
+                    this.data[i * this.columns + csr.columnAt(p)] += csr.valueAt(p);
+                }
+            }
+        } else if (matrix instanceof BandMatrix) {
+            BandMatrix band = (BandMatrix) matrix;
+            for (int d = 0; d < band.getBandCount(); d++) {
+                int value = band.getBandValue(d);
+                for (int i = 0; i + d < this.rows; i++) {
+                    this.data[i * this.columns + i + d] += value;
+                    if (d != 0) {
+                        this.data[(i + d) * this.columns + i] += value;
+                    }
+                }
+            }
+        } else {
+            matrix.forEachNonZero((i, j, value) -> this.data[i * this.columns + j] += value);
+        }
+    }
+
+    /**
+     * @return rows.
+     */
+    @Override
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * @return columns.
+     */
+    @Override
+    public int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * @return the number of changes so far.
+     */
+    @Override
+    public long getModificationCount() {
+        return this.modifications;
+    }
+
+    /**
+     * Fetches the value at the specified index.
+     *
+     * @param row the row position.
+     * @param column the column position.
+     * @return the value.
+     */
+    @Override
+    public int get(int row, int column) {
+        validateIndices(row, column);
+        return this.data[row * this.columns + column];
+    }
+
+    /**
+     * Sets the value at the specified index (0 is stored like any other value).
+     *
+     * @param row The row index.
+     * @param column The column index.
+     * @param value The desired value.
+     */
+    @Override
+    public void set(int row, int column, int value) {
+        validateIndices(row, column);
+        this.modifications++;
+        this.data[row * this.columns + column] = value;
+    }
+
+    /**
+     * Validates the indices passed (for get or set).
+     *
+     * @param row The row index.
+     * @param column The column index.
+     */
+    public void validateIndices(int row, int column) {
+        if (row < 0 || row > this.rows - 1) {
+            throw new IllegalArgumentException("The indicated row index is out of bounds for this matrix.");
+        }
+        if (column < 0 || column > this.columns - 1) {
+            throw new IllegalArgumentException("The indicated column index is out of bounds for this matrix.");
+        }
+    }
+
+    /**
+     * Validates the passed matrix before addition.
+     *
+     * @param other The Matrix to add.
+     */
+    @Override
+    public void validateAddition(MatrixInterface other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot add these two matrices, the passed Matrix is null.");
+        }
+        if (this.rows != other.getRows() || this.columns != other.getColumns()) {
+            throw new IllegalArgumentException("Cannot add these two matrices, their dimensions don't match.");
+        }
+    }
+
+    /**
+     * Validates the passed matrix before multiplication.
+     *
+     * @param other The Matrix to multiply by.
+     */
+    @Override
+    public void validateMultiplication(MatrixInterface other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the passed Matrix is null.");
+        }
+        if (this.columns != other.getRows()) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the columns of this matrix" +
+                    "don't match the rows of the matrix that was passed.");
+        }
+    }
+
+    /**
+     * Adds any matrix to this DenseMatrix. The sum of a dense matrix with anything is kept dense.
+     *
+     * @param other The matrix to add.
+     * @return A new DenseMatrix that is the result of the addition.
+     */
+    @Override
+    public DenseMatrix plus(MatrixInterface other) {
+        validateAddition(other);
+        DenseMatrix result = new DenseMatrix(this.rows, this.columns);
+        performAddition(result, other);
+        return result;
+    }
+
+    /**
+     * Facilitates matrix addition for the plus method.
+     * A DenseMatrix result is filled with a copy of this matrix and the stored entries of the other one
+     * are added on top, any other result is populated with set (omitting zeros).
+     *
+     * @param result The empty result matrix to be populated.
+     * @param other The matrix to be added to our DenseMatrix instance.
+     */
+    @Override
+    public void performAddition(MatrixInterface result, MatrixInterface other) {
+        if (result instanceof DenseMatrix) {
+            DenseMatrix dense = (DenseMatrix) result;
+            System.arraycopy(this.data, 0, dense.data, 0, this.data.length);
+            dense.addFrom(other);
+            return;
+        }
+        for (int i = 0; i < this.rows; i++) {
+            for (int j = 0; j < this.columns; j++) {
+                int sum = this.data[i * this.columns + j] + other.get(i, j);
+                if (sum != 0) {
+                    result.set(i, j, sum);
+                }
+            }
+        }
+    }
+
+    /**
+     * Multiplies with another DenseMatrix using the cache-tiled kernel and the given tile size.
+     *
+     * @param other The DenseMatrix to multiply by.
+     * @param blockSize The tile size (number of rows/columns per tile).
+     * @return A new DenseMatrix that is the result of the multiplication.
+     */
+    public DenseMatrix times(DenseMatrix other, int blockSize) {
+        validateMultiplication(other);
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("The block size must be positive.");
+        }
+        DenseMatrix result = new DenseMatrix(this.rows, other.columns);
+        multiplyAccumulate(this.data, other.data, result.data, this.rows, this.columns, other.columns, blockSize);
+        return result;
+    }
+
+    /**
+     * Multiplies with any matrix. The product of a dense matrix with anything is kept dense.
+     *
+     * @param other The matrix to multiply by.
+     * @return A new DenseMatrix that is the result of the multiplication.
+     */
+    @Override
+    public DenseMatrix times(MatrixInterface other) {
+        validateMultiplication(other);
+        DenseMatrix result = new DenseMatrix(this.rows, other.getColumns());
+        performMultiplication(result, other);
+        return result;
+    }
+
+    /**
+     * Facilitates matrix multiplication for the times method.
+     * <ul>
+     *     <li>A DenseMatrix operand goes through the cache-tiled kernel.</li>
+     *     <li>Sparse operands (Matrix, CsrMatrix) are grouped by row, so every A(i, k) only meets row k of B.</li>
+     *     <li>A BandMatrix operand only visits the k inside the band of every column.</li>
+     *     <li>Anything else is copied into a DenseMatrix first.</li>
+     * </ul>
+     * A result that is not a DenseMatrix is computed in blocks of rows into a buffer of at most
+     * ROW_BLOCK_ENTRIES values, which is scattered into the result with set (omitting zeros), so the full
+     * rows x columns product is never held in one array.
+     *
+     * @param result The empty result matrix to be populated.
+     * @param other The matrix to be multiplied with our DenseMatrix instance.
+     */
+    @Override
+    public void performMultiplication(MatrixInterface result, MatrixInterface other) {
+        if (result instanceof DenseMatrix) {
+            ((DenseMatrix) result).modifications++;
+            accumulateProduct(((DenseMatrix) result).data, other, 1, 0, this.rows);
+            return;
+        }
+        int resultColumns = other.getColumns();
+        MatrixInterface right = other;
+        if (other instanceof Matrix) {
+            right = CsrMatrix.fromMatrix((Matrix) other);
+        } else if (!(other instanceof CsrMatrix || other instanceof BandMatrix || other instanceof DenseMatrix)) {
+            right = from(other);
+        }
+        int blockRows = Math.max(1, Math.min(this.rows, ROW_BLOCK_ENTRIES / Math.max(1, resultColumns)));
+        int[] buffer = new int[blockRows * resultColumns];
+        for (int fromRow = 0; fromRow < this.rows; fromRow += blockRows) {
+            int toRow = Math.min(fromRow + blockRows, this.rows);
+            Arrays.fill(buffer, 0);
+            accumulateProduct(buffer, right, 1, fromRow, toRow);
+            int length = (toRow - fromRow) * resultColumns;
+            for (int index = 0; index < length; index++) {
+                if (buffer[index] != 0) {
+                    result.set(fromRow + index / resultColumns, index % resultColumns, buffer[index]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes target += alpha * this * other for the rows [fromRow, toRow) on a row-major target array
+     * holding just those rows, picking the kernel by the representation of the other matrix
+     * (see performMultiplication).
+     *
+     * @param target The row-major accumulator ((toRow - fromRow) x other.getColumns()).
+     * @param other The matrix to multiply by.
+     * @param alpha The factor of the product.
+     * @param fromRow The first row (inclusive).
+     * @param toRow The last row (exclusive).
+     */
+    private void accumulateProduct(int[] target, MatrixInterface other, int alpha, int fromRow, int toRow) {
+        int resultColumns = other.getColumns();
+        if (other instanceof Matrix || other instanceof CsrMatrix) {
+            SparseRows right = other instanceof Matrix
+                    ? ((Matrix) other).rowView() : ((CsrMatrix) other).asSparseRows();
+            for (int i = fromRow; i < toRow; i++) {
+                int rowOffset = i * this.columns;
+                int resultOffset = (i - fromRow) * resultColumns;
+                for (int k = 0; k < this.columns; k++) {
+                    int value = alpha * this.data[rowOffset + k];
+                    if (value != 0) {
+                        for (int q = right.rowPtr[k]; q < right.rowPtr[k + 1]; q++) {
+                            target[resultOffset + right.columns[q]] += value * right.values[q];
+                        }
+                    }
+                }
+            }
+        } else if (other instanceof BandMatrix) {
+            BandMatrix band = (BandMatrix) other;
+            int bandCount = band.getBandCount();
+            for (int i = fromRow; i < toRow; i++) {
+                int rowOffset = i * this.columns;
+                int resultOffset = (i - fromRow) * resultColumns;
+                for (int j = 0; j < resultColumns; j++) {
+                    int sum = 0;
+                    int maxK = Math.min(this.columns, j + bandCount);
+                    for (int k = Math.max(0, j - bandCount + 1); k < maxK; k++) {
+                        sum += this.data[rowOffset + k] * band.getBandValue(k >= j ? k - j : j - k);
+                    }
+                    target[resultOffset + j] += alpha * sum;
+                }
+            }
+        } else {
+            int[] right = other instanceof DenseMatrix ? ((DenseMatrix) other).data : from(other).data;
+            int[] left = fromRow == 0 ? this.data
+                    : Arrays.copyOfRange(this.data, fromRow * this.columns, toRow * this.columns);
+            multiplyBlock(alpha, left, right, target, this.columns, resultColumns,
+                    0, toRow - fromRow, 0, resultColumns, DEFAULT_BLOCK_SIZE);
+        }
+    }
+
+    /**
+     * Computes result += alpha * this * other. A DenseMatrix result is accumulated into directly with the
+     * kernels of performMultiplication, so with a dense, band or CSR operand nothing is allocated (a sparse
+     * Matrix operand only allocates when its row view has to be rebuilt, see Matrix.rowView()).
+     *
+     * @param result The matrix accumulating the product.
+     * @param alpha The factor of the product.
+     * @param other The matrix to multiply by.
+     */
+    @Override
+    public void multiplyAccumulate(MatrixInterface result, int alpha, MatrixInterface other) {
+        validateResult(result, other);
+        if (alpha == 0) {
+            return;
+        }
+        if (result instanceof DenseMatrix) {
+            ((DenseMatrix) result).modifications++;
+            accumulateProduct(((DenseMatrix) result).data, other, alpha, 0, this.rows);
+            return;
+        }
+        MatrixInterface.super.multiplyAccumulate(result, alpha, other);
+    }
+
+    /**
+     * Adds another matrix to this DenseMatrix in place, visiting only the stored entries of the other matrix.
+     *
+     * @param other The matrix to add.
+     */
+    @Override
+    public void addInPlace(MatrixInterface other) {
+        validateAddition(other);
+        this.modifications++;
+        addFrom(other);
+    }
+
+    /**
+     * Multiplies every value by a factor in place.
+     *
+     * @param factor The factor.
+     */
+    @Override
+    public void scaleInPlace(int factor) {
+        this.modifications++;
+        if (factor == 0) {
+            Arrays.fill(this.data, 0);
+            return;
+        }
+        for (int index = 0; index < this.data.length; index++) {
+            this.data[index] *= factor;
+        }
+    }
+
+    /**
+     * Multiplies this DenseMatrix with a column vector: y = A * x.
+     * Every y[i] is the dot product of row i with x (SIMD when available).
+     *
+     * @param x The vector to multiply by.
+     * @param y The vector receiving the product (overwritten).
+     */
+    @Override
+    public void timesInto(int[] x, int[] y) {
+        validateVectorMultiplication(x, y);
+        IntKernels kernels = IntKernels.get();
+        for (int i = 0; i < this.rows; i++) {
+            y[i] = kernels.dot(this.data, i * this.columns, x, 0, this.columns);
+        }
+    }
+
+    /**
+     * Passes the non-zero entries of the rows [fromRow, toRow) to the action, reading the rows contiguously.
+     *
+     * @param fromRow The first row (inclusive).
+     * @param toRow The last row (exclusive).
+     * @param action The action receiving (row, column, value).
+     */
+    @Override
+    public void forEachNonZero(int fromRow, int toRow, IntTriConsumer action) {
+        validateRowRange(fromRow, toRow, action);
+        for (int i = fromRow; i < toRow; i++) {
+            int offset = i * this.columns;
+            for (int j = 0; j < this.columns; j++) {
+                int value = this.data[offset + j];
+                if (value != 0) {
+                    action.accept(i, j, value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Cache-tiled dense kernel computing C += A * B on row-major arrays.
+     * A is n x m, B is m x p and C is n x p. The loops are tiled in blocks of blockSize on every
+     * dimension and every tile runs the register-blocked micro-kernel.
+     *
+     * @param a The left operand.
+     * @param b The right operand.
+     * @param c The accumulator.
+     * @param n The number of rows of A and C.
+     * @param m The number of columns of A (rows of B).
+     * @param p The number of columns of B and C.
+     * @param blockSize The tile size.
+     */
+    static void multiplyAccumulate(int[] a, int[] b, int[] c, int n, int m, int p, int blockSize) {
+        multiplyBlock(1, a, b, c, m, p, 0, n, 0, p, blockSize);
+    }
+
+    /**
+     * Runs the tiled kernel on the rows [rowFrom, rowTo) and columns [columnFrom, columnTo) of C only,
+     * over the full k range, computing C += alpha * A * B. Only that region of C is written, so disjoint
+     * regions can be computed by different threads.
+     *
+     * @param alpha The factor of the product.
+     * @param a The left operand.
+     * @param b The right operand.
+     * @param c The accumulator.
+     * @param m The number of columns of A (rows of B).
+     * @param p The number of columns of B and C.
+     * @param rowFrom First row of the region.
+     * @param rowTo Row after the last row of the region.
+     * @param columnFrom First column of the region.
+     * @param columnTo Column after the last column of the region.
+     * @param blockSize The tile size.
+     */
+    static void multiplyBlock(int alpha, int[] a, int[] b, int[] c, int m, int p,
+                              int rowFrom, int rowTo, int columnFrom, int columnTo, int blockSize) {
+        for (int i0 = rowFrom; i0 < rowTo; i0 += blockSize) {
+            int i1 = Math.min(i0 + blockSize, rowTo);
+            for (int k0 = 0; k0 < m; k0 += blockSize) {
+                int k1 = Math.min(k0 + blockSize, m);
+                for (int j0 = columnFrom; j0 < columnTo; j0 += blockSize) {
+                    int j1 = Math.min(j0 + blockSize, columnTo);
+                    multiplyTile(alpha, a, b, c, m, p, i0, i1, k0, k1, j0, j1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Micro-kernel for one tile in ikj order. Four rows of A are handled per pass, so every B(k, j)
+     * that is loaded feeds four accumulators; the leftover rows run one at a time.
+     * The j loops run through IntKernels, i.e. on SIMD lanes when the Vector API is available.
+     * The factor alpha is folded into the loaded values of A (int products wrap, so this is exact).
+     *
+     * @param alpha The factor of the product.
+     * @param a The left operand.
+     * @param b The right operand.
+     * @param c The accumulator.
+     * @param m The number of columns of A.
+     * @param p The number of columns of B and C.
+     * @param i0 First row of the tile.
+     * @param i1 Row after the last row of the tile.
+     * @param k0 First k of the tile.
+     * @param k1 The k after the last k of the tile.
+     * @param j0 First column of the tile.
+     * @param j1 Column after the last column of the tile.
+     */
+    private static void multiplyTile(int alpha, int[] a, int[] b, int[] c, int m, int p,
+                                     int i0, int i1, int k0, int k1, int j0, int j1) {
+        IntKernels kernels = IntKernels.get();
+        int length = j1 - j0;
+        int i = i0;
+        for (; i + 3 < i1; i += 4) {
+            int c0 = i * p + j0;
+            for (int k = k0; k < k1; k++) {
+                int a0 = alpha * a[i * m + k];
+                int a1 = alpha * a[(i + 1) * m + k];
+                int a2 = alpha * a[(i + 2) * m + k];
+                int a3 = alpha * a[(i + 3) * m + k];
+                if ((a0 | a1 | a2 | a3) == 0) {
+                    continue;
+                }
+                kernels.axpy4(a0, a1, a2, a3, b, k * p + j0, c, c0, c0 + p, c0 + 2 * p, c0 + 3 * p, length);
+            }
+        }
+        for (; i < i1; i++) {
+            for (int k = k0; k < k1; k++) {
+                int a0 = alpha * a[i * m + k];
+                if (a0 != 0) {
+                    kernels.axpy(a0, b, k * p + j0, c, i * p + j0, length);
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts the matrix to a 2D array.
+     *
+     * @return A 2D array representation of the matrix.
+     */
+    @Override
+    public int[][] toArray() {
+        int[][] array = new int[this.rows][];
+        for (int i = 0; i < this.rows; i++) {
+            array[i] = Arrays.copyOfRange(this.data, i * this.columns, (i + 1) * this.columns);
+        }
+        return array;
+    }
+
+    /**
+     * Transforms a DenseMatrix instance into a String representation of the Matrix
+     * (same layout as Matrix.toString()).
+     *
+     * @return The String representation of this DenseMatrix.
+     */
+    @Override
+    public String toString() {
+        int maxWidth = 0;
+        for (int value : this.data) {
+            maxWidth = Math.max(maxWidth, Integer.toString(value).length());
+        }
+        String formatString = "%" + maxWidth + "d";
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < this.rows; i++) {
+            sb.append("[");
+            for (int j = 0; j < this.columns; j++) {
+                if (j != 0) {
+                    sb.append(" ");
+                    sb.append(String.format(formatString, this.data[i * this.columns + j]));
+                } else {
+                    sb.append(this.data[i * this.columns]); // for the first column
+                }
+            }
+            sb.append("]\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Two DenseMatrix objects are equal if they have the same dimensions and entries.
+     *
+     * @param matrix the object to be compared for equality with the current DenseMatrix.
+     * @return true if the specified object is equal to the current DenseMatrix, false otherwise.
+     */
+    @Override
+    public boolean equals(Object matrix) {
+        if (this == matrix) {
+            return true;
+        }
+        if (!(matrix instanceof DenseMatrix)) {
+            return false;
+        }
+        DenseMatrix other = (DenseMatrix) matrix;
+        return this.rows == other.rows && this.columns == other.columns && Arrays.equals(this.data, other.data);
+    }
+
+    /**
+     * @return a hash code consistent with equals.
+     */
+    @Override
+    public int hashCode() {
+        return 31 * (31 * this.rows + this.columns) + Arrays.hashCode(this.data);
+    }
+}
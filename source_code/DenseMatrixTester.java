@@ -0,0 +1,305 @@
+package assignmenttwo;
+
+/**
+ * This is a tester class for the DenseMatrix class.
+ * We test the basic methods, the tiled multiplication with several tile sizes
+ * and the interoperability with the other matrix types.
+ *
+ * @author Nikola Desnica
+ * @version 1.0
+ */
+public class DenseMatrixTester {
+
+    /**
+     * Runs all the test methods for the DenseMatrix class.
+     */
+    public void runTests() {
+        testConstructors();
+        testGetAndSet();
+        testValidation();
+        testToArrayAndToString();
+        testAddition();
+        testTiledMultiplication();
+        testMixedMultiplication();
+        testVectorMultiplication();
+        testInPlaceOperations();
+        System.out.println("All DenseMatrix tests passed!");
+    }
+
+    /**
+     * Builds a dense test matrix with a few zeros in it.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param seed Changes the values.
+     * @return the DenseMatrix.
+     */
+    private static DenseMatrix sample(int rows, int columns, int seed) {
+        DenseMatrix matrix = new DenseMatrix(rows, columns);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                matrix.set(i, j, (i * 31 + j * 17 + seed) % 11 - 5);
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Multiplies two matrices with a plain triple loop over toArray().
+     *
+     * @param a The left operand.
+     * @param b The right operand.
+     * @return the product as a 2D array.
+     */
+    private static int[][] naiveProduct(MatrixInterface a, MatrixInterface b) {
+        int[][] left = a.toArray();
+        int[][] right = b.toArray();
+        int[][] product = new int[a.getRows()][b.getColumns()];
+        for (int i = 0; i < a.getRows(); i++) {
+            for (int j = 0; j < b.getColumns(); j++) {
+                for (int k = 0; k < a.getColumns(); k++) {
+                    product[i][j] += left[i][k] * right[k][j];
+                }
+            }
+        }
+        return product;
+    }
+
+    /**
+     * Asserts that a matrix holds the values of a 2D array.
+     *
+     * @param expected The expected values.
+     * @param actual The matrix to check.
+     * @param message The failure message.
+     */
+    private static void assertValues(int[][] expected, MatrixInterface actual, String message) {
+        assert expected.length == actual.getRows() && expected[0].length == actual.getColumns() : message;
+        for (int i = 0; i < expected.length; i++) {
+            for (int j = 0; j < expected[i].length; j++) {
+                assert actual.get(i, j) == expected[i][j] : message;
+            }
+        }
+    }
+
+    /**
+     * Tests the constructors and the conversion from other matrix types.
+     */
+    private void testConstructors() {
+        DenseMatrix matrix = new DenseMatrix(new int[][]{{1, 2, 3}, {4, 5, 6}});
+
+        assert matrix.getRows() == 2 && matrix.getColumns() == 3 : "Constructor failed.";
+        assert matrix.get(1, 2) == 6 : "Constructor failed to copy the array.";
+
+        BandMatrix band = new BandMatrix(4);
+        band.set(0, 0, 2);
+        band.set(0, 1, 7);
+        assertValues(band.toArray(), DenseMatrix.from(band), "Conversion from BandMatrix failed.");
+
+        try {
+            new DenseMatrix(new int[][]{{1, 2}, {3}});
+            assert false : "Expected an exception for a non-rectangular array.";
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Tests the get and set methods.
+     */
+    private void testGetAndSet() {
+        DenseMatrix matrix = new DenseMatrix(3, 4);
+        matrix.set(2, 3, 9);
+        matrix.set(0, 1, -4);
+
+        assert matrix.get(2, 3) == 9 && matrix.get(0, 1) == -4 : "Set or Get method failed.";
+        assert matrix.get(1, 1) == 0 : "Get method failed for an unset entry.";
+    }
+
+    /**
+     * Tests the validation of indices and operands.
+     */
+    private void testValidation() {
+        DenseMatrix matrix = new DenseMatrix(3, 4);
+
+        try {
+            matrix.get(3, 0);
+            assert false : "Expected an exception for invalid indices in get().";
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        try {
+            matrix.times(new DenseMatrix(3, 4));
+            assert false : "Expected an exception for incompatible dimensions.";
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Tests the toArray and toString methods.
+     */
+    private void testToArrayAndToString() {
+        DenseMatrix matrix = new DenseMatrix(2, 2);
+        matrix.set(0, 0, -15);
+        matrix.set(1, 1, 3);
+
+        assert matrix.toArray()[0][0] == -15 && matrix.toArray()[1][1] == 3 : "ToArray method failed.";
+        assert matrix.toString().equals("[-15   0]\n[0   3]\n") : "ToString method failed.";
+    }
+
+    /**
+     * Tests the addition with DenseMatrix, Matrix and BandMatrix operands in both directions.
+     */
+    private void testAddition() {
+        DenseMatrix dense = sample(5, 5, 1);
+        SquareMatrix square = new SquareMatrix(new int[][]{
+                {1, 0, 0, 0, 2}, {0, 0, 3, 0, 0}, {0, 0, 0, 0, 0}, {4, 0, 0, 0, 0}, {0, 0, 0, 5, 0}});
+        BandMatrix band = new BandMatrix(5);
+        band.set(0, 0, 3);
+        band.set(0, 1, -2);
+
+        for (MatrixInterface other : new MatrixInterface[]{sample(5, 5, 2), square, band}) {
+            int[][] expected = dense.toArray();
+            int[][] values = other.toArray();
+            for (int i = 0; i < 5; i++) {
+                for (int j = 0; j < 5; j++) {
+                    expected[i][j] += values[i][j];
+                }
+            }
+            assertValues(expected, dense.plus(other), "DenseMatrix addition failed.");
+            assertValues(expected, other.plus(dense), "Addition with a DenseMatrix operand failed.");
+        }
+    }
+
+    /**
+     * Tests the tiled multiplication with tile sizes that do and don't divide the dimensions.
+     */
+    private void testTiledMultiplication() {
+        DenseMatrix matrix1 = sample(37, 29, 3);
+        DenseMatrix matrix2 = sample(29, 41, 7);
+        int[][] expected = naiveProduct(matrix1, matrix2);
+
+        for (int blockSize : new int[]{1, 3, 8, 29, DenseMatrix.DEFAULT_BLOCK_SIZE}) {
+            assertValues(expected, matrix1.times(matrix2, blockSize), "Tiled multiplication failed.");
+        }
+        assertValues(expected, matrix1.times(matrix2), "Default multiplication failed.");
+    }
+
+    /**
+     * Tests products between a DenseMatrix and the other matrix types in both directions.
+     */
+    private void testMixedMultiplication() {
+        DenseMatrix dense = sample(6, 6, 4);
+        Matrix sparse = new Matrix(6, 6);
+        sparse.set(0, 5, 3);
+        sparse.set(2, 1, -1);
+        sparse.set(5, 5, 2);
+        BandMatrix band = new BandMatrix(6);
+        band.set(0, 0, 1);
+        band.set(0, 1, 2);
+        band.set(0, 2, -3);
+        Matrix tall = new Matrix(6, 2);
+        tall.set(4, 1, 5);
+
+        for (MatrixInterface other : new MatrixInterface[]{sparse, band, CsrMatrix.from(sparse), tall}) {
+            assertValues(naiveProduct(dense, other), dense.times(other), "DenseMatrix product failed.");
+            if (other.getColumns() == 6) {
+                assertValues(naiveProduct(other, dense), other.times(dense), "Product with a DenseMatrix failed.");
+            }
+        }
+        assertValues(naiveProduct(band, tall), band.times(tall), "BandMatrix product with a tall Matrix failed.");
+
+        DenseMatrix wide = sample(300, 40, 2);
+        Matrix right = CsrMatrix.from(sample(40, 300, 1)).toMatrix();
+        assert 300 * 300 > DenseMatrix.ROW_BLOCK_ENTRIES : "The product should need several row blocks.";
+        for (MatrixInterface other : new MatrixInterface[]{right, CsrMatrix.from(right), DenseMatrix.from(right)}) {
+            Matrix result = new Matrix(300, 300);
+            wide.performMultiplication(result, other);
+            assertValues(wide.times(other).toArray(), result, "Product into a sparse result failed.");
+        }
+    }
+
+    /**
+     * Multiplies a matrix with a vector through toArray().
+     *
+     * @param matrix The matrix.
+     * @param x The vector.
+     * @return the expected product.
+     */
+    private static int[] naiveVectorProduct(MatrixInterface matrix, int[] x) {
+        int[][] array = matrix.toArray();
+        int[] y = new int[array.length];
+        for (int i = 0; i < array.length; i++) {
+            for (int j = 0; j < x.length; j++) {
+                y[i] += array[i][j] * x[j];
+            }
+        }
+        return y;
+    }
+
+    /**
+     * Tests the matrix-vector product for shapes around the SIMD lane count.
+     */
+    private void testVectorMultiplication() {
+        for (int columns : new int[]{1, 7, 16, 33}) {
+            DenseMatrix matrix = sample(5, columns, columns);
+            int[] x = new int[columns];
+            for (int j = 0; j < columns; j++) {
+                x[j] = j % 5 - 2;
+            }
+            int[] expected = naiveVectorProduct(matrix, x);
+            int[] y = matrix.times(x);
+            for (int i = 0; i < 5; i++) {
+                assert y[i] == expected[i] : "DenseMatrix times vector failed.";
+            }
+        }
+    }
+
+    /**
+     * Tests the in-place operations and the fused C += alpha * A * B for every kind of operand.
+     */
+    private void testInPlaceOperations() {
+        DenseMatrix a = sample(70, 45, 1);
+        MatrixInterface[] operands = {sample(45, 30, 2), CsrMatrix.from(sample(45, 30, 3)), new Matrix(45, 30)};
+        ((Matrix) operands[2]).set(44, 29, 7);
+        for (MatrixInterface b : operands) {
+            int[][] product = naiveProduct(a, b);
+            DenseMatrix c = sample(70, 30, 4);
+            int[][] before = c.toArray();
+            a.multiplyAccumulate(c, 3, b);
+            for (int i = 0; i < 70; i++) {
+                for (int j = 0; j < 30; j++) {
+                    assert c.get(i, j) == before[i][j] + 3 * product[i][j] : "multiplyAccumulate failed.";
+                }
+            }
+            a.multiplyInto(c, b);
+            assertValues(product, c, "multiplyInto failed.");
+        }
+        BandMatrix band = new BandMatrix(45, 2);
+        band.set(0, 0, 1);
+        band.set(0, 2, -2);
+        DenseMatrix c = new DenseMatrix(70, 45);
+        a.multiplyAccumulate(c, -1, band);
+        int[][] product = naiveProduct(a, band);
+        for (int i = 0; i < 70; i++) {
+            for (int j = 0; j < 45; j++) {
+                assert c.get(i, j) == -product[i][j] : "Band multiplyAccumulate failed.";
+            }
+        }
+
+        DenseMatrix sum = sample(4, 5, 1);
+        int[][] original = sum.toArray();
+        sum.addInPlace(sum);
+        Matrix sparse = new Matrix(4, 5);
+        sparse.set(3, 4, 100);
+        sum.addInPlace(sparse);
+        sum.scaleInPlace(-1);
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 5; j++) {
+                int expected = -(2 * original[i][j] + (i == 3 && j == 4 ? 100 : 0));
+                assert sum.get(i, j) == expected : "addInPlace/scaleInPlace failed.";
+            }
+        }
+    }
+}
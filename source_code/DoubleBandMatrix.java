@@ -0,0 +1,375 @@
+package assignmenttwo;
+
+import java.util.Arrays;
+
+/**
+ * The double-valued counterpart of BandMatrix: a symmetric band matrix with one double per band
+ * (the main diagonal first), so the sub-diagonals mirror the super-diagonals.
+ * Follows the same structure rules as BandMatrix (see BandMatrix.setHelper).
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public class DoubleBandMatrix implements DoubleMatrixInterface {
+
+    /** The size of the matrix (both rows and columns) */
+    private final int size;
+
+    /** Array storing the values of the bands, starting with the main diagonal (enforces symmetry).*/
+    private double[] bands;
+
+    /**
+     * Constructs a DoubleBandMatrix of the given size starting with just the main diagonal.
+     *
+     * @param size The size of the matrix.
+     */
+    public DoubleBandMatrix(int size) {
+        this(size, 0);
+    }
+
+    /**
+     * Constructs a DoubleBandMatrix of the given size with a specified number of bands above the diagonal.
+     *
+     * @param size The size of the matrix.
+     * @param bandsAboveDiagonal Number of bands above the main diagonal.
+     */
+    public DoubleBandMatrix(int size, int bandsAboveDiagonal) {
+        this.size = size;
+        this.bands = new double[bandsAboveDiagonal + 1];
+    }
+
+    /**
+     * Widens an int BandMatrix into a DoubleBandMatrix in O(bands).
+     *
+     * @param band The int band matrix.
+     * @return the DoubleBandMatrix holding the same values.
+     */
+    public static DoubleBandMatrix from(BandMatrix band) {
+        if (band == null) {
+            throw new IllegalArgumentException("The provided matrix is null.");
+        }
+        DoubleBandMatrix result = new DoubleBandMatrix(band.getSize(), Math.max(0, band.getBandCount() - 1));
+        for (int d = 0; d < band.getBandCount(); d++) {
+            result.bands[d] = band.getBandValue(d);
+        }
+        return result;
+    }
+
+    /**
+     * Widens a LongBandMatrix into a DoubleBandMatrix in O(bands) (values beyond 2^53 are rounded).
+     *
+     * @param band The long band matrix.
+     * @return the DoubleBandMatrix holding the same values.
+     */
+    public static DoubleBandMatrix from(LongBandMatrix band) {
+        if (band == null) {
+            throw new IllegalArgumentException("The provided matrix is null.");
+        }
+        DoubleBandMatrix result = new DoubleBandMatrix(band.getSize(), Math.max(0, band.getBandCount() - 1));
+        for (int d = 0; d < band.getBandCount(); d++) {
+            result.bands[d] = band.getBandValue(d);
+        }
+        return result;
+    }
+
+    /**
+     * @return size.
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * @return size.
+     */
+    @Override
+    public int getRows() {
+        return this.size;
+    }
+
+    /**
+     * @return size.
+     */
+    @Override
+    public int getColumns() {
+        return this.size;
+    }
+
+    /**
+     * @return the number of stored bands, including the main diagonal.
+     */
+    public int getBandCount() {
+        return this.bands.length;
+    }
+
+    /**
+     * Returns the value of a band (0 is the main diagonal). Bands outside the stored ones are 0.
+     *
+     * @param bandIndex The band index.
+     * @return The value of the band.
+     */
+    public double getBandValue(int bandIndex) {
+        if (bandIndex < 0) {
+            throw new IllegalArgumentException("The band index can not be negative.");
+        }
+        return bandIndex < this.bands.length ? this.bands[bandIndex] : 0;
+    }
+
+    /**
+     * Retrieves the value at the specified row and column in the matrix.
+     *
+     * @param row The row index.
+     * @param column The column index.
+     * @return The value at the specified position.
+     */
+    @Override
+    public double get(int row, int column) {
+        validateIndices(row, column);
+        int bandIndex = column >= row ? column - row : row - column;
+        return bandIndex < this.bands.length ? this.bands[bandIndex] : 0;
+    }
+
+    /**
+     * Sets the value of a whole band (and its mirror), with the structure rules of BandMatrix.set.
+     *
+     * @param row The row index.
+     * @param column The column index.
+     * @param value The value to set.
+     */
+    @Override
+    public void set(int row, int column, double value) {
+        validateIndices(row, column);
+        int bandIndex = column >= row ? column - row : row - column;
+        if (value == 0) {
+            if (bandIndex < this.bands.length - 1) {
+                throw new IllegalArgumentException("Adding values to these bands will ruin the symmetric band matrix " +
+                        "structure.");
+            }
+            if (bandIndex == this.bands.length - 1) {
+                this.bands = Arrays.copyOf(this.bands, this.bands.length - 1);
+            }
+            return;
+        }
+        if (bandIndex > this.bands.length) {
+            throw new IllegalArgumentException("Adding values to these bands will ruin the symmetric band matrix " +
+                    "structure.");
+        }
+        if (bandIndex == this.bands.length) {
+            this.bands = Arrays.copyOf(this.bands, bandIndex + 1);
+        }
+        this.bands[bandIndex] = value;
+    }
+
+    /**
+     * Validates the indices passed (for get or set).
+     *
+     * @param row The row index.
+     * @param column The column index.
+     */
+    public void validateIndices(int row, int column) {
+        if (row < 0 || row > this.size - 1) {
+            throw new IllegalArgumentException("The indicated row index is out of bounds for this matrix.");
+        }
+        if (column < 0 || column > this.size - 1) {
+            throw new IllegalArgumentException("The indicated column index is out of bounds for this matrix.");
+        }
+    }
+
+    /**
+     * Converts the DoubleBandMatrix to a 2D array, visiting only the cells inside the bands.
+     *
+     * @return A 2D array representation of the matrix.
+     */
+    @Override
+    public double[][] toArray() {
+        double[][] array = new double[this.size][this.size];
+        for (int d = 0; d < Math.min(this.bands.length, this.size); d++) {
+            for (int i = 0; i + d < this.size; i++) {
+                array[i][i + d] = this.bands[d];
+                array[i + d][i] = this.bands[d];
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Transforms a DoubleBandMatrix instance into a String representation (same layout as BandMatrix,
+     * values are printed with Double.toString and right-aligned).
+     *
+     * @return The String representation of this DoubleBandMatrix.
+     */
+    @Override
+    public String toString() {
+        int maxWidth = Double.toString(0.0).length();
+        for (double value : this.bands) {
+            maxWidth = Math.max(maxWidth, Double.toString(value).length());
+        }
+        double[][] array = toArray();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < this.size; i++) {
+            sb.append("[");
+            for (int j = 0; j < this.size; j++) {
+                sb.append(String.format("%" + maxWidth + "s ", Double.toString(array[i][j])));
+            }
+            sb.append("]\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Adds another DoubleBandMatrix band by band in O(bands).
+     *
+     * @param other The DoubleBandMatrix to add.
+     * @return A new matrix that is the result of the addition.
+     */
+    public DoubleBandMatrix plus(DoubleBandMatrix other) {
+        validateAddition(other);
+        DoubleBandMatrix result = new DoubleBandMatrix(this.size, Math.max(this.bands.length, other.bands.length) - 1);
+        for (int d = 0; d < result.bands.length; d++) {
+            result.bands[d] = this.getBandValue(d) + other.getBandValue(d);
+        }
+        return result;
+    }
+
+    /**
+     * Adds the current DoubleBandMatrix with any double matrix.
+     *
+     * @param other The matrix to add.
+     * @return A new matrix that is the result of the addition.
+     */
+    @Override
+    public DoubleSquareMatrix plus(DoubleMatrixInterface other) {
+        validateAddition(other);
+        DoubleSquareMatrix result = new DoubleSquareMatrix(this.size);
+        performAddition(result, other);
+        return result;
+    }
+
+    /**
+     * Validates the passed matrix before addition.
+     *
+     * @param other The matrix to add.
+     */
+    @Override
+    public void validateAddition(DoubleMatrixInterface other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot add these two matrices, the passed Matrix is null.");
+        }
+        if (this.size != other.getRows() || this.size != other.getColumns()) {
+            throw new IllegalArgumentException("Cannot add these two matrices, their dimensions don't match.");
+        }
+    }
+
+    /**
+     * Multiplies with another DoubleBandMatrix. For every row i only the k inside our band and
+     * the j inside the band of the other matrix around k are visited, O(size * bands1 * bands2).
+     *
+     * @param other The DoubleBandMatrix to multiply by.
+     * @return A new matrix that is the result of the multiplication.
+     */
+    public DoubleSquareMatrix times(DoubleBandMatrix other) {
+        validateMultiplication(other);
+        DoubleSquareMatrix result = new DoubleSquareMatrix(this.size);
+        int reach = Math.min(this.bands.length, this.size) - 1;
+        int otherReach = Math.min(other.bands.length, this.size) - 1;
+        double[] row = new double[this.size];
+        for (int i = 0; i < this.size; i++) {
+            int minJ = Math.max(0, i - reach - otherReach);
+            int maxJ = Math.min(this.size - 1, i + reach + otherReach);
+            for (int k = Math.max(0, i - reach); k <= Math.min(this.size - 1, i + reach); k++) {
+                double value = this.bands[k >= i ? k - i : i - k];
+                if (value == 0) {
+                    continue;
+                }
+                for (int j = Math.max(0, k - otherReach); j <= Math.min(this.size - 1, k + otherReach); j++) {
+                    row[j] += value * other.bands[j >= k ? j - k : k - j];
+                }
+            }
+            for (int j = minJ; j <= maxJ; j++) {
+                if (row[j] != 0) {
+                    result.store(i, j, row[j]);
+                    row[j] = 0;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Multiplies the current DoubleBandMatrix with any double matrix.
+     *
+     * @param other The matrix to multiply by.
+     * @return A new matrix that is the result of the multiplication.
+     */
+    @Override
+    public DoubleMatrix times(DoubleMatrixInterface other) {
+        validateMultiplication(other);
+        DoubleMatrix result = new DoubleMatrix(this.size, other.getColumns());
+        performMultiplication(result, other);
+        return result;
+    }
+
+    /**
+     * Validates the passed matrix before multiplication.
+     *
+     * @param other The matrix to multiply by.
+     */
+    @Override
+    public void validateMultiplication(DoubleMatrixInterface other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the passed Matrix is null.");
+        }
+        if (this.size != other.getRows()) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the columns of this matrix" +
+                    "don't match the rows of the matrix that was passed.");
+        }
+    }
+
+    /**
+     * Facilitates matrix addition for the plus method.
+     * Omits value from resulting sparse matrix if entry is 0.
+     *
+     * @param result The empty result matrix to be populated.
+     * @param other The matrix to be added to our DoubleBandMatrix instance.
+     */
+    @Override
+    public void performAddition(DoubleMatrixInterface result, DoubleMatrixInterface other) {
+        for (int i = 0; i < this.size; i++) {
+            for (int j = 0; j < this.size; j++) {
+                int bandIndex = j >= i ? j - i : i - j;
+                double sum = (bandIndex < this.bands.length ? this.bands[bandIndex] : 0) + other.get(i, j);
+                if (sum != 0) {
+                    result.set(i, j, sum);
+                }
+            }
+        }
+    }
+
+    /**
+     * Facilitates matrix multiplication for the times method.
+     * Omits value from resulting sparse matrix if entry is 0.
+     * For row i only the k inside the band can contribute.
+     *
+     * @param result The empty result matrix to be populated.
+     * @param other The matrix to be multiplied with our DoubleBandMatrix instance.
+     */
+    @Override
+    public void performMultiplication(DoubleMatrixInterface result, DoubleMatrixInterface other) {
+        for (int i = 0; i < this.size; i++) {
+            int minK = Math.max(0, i - this.bands.length + 1);
+            int maxK = Math.min(this.size, i + this.bands.length);
+            for (int j = 0; j < other.getColumns(); j++) {
+                double sum = 0;
+                for (int k = minK; k < maxK; k++) {
+                    double value = this.bands[k >= i ? k - i : i - k];
+                    if (value != 0) {
+                        sum += value * other.get(k, j);
+                    }
+                }
+                if (sum != 0) {
+                    result.set(i, j, sum);
+                }
+            }
+        }
+    }
+}
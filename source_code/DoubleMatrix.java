@@ -0,0 +1,413 @@
+package assignmenttwo;
+
+import java.util.Arrays;
+
+/**
+ * The double-valued counterpart of Matrix: a sparse matrix whose non-zero entries are kept in a
+ * primitive open-addressing table. The table stores the raw bits of every value
+ * (Double.doubleToRawLongBits), so the long table is reused and get and set never box or allocate.
+ * Setting 0.0 (or -0.0) removes the entry, so only real non-zero values are stored.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public class DoubleMatrix implements DoubleMatrixInterface {
+
+    /**
+     * Efficiently holds the raw bits of the non-zero entries of this DoubleMatrix Instance.
+     */
+    protected LongSparseEntries entries;
+
+    /**
+     * The number of rows in this DoubleMatrix Instance.
+     */
+    private final int rows;
+
+    /**
+     * The number of columns in this DoubleMatrix Instance.
+     */
+    private final int columns;
+
+    /**
+     * Constructs a DoubleMatrix Instance with the given dimensions.
+     *
+     * @param rows The indicated number of rows.
+     * @param columns The indicated number of columns.
+     */
+    public DoubleMatrix(int rows, int columns) {
+        if (rows <= 0 || columns <= 0) {
+            throw new IllegalArgumentException("Can not construct a matrix " +
+                    "with values of 0 for rows or columns.");
+        }
+        this.rows = rows; this.columns = columns;
+        this.entries = new LongSparseEntries();
+    }
+
+    /**
+     * Widens any int matrix into a DoubleMatrix (exact), visiting only its non-zero entries.
+     *
+     * @param matrix The int matrix.
+     * @return the DoubleMatrix holding the same values.
+     */
+    public static DoubleMatrix from(MatrixInterface matrix) {
+        if (matrix == null) {
+            throw new IllegalArgumentException("The provided matrix is null.");
+        }
+        DoubleMatrix result = new DoubleMatrix(matrix.getRows(), matrix.getColumns());
+        matrix.forEachNonZero((row, column, value) -> result.store(row, column, value));
+        return result;
+    }
+
+    /**
+     * Widens any long matrix into a DoubleMatrix (values beyond 2^53 are rounded).
+     *
+     * @param matrix The long matrix.
+     * @return the DoubleMatrix holding the same values.
+     */
+    public static DoubleMatrix from(LongMatrixInterface matrix) {
+        if (matrix == null) {
+            throw new IllegalArgumentException("The provided matrix is null.");
+        }
+        DoubleMatrix result = new DoubleMatrix(matrix.getRows(), matrix.getColumns());
+        if (matrix instanceof LongMatrix) {
+            LongSparseEntries stored = ((LongMatrix) matrix).entries;
+            for (int slot = 0; slot < stored.capacity(); slot++) {
+                if (stored.isOccupied(slot)) {
+                    result.store(stored.rowAt(slot), stored.columnAt(slot), stored.valueAt(slot));
+                }
+            }
+            return result;
+        }
+        for (int i = 0; i < matrix.getRows(); i++) {
+            for (int j = 0; j < matrix.getColumns(); j++) {
+                long value = matrix.get(i, j);
+                if (value != 0) {
+                    result.store(i, j, value);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return rows.
+     */
+    @Override
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * @return columns.
+     */
+    @Override
+    public int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * @return the number of stored (non-zero) entries.
+     */
+    public int getNonZeroCount() {
+        return this.entries.size();
+    }
+
+    /**
+     * Fetches the value at the specified index.
+     *
+     * @param row the row position.
+     * @param column the column position.
+     * @return the value.
+     */
+    @Override
+    public double get(int row, int column) {
+        validateIndices(row, column);
+        return Double.longBitsToDouble(this.entries.get(row, column));
+    }
+
+    /**
+     * Sets the value of an entry (a value of 0.0 or -0.0 removes the entry).
+     *
+     * @param row the row position.
+     * @param column the column position.
+     * @param value the new value.
+     */
+    @Override
+    public void set(int row, int column, double value) {
+        validateIndices(row, column);
+        store(row, column, value);
+    }
+
+    /**
+     * Stores a value without validating the indices (0.0 and -0.0 remove the entry).
+     *
+     * @param row the row position.
+     * @param column the column position.
+     * @param value the new value.
+     */
+    void store(int row, int column, double value) {
+        if (value == 0) {
+            this.entries.remove(row, column);
+        } else {
+            this.entries.put(row, column, Double.doubleToRawLongBits(value));
+        }
+    }
+
+    /**
+     * Adds a value to an entry without validating the indices; a sum of 0 removes the entry.
+     *
+     * @param row the row position.
+     * @param column the column position.
+     * @param delta the value to add.
+     */
+    void accumulate(int row, int column, double delta) {
+        store(row, column, Double.longBitsToDouble(this.entries.get(row, column)) + delta);
+    }
+
+    /**
+     * Validates the indices passed (for get or set).
+     *
+     * @param row The row index.
+     * @param column The column index.
+     */
+    public void validateIndices(int row, int column) {
+        if (row < 0 || row > this.rows - 1) {
+            throw new IllegalArgumentException("The indicated row index is out of bounds for this matrix.");
+        }
+        if (column < 0 || column > this.columns - 1) {
+            throw new IllegalArgumentException("The indicated column index is out of bounds for this matrix.");
+        }
+    }
+
+    /**
+     * Transforms a DoubleMatrix instance into a String representation (same layout as Matrix.toString(),
+     * values are printed with Double.toString and right-aligned).
+     *
+     * @return The String representation of this DoubleMatrix.
+     */
+    @Override
+    public String toString() {
+        double[][] array = toArray();
+        int maxWidth = Double.toString(0.0).length();
+        for (int slot = 0; slot < this.entries.capacity(); slot++) {
+            if (this.entries.isOccupied(slot)) {
+                maxWidth = Math.max(maxWidth,
+                        Double.toString(Double.longBitsToDouble(this.entries.valueAt(slot))).length());
+            }
+        }
+        String formatString = "%" + maxWidth + "s";
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < this.rows; i++) {
+            sb.append("[");
+            for (int j = 0; j < this.columns; j++) {
+                if (j != 0) {
+                    sb.append(" ");
+                    sb.append(String.format(formatString, Double.toString(array[i][j])));
+                } else {
+                    sb.append(array[i][j]); // for the first column
+                }
+            }
+            sb.append("]\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Converts the matrix to a 2D array.
+     *
+     * @return A 2D array representation of the matrix.
+     */
+    @Override
+    public double[][] toArray() {
+        double[][] array = new double[this.rows][this.columns];
+        for (int slot = 0; slot < this.entries.capacity(); slot++) {
+            if (this.entries.isOccupied(slot)) {
+                array[this.entries.rowAt(slot)][this.entries.columnAt(slot)] =
+                        Double.longBitsToDouble(this.entries.valueAt(slot));
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Two DoubleMatrix objects are equal if they have the same dimensions and bitwise identical entries.
+     *
+     * @param matrix the object to be compared for equality with the current DoubleMatrix.
+     * @return true if the specified object is equal to the current DoubleMatrix, false otherwise.
+     */
+    @Override
+    public boolean equals(Object matrix) {
+        if (this == matrix) {
+            return true;
+        }
+        if (!(matrix instanceof DoubleMatrix)) {
+            return false;
+        }
+        DoubleMatrix other = (DoubleMatrix) matrix;
+        if (this.rows != other.rows || this.columns != other.columns) {
+            return false;
+        }
+        return this.entries.equals(other.entries);
+    }
+
+    /**
+     * @return a hash code consistent with equals.
+     */
+    @Override
+    public int hashCode() {
+        return (31 * this.rows + this.columns) * 31 + this.entries.hashCode();
+    }
+
+    /**
+     * Adds the current DoubleMatrix with another matrix.
+     *
+     * @param other The matrix to add.
+     * @return A new matrix that is the result of the addition.
+     */
+    @Override
+    public DoubleMatrix plus(DoubleMatrixInterface other) {
+        validateAddition(other);
+        DoubleMatrix result = new DoubleMatrix(this.rows, this.columns);
+        performAddition(result, other);
+        return result;
+    }
+
+    /**
+     * Validates the passed matrix before addition.
+     *
+     * @param other The matrix to add.
+     */
+    @Override
+    public void validateAddition(DoubleMatrixInterface other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot add these two matrices, the passed Matrix is null.");
+        }
+        if (this.rows != other.getRows() || this.columns != other.getColumns()) {
+            throw new IllegalArgumentException("Cannot add these two matrices, their dimensions don't match.");
+        }
+    }
+
+    /**
+     * Facilitates matrix addition for the plus method.
+     * If the result and the other matrix are both sparse, only the stored entries are visited.
+     *
+     * @param result The empty result matrix to be populated.
+     * @param other The matrix to be added to our DoubleMatrix instance.
+     */
+    @Override
+    public void performAddition(DoubleMatrixInterface result, DoubleMatrixInterface other) {
+        if (result instanceof DoubleMatrix && other instanceof DoubleMatrix) {
+            DoubleMatrix target = (DoubleMatrix) result;
+            LongSparseEntries stored = ((DoubleMatrix) other).entries;
+            for (int slot = 0; slot < this.entries.capacity(); slot++) {
+                if (this.entries.isOccupied(slot)) {
+                    target.entries.put(this.entries.rowAt(slot), this.entries.columnAt(slot),
+                            this.entries.valueAt(slot));
+                }
+            }
+            for (int slot = 0; slot < stored.capacity(); slot++) {
+                if (stored.isOccupied(slot)) {
+                    target.accumulate(stored.rowAt(slot), stored.columnAt(slot),
+                            Double.longBitsToDouble(stored.valueAt(slot)));
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < this.rows; i++) {
+            for (int j = 0; j < this.columns; j++) {
+                double sum = this.get(i, j) + other.get(i, j);
+                if (sum != 0) {
+                    result.set(i, j, sum);
+                }
+            }
+        }
+    }
+
+    /**
+     * Multiplies the current DoubleMatrix with another matrix.
+     *
+     * @param other The matrix to multiply by.
+     * @return A new matrix that is the result of the multiplication.
+     */
+    @Override
+    public DoubleMatrix times(DoubleMatrixInterface other) {
+        validateMultiplication(other);
+        DoubleMatrix result = new DoubleMatrix(this.rows, other.getColumns());
+        performMultiplication(result, other);
+        return result;
+    }
+
+    /**
+     * Validates the passed matrix before multiplication.
+     *
+     * @param other The matrix to multiply by.
+     */
+    @Override
+    public void validateMultiplication(DoubleMatrixInterface other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the passed Matrix is null.");
+        }
+        if (this.columns != other.getRows()) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the columns of this matrix" +
+                    "don't match the rows of the matrix that was passed.");
+        }
+    }
+
+    /**
+     * Facilitates matrix multiplication for the times method.
+     * If the result and the other matrix are both sparse, the entries of the other matrix are grouped by row
+     * (counting sort) and every stored entry (i, k) of this matrix only meets row k; otherwise every cell is computed.
+     *
+     * @param result The empty result matrix to be populated.
+     * @param other The matrix to be multiplied with our DoubleMatrix instance.
+     */
+    @Override
+    public void performMultiplication(DoubleMatrixInterface result, DoubleMatrixInterface other) {
+        if (result instanceof DoubleMatrix && other instanceof DoubleMatrix) {
+            LongSparseEntries stored = ((DoubleMatrix) other).entries;
+            int[] rowPtr = new int[other.getRows() + 1];
+            for (int slot = 0; slot < stored.capacity(); slot++) {
+                if (stored.isOccupied(slot)) {
+                    rowPtr[stored.rowAt(slot) + 1]++;
+                }
+            }
+            for (int k = 0; k < other.getRows(); k++) {
+                rowPtr[k + 1] += rowPtr[k];
+            }
+            int[] next = Arrays.copyOf(rowPtr, other.getRows());
+            int[] columnsByRow = new int[stored.size()];
+            double[] valuesByRow = new double[stored.size()];
+            for (int slot = 0; slot < stored.capacity(); slot++) {
+                if (stored.isOccupied(slot)) {
+                    int position = next[stored.rowAt(slot)]++;
+                    columnsByRow[position] = stored.columnAt(slot);
+                    valuesByRow[position] = Double.longBitsToDouble(stored.valueAt(slot));
+                }
+            }
+            DoubleMatrix target = (DoubleMatrix) result;
+            for (int slot = 0; slot < this.entries.capacity(); slot++) {
+                if (this.entries.isOccupied(slot)) {
+                    int i = this.entries.rowAt(slot);
+                    int k = this.entries.columnAt(slot);
+                    double value = Double.longBitsToDouble(this.entries.valueAt(slot));
+                    for (int q = rowPtr[k]; q < rowPtr[k + 1]; q++) {
+                        target.accumulate(i, columnsByRow[q], value * valuesByRow[q]);
+                    }
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < this.rows; i++) {
+            for (int j = 0; j < other.getColumns(); j++) {
+                double sum = 0;
+                for (int k = 0; k < this.columns; k++) {
+                    sum += this.get(i, k) * other.get(k, j);
+                }
+                if (sum != 0) {
+                    result.set(i, j, sum);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package assignmenttwo;
+
+/**
+ * The double-valued counterpart of MatrixInterface (DoubleMatrix, DoubleSquareMatrix, DoubleBandMatrix).
+ * Values are plain doubles all the way through (no boxing, no generics).
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public interface DoubleMatrixInterface {
+
+    /**
+     * Returns the number of rows in the matrix.
+     *
+     * @return the number of rows
+     */
+    int getRows();
+
+    /**
+     * Returns the number of columns in the matrix.
+     *
+     * @return the number of columns
+     */
+    int getColumns();
+
+    /**
+     * Retrieves the value at the specified row and column position.
+     *
+     * @param i the row position
+     * @param j the column position
+     * @return the value at the specified position
+     */
+    double get(int i, int j);
+
+    /**
+     * Sets the value at the specified row and column position.
+     *
+     * @param i     the row position
+     * @param j     the column position
+     * @param value the value to set
+     */
+    void set(int i, int j, double value);
+
+    /**
+     * Validates whether the given matrix is compatible for addition with this matrix.
+     *
+     * @param other the matrix to validate compatibility with
+     */
+    void validateAddition(DoubleMatrixInterface other);
+
+    /**
+     * Validates whether the given matrix is compatible for multiplication with this matrix.
+     *
+     * @param other the matrix to validate compatibility with
+     */
+    void validateMultiplication(DoubleMatrixInterface other);
+
+    /**
+     * Adds another matrix to this matrix. Implementations may narrow the return type.
+     *
+     * @param other the matrix to add
+     * @return a new matrix holding the sum
+     */
+    DoubleMatrixInterface plus(DoubleMatrixInterface other);
+
+    /**
+     * Multiplies this matrix with another matrix. Implementations may narrow the return type.
+     *
+     * @param other the matrix to multiply by
+     * @return a new matrix holding the product
+     */
+    DoubleMatrixInterface times(DoubleMatrixInterface other);
+
+    /**
+     * Helps in performing the matrix addition operation.
+     *
+     * @param result the matrix where the addition result will be stored
+     * @param other  the matrix to be added to the current matrix
+     */
+    void performAddition(DoubleMatrixInterface result, DoubleMatrixInterface other);
+
+    /**
+     * Helps in performing the matrix multiplication operation.
+     *
+     * @param result the matrix where the multiplication result will be stored
+     * @param other  the matrix to be multiplied with the current matrix
+     */
+    void performMultiplication(DoubleMatrixInterface result, DoubleMatrixInterface other);
+
+    /**
+     * Converts the matrix to a 2D array representation.
+     *
+     * @return a 2D array representation of the matrix
+     */
+    double[][] toArray();
+
+    /**
+     * Returns a string representation of the matrix.
+     *
+     * @return the string representation
+     */
+    @Override
+    String toString();
+}
@@ -0,0 +1,168 @@
+package assignmenttwo;
+
+/**
+ * This is a tester class for the double-valued matrices (DoubleMatrix, DoubleSquareMatrix and DoubleBandMatrix).
+ * We test the basic operations, the handling of 0.0 and -0.0 and the widening conversions.
+ *
+ * @author Nikola Desnica
+ * @version 1.0
+ */
+public class DoubleMatrixTester {
+
+    /**
+     * Runs all the test methods for the double-valued matrices.
+     */
+    public void runTests() {
+        testGetAndSet();
+        testOperations();
+        testBandMatrix();
+        testConversions();
+        System.out.println("All DoubleMatrix tests passed!");
+    }
+
+    /**
+     * Multiplies two double matrices with a plain triple loop over toArray().
+     *
+     * @param a The left operand.
+     * @param b The right operand.
+     * @return the product as a 2D array.
+     */
+    private static double[][] naiveProduct(DoubleMatrixInterface a, DoubleMatrixInterface b) {
+        double[][] left = a.toArray();
+        double[][] right = b.toArray();
+        double[][] product = new double[a.getRows()][b.getColumns()];
+        for (int i = 0; i < a.getRows(); i++) {
+            for (int j = 0; j < b.getColumns(); j++) {
+                for (int k = 0; k < a.getColumns(); k++) {
+                    product[i][j] += left[i][k] * right[k][j];
+                }
+            }
+        }
+        return product;
+    }
+
+    /**
+     * Asserts that a matrix holds the values of a 2D array (up to a small tolerance).
+     *
+     * @param expected The expected values.
+     * @param actual The matrix to check.
+     * @param message The failure message.
+     */
+    private static void assertValues(double[][] expected, DoubleMatrixInterface actual, String message) {
+        assert expected.length == actual.getRows() && expected[0].length == actual.getColumns() : message;
+        for (int i = 0; i < expected.length; i++) {
+            for (int j = 0; j < expected[i].length; j++) {
+                assert Math.abs(actual.get(i, j) - expected[i][j]) <= 1e-9 * Math.max(1, Math.abs(expected[i][j]))
+                        : message;
+            }
+        }
+    }
+
+    /**
+     * Tests get, set, the removal of 0.0 and -0.0 and toString.
+     */
+    private void testGetAndSet() {
+        DoubleMatrix matrix = new DoubleMatrix(2, 2);
+        matrix.set(0, 0, 1.5);
+        matrix.set(1, 1, -0.25);
+        matrix.set(0, 1, 3);
+        matrix.set(0, 1, -0.0);
+        assert matrix.get(0, 0) == 1.5 && matrix.get(1, 1) == -0.25;
+        assert matrix.get(0, 1) == 0 && matrix.getNonZeroCount() == 2 : "-0.0 should remove the entry";
+        assert matrix.toString().equals("[1.5   0.0]\n[0.0 -0.25]\n");
+
+        matrix.set(1, 0, Double.NaN);
+        assert Double.isNaN(matrix.get(1, 0)) : "NaN should be stored";
+
+        DoubleSquareMatrix square = new DoubleSquareMatrix(new double[][]{{1, 2}, {3, 4}});
+        assert square.getSize() == 2 && square.get(1, 0) == 3;
+        assert DoubleSquareMatrix.identityMatrix(3).get(1, 1) == 1;
+    }
+
+    /**
+     * Tests addition and multiplication of sparse and square double matrices.
+     */
+    private void testOperations() {
+        DoubleMatrix a = new DoubleMatrix(3, 4);
+        DoubleMatrix b = new DoubleMatrix(4, 3);
+        for (int i = 0; i < 3; i++) {
+            for (int k = 0; k < 4; k++) {
+                if ((i + k) % 3 != 0) {
+                    a.set(i, k, (i + 1) * 0.5 - k);
+                    b.set(k, i, k * 0.125 + i);
+                }
+            }
+        }
+        assertValues(naiveProduct(a, b), a.times(b), "Sparse double multiplication failed");
+
+        DoubleMatrix negated = new DoubleMatrix(3, 4);
+        for (int i = 0; i < 3; i++) {
+            for (int k = 0; k < 4; k++) {
+                negated.set(i, k, -a.get(i, k));
+            }
+        }
+        assert a.plus(negated).getNonZeroCount() == 0 : "Cancelled entries should not be stored";
+
+        DoubleSquareMatrix square = new DoubleSquareMatrix(new double[][]{{1, 0.5}, {2, 4}});
+        assert square.times(square) instanceof DoubleSquareMatrix;
+        assertValues(new double[][]{{2, 2.5}, {10, 17}}, square.times(square), "Square multiplication failed");
+        assertValues(new double[][]{{2, 1}, {4, 8}}, square.plus(square), "Square addition failed");
+
+        boolean thrown = false;
+        try {
+            a.times(a);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Mismatched multiplication should throw";
+    }
+
+    /**
+     * Tests the DoubleBandMatrix structure and its band-limited operations.
+     */
+    private void testBandMatrix() {
+        DoubleBandMatrix band = new DoubleBandMatrix(5, 1);
+        band.set(0, 0, 2.5);
+        band.set(0, 1, -1);
+        assert band.get(4, 3) == -1 && band.get(2, 2) == 2.5 && band.get(0, 2) == 0;
+
+        DoubleBandMatrix other = new DoubleBandMatrix(5);
+        other.set(0, 0, 0.5);
+        other.set(0, 1, 0.25);
+        assert band.plus(other).get(1, 0) == -0.75;
+        assertValues(naiveProduct(band, other), band.times(other), "Band x band multiplication failed");
+
+        DoubleMatrix sparse = new DoubleMatrix(5, 2);
+        sparse.set(1, 0, 3);
+        sparse.set(4, 1, 0.5);
+        assertValues(naiveProduct(band, sparse), band.times(sparse), "Band x matrix multiplication failed");
+    }
+
+    /**
+     * Tests the widening conversions from the int and long matrices.
+     */
+    private void testConversions() {
+        Matrix matrix = new Matrix(2, 3);
+        matrix.set(0, 2, Integer.MIN_VALUE);
+        matrix.set(1, 0, 7);
+        DoubleMatrix fromInt = DoubleMatrix.from(matrix);
+        assert fromInt.get(0, 2) == Integer.MIN_VALUE && fromInt.get(1, 0) == 7 && fromInt.getNonZeroCount() == 2;
+
+        LongMatrix longMatrix = new LongMatrix(2, 2);
+        longMatrix.set(0, 0, 1L << 40);
+        longMatrix.set(1, 0, -3);
+        DoubleMatrix fromLong = DoubleMatrix.from(longMatrix);
+        assert fromLong.get(0, 0) == 1L << 40 && fromLong.get(1, 0) == -3;
+
+        SquareMatrix square = new SquareMatrix(new int[][]{{0, 2}, {-1, 0}});
+        assertValues(new double[][]{{0, 2}, {-1, 0}}, DoubleSquareMatrix.from(square), "SquareMatrix conversion failed");
+
+        BandMatrix band = new BandMatrix(3, 1);
+        band.set(0, 0, 4);
+        band.set(0, 1, 1);
+        LongBandMatrix longBand = LongBandMatrix.from(band);
+        double[][] expected = {{4, 1, 0}, {1, 4, 1}, {0, 1, 4}};
+        assertValues(expected, DoubleBandMatrix.from(band), "BandMatrix conversion failed");
+        assertValues(expected, DoubleBandMatrix.from(longBand), "LongBandMatrix conversion failed");
+    }
+}
@@ -0,0 +1,117 @@
+package assignmenttwo;
+
+/**
+ * The double-valued counterpart of SquareMatrix.
+ * Inherits the sparse storage and operations from DoubleMatrix and keeps results square.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public class DoubleSquareMatrix extends DoubleMatrix implements DoubleMatrixInterface {
+
+    /**
+     * The dimensions of this DoubleSquareMatrix Instance (rows == columns).
+     */
+    private final int size;
+
+    /**
+     * Constructs an all-zero square matrix.
+     *
+     * @param size The number of rows/columns for the matrix.
+     */
+    public DoubleSquareMatrix(int size) {
+        super(size, size);
+        this.size = size;
+    }
+
+    /**
+     * Constructs a DoubleSquareMatrix from a square 2D array.
+     *
+     * @param array The 2D array to construct the DoubleSquareMatrix from.
+     */
+    public DoubleSquareMatrix(double[][] array) {
+        this(getSquareSize(array));
+        for (int i = 0; i < this.size; i++) {
+            for (int j = 0; j < this.size; j++) {
+                set(i, j, array[i][j]);
+            }
+        }
+    }
+
+    /**
+     * Validates that the array is square.
+     *
+     * @param array The 2D array.
+     * @return the size of the array.
+     */
+    private static int getSquareSize(double[][] array) {
+        if (array == null) {
+            throw new IllegalArgumentException("The provided 2D array is null.");
+        }
+        for (double[] row : array) {
+            if (row.length != array.length) {
+                throw new IllegalArgumentException("The provided 2D array is not square.");
+            }
+        }
+        return array.length;
+    }
+
+    /**
+     * Widens an int SquareMatrix into a DoubleSquareMatrix (exact).
+     *
+     * @param matrix The int square matrix.
+     * @return the DoubleSquareMatrix holding the same values.
+     */
+    public static DoubleSquareMatrix from(SquareMatrix matrix) {
+        if (matrix == null) {
+            throw new IllegalArgumentException("The provided matrix is null.");
+        }
+        DoubleSquareMatrix result = new DoubleSquareMatrix(matrix.getSize());
+        matrix.forEachNonZero((row, column, value) -> result.store(row, column, value));
+        return result;
+    }
+
+    /**
+     * Returns the size of the square matrix.
+     *
+     * @return The number of rows/columns of the square matrix.
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Constructs an identity matrix of the given size.
+     *
+     * @param size The given size.
+     * @return An identity matrix.
+     */
+    public static DoubleSquareMatrix identityMatrix(int size) {
+        DoubleSquareMatrix identityMatrix = new DoubleSquareMatrix(size);
+        for (int i = 0; i < size; i++) {
+            identityMatrix.set(i, i, 1);
+        }
+        return identityMatrix;
+    }
+
+    @Override
+    public DoubleMatrix plus(DoubleMatrixInterface other) {
+        super.validateAddition(other);
+        DoubleSquareMatrix result = new DoubleSquareMatrix(this.size);
+        super.performAddition(result, other);
+        return result;
+    }
+
+    @Override
+    public DoubleMatrix times(DoubleMatrixInterface other) {
+        super.validateMultiplication(other);
+        DoubleMatrix result;
+        if (this.getColumns() == other.getColumns()) {
+            result = new DoubleSquareMatrix(this.size);
+        } else { // The resulting matrix is not square
+            result = new DoubleMatrix(this.getRows(), other.getColumns());
+        }
+        super.performMultiplication(result, other);
+        return result;
+    }
+}
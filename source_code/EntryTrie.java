@@ -0,0 +1,315 @@
+package assignmenttwo;
+
+/**
+ * Persistent map from the cells of a matrix to their non-zero values, for PersistentMatrix and
+ * VersionedMatrix. The key of a cell is row * columns + column, and the keys are stored in a bitmap
+ * compressed trie with 32 children per node (a HAMT whose hash is the key itself):
+ * <ul>
+ *     <li>Every node has a 32-bit bitmap of its children and an array holding only the children that exist,
+ *     so empty regions of the matrix cost nothing and a node is found with one bit count.</li>
+ *     <li>Because the key is not hashed, the entries come out in row-major order and the rows of a range
+ *     are reached without visiting the others.</li>
+ *     <li>put copies the O(log32(rows * columns)) nodes on the path to the cell and shares everything else
+ *     with the previous version, which is never modified.</li>
+ *     <li>A writer can pass an owner token: nodes created with the same token are its own and are updated
+ *     in place, so a series of puts only copies every node once. Nodes of any other owner, and of none,
+ *     are never changed after the put that created them returned.</li>
+ * </ul>
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+final class EntryTrie {
+
+    /** Key bits used per level. */
+    private static final int BITS = 5;
+
+    /** Mask of the key bits of one level. */
+    private static final int MASK = (1 << BITS) - 1;
+
+    /**
+     * A node of the trie. The leaves hold values, the other nodes hold children.
+     */
+    private static final class Node {
+
+        /** The owner allowed to update this node in place, or null. */
+        final Object owner;
+
+        /** Bit i is set if the child (or value) for key bits i exists. */
+        int bitmap;
+
+        /** The children in key order, or null on the leaf level. */
+        Node[] children;
+
+        /** The values in key order, or null above the leaf level. */
+        int[] values;
+
+        /**
+         * @param owner The owner allowed to update this node in place, or null.
+         * @param bitmap The bitmap of the children.
+         * @param children The children, or null on the leaf level.
+         * @param values The values, or null above the leaf level.
+         */
+        Node(Object owner, int bitmap, Node[] children, int[] values) {
+            this.owner = owner;
+            this.bitmap = bitmap;
+            this.children = children;
+            this.values = values;
+        }
+    }
+
+    /** The number of columns, to turn keys back into cells. */
+    private final int columns;
+
+    /** The shift of the key bits of the root level. */
+    private final int rootShift;
+
+    /** The root, or null if there is no entry. */
+    private final Node root;
+
+    /** The number of entries. */
+    private final int size;
+
+    /**
+     * @param columns The number of columns.
+     * @param rootShift The shift of the key bits of the root level.
+     * @param root The root, or null.
+     * @param size The number of entries.
+     */
+    private EntryTrie(int columns, int rootShift, Node root, int size) {
+        this.columns = columns;
+        this.rootShift = rootShift;
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @return a trie without entries for a matrix of the given dimensions.
+     */
+    static EntryTrie empty(int rows, int columns) {
+        int keyBits = 64 - Long.numberOfLeadingZeros((long) rows * columns - 1);
+        int levels = Math.max(1, (keyBits + BITS - 1) / BITS);
+        return new EntryTrie(columns, (levels - 1) * BITS, null, 0);
+    }
+
+    /**
+     * @return the number of entries.
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * @param row The row index.
+     * @param column The column index.
+     * @return the value of the cell (0 if it has no entry).
+     */
+    int get(int row, int column) {
+        long key = (long) row * this.columns + column;
+        Node node = this.root;
+        for (int shift = this.rootShift; node != null; shift -= BITS) {
+            int bit = 1 << ((int) (key >>> shift) & MASK);
+            if ((node.bitmap & bit) == 0) {
+                return 0;
+            }
+            int position = Integer.bitCount(node.bitmap & (bit - 1));
+            if (shift == 0) {
+                return node.values[position];
+            }
+            node = node.children[position];
+        }
+        return 0;
+    }
+
+    /**
+     * Sets the value of a cell (0 removes the entry).
+     *
+     * @param row The row index.
+     * @param column The column index.
+     * @param value The value.
+     * @param owner The token of the writer (its nodes are updated in place), or null to copy the whole path.
+     * @return the new version, or this trie if the value was already set.
+     */
+    EntryTrie put(int row, int column, int value, Object owner) {
+        int[] change = new int[2];
+        Node updated = put(this.root, (long) row * this.columns + column, this.rootShift, value, owner, change);
+        if (change[1] == 0) {
+            return this;
+        }
+        return new EntryTrie(this.columns, this.rootShift, updated, this.size + change[0]);
+    }
+
+    /**
+     * Sets the value of a key below a node.
+     *
+     * @param node The node, or null if there is none yet.
+     * @param key The key.
+     * @param shift The shift of the key bits of the level of the node.
+     * @param value The value (0 removes the entry).
+     * @param owner The token of the writer, or null.
+     * @param change Receives the change of the number of entries and 1 if anything changed.
+     * @return the updated node (null if it has no entry left).
+     */
+    private static Node put(Node node, long key, int shift, int value, Object owner, int[] change) {
+        int bit = 1 << ((int) (key >>> shift) & MASK);
+        if (node == null) {
+            if (value == 0) {
+                return null;
+            }
+            change[0] = 1;
+            change[1] = 1;
+            if (shift == 0) {
+                return new Node(owner, bit, null, new int[]{value});
+            }
+            return new Node(owner, bit, new Node[]{put(null, key, shift - BITS, value, owner, change)}, null);
+        }
+        int position = Integer.bitCount(node.bitmap & (bit - 1));
+        boolean present = (node.bitmap & bit) != 0;
+        if (shift == 0) {
+            if (present ? node.values[position] == value : value == 0) {
+                return node;
+            }
+            change[1] = 1;
+            if (!present) {
+                change[0] = 1;
+                return insert(node, bit, position, null, value, owner);
+            }
+            if (value == 0) {
+                change[0] = -1;
+                return remove(node, bit, position, owner);
+            }
+            Node edited = editable(node, owner);
+            edited.values[position] = value;
+            return edited;
+        }
+        Node child = present ? node.children[position] : null;
+        Node updated = put(child, key, shift - BITS, value, owner, change);
+        if (updated == child) {
+            return node;
+        }
+        if (updated == null) {
+            return remove(node, bit, position, owner);
+        }
+        if (!present) {
+            return insert(node, bit, position, updated, 0, owner);
+        }
+        Node edited = editable(node, owner);
+        edited.children[position] = updated;
+        return edited;
+    }
+
+    /**
+     * @param node A node.
+     * @param owner The token of the writer, or null.
+     * @return the node itself if the writer owns it, otherwise a copy owned by the writer.
+     */
+    private static Node editable(Node node, Object owner) {
+        if (owner != null && node.owner == owner) {
+            return node;
+        }
+        return new Node(owner, node.bitmap, node.children == null ? null : node.children.clone(),
+                node.values == null ? null : node.values.clone());
+    }
+
+    /**
+     * Adds a child (or a value on the leaf level) to a node.
+     *
+     * @param node The node.
+     * @param bit The bit of the new child.
+     * @param position The position of the new child.
+     * @param child The child, or null on the leaf level.
+     * @param value The value on the leaf level.
+     * @param owner The token of the writer, or null.
+     * @return the updated node.
+     */
+    private static Node insert(Node node, int bit, int position, Node child, int value, Object owner) {
+        Node edited = owner != null && node.owner == owner ? node : new Node(owner, 0, null, null);
+        if (node.values != null) {
+            int[] values = new int[node.values.length + 1];
+            System.arraycopy(node.values, 0, values, 0, position);
+            values[position] = value;
+            System.arraycopy(node.values, position, values, position + 1, node.values.length - position);
+            edited.values = values;
+        } else {
+            Node[] children = new Node[node.children.length + 1];
+            System.arraycopy(node.children, 0, children, 0, position);
+            children[position] = child;
+            System.arraycopy(node.children, position, children, position + 1, node.children.length - position);
+            edited.children = children;
+        }
+        edited.bitmap = node.bitmap | bit;
+        return edited;
+    }
+
+    /**
+     * Removes a child (or a value on the leaf level) from a node.
+     *
+     * @param node The node.
+     * @param bit The bit of the child.
+     * @param position The position of the child.
+     * @param owner The token of the writer, or null.
+     * @return the updated node, or null if it has no child left.
+     */
+    private static Node remove(Node node, int bit, int position, Object owner) {
+        if (node.bitmap == bit) {
+            return null;
+        }
+        Node edited = owner != null && node.owner == owner ? node : new Node(owner, 0, null, null);
+        if (node.values != null) {
+            int[] values = new int[node.values.length - 1];
+            System.arraycopy(node.values, 0, values, 0, position);
+            System.arraycopy(node.values, position + 1, values, position, values.length - position);
+            edited.values = values;
+        } else {
+            Node[] children = new Node[node.children.length - 1];
+            System.arraycopy(node.children, 0, children, 0, position);
+            System.arraycopy(node.children, position + 1, children, position, children.length - position);
+            edited.children = children;
+        }
+        edited.bitmap = node.bitmap & ~bit;
+        return edited;
+    }
+
+    /**
+     * Passes the entries of the rows [fromRow, toRow) to the action in row-major order.
+     *
+     * @param fromRow The first row (inclusive).
+     * @param toRow The last row (exclusive).
+     * @param action The action receiving (row, column, value).
+     */
+    void forEach(int fromRow, int toRow, IntTriConsumer action) {
+        if (this.root != null && fromRow < toRow) {
+            forEach(this.root, this.rootShift, 0, (long) fromRow * this.columns, (long) toRow * this.columns, action);
+        }
+    }
+
+    /**
+     * Passes the entries below a node with keys in [from, to) to the action, in key order.
+     *
+     * @param node The node.
+     * @param shift The shift of the key bits of the level of the node.
+     * @param prefix The key bits above the level of the node.
+     * @param from The first key (inclusive).
+     * @param to The last key (exclusive).
+     * @param action The action receiving (row, column, value).
+     */
+    private void forEach(Node node, int shift, long prefix, long from, long to, IntTriConsumer action) {
+        int position = 0;
+        for (int bits = node.bitmap; bits != 0; bits &= bits - 1, position++) {
+            long first = prefix | ((long) Integer.numberOfTrailingZeros(bits) << shift);
+            if (first >= to) {
+                return;
+            }
+            if (first + (1L << shift) <= from) {
+                continue;
+            }
+            if (shift == 0) {
+                action.accept((int) (first / this.columns), (int) (first % this.columns), node.values[position]);
+            } else {
+                forEach(node.children[position], shift - BITS, first, from, to, action);
+            }
+        }
+    }
+}
@@ -0,0 +1,589 @@
+package assignmenttwo;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+
+/**
+ * Represents a general (not necessarily symmetric or constant) square band matrix
+ * with a lower bandwidth (number of sub-diagonals) and an upper bandwidth (number of super-diagonals).
+ * <p>
+ * The storage is diagonal-major like LAPACK band storage: every diagonal d = j - i in [-lower, upper]
+ * is a contiguous run of size values, entry (i, j) lives at data[(j - i + lower) * size + i].
+ * A few slots at the ends of the off-diagonals are unused, in exchange every diagonal
+ * has the same layout and the kernels only need simple index arithmetic.
+ * <p>
+ * The product of two band matrices has lower bandwidth lower1 + lower2 and upper bandwidth
+ * upper1 + upper2, so times(GeneralBandMatrix) writes straight into a new band storage
+ * in O(size * bandwidth1 * bandwidth2) time and O(size * (bandwidth1 + bandwidth2)) memory.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public class GeneralBandMatrix implements MatrixInterface {
+
+    /** The size of the matrix (both rows and columns). */
+    private final int size;
+
+    /** Number of sub-diagonals. */
+    private final int lower;
+
+    /** Number of super-diagonals. */
+    private final int upper;
+
+    /** The diagonals, from the lowest sub-diagonal to the highest super-diagonal. */
+    private final int[] data;
+
+    /** The number of changes of this GeneralBandMatrix Instance. */
+    private long modifications;
+
+    /**
+     * Constructs an all-zero band matrix.
+     *
+     * @param size The size of the matrix.
+     * @param lower The number of sub-diagonals.
+     * @param upper The number of super-diagonals.
+     */
+    public GeneralBandMatrix(int size, int lower, int upper) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Can not construct a matrix with a size of 0.");
+        }
+        if (lower < 0 || upper < 0 || lower >= size || upper >= size) {
+            throw new IllegalArgumentException("The bandwidths must be between 0 and size - 1.");
+        }
+        if ((long) size * (lower + upper + 1) > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("The band is too large for a single array.");
+        }
+        this.size = size;
+        this.lower = lower;
+        this.upper = upper;
+        this.data = new int[size * (lower + upper + 1)];
+    }
+
+    /**
+     * Copies a symmetric BandMatrix into general band storage in O(size * bands).
+     *
+     * @param band The BandMatrix to copy.
+     * @return the GeneralBandMatrix holding the same values.
+     */
+    public static GeneralBandMatrix from(BandMatrix band) {
+        int bandwidth = Math.max(0, Math.min(band.getBandCount(), band.getSize()) - 1);
+        GeneralBandMatrix result = new GeneralBandMatrix(band.getSize(), bandwidth, bandwidth);
+        for (int d = -bandwidth; d <= bandwidth; d++) {
+            int value = band.getBandValue(Math.abs(d));
+            int offset = (d + bandwidth) * result.size;
+            for (int i = Math.max(0, -d); i < Math.min(result.size, result.size - d); i++) {
+                result.data[offset + i] = value;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return size.
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * @return size.
+     */
+    @Override
+    public int getRows() {
+        return this.size;
+    }
+
+    /**
+     * @return size.
+     */
+    @Override
+    public int getColumns() {
+        return this.size;
+    }
+
+    /**
+     * @return the number of changes so far.
+     */
+    @Override
+    public long getModificationCount() {
+        return this.modifications;
+    }
+
+    /**
+     * @return the number of sub-diagonals.
+     */
+    public int getLowerBandwidth() {
+        return this.lower;
+    }
+
+    /**
+     * @return the number of super-diagonals.
+     */
+    public int getUpperBandwidth() {
+        return this.upper;
+    }
+
+    /**
+     * Retrieves the value at the specified row and column (0 outside the band).
+     *
+     * @param row The row index.
+     * @param column The column index.
+     * @return The value at the specified position.
+     */
+    @Override
+    public int get(int row, int column) {
+        validateIndices(row, column);
+        int d = column - row;
+        if (d < -this.lower || d > this.upper) {
+            return 0;
+        }
+        return this.data[(d + this.lower) * this.size + row];
+    }
+
+    /**
+     * Sets the value at the specified row and column.
+     * Only positions inside the band can hold non-zero values.
+     *
+     * @param row The row index.
+     * @param column The column index.
+     * @param value The value to set.
+     */
+    @Override
+    public void set(int row, int column, int value) {
+        validateIndices(row, column);
+        int d = column - row;
+        if (d < -this.lower || d > this.upper) {
+            if (value != 0) {
+                throw new IllegalArgumentException("The indicated position is outside the band of this matrix.");
+            }
+            return;
+        }
+        this.modifications++;
+        this.data[(d + this.lower) * this.size + row] = value;
+    }
+
+    /**
+     * Validates the indices passed (for get or set).
+     *
+     * @param row The row index.
+     * @param column The column index.
+     */
+    public void validateIndices(int row, int column) {
+        if (row < 0 || row > this.size - 1) {
+            throw new IllegalArgumentException("The indicated row index is out of bounds for this matrix.");
+        }
+        if (column < 0 || column > this.size - 1) {
+            throw new IllegalArgumentException("The indicated column index is out of bounds for this matrix.");
+        }
+    }
+
+    /**
+     * Validates the passed matrix before addition.
+     *
+     * @param other The Matrix to add.
+     */
+    @Override
+    public void validateAddition(MatrixInterface other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot add these two matrices, the passed Matrix is null.");
+        }
+        if (this.size != other.getRows() || this.size != other.getColumns()) {
+            throw new IllegalArgumentException("Cannot add these two matrices, their dimensions don't match.");
+        }
+    }
+
+    /**
+     * Validates the passed matrix before multiplication.
+     *
+     * @param other The Matrix to multiply by.
+     */
+    @Override
+    public void validateMultiplication(MatrixInterface other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the passed Matrix is null.");
+        }
+        if (this.size != other.getRows()) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the columns of this matrix" +
+                    "don't match the rows of the matrix that was passed.");
+        }
+    }
+
+    /**
+     * Adds another band matrix diagonal by diagonal; the result has the wider of both bandwidths.
+     *
+     * @param other The GeneralBandMatrix to add.
+     * @return A new GeneralBandMatrix that is the result of the addition.
+     */
+    public GeneralBandMatrix plus(GeneralBandMatrix other) {
+        validateAddition(other);
+        GeneralBandMatrix result = new GeneralBandMatrix(this.size,
+                Math.max(this.lower, other.lower), Math.max(this.upper, other.upper));
+        result.addDiagonals(this);
+        result.addDiagonals(other);
+        return result;
+    }
+
+    /**
+     * Adds the diagonals of a band matrix that fits inside this band.
+     *
+     * @param other The band matrix to add.
+     */
+    private void addDiagonals(GeneralBandMatrix other) {
+        this.modifications++;
+        for (int d = -other.lower; d <= other.upper; d++) {
+            int from = (d + other.lower) * this.size;
+            int to = (d + this.lower) * this.size;
+            for (int i = 0; i < this.size; i++) {
+                this.data[to + i] += other.data[from + i];
+            }
+        }
+    }
+
+    /**
+     * Adds another matrix. Another band matrix gives a band matrix, anything else a sparse Matrix.
+     *
+     * @param other The matrix to add.
+     * @return A new matrix that is the result of the addition.
+     */
+    @Override
+    public MatrixInterface plus(MatrixInterface other) {
+        if (other instanceof GeneralBandMatrix) {
+            return plus((GeneralBandMatrix) other);
+        }
+        if (other instanceof BandMatrix) {
+            return plus(from((BandMatrix) other));
+        }
+        validateAddition(other);
+        Matrix result = new Matrix(this.size, this.size);
+        performAddition(result, other);
+        return result;
+    }
+
+    /**
+     * Facilitates matrix addition for the plus method.
+     * Omits value from resulting sparse matrix if entry is 0.
+     *
+     * @param result The empty result matrix to be populated.
+     * @param other The matrix to be added to our GeneralBandMatrix instance.
+     */
+    @Override
+    public void performAddition(MatrixInterface result, MatrixInterface other) {
+        for (int i = 0; i < this.size; i++) {
+            for (int j = 0; j < this.size; j++) {
+                int d = j - i;
+                int sum = other.get(i, j);
+                if (d >= -this.lower && d <= this.upper) {
+                    sum += this.data[(d + this.lower) * this.size + i];
+                }
+                if (sum != 0) {
+                    result.set(i, j, sum);
+                }
+            }
+        }
+    }
+
+    /**
+     * Multiplies with another band matrix straight into band storage.
+     * For every row i only the k inside our band and then the j inside the band of row k of the other
+     * matrix are visited, which is O(size * (lower + upper + 1) * (other.lower + other.upper + 1)).
+     *
+     * @param other The GeneralBandMatrix to multiply by.
+     * @return A new GeneralBandMatrix that is the result of the multiplication.
+     */
+    public GeneralBandMatrix times(GeneralBandMatrix other) {
+        validateMultiplication(other);
+        int n = this.size;
+        GeneralBandMatrix result = new GeneralBandMatrix(n,
+                Math.min(n - 1, this.lower + other.lower), Math.min(n - 1, this.upper + other.upper));
+        for (int i = 0; i < n; i++) {
+            int minK = Math.max(0, i - this.lower);
+            int maxK = Math.min(n - 1, i + this.upper);
+            for (int k = minK; k <= maxK; k++) {
+                int value = this.data[(k - i + this.lower) * n + i];
+                if (value == 0) {
+                    continue;
+                }
+                int minJ = Math.max(0, k - other.lower);
+                int maxJ = Math.min(n - 1, k + other.upper);
+                for (int j = minJ; j <= maxJ; j++) {
+                    result.data[(j - i + result.lower) * n + i] += value * other.data[(j - k + other.lower) * n + k];
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Multiplies with another band matrix modulo a positive modulus, for values already in [0, modulus).
+     * Every entry of the product is summed in a long and only reduced when it could overflow.
+     *
+     * @param other The GeneralBandMatrix to multiply by.
+     * @param modulus The modulus.
+     * @return A new GeneralBandMatrix holding the product, with values in [0, modulus).
+     */
+    GeneralBandMatrix timesModulo(GeneralBandMatrix other, int modulus) {
+        validateMultiplication(other);
+        int n = this.size;
+        GeneralBandMatrix result = new GeneralBandMatrix(n,
+                Math.min(n - 1, this.lower + other.lower), Math.min(n - 1, this.upper + other.upper));
+        for (int i = 0; i < n; i++) {
+            int minJ = Math.max(0, i - result.lower);
+            int maxJ = Math.min(n - 1, i + result.upper);
+            for (int j = minJ; j <= maxJ; j++) {
+                int minK = Math.max(Math.max(0, i - this.lower), j - other.upper);
+                int maxK = Math.min(Math.min(n - 1, i + this.upper), j + other.lower);
+                long sum = 0;
+                for (int k = minK; k <= maxK; k++) {
+                    sum += (long) this.data[(k - i + this.lower) * n + i] * other.data[(j - k + other.lower) * n + k];
+                    if (sum >= MatrixPower.REDUCE_LIMIT) {
+                        sum %= modulus;
+                    }
+                }
+                result.data[(j - i + result.lower) * n + i] = (int) (sum % modulus);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Replaces every value by its remainder in [0, modulus).
+     *
+     * @param modulus The modulus.
+     */
+    void reduceModulo(int modulus) {
+        this.modifications++;
+        for (int index = 0; index < this.data.length; index++) {
+            this.data[index] = Math.floorMod(this.data[index], modulus);
+        }
+    }
+
+    /**
+     * Multiplies with another matrix. Band matrices give a band matrix, anything else a sparse Matrix.
+     *
+     * @param other The matrix to multiply by.
+     * @return A new matrix that is the result of the multiplication.
+     */
+    @Override
+    public MatrixInterface times(MatrixInterface other) {
+        if (other instanceof GeneralBandMatrix) {
+            return times((GeneralBandMatrix) other);
+        }
+        if (other instanceof BandMatrix) {
+            return times(from((BandMatrix) other));
+        }
+        validateMultiplication(other);
+        Matrix result = new Matrix(this.size, other.getColumns());
+        performMultiplication(result, other);
+        return result;
+    }
+
+    /**
+     * Facilitates matrix multiplication for the times method.
+     * Omits value from resulting sparse matrix if entry is 0.
+     * For row i only the k inside the band can contribute.
+     *
+     * @param result The empty result matrix to be populated.
+     * @param other The matrix to be multiplied with our GeneralBandMatrix instance.
+     */
+    @Override
+    public void performMultiplication(MatrixInterface result, MatrixInterface other) {
+        for (int i = 0; i < this.size; i++) {
+            int minK = Math.max(0, i - this.lower);
+            int maxK = Math.min(this.size - 1, i + this.upper);
+            for (int j = 0; j < other.getColumns(); j++) {
+                int sum = 0;
+                for (int k = minK; k <= maxK; k++) {
+                    int value = this.data[(k - i + this.lower) * this.size + i];
+                    if (value != 0) {
+                        sum += value * other.get(k, j);
+                    }
+                }
+                if (sum != 0) {
+                    result.set(i, j, sum);
+                }
+            }
+        }
+    }
+
+    /**
+     * Multiplies this band matrix with a column vector: y = A * x.
+     * Walks the stored diagonals, each one is a contiguous run, in O(size * (lower + upper + 1)).
+     *
+     * @param x The vector to multiply by.
+     * @param y The vector receiving the product (overwritten).
+     */
+    @Override
+    public void timesInto(int[] x, int[] y) {
+        validateVectorMultiplication(x, y);
+        Arrays.fill(y, 0);
+        for (int d = -this.lower; d <= this.upper; d++) {
+            int offset = (d + this.lower) * this.size;
+            for (int i = Math.max(0, -d); i < Math.min(this.size, this.size - d); i++) {
+                y[i] += this.data[offset + i] * x[i + d];
+            }
+        }
+    }
+
+    /**
+     * Passes the non-zero entries of the rows [fromRow, toRow) to the action row by row,
+     * visiting only the columns inside the band.
+     *
+     * @param fromRow The first row (inclusive).
+     * @param toRow The last row (exclusive).
+     * @param action The action receiving (row, column, value).
+     */
+    @Override
+    public void forEachNonZero(int fromRow, int toRow, IntTriConsumer action) {
+        validateRowRange(fromRow, toRow, action);
+        for (int i = fromRow; i < toRow; i++) {
+            for (int j = Math.max(0, i - this.lower); j <= Math.min(this.size - 1, i + this.upper); j++) {
+                int value = this.data[(j - i + this.lower) * this.size + i];
+                if (value != 0) {
+                    action.accept(i, j, value);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return a spliterator that splits by row ranges (estimating a full band per row).
+     */
+    @Override
+    public Spliterator<MatrixEntry> spliterator() {
+        return new NonZeroSpliterator(this, 0, this.size, this.lower + this.upper + 1);
+    }
+
+    /**
+     * Adds another matrix in place. A band matrix that fits inside this band is added diagonal by diagonal,
+     * anything else entry by entry; all entries are checked before anything is changed,
+     * so a matrix with entries outside the band leaves this matrix untouched.
+     *
+     * @param other The matrix to add.
+     */
+    @Override
+    public void addInPlace(MatrixInterface other) {
+        validateAddition(other);
+        if (other == this) {
+            scaleInPlace(2);
+            return;
+        }
+        GeneralBandMatrix band = other instanceof BandMatrix ? from((BandMatrix) other)
+                : other instanceof GeneralBandMatrix ? (GeneralBandMatrix) other : null;
+        if (band != null && band.lower <= this.lower && band.upper <= this.upper) {
+            addDiagonals(band);
+            return;
+        }
+        other.forEachNonZero((i, j, value) -> {
+            if (j - i < -this.lower || j - i > this.upper) {
+                throw new IllegalArgumentException("The indicated position is outside the band of this matrix.");
+            }
+        });
+        this.modifications++;
+        other.forEachNonZero((i, j, value) -> this.data[(j - i + this.lower) * this.size + i] += value);
+    }
+
+    /**
+     * Multiplies every stored value by a factor in place.
+     *
+     * @param factor The factor.
+     */
+    @Override
+    public void scaleInPlace(int factor) {
+        this.modifications++;
+        for (int index = 0; index < this.data.length; index++) {
+            this.data[index] *= factor;
+        }
+    }
+
+    /**
+     * Converts the matrix to a 2D array.
+     *
+     * @return A 2D array representation of the matrix.
+     */
+    @Override
+    public int[][] toArray() {
+        int[][] array = new int[this.size][this.size];
+        for (int d = -this.lower; d <= this.upper; d++) {
+            int offset = (d + this.lower) * this.size;
+            for (int i = Math.max(0, -d); i < Math.min(this.size, this.size - d); i++) {
+                array[i][i + d] = this.data[offset + i];
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Transforms a GeneralBandMatrix instance into a String representation
+     * (same layout as DenseMatrix.toString()).
+     *
+     * @return The String representation of this GeneralBandMatrix.
+     */
+    @Override
+    public String toString() {
+        return new DenseMatrix(toArray()).toString();
+    }
+
+    /**
+     * Two GeneralBandMatrix objects are equal if they hold the same values
+     * (the bandwidths may differ as long as the extra diagonals are 0).
+     *
+     * @param matrix the object to be compared for equality with the current GeneralBandMatrix.
+     * @return true if the specified object is equal to the current GeneralBandMatrix, false otherwise.
+     */
+    @Override
+    public boolean equals(Object matrix) {
+        if (this == matrix) {
+            return true;
+        }
+        if (!(matrix instanceof GeneralBandMatrix)) {
+            return false;
+        }
+        GeneralBandMatrix other = (GeneralBandMatrix) matrix;
+        if (this.size != other.size) {
+            return false;
+        }
+        int lowest = Math.max(this.lower, other.lower);
+        int highest = Math.max(this.upper, other.upper);
+        for (int d = -lowest; d <= highest; d++) {
+            for (int i = Math.max(0, -d); i < Math.min(this.size, this.size - d); i++) {
+                if (this.diagonalValue(d, i) != other.diagonalValue(d, i)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return a hash code consistent with equals (trailing zero diagonals don't change it).
+     */
+    @Override
+    public int hashCode() {
+        int hash = this.size;
+        for (int d = -this.lower; d <= this.upper; d++) {
+            for (int i = Math.max(0, -d); i < Math.min(this.size, this.size - d); i++) {
+                int value = this.data[(d + this.lower) * this.size + i];
+                if (value != 0) {
+                    hash += (31 * d + i) ^ value;
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * @param d The diagonal (j - i).
+     * @param i The row.
+     * @return the value on that diagonal and row (0 outside the band).
+     */
+    private int diagonalValue(int d, int i) {
+        return d < -this.lower || d > this.upper ? 0 : this.data[(d + this.lower) * this.size + i];
+    }
+
+    /**
+     * @return a copy of the diagonal-major storage (for tests and serialization).
+     */
+    public int[] toBandArray() {
+        return Arrays.copyOf(this.data, this.data.length);
+    }
+}
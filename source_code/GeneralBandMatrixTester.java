@@ -0,0 +1,316 @@
+package assignmenttwo;
+
+/**
+ * This is a tester class for the GeneralBandMatrix class.
+ * We test the band storage, the band x band product (which has to stay banded)
+ * and the interoperability with BandMatrix and the other matrix types.
+ *
+ * @author Nikola Desnica
+ * @version 1.0
+ */
+public class GeneralBandMatrixTester {
+
+    /**
+     * Runs all the test methods for the GeneralBandMatrix class.
+     */
+    public void runTests() {
+        testGetAndSet();
+        testValidation();
+        testFromBandMatrix();
+        testAddition();
+        testBandMultiplication();
+        testMixedMultiplication();
+        testLargeTridiagonalProduct();
+        testVectorMultiplication();
+        testInPlaceOperations();
+        System.out.println("All GeneralBandMatrix tests passed!");
+    }
+
+    /**
+     * Builds a non-symmetric band test matrix.
+     *
+     * @param size The size.
+     * @param lower The number of sub-diagonals.
+     * @param upper The number of super-diagonals.
+     * @param seed Changes the values.
+     * @return the GeneralBandMatrix.
+     */
+    private static GeneralBandMatrix sample(int size, int lower, int upper, int seed) {
+        GeneralBandMatrix matrix = new GeneralBandMatrix(size, lower, upper);
+        for (int i = 0; i < size; i++) {
+            for (int j = Math.max(0, i - lower); j <= Math.min(size - 1, i + upper); j++) {
+                matrix.set(i, j, (i * 7 + j * 13 + seed) % 9 - 4);
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Multiplies two matrices with a plain triple loop over toArray().
+     *
+     * @param a The left operand.
+     * @param b The right operand.
+     * @return the product as a 2D array.
+     */
+    private static int[][] naiveProduct(MatrixInterface a, MatrixInterface b) {
+        int[][] left = a.toArray();
+        int[][] right = b.toArray();
+        int[][] product = new int[a.getRows()][b.getColumns()];
+        for (int i = 0; i < a.getRows(); i++) {
+            for (int j = 0; j < b.getColumns(); j++) {
+                for (int k = 0; k < a.getColumns(); k++) {
+                    product[i][j] += left[i][k] * right[k][j];
+                }
+            }
+        }
+        return product;
+    }
+
+    /**
+     * Asserts that a matrix holds the values of a 2D array.
+     *
+     * @param expected The expected values.
+     * @param actual The matrix to check.
+     * @param message The failure message.
+     */
+    private static void assertValues(int[][] expected, MatrixInterface actual, String message) {
+        assert expected.length == actual.getRows() && expected[0].length == actual.getColumns() : message;
+        for (int i = 0; i < expected.length; i++) {
+            for (int j = 0; j < expected[i].length; j++) {
+                assert actual.get(i, j) == expected[i][j] : message;
+            }
+        }
+    }
+
+    /**
+     * Tests get and set inside and outside the band.
+     */
+    private void testGetAndSet() {
+        GeneralBandMatrix matrix = new GeneralBandMatrix(4, 1, 2);
+        assert matrix.getSize() == 4 && matrix.getRows() == 4 && matrix.getColumns() == 4;
+        assert matrix.getLowerBandwidth() == 1 && matrix.getUpperBandwidth() == 2;
+        matrix.set(1, 0, 5);
+        matrix.set(0, 2, -3);
+        matrix.set(3, 3, 7);
+        assert matrix.get(1, 0) == 5 : "Sub-diagonal value not stored";
+        assert matrix.get(0, 1) == 0 : "Storage is not symmetric";
+        assert matrix.get(0, 2) == -3 && matrix.get(3, 3) == 7;
+        assert matrix.get(3, 0) == 0 && matrix.get(0, 3) == 0 : "Outside the band must be 0";
+        matrix.set(3, 0, 0); // zero outside the band is allowed
+
+        int[][] expected = {
+                {0, 0, -3, 0},
+                {5, 0, 0, 0},
+                {0, 0, 0, 0},
+                {0, 0, 0, 7}
+        };
+        assertValues(expected, matrix, "toArray mismatch");
+        assert matrix.toString().equals(new DenseMatrix(expected).toString()) : "toString mismatch";
+    }
+
+    /**
+     * Tests the validation of constructor arguments, indices and operands.
+     */
+    private void testValidation() {
+        boolean thrown = false;
+        try {
+            new GeneralBandMatrix(3, 3, 0);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Bandwidth >= size should throw";
+
+        GeneralBandMatrix matrix = new GeneralBandMatrix(3, 0, 1);
+        thrown = false;
+        try {
+            matrix.set(1, 0, 1);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Non-zero outside the band should throw";
+
+        thrown = false;
+        try {
+            matrix.get(3, 0);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Out of bounds index should throw";
+
+        thrown = false;
+        try {
+            matrix.times(new Matrix(4, 4));
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Mismatched multiplication should throw";
+    }
+
+    /**
+     * Tests the conversion of a symmetric BandMatrix.
+     */
+    private void testFromBandMatrix() {
+        BandMatrix band = new BandMatrix(5, 2);
+        band.set(0, 0, 4);
+        band.set(0, 1, -1);
+        band.set(0, 2, 2);
+        GeneralBandMatrix general = GeneralBandMatrix.from(band);
+        assert general.getLowerBandwidth() == 2 && general.getUpperBandwidth() == 2;
+        assertValues(band.toArray(), general, "Conversion from BandMatrix failed");
+
+        // More bands than the size allows are cut off.
+        BandMatrix wide = new BandMatrix(2, 4);
+        wide.set(0, 0, 1);
+        wide.set(0, 1, 3);
+        GeneralBandMatrix narrow = GeneralBandMatrix.from(wide);
+        assert narrow.getUpperBandwidth() == 1;
+        assertValues(wide.toArray(), narrow, "Conversion of a wide BandMatrix failed");
+    }
+
+    /**
+     * Tests addition of band matrices with different bandwidths and with other matrices.
+     */
+    private void testAddition() {
+        GeneralBandMatrix a = sample(6, 1, 0, 1);
+        GeneralBandMatrix b = sample(6, 0, 2, 2);
+        GeneralBandMatrix sum = a.plus(b);
+        assert sum.getLowerBandwidth() == 1 && sum.getUpperBandwidth() == 2;
+        int[][] left = a.toArray();
+        int[][] right = b.toArray();
+        for (int i = 0; i < 6; i++) {
+            for (int j = 0; j < 6; j++) {
+                assert sum.get(i, j) == left[i][j] + right[i][j] : "Band addition failed";
+            }
+        }
+
+        Matrix sparse = new Matrix(6, 6);
+        sparse.set(5, 0, 9);
+        MatrixInterface mixed = a.plus(sparse);
+        assert mixed instanceof Matrix;
+        assert mixed.get(5, 0) == 9 && mixed.get(1, 0) == left[1][0] : "Mixed addition failed";
+    }
+
+    /**
+     * Tests that band x band products are exact and stay banded.
+     */
+    private void testBandMultiplication() {
+        for (int size : new int[]{1, 2, 5, 9}) {
+            for (int lower = 0; lower < Math.min(size, 3); lower++) {
+                for (int upper = 0; upper < Math.min(size, 3); upper++) {
+                    GeneralBandMatrix a = sample(size, lower, upper, size);
+                    GeneralBandMatrix b = sample(size, upper, lower, lower + 3);
+                    GeneralBandMatrix product = a.times(b);
+                    assert product.getLowerBandwidth() == Math.min(size - 1, lower + upper);
+                    assert product.getUpperBandwidth() == Math.min(size - 1, upper + lower);
+                    assertValues(naiveProduct(a, b), product, "Band product failed");
+                }
+            }
+        }
+
+        BandMatrix band = new BandMatrix(7, 1);
+        band.set(0, 0, 2);
+        band.set(0, 1, -1);
+        BandMatrix other = new BandMatrix(7, 2);
+        other.set(0, 0, 1);
+        other.set(0, 1, 3);
+        other.set(0, 2, 1);
+        GeneralBandMatrix banded = band.timesBanded(other);
+        assert banded.getLowerBandwidth() == 3 && banded.getUpperBandwidth() == 3;
+        int[][] expected = naiveProduct(band, other);
+        assertValues(expected, banded, "BandMatrix.timesBanded failed");
+        assertValues(expected, band.times(other), "BandMatrix.times(BandMatrix) failed");
+        BandMatrix zero = new BandMatrix(7);
+        assertValues(expected, banded.times((MatrixInterface) zero).plus(banded), "Mixed band operations failed");
+    }
+
+    /**
+     * Tests multiplication with sparse and dense matrices.
+     */
+    private void testMixedMultiplication() {
+        GeneralBandMatrix band = sample(5, 2, 1, 4);
+        Matrix sparse = new Matrix(5, 3);
+        sparse.set(0, 0, 2);
+        sparse.set(2, 1, -1);
+        sparse.set(4, 2, 5);
+        MatrixInterface product = band.times(sparse);
+        assert product instanceof Matrix;
+        assertValues(naiveProduct(band, sparse), product, "Band x Matrix failed");
+
+        DenseMatrix dense = new DenseMatrix(new int[][]{{1, 2}, {3, 4}, {5, 6}, {7, 8}, {9, 10}});
+        assertValues(naiveProduct(band, dense), band.times(dense), "Band x DenseMatrix failed");
+    }
+
+    /**
+     * Tests that the product of two tridiagonal matrices of size 10^6 is feasible and correct.
+     */
+    private void testLargeTridiagonalProduct() {
+        int size = 1_000_000;
+        GeneralBandMatrix a = new GeneralBandMatrix(size, 1, 1);
+        GeneralBandMatrix b = new GeneralBandMatrix(size, 1, 1);
+        for (int i = 0; i < size; i++) {
+            a.set(i, i, 2);
+            b.set(i, i, 3);
+            if (i + 1 < size) {
+                a.set(i, i + 1, -1);
+                a.set(i + 1, i, -1);
+                b.set(i, i + 1, 1);
+                b.set(i + 1, i, 1);
+            }
+        }
+        GeneralBandMatrix product = a.times(b);
+        assert product.getLowerBandwidth() == 2 && product.getUpperBandwidth() == 2;
+        int middle = size / 2;
+        assert product.get(middle, middle) == 2 * 3 + (-1) * 1 + (-1) * 1;
+        assert product.get(middle, middle + 1) == 2 * 1 + (-1) * 3;
+        assert product.get(middle, middle + 2) == -1;
+        assert product.get(middle + 2, middle) == -1;
+        assert product.get(0, 0) == 2 * 3 + (-1) * 1 : "Edge row failed";
+        assert product.get(size - 1, size - 1) == 2 * 3 + (-1) * 1 : "Edge row failed";
+    }
+
+    /**
+     * Tests the matrix-vector product, which walks the stored diagonals.
+     */
+    private void testVectorMultiplication() {
+        GeneralBandMatrix matrix = sample(8, 2, 1, 5);
+        int[] x = {1, 2, 3, 4, -4, -3, -2, -1};
+        int[][] array = matrix.toArray();
+        int[] y = matrix.times(x);
+        for (int i = 0; i < 8; i++) {
+            int expected = 0;
+            for (int j = 0; j < 8; j++) {
+                expected += array[i][j] * x[j];
+            }
+            assert y[i] == expected : "GeneralBandMatrix times vector failed.";
+        }
+    }
+
+    /**
+     * Tests the in-place operations, including a sum that doesn't fit the band.
+     */
+    private void testInPlaceOperations() {
+        GeneralBandMatrix matrix = sample(6, 2, 2, 1);
+        int[][] original = matrix.toArray();
+        matrix.addInPlace(sample(6, 1, 0, 2));
+        matrix.scaleInPlace(3);
+        int[][] added = sample(6, 1, 0, 2).toArray();
+        for (int i = 0; i < 6; i++) {
+            for (int j = 0; j < 6; j++) {
+                assert matrix.get(i, j) == 3 * (original[i][j] + added[i][j]) : "In-place operations failed.";
+            }
+        }
+
+        int[][] before = matrix.toArray();
+        Matrix outside = new Matrix(6, 6);
+        outside.set(0, 1, 1);
+        outside.set(5, 0, 1);
+        boolean thrown = false;
+        try {
+            matrix.addInPlace(outside);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Entries outside the band should throw.";
+        assertValues(before, matrix, "A failed addInPlace must not change the matrix.");
+    }
+}
@@ -1,7 +1,11 @@
 package assignmenttwo;
 
 /**
- * This is a general tester class that initiates tests for BandMatrix, Matrix, and SquareMatrix.
+ * This is a general tester class that initiates tests for BandMatrix, Matrix, SquareMatrix,
+ * the compressed (CsrMatrix and CscMatrix) matrices, DenseMatrix, GeneralBandMatrix, the ParallelMultiplier,
+ * the IntKernels, the KernelRegistry, the long and double matrices, the off-heap and the memory-mapped matrices,
+ * the MatrixFiles and MatrixMarket formats, the OutOfCoreMultiplier, MatrixExpression, MatrixChain,
+ * the persistent and versioned matrices, the ConcurrentSparseMatrix and the ResultCache.
  * The separate Tester classes for the above matrices use assertions.
  *
  * @author Nikola Desnica
@@ -24,6 +28,60 @@ public class GeneralTester {
         SquareMatrixTester squareMatrixTester = new SquareMatrixTester();
         squareMatrixTester.runTests();
 
+        CompressedMatrixTester compressedMatrixTester = new CompressedMatrixTester();
+        compressedMatrixTester.runTests();
+
+        DenseMatrixTester denseMatrixTester = new DenseMatrixTester();
+        denseMatrixTester.runTests();
+
+        GeneralBandMatrixTester generalBandMatrixTester = new GeneralBandMatrixTester();
+        generalBandMatrixTester.runTests();
+
+        ParallelMultiplierTester parallelMultiplierTester = new ParallelMultiplierTester();
+        parallelMultiplierTester.runTests();
+
+        IntKernelsTester intKernelsTester = new IntKernelsTester();
+        intKernelsTester.runTests();
+
+        KernelRegistryTester kernelRegistryTester = new KernelRegistryTester();
+        kernelRegistryTester.runTests();
+
+        LongMatrixTester longMatrixTester = new LongMatrixTester();
+        longMatrixTester.runTests();
+
+        DoubleMatrixTester doubleMatrixTester = new DoubleMatrixTester();
+        doubleMatrixTester.runTests();
+
+        OffHeapMatrixTester offHeapMatrixTester = new OffHeapMatrixTester();
+        offHeapMatrixTester.runTests();
+
+        MappedMatrixTester mappedMatrixTester = new MappedMatrixTester();
+        mappedMatrixTester.runTests();
+
+        MatrixFilesTester matrixFilesTester = new MatrixFilesTester();
+        matrixFilesTester.runTests();
+
+        MatrixMarketTester matrixMarketTester = new MatrixMarketTester();
+        matrixMarketTester.runTests();
+
+        OutOfCoreMultiplierTester outOfCoreMultiplierTester = new OutOfCoreMultiplierTester();
+        outOfCoreMultiplierTester.runTests();
+
+        MatrixExpressionTester matrixExpressionTester = new MatrixExpressionTester();
+        matrixExpressionTester.runTests();
+
+        MatrixChainTester matrixChainTester = new MatrixChainTester();
+        matrixChainTester.runTests();
+
+        PersistentMatrixTester persistentMatrixTester = new PersistentMatrixTester();
+        persistentMatrixTester.runTests();
+
+        ConcurrentSparseMatrixTester concurrentSparseMatrixTester = new ConcurrentSparseMatrixTester();
+        concurrentSparseMatrixTester.runTests();
+
+        ResultCacheTester resultCacheTester = new ResultCacheTester();
+        resultCacheTester.runTests();
+
         System.out.println();
         System.out.println("All tests passed!");
     }
@@ -0,0 +1,92 @@
+package assignmenttwo;
+
+/**
+ * Inner loops over contiguous int storage, shared by the dense kernels (DenseMatrix, StrassenMultiplier).
+ * Two implementations exist:
+ * <ul>
+ *     <li>VectorKernels uses the JDK Vector API (jdk.incubator.vector) with the preferred species of the
+ *     CPU, so AVX2/AVX-512 or NEON lanes are used.</li>
+ *     <li>ScalarKernels uses plain loops.</li>
+ * </ul>
+ * VectorKernels lives in the optional source directory incubator/, so the default build
+ * (javac -d out *.java) doesn't need the incubator modules. The vectorized build adds it with
+ * javac --add-modules jdk.incubator.vector,jdk.incubator.foreign -d out *.java incubator/*.java
+ * (the directory also holds SegmentArena) and is run with the same --add-modules.
+ * get() picks VectorKernels when it was compiled and the module is available at runtime, and falls back to
+ * ScalarKernels otherwise, or when -Dassignmenttwo.kernels=scalar is set.
+ * Integer arithmetic wraps the same way in every order, so both give identical results.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public interface IntKernels {
+
+    /**
+     * Returns the kernels selected for this JVM.
+     *
+     * @return the vectorized kernels if the Vector API is available, the scalar kernels otherwise.
+     */
+    static IntKernels get() {
+        return IntKernelsHolder.ACTIVE;
+    }
+
+    /**
+     * @return a short name of the implementation (for logging).
+     */
+    String name();
+
+    /**
+     * Computes y[yOff + i] += alpha * x[xOff + i] for i in [0, length).
+     *
+     * @param alpha The scalar factor.
+     * @param x The source array.
+     * @param xOff The offset in x.
+     * @param y The accumulator array.
+     * @param yOff The offset in y.
+     * @param length The number of elements.
+     */
+    void axpy(int alpha, int[] x, int xOff, int[] y, int yOff, int length);
+
+    /**
+     * Computes four axpy updates sharing the same x, so every loaded element of x is used four times
+     * (the register-blocked micro-kernel of the dense multiplication): y[yOffN + i] += alphaN * x[xOff + i].
+     *
+     * @param alpha0 The factor for the first row.
+     * @param alpha1 The factor for the second row.
+     * @param alpha2 The factor for the third row.
+     * @param alpha3 The factor for the fourth row.
+     * @param x The source array.
+     * @param xOff The offset in x.
+     * @param y The accumulator array.
+     * @param yOff0 The offset of the first row in y.
+     * @param yOff1 The offset of the second row in y.
+     * @param yOff2 The offset of the third row in y.
+     * @param yOff3 The offset of the fourth row in y.
+     * @param length The number of elements.
+     */
+    void axpy4(int alpha0, int alpha1, int alpha2, int alpha3, int[] x, int xOff,
+               int[] y, int yOff0, int yOff1, int yOff2, int yOff3, int length);
+
+    /**
+     * Computes y[yOff + i] += x[xOff + i] for i in [0, length).
+     *
+     * @param x The source array.
+     * @param xOff The offset in x.
+     * @param y The accumulator array.
+     * @param yOff The offset in y.
+     * @param length The number of elements.
+     */
+    void add(int[] x, int xOff, int[] y, int yOff, int length);
+
+    /**
+     * Computes the sum of x[xOff + i] * y[yOff + i] for i in [0, length).
+     *
+     * @param x The first array.
+     * @param xOff The offset in x.
+     * @param y The second array.
+     * @param yOff The offset in y.
+     * @param length The number of elements.
+     * @return the dot product.
+     */
+    int dot(int[] x, int xOff, int[] y, int yOff, int length);
+}
@@ -0,0 +1,94 @@
+package assignmenttwo;
+
+import java.util.Arrays;
+
+/**
+ * This is a tester class for the IntKernels implementations.
+ * The selected kernels (vectorized when the Vector API is available) are compared to ScalarKernels
+ * on lengths around the vector width and with offsets.
+ *
+ * @author Nikola Desnica
+ * @version 1.0
+ */
+public class IntKernelsTester {
+
+    /**
+     * Runs all the test methods for the IntKernels implementations.
+     */
+    public void runTests() {
+        IntKernels scalar = new ScalarKernels();
+        IntKernels active = IntKernels.get();
+        for (int length = 0; length < 70; length += 3) {
+            testAxpy(scalar, active, length);
+            testAxpy4(scalar, active, length);
+            testAddAndDot(scalar, active, length);
+        }
+        System.out.println("All IntKernels tests passed (" + active.name() + ")!");
+    }
+
+    /**
+     * Fills an array with values that include negatives and large magnitudes (to exercise wrap-around).
+     *
+     * @param length The array length.
+     * @param seed Changes the values.
+     * @return the array.
+     */
+    private static int[] sample(int length, int seed) {
+        int[] array = new int[length];
+        for (int i = 0; i < length; i++) {
+            array[i] = (i * 0x9E3779B1 + seed * 31) >> (i % 7 == 0 ? 1 : 20);
+        }
+        return array;
+    }
+
+    /**
+     * Tests axpy with offsets.
+     *
+     * @param scalar The reference kernels.
+     * @param active The kernels under test.
+     * @param length The number of elements.
+     */
+    private void testAxpy(IntKernels scalar, IntKernels active, int length) {
+        int[] x = sample(length + 5, 1);
+        int[] expected = sample(length + 3, 2);
+        int[] actual = expected.clone();
+        scalar.axpy(-7, x, 5, expected, 3, length);
+        active.axpy(-7, x, 5, actual, 3, length);
+        assert Arrays.equals(expected, actual) : "axpy failed for length " + length + ".";
+    }
+
+    /**
+     * Tests axpy4 on four rows of one array.
+     *
+     * @param scalar The reference kernels.
+     * @param active The kernels under test.
+     * @param length The number of elements.
+     */
+    private void testAxpy4(IntKernels scalar, IntKernels active, int length) {
+        int[] x = sample(length + 1, 3);
+        int[] expected = sample(4 * length + 2, 4);
+        int[] actual = expected.clone();
+        scalar.axpy4(3, -1, 1 << 20, 0, x, 1, expected, 2, 2 + length, 2 + 2 * length, 2 + 3 * length, length);
+        active.axpy4(3, -1, 1 << 20, 0, x, 1, actual, 2, 2 + length, 2 + 2 * length, 2 + 3 * length, length);
+        assert Arrays.equals(expected, actual) : "axpy4 failed for length " + length + ".";
+    }
+
+    /**
+     * Tests add and dot.
+     *
+     * @param scalar The reference kernels.
+     * @param active The kernels under test.
+     * @param length The number of elements.
+     */
+    private void testAddAndDot(IntKernels scalar, IntKernels active, int length) {
+        int[] x = sample(length, 5);
+        int[] y = sample(length + 2, 6);
+        int[] expected = y.clone();
+        int[] actual = y.clone();
+        scalar.add(x, 0, expected, 2, length);
+        active.add(x, 0, actual, 2, length);
+        assert Arrays.equals(expected, actual) : "add failed for length " + length + ".";
+        assert scalar.dot(x, 0, y, 1, length) == active.dot(x, 0, y, 1, length)
+                : "dot failed for length " + length + ".";
+    }
+}
@@ -0,0 +1,21 @@
+package assignmenttwo;
+
+/**
+ * Receives the (row, column, value) triples of a matrix without boxing them,
+ * e.g. from MatrixInterface.forEachNonZero.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface IntTriConsumer {
+
+    /**
+     * Performs this operation on one entry.
+     *
+     * @param row the row of the entry
+     * @param column the column of the entry
+     * @param value the value of the entry
+     */
+    void accept(int row, int column, int value);
+}
@@ -0,0 +1,245 @@
+package assignmenttwo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Picks the kernel for (left representation, right representation, operation) at runtime,
+ * so mixed-type expressions get a specialized kernel regardless of the static types at the call site.
+ * <p>
+ * Lookup rules, in this order:
+ * <ol>
+ *     <li>The kernel registered for the closest pair of types: the runtime classes are tried first,
+ *     then their superclasses (left before right), so a SquareMatrix uses the kernels of Matrix.</li>
+ *     <li>The generic kernel: the plus/times method of the left operand. A generic product where one operand
+ *     is the identity (a BandMatrix or GeneralBandMatrix with only a main diagonal of 1) is a copy of the
+ *     other operand (see MatrixKernels.copy).</li>
+ * </ol>
+ * Resolved lookups are cached per pair of classes; registering a kernel clears the cache and bumps a
+ * generation counter, so a lookup that raced with a registration doesn't cache its stale result.
+ * Registries are thread-safe.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public final class KernelRegistry {
+
+    /** The default registry (lazily created, holds the built-in kernels). */
+    private static volatile KernelRegistry defaultRegistry;
+
+    /** The registered kernels. */
+    private final Map<Key, MatrixKernel<MatrixInterface, MatrixInterface>> kernels = new ConcurrentHashMap<>();
+
+    /** The resolved kernels per pair of runtime classes (including the generic fallback). */
+    private final Map<Key, MatrixKernel<MatrixInterface, MatrixInterface>> resolved = new ConcurrentHashMap<>();
+
+    /** The number of registrations, guarded by this registry. */
+    private long generation;
+
+    /**
+     * Constructs an empty registry (every pair uses the generic kernel).
+     */
+    public KernelRegistry() {
+    }
+
+    /**
+     * @return the shared registry with the built-in kernels.
+     */
+    public static KernelRegistry getDefault() {
+        KernelRegistry registry = defaultRegistry;
+        if (registry == null) {
+            synchronized (KernelRegistry.class) {
+                registry = defaultRegistry;
+                if (registry == null) {
+                    registry = withBuiltInKernels();
+                    defaultRegistry = registry;
+                }
+            }
+        }
+        return registry;
+    }
+
+    /**
+     * Creates a registry holding the built-in kernels (a new one, so it can be extended independently).
+     *
+     * @return the registry.
+     */
+    public static KernelRegistry withBuiltInKernels() {
+        KernelRegistry registry = new KernelRegistry();
+        registry.register(Matrix.class, BandMatrix.class, MatrixOperation.TIMES, MatrixKernels::sparseTimesBand);
+        registry.register(BandMatrix.class, Matrix.class, MatrixOperation.TIMES, MatrixKernels::bandTimesSparse);
+        registry.register(DenseMatrix.class, BandMatrix.class, MatrixOperation.TIMES, MatrixKernels::denseTimesBand);
+        registry.register(BandMatrix.class, DenseMatrix.class, MatrixOperation.TIMES, MatrixKernels::bandTimesDense);
+        registry.register(BandMatrix.class, BandMatrix.class, MatrixOperation.TIMES, BandMatrix::timesBanded);
+        registry.register(BandMatrix.class, BandMatrix.class, MatrixOperation.PLUS, BandMatrix::plus);
+        registry.register(BandMatrix.class, GeneralBandMatrix.class, MatrixOperation.TIMES,
+                (left, right) -> GeneralBandMatrix.from(left).times(right));
+        registry.register(BandMatrix.class, GeneralBandMatrix.class, MatrixOperation.PLUS,
+                (left, right) -> GeneralBandMatrix.from(left).plus(right));
+        registry.register(CsrMatrix.class, CsrMatrix.class, MatrixOperation.TIMES, CsrMatrix::times);
+        registry.register(CsrMatrix.class, CsrMatrix.class, MatrixOperation.PLUS, CsrMatrix::plus);
+        registry.register(CscMatrix.class, CscMatrix.class, MatrixOperation.TIMES, CscMatrix::times);
+        registry.register(CscMatrix.class, CscMatrix.class, MatrixOperation.PLUS, CscMatrix::plus);
+        return registry;
+    }
+
+    /**
+     * Registers (or replaces) the kernel for a pair of representations.
+     * The kernel also applies to subclasses, unless a closer pair is registered.
+     *
+     * @param left The class of the left operand.
+     * @param right The class of the right operand.
+     * @param operation The operation.
+     * @param kernel The kernel.
+     * @param <L> the type of the left operand.
+     * @param <R> the type of the right operand.
+     */
+    @SuppressWarnings("unchecked")
+    public <L extends MatrixInterface, R extends MatrixInterface> void register(
+            Class<L> left, Class<R> right, MatrixOperation operation, MatrixKernel<? super L, ? super R> kernel) {
+        if (left == null || right == null || operation == null || kernel == null) {
+            throw new IllegalArgumentException("Cannot register this kernel, an argument is null.");
+        }
+        synchronized (this) {
+            this.kernels.put(new Key(left, right, operation), (MatrixKernel<MatrixInterface, MatrixInterface>) kernel);
+            this.generation++;
+            this.resolved.clear();
+        }
+    }
+
+    /**
+     * Finds the kernel for the runtime classes of two operands (the generic kernel if none is registered).
+     *
+     * @param left The class of the left operand.
+     * @param right The class of the right operand.
+     * @param operation The operation.
+     * @return the kernel.
+     */
+    public MatrixKernel<MatrixInterface, MatrixInterface> find(Class<? extends MatrixInterface> left,
+                                                               Class<? extends MatrixInterface> right,
+                                                               MatrixOperation operation) {
+        Key key = new Key(left, right, operation);
+        MatrixKernel<MatrixInterface, MatrixInterface> kernel = this.resolved.get(key);
+        if (kernel == null) {
+            long seen;
+            synchronized (this) {
+                seen = this.generation;
+            }
+            kernel = resolve(left, right, operation);
+            synchronized (this) {
+                if (this.generation == seen) {
+                    this.resolved.put(key, kernel);
+                }
+            }
+        }
+        return kernel;
+    }
+
+    /**
+     * Walks the class hierarchies of both operands for the closest registered kernel.
+     *
+     * @param left The class of the left operand.
+     * @param right The class of the right operand.
+     * @param operation The operation.
+     * @return the kernel.
+     */
+    private MatrixKernel<MatrixInterface, MatrixInterface> resolve(Class<?> left, Class<?> right,
+                                                                   MatrixOperation operation) {
+        List<Class<?>> rightLineage = lineage(right);
+        for (Class<?> leftType : lineage(left)) {
+            for (Class<?> rightType : rightLineage) {
+                MatrixKernel<MatrixInterface, MatrixInterface> kernel =
+                        this.kernels.get(new Key(leftType, rightType, operation));
+                if (kernel != null) {
+                    return kernel;
+                }
+            }
+        }
+        return operation == MatrixOperation.PLUS ? MatrixInterface::plus : MatrixKernels::genericTimes;
+    }
+
+    /**
+     * @param type A matrix class.
+     * @return the class, its superclasses (without Object) and finally MatrixInterface.
+     */
+    private static List<Class<?>> lineage(Class<?> type) {
+        List<Class<?>> lineage = new ArrayList<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            lineage.add(current);
+        }
+        lineage.add(MatrixInterface.class);
+        return lineage;
+    }
+
+    /**
+     * Validates the operands and computes the operation with the best kernel.
+     *
+     * @param operation The operation.
+     * @param left The left operand.
+     * @param right The right operand.
+     * @return a new matrix holding the result.
+     */
+    public MatrixInterface apply(MatrixOperation operation, MatrixInterface left, MatrixInterface right) {
+        if (left == null || operation == null) {
+            throw new IllegalArgumentException("Cannot apply this operation, an argument is null.");
+        }
+        if (operation == MatrixOperation.PLUS) {
+            left.validateAddition(right);
+        } else {
+            left.validateMultiplication(right);
+        }
+        return find(left.getClass(), right.getClass(), operation).apply(left, right);
+    }
+
+    /**
+     * A (left class, right class, operation) triple.
+     */
+    private static final class Key {
+
+        /** The class of the left operand. */
+        private final Class<?> left;
+
+        /** The class of the right operand. */
+        private final Class<?> right;
+
+        /** The operation. */
+        private final MatrixOperation operation;
+
+        /**
+         * Constructs a Key.
+         *
+         * @param left The class of the left operand.
+         * @param right The class of the right operand.
+         * @param operation The operation.
+         */
+        Key(Class<?> left, Class<?> right, MatrixOperation operation) {
+            this.left = left;
+            this.right = right;
+            this.operation = operation;
+        }
+
+        /**
+         * @param object the object to compare with.
+         * @return true if both keys name the same classes and operation.
+         */
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) object;
+            return this.left == other.left && this.right == other.right && this.operation == other.operation;
+        }
+
+        /**
+         * @return the hash code of the key.
+         */
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.left, this.right, this.operation);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package assignmenttwo;
+
+/**
+ * This is a tester class for the KernelRegistry and MatrixOps.
+ * We test that every pair of representations gives the exact result, that the expected kernel
+ * (and result representation) is picked, and that custom kernels can be registered.
+ *
+ * @author Nikola Desnica
+ * @version 1.0
+ */
+public class KernelRegistryTester {
+
+    /**
+     * Runs all the test methods for the KernelRegistry.
+     */
+    public void runTests() {
+        testAllPairs();
+        testResultRepresentations();
+        testIdentity();
+        testCustomKernels();
+        testValidation();
+        System.out.println("All KernelRegistry tests passed!");
+    }
+
+    /**
+     * @return one matrix of every representation, all of size 6 x 6.
+     */
+    private static MatrixInterface[] samples() {
+        Matrix sparse = new Matrix(6, 6);
+        sparse.set(0, 5, 3);
+        sparse.set(2, 1, -2);
+        sparse.set(4, 4, 7);
+        SquareMatrix square = new SquareMatrix(new int[][]{
+                {1, 0, 0, 2, 0, 0}, {0, 0, 0, 0, 0, 0}, {0, 4, 0, 0, 0, -1},
+                {0, 0, 0, 0, 0, 0}, {5, 0, 0, 0, 1, 0}, {0, 0, 3, 0, 0, 0}});
+        BandMatrix band = new BandMatrix(6, 2);
+        band.set(0, 0, 2);
+        band.set(0, 1, -1);
+        band.set(0, 2, 3);
+        GeneralBandMatrix general = new GeneralBandMatrix(6, 1, 0);
+        for (int i = 0; i < 6; i++) {
+            general.set(i, i, i + 1);
+            if (i > 0) {
+                general.set(i, i - 1, -i);
+            }
+        }
+        DenseMatrix dense = new DenseMatrix(6, 6);
+        for (int i = 0; i < 6; i++) {
+            for (int j = 0; j < 6; j++) {
+                dense.set(i, j, (i * 5 + j * 3) % 7 - 3);
+            }
+        }
+        return new MatrixInterface[]{sparse, square, band, general, dense, CsrMatrix.from(square),
+                CsrMatrix.from(sparse).toCsc()};
+    }
+
+    /**
+     * Multiplies or adds two matrices with a plain loop over toArray().
+     *
+     * @param a The left operand.
+     * @param b The right operand.
+     * @param operation The operation.
+     * @return the result as a 2D array.
+     */
+    private static int[][] naive(MatrixInterface a, MatrixInterface b, MatrixOperation operation) {
+        int[][] left = a.toArray();
+        int[][] right = b.toArray();
+        int[][] result = new int[a.getRows()][b.getColumns()];
+        for (int i = 0; i < a.getRows(); i++) {
+            for (int j = 0; j < b.getColumns(); j++) {
+                if (operation == MatrixOperation.PLUS) {
+                    result[i][j] = left[i][j] + right[i][j];
+                } else {
+                    for (int k = 0; k < a.getColumns(); k++) {
+                        result[i][j] += left[i][k] * right[k][j];
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Asserts that a matrix holds the values of a 2D array.
+     *
+     * @param expected The expected values.
+     * @param actual The matrix to check.
+     * @param message The failure message.
+     */
+    private static void assertValues(int[][] expected, MatrixInterface actual, String message) {
+        assert expected.length == actual.getRows() && expected[0].length == actual.getColumns() : message;
+        for (int i = 0; i < expected.length; i++) {
+            for (int j = 0; j < expected[i].length; j++) {
+                assert actual.get(i, j) == expected[i][j] : message;
+            }
+        }
+    }
+
+    /**
+     * Tests plus and times for every pair of representations, through MatrixOps and through the
+     * plus/times methods (which now also use the band kernels for sparse operands).
+     */
+    private void testAllPairs() {
+        MatrixInterface[] samples = samples();
+        for (MatrixInterface left : samples) {
+            for (MatrixInterface right : samples) {
+                String pair = left.getClass().getSimpleName() + " x " + right.getClass().getSimpleName();
+                int[][] product = naive(left, right, MatrixOperation.TIMES);
+                assertValues(product, MatrixOps.times(left, right), "MatrixOps.times failed for " + pair);
+                assertValues(product, left.times(right), "times failed for " + pair);
+                assertValues(naive(left, right, MatrixOperation.PLUS), MatrixOps.plus(left, right),
+                        "MatrixOps.plus failed for " + pair);
+            }
+        }
+    }
+
+    /**
+     * Tests that the specialized kernels are picked (visible through the result representation).
+     */
+    private void testResultRepresentations() {
+        MatrixInterface[] samples = samples();
+        MatrixInterface sparse = samples[0];
+        MatrixInterface square = samples[1];
+        MatrixInterface band = samples[2];
+        MatrixInterface dense = samples[4];
+        MatrixInterface csr = samples[5];
+        assert MatrixOps.times(band, band) instanceof GeneralBandMatrix : "Band x band should stay banded.";
+        assert MatrixOps.plus(band, band) instanceof BandMatrix : "Band + band should stay a BandMatrix.";
+        assert MatrixOps.times(band, dense) instanceof DenseMatrix : "Band x dense should be dense.";
+        assert MatrixOps.times(dense, band) instanceof DenseMatrix : "Dense x band should be dense.";
+        assert MatrixOps.times(sparse, band) instanceof Matrix : "Sparse x band should be sparse.";
+        assert MatrixOps.times(csr, csr) instanceof CsrMatrix : "Csr x csr should stay compressed.";
+
+        KernelRegistry registry = KernelRegistry.getDefault();
+        assert registry.find(SquareMatrix.class, BandMatrix.class, MatrixOperation.TIMES)
+                == registry.find(Matrix.class, BandMatrix.class, MatrixOperation.TIMES)
+                : "SquareMatrix should use the kernels of Matrix.";
+        assert square.times(band).get(0, 0) == naive(square, band, MatrixOperation.TIMES)[0][0];
+    }
+
+    /**
+     * Tests that the identity is detected on either side, that the generic result is a copy, and that a
+     * registered kernel still wins over the identity shortcut.
+     */
+    private void testIdentity() {
+        BandMatrix identity = new BandMatrix(6);
+        identity.set(0, 0, 1);
+        KernelRegistry generic = new KernelRegistry();
+        for (MatrixInterface matrix : samples()) {
+            MatrixInterface left = generic.apply(MatrixOperation.TIMES, identity, matrix);
+            assert left.getClass() == matrix.getClass() : "Identity x A should keep the representation.";
+            assertValues(matrix.toArray(), left, "Identity x A failed.");
+            assertValues(matrix.toArray(), generic.apply(MatrixOperation.TIMES, matrix, identity),
+                    "A x identity failed.");
+            assertValues(matrix.toArray(), MatrixOps.times(identity, matrix), "Identity x A failed.");
+            assertValues(matrix.toArray(), MatrixOps.times(matrix, identity), "A x identity failed.");
+        }
+        Matrix sparse = (Matrix) samples()[0];
+        Matrix copy = (Matrix) generic.apply(MatrixOperation.TIMES, identity, sparse);
+        copy.set(0, 0, 9);
+        assert sparse.get(0, 0) == 0 : "The identity product must not alias the operand.";
+
+        int[] calls = {0};
+        generic.register(BandMatrix.class, Matrix.class, MatrixOperation.TIMES, (left, right) -> {
+            calls[0]++;
+            return left.times(right);
+        });
+        assertValues(sparse.toArray(), generic.apply(MatrixOperation.TIMES, identity, sparse), "Identity x A failed.");
+        assert calls[0] == 1 : "A registered kernel should be used for the identity too.";
+    }
+
+    /**
+     * Tests registering custom kernels, including the fallback through superclasses.
+     */
+    private void testCustomKernels() {
+        KernelRegistry registry = new KernelRegistry();
+        MatrixInterface[] samples = samples();
+        Matrix sparse = (Matrix) samples[0];
+        SquareMatrix square = (SquareMatrix) samples[1];
+
+        // Without registrations the generic kernel (the plus/times of the left operand) is used.
+        assertValues(naive(sparse, square, MatrixOperation.TIMES),
+                registry.apply(MatrixOperation.TIMES, sparse, square), "Generic kernel failed.");
+
+        int[] calls = {0};
+        registry.register(Matrix.class, Matrix.class, MatrixOperation.TIMES, (left, right) -> {
+            calls[0]++;
+            return left.times(right);
+        });
+        registry.apply(MatrixOperation.TIMES, square, square);
+        registry.apply(MatrixOperation.TIMES, sparse, square);
+        assert calls[0] == 2 : "Custom kernel should apply to subclasses.";
+
+        registry.register(SquareMatrix.class, SquareMatrix.class, MatrixOperation.TIMES, (left, right) -> {
+            calls[0] += 10;
+            return left.times(right);
+        });
+        registry.apply(MatrixOperation.TIMES, square, square);
+        assert calls[0] == 12 : "The closest registered pair should win.";
+        registry.apply(MatrixOperation.PLUS, square, square);
+        assert calls[0] == 12 : "Kernels are registered per operation.";
+    }
+
+    /**
+     * Tests that the operands are validated before dispatching.
+     */
+    private void testValidation() {
+        boolean thrown = false;
+        try {
+            MatrixOps.times(new BandMatrix(3), new Matrix(4, 4));
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Mismatched multiplication should throw.";
+
+        thrown = false;
+        try {
+            MatrixOps.plus(new Matrix(3, 3), null);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Null operand should throw.";
+
+        thrown = false;
+        try {
+            new KernelRegistry().register(Matrix.class, Matrix.class, MatrixOperation.PLUS, null);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Null kernel should throw.";
+    }
+}
@@ -0,0 +1,407 @@
+package assignmenttwo;
+
+import java.util.Arrays;
+
+/**
+ * The long-valued counterpart of Matrix: a sparse matrix whose non-zero entries are kept in a
+ * primitive open-addressing table (LongSparseEntries), so get and set never box or allocate.
+ * <p>
+ * Besides the usual operations it offers the widening conversion from any int matrix and
+ * multiplyExact, which multiplies two int matrices while accumulating in long,
+ * so large products don't silently wrap around (and don't need BigInteger).
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public class LongMatrix implements LongMatrixInterface {
+
+    /**
+     * Efficiently holds the non-zero entries of this LongMatrix Instance.
+     */
+    protected LongSparseEntries entries;
+
+    /**
+     * The number of rows in this LongMatrix Instance.
+     */
+    private final int rows;
+
+    /**
+     * The number of columns in this LongMatrix Instance.
+     */
+    private final int columns;
+
+    /**
+     * Constructs a LongMatrix Instance with the given dimensions.
+     *
+     * @param rows The indicated number of rows.
+     * @param columns The indicated number of columns.
+     */
+    public LongMatrix(int rows, int columns) {
+        if (rows <= 0 || columns <= 0) {
+            throw new IllegalArgumentException("Can not construct a matrix " +
+                    "with values of 0 for rows or columns.");
+        }
+        this.rows = rows; this.columns = columns;
+        this.entries = new LongSparseEntries();
+    }
+
+    /**
+     * Widens any int matrix into a LongMatrix, visiting only its non-zero entries.
+     *
+     * @param matrix The int matrix.
+     * @return the LongMatrix holding the same values.
+     */
+    public static LongMatrix from(MatrixInterface matrix) {
+        if (matrix == null) {
+            throw new IllegalArgumentException("The provided matrix is null.");
+        }
+        LongMatrix result = new LongMatrix(matrix.getRows(), matrix.getColumns());
+        matrix.forEachNonZero(result.entries::put);
+        return result;
+    }
+
+    /**
+     * Multiplies two int matrices exactly: every product is widened to long before it is accumulated.
+     * Both operands are read row by row through their compressed (CSR) form and every row of the result
+     * is accumulated in a dense long array (Gustavson), so the work is proportional to the number of
+     * multiplications that meet a non-zero on both sides.
+     * A single product is at most 2^62 in magnitude, so only sums with very many large terms can leave
+     * the long range; those throw an ArithmeticException instead of wrapping around.
+     *
+     * @param left The left operand.
+     * @param right The right operand.
+     * @return a new LongMatrix holding the exact product.
+     */
+    public static LongMatrix multiplyExact(MatrixInterface left, MatrixInterface right) {
+        if (left == null) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the passed Matrix is null.");
+        }
+        left.validateMultiplication(right);
+        CsrMatrix a = left instanceof CsrMatrix ? (CsrMatrix) left : CsrMatrix.from(left);
+        CsrMatrix b = right instanceof CsrMatrix ? (CsrMatrix) right : CsrMatrix.from(right);
+        int resultColumns = b.getColumns();
+        LongMatrix result = new LongMatrix(a.getRows(), resultColumns);
+        long[] accumulator = new long[resultColumns];
+        int[] lastRow = new int[resultColumns];
+        int[] touched = new int[resultColumns];
+        Arrays.fill(lastRow, -1);
+        for (int i = 0; i < a.getRows(); i++) {
+            int count = 0;
+            for (int p = a.rowStart(i); p < a.rowEnd(i); p++) {
+                long value = a.valueAt(p);
+                int k = a.columnAt(p);
+                for (int q = b.rowStart(k); q < b.rowEnd(k); q++) {
+                    int j = b.columnAt(q);
+                    if (lastRow[j] != i) {
+                        lastRow[j] = i;
+                        accumulator[j] = 0;
+                        touched[count++] = j;
+                    }
+                    accumulator[j] = Math.addExact(accumulator[j], value * b.valueAt(q));
+                }
+            }
+            for (int t = 0; t < count; t++) {
+                int j = touched[t];
+                if (accumulator[j] != 0) {
+                    result.entries.put(i, j, accumulator[j]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return rows.
+     */
+    @Override
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * @return columns.
+     */
+    @Override
+    public int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * @return the number of stored (non-zero) entries.
+     */
+    public int getNonZeroCount() {
+        return this.entries.size();
+    }
+
+    /**
+     * Fetches the value at the specified index.
+     *
+     * @param row the row position.
+     * @param column the column position.
+     * @return the value.
+     */
+    @Override
+    public long get(int row, int column) {
+        validateIndices(row, column);
+        return this.entries.get(row, column);
+    }
+
+    /**
+     * Sets the value of an entry (a value of 0 removes the entry).
+     *
+     * @param row The row index.
+     * @param column The column index.
+     * @param value The desired value.
+     */
+    @Override
+    public void set(int row, int column, long value) {
+        validateIndices(row, column);
+        if (value == 0) {
+            this.entries.remove(row, column);
+        } else {
+            this.entries.put(row, column, value);
+        }
+    }
+
+    /**
+     * Validates the indices passed (for get or set).
+     *
+     * @param row The row index.
+     * @param column The column index.
+     */
+    public void validateIndices(int row, int column) {
+        if (row < 0 || row > this.rows - 1) {
+            throw new IllegalArgumentException("The indicated row index is out of bounds for this matrix.");
+        }
+        if (column < 0 || column > this.columns - 1) {
+            throw new IllegalArgumentException("The indicated column index is out of bounds for this matrix.");
+        }
+    }
+
+    /**
+     * Transforms a LongMatrix instance into a String representation (same layout as Matrix.toString()).
+     *
+     * @return The String representation of this LongMatrix.
+     */
+    @Override
+    public String toString() {
+        long[][] array = toArray();
+        int maxWidth = (long) this.rows * this.columns > this.entries.size() ? 1 : 0;
+        for (int slot = 0; slot < this.entries.capacity(); slot++) {
+            if (this.entries.isOccupied(slot)) {
+                maxWidth = Math.max(maxWidth, Long.toString(this.entries.valueAt(slot)).length());
+            }
+        }
+        String formatString = "%" + maxWidth + "d";
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < this.rows; i++) {
+            sb.append("[");
+            for (int j = 0; j < this.columns; j++) {
+                if (j != 0) {
+                    sb.append(" ");
+                    sb.append(String.format(formatString, array[i][j]));
+                } else {
+                    sb.append(array[i][j]); // for the first column
+                }
+            }
+            sb.append("]\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Converts the matrix to a 2D array.
+     *
+     * @return A 2D array representation of the matrix.
+     */
+    @Override
+    public long[][] toArray() {
+        long[][] array = new long[this.rows][this.columns];
+        for (int slot = 0; slot < this.entries.capacity(); slot++) {
+            if (this.entries.isOccupied(slot)) {
+                array[this.entries.rowAt(slot)][this.entries.columnAt(slot)] = this.entries.valueAt(slot);
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Two LongMatrix objects are equal if they have the same dimensions and entries.
+     *
+     * @param matrix the object to be compared for equality with the current LongMatrix.
+     * @return true if the specified object is equal to the current LongMatrix, false otherwise.
+     */
+    @Override
+    public boolean equals(Object matrix) {
+        if (this == matrix) {
+            return true;
+        }
+        if (!(matrix instanceof LongMatrix)) {
+            return false;
+        }
+        LongMatrix other = (LongMatrix) matrix;
+        if (this.rows != other.rows || this.columns != other.columns) {
+            return false;
+        }
+        return this.entries.equals(other.entries);
+    }
+
+    /**
+     * @return a hash code consistent with equals.
+     */
+    @Override
+    public int hashCode() {
+        return (31 * this.rows + this.columns) * 31 + this.entries.hashCode();
+    }
+
+    /**
+     * Adds the current LongMatrix with another matrix.
+     *
+     * @param other The matrix to add.
+     * @return A new matrix that is the result of the addition.
+     */
+    @Override
+    public LongMatrix plus(LongMatrixInterface other) {
+        validateAddition(other);
+        LongMatrix result = new LongMatrix(this.rows, this.columns);
+        performAddition(result, other);
+        return result;
+    }
+
+    /**
+     * Validates the passed matrix before addition.
+     *
+     * @param other The matrix to add.
+     */
+    @Override
+    public void validateAddition(LongMatrixInterface other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot add these two matrices, the passed Matrix is null.");
+        }
+        if (this.rows != other.getRows() || this.columns != other.getColumns()) {
+            throw new IllegalArgumentException("Cannot add these two matrices, their dimensions don't match.");
+        }
+    }
+
+    /**
+     * Facilitates matrix addition for the plus method.
+     * If the result and the other matrix are both sparse, only the stored entries are visited.
+     *
+     * @param result The empty result matrix to be populated.
+     * @param other The matrix to be added to our LongMatrix instance.
+     */
+    @Override
+    public void performAddition(LongMatrixInterface result, LongMatrixInterface other) {
+        if (result instanceof LongMatrix && other instanceof LongMatrix) {
+            LongSparseEntries target = ((LongMatrix) result).entries;
+            LongSparseEntries stored = ((LongMatrix) other).entries;
+            for (int slot = 0; slot < this.entries.capacity(); slot++) {
+                if (this.entries.isOccupied(slot)) {
+                    target.put(this.entries.rowAt(slot), this.entries.columnAt(slot), this.entries.valueAt(slot));
+                }
+            }
+            for (int slot = 0; slot < stored.capacity(); slot++) {
+                if (stored.isOccupied(slot)) {
+                    target.add(stored.rowAt(slot), stored.columnAt(slot), stored.valueAt(slot));
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < this.rows; i++) {
+            for (int j = 0; j < this.columns; j++) {
+                long sum = this.get(i, j) + other.get(i, j);
+                if (sum != 0) {
+                    result.set(i, j, sum);
+                }
+            }
+        }
+    }
+
+    /**
+     * Multiplies the current LongMatrix with another matrix.
+     *
+     * @param other The matrix to multiply by.
+     * @return A new matrix that is the result of the multiplication.
+     */
+    @Override
+    public LongMatrix times(LongMatrixInterface other) {
+        validateMultiplication(other);
+        LongMatrix result = new LongMatrix(this.rows, other.getColumns());
+        performMultiplication(result, other);
+        return result;
+    }
+
+    /**
+     * Validates the passed matrix before multiplication.
+     *
+     * @param other The matrix to multiply by.
+     */
+    @Override
+    public void validateMultiplication(LongMatrixInterface other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the passed Matrix is null.");
+        }
+        if (this.columns != other.getRows()) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the columns of this matrix" +
+                    "don't match the rows of the matrix that was passed.");
+        }
+    }
+
+    /**
+     * Facilitates matrix multiplication for the times method.
+     * If the result and the other matrix are both sparse, the entries of the other matrix are grouped by row
+     * (counting sort) and every stored entry (i, k) of this matrix only meets row k; otherwise every cell is computed.
+     *
+     * @param result The empty result matrix to be populated.
+     * @param other The matrix to be multiplied with our LongMatrix instance.
+     */
+    @Override
+    public void performMultiplication(LongMatrixInterface result, LongMatrixInterface other) {
+        if (result instanceof LongMatrix && other instanceof LongMatrix) {
+            LongSparseEntries stored = ((LongMatrix) other).entries;
+            int[] rowPtr = new int[other.getRows() + 1];
+            for (int slot = 0; slot < stored.capacity(); slot++) {
+                if (stored.isOccupied(slot)) {
+                    rowPtr[stored.rowAt(slot) + 1]++;
+                }
+            }
+            for (int k = 0; k < other.getRows(); k++) {
+                rowPtr[k + 1] += rowPtr[k];
+            }
+            int[] next = Arrays.copyOf(rowPtr, other.getRows());
+            int[] columnsByRow = new int[stored.size()];
+            long[] valuesByRow = new long[stored.size()];
+            for (int slot = 0; slot < stored.capacity(); slot++) {
+                if (stored.isOccupied(slot)) {
+                    int position = next[stored.rowAt(slot)]++;
+                    columnsByRow[position] = stored.columnAt(slot);
+                    valuesByRow[position] = stored.valueAt(slot);
+                }
+            }
+            LongSparseEntries target = ((LongMatrix) result).entries;
+            for (int slot = 0; slot < this.entries.capacity(); slot++) {
+                if (this.entries.isOccupied(slot)) {
+                    int i = this.entries.rowAt(slot);
+                    int k = this.entries.columnAt(slot);
+                    long value = this.entries.valueAt(slot);
+                    for (int q = rowPtr[k]; q < rowPtr[k + 1]; q++) {
+                        target.add(i, columnsByRow[q], value * valuesByRow[q]);
+                    }
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < this.rows; i++) {
+            for (int j = 0; j < other.getColumns(); j++) {
+                long sum = 0;
+                for (int k = 0; k < this.columns; k++) {
+                    sum += this.get(i, k) * other.get(k, j);
+                }
+                if (sum != 0) {
+                    result.set(i, j, sum);
+                }
+            }
+        }
+    }
+}
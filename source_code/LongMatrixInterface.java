@@ -0,0 +1,105 @@
+package assignmenttwo;
+
+/**
+ * The long-valued counterpart of MatrixInterface (LongMatrix, LongSquareMatrix, LongBandMatrix).
+ * Values are plain longs all the way through (no boxing, no generics), so products of large
+ * int matrices can be kept exact.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public interface LongMatrixInterface {
+
+    /**
+     * Returns the number of rows in the matrix.
+     *
+     * @return the number of rows
+     */
+    int getRows();
+
+    /**
+     * Returns the number of columns in the matrix.
+     *
+     * @return the number of columns
+     */
+    int getColumns();
+
+    /**
+     * Retrieves the value at the specified row and column position.
+     *
+     * @param i the row position
+     * @param j the column position
+     * @return the value at the specified position
+     */
+    long get(int i, int j);
+
+    /**
+     * Sets the value at the specified row and column position.
+     *
+     * @param i     the row position
+     * @param j     the column position
+     * @param value the value to set
+     */
+    void set(int i, int j, long value);
+
+    /**
+     * Validates whether the given matrix is compatible for addition with this matrix.
+     *
+     * @param other the matrix to validate compatibility with
+     */
+    void validateAddition(LongMatrixInterface other);
+
+    /**
+     * Validates whether the given matrix is compatible for multiplication with this matrix.
+     *
+     * @param other the matrix to validate compatibility with
+     */
+    void validateMultiplication(LongMatrixInterface other);
+
+    /**
+     * Adds another matrix to this matrix. Implementations may narrow the return type.
+     *
+     * @param other the matrix to add
+     * @return a new matrix holding the sum
+     */
+    LongMatrixInterface plus(LongMatrixInterface other);
+
+    /**
+     * Multiplies this matrix with another matrix. Implementations may narrow the return type.
+     *
+     * @param other the matrix to multiply by
+     * @return a new matrix holding the product
+     */
+    LongMatrixInterface times(LongMatrixInterface other);
+
+    /**
+     * Helps in performing the matrix addition operation.
+     *
+     * @param result the matrix where the addition result will be stored
+     * @param other  the matrix to be added to the current matrix
+     */
+    void performAddition(LongMatrixInterface result, LongMatrixInterface other);
+
+    /**
+     * Helps in performing the matrix multiplication operation.
+     *
+     * @param result the matrix where the multiplication result will be stored
+     * @param other  the matrix to be multiplied with the current matrix
+     */
+    void performMultiplication(LongMatrixInterface result, LongMatrixInterface other);
+
+    /**
+     * Converts the matrix to a 2D array representation.
+     *
+     * @return a 2D array representation of the matrix
+     */
+    long[][] toArray();
+
+    /**
+     * Returns a string representation of the matrix.
+     *
+     * @return the string representation
+     */
+    @Override
+    String toString();
+}
@@ -0,0 +1,237 @@
+package assignmenttwo;
+
+/**
+ * This is a tester class for the long-valued matrices (LongMatrix, LongSquareMatrix and LongBandMatrix).
+ * We test the basic operations, the widening conversions and the exact int to long multiplication.
+ *
+ * @author Nikola Desnica
+ * @version 1.0
+ */
+public class LongMatrixTester {
+
+    /**
+     * Runs all the test methods for the long-valued matrices.
+     */
+    public void runTests() {
+        testGetAndSet();
+        testAddition();
+        testMultiplication();
+        testBandMatrix();
+        testConversions();
+        testMultiplyExact();
+        System.out.println("All LongMatrix tests passed!");
+    }
+
+    /**
+     * Multiplies two long matrices with a plain triple loop over toArray().
+     *
+     * @param a The left operand.
+     * @param b The right operand.
+     * @return the product as a 2D array.
+     */
+    private static long[][] naiveProduct(LongMatrixInterface a, LongMatrixInterface b) {
+        long[][] left = a.toArray();
+        long[][] right = b.toArray();
+        long[][] product = new long[a.getRows()][b.getColumns()];
+        for (int i = 0; i < a.getRows(); i++) {
+            for (int j = 0; j < b.getColumns(); j++) {
+                for (int k = 0; k < a.getColumns(); k++) {
+                    product[i][j] += left[i][k] * right[k][j];
+                }
+            }
+        }
+        return product;
+    }
+
+    /**
+     * Asserts that a matrix holds the values of a 2D array.
+     *
+     * @param expected The expected values.
+     * @param actual The matrix to check.
+     * @param message The failure message.
+     */
+    private static void assertValues(long[][] expected, LongMatrixInterface actual, String message) {
+        assert expected.length == actual.getRows() && expected[0].length == actual.getColumns() : message;
+        for (int i = 0; i < expected.length; i++) {
+            for (int j = 0; j < expected[i].length; j++) {
+                assert actual.get(i, j) == expected[i][j] : message;
+            }
+        }
+    }
+
+    /**
+     * Tests get, set (including values beyond the int range), toArray and toString.
+     */
+    private void testGetAndSet() {
+        LongMatrix matrix = new LongMatrix(2, 3);
+        matrix.set(0, 1, 5_000_000_000L);
+        matrix.set(1, 2, -7);
+        matrix.set(1, 0, 3);
+        matrix.set(1, 0, 0);
+        assert matrix.get(0, 1) == 5_000_000_000L && matrix.get(1, 2) == -7;
+        assert matrix.get(1, 0) == 0 && matrix.getNonZeroCount() == 2 : "Setting 0 should remove the entry";
+        assert matrix.toString().equals("[0 5000000000          0]\n[0          0         -7]\n");
+
+        boolean thrown = false;
+        try {
+            matrix.get(2, 0);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Out of bounds index should throw";
+
+        LongSquareMatrix square = new LongSquareMatrix(new long[][]{{1, 2}, {3, 4}});
+        assert square.getSize() == 2 && square.get(1, 0) == 3;
+        assert LongSquareMatrix.identityMatrix(3).get(2, 2) == 1;
+    }
+
+    /**
+     * Tests addition of sparse and square long matrices.
+     */
+    private void testAddition() {
+        LongMatrix a = new LongMatrix(2, 2);
+        a.set(0, 0, Long.MAX_VALUE - 1);
+        a.set(1, 1, 4);
+        LongMatrix b = new LongMatrix(2, 2);
+        b.set(0, 0, 1);
+        b.set(1, 1, -4);
+        LongMatrix sum = a.plus(b);
+        assert sum.get(0, 0) == Long.MAX_VALUE && sum.get(1, 1) == 0;
+        assert sum.getNonZeroCount() == 1 : "Cancelled entries should not be stored";
+
+        LongSquareMatrix square = new LongSquareMatrix(new long[][]{{1, 2}, {3, 4}});
+        assert square.plus(square) instanceof LongSquareMatrix;
+        assertValues(new long[][]{{2, 4}, {6, 8}}, square.plus(square), "Square addition failed");
+
+        boolean thrown = false;
+        try {
+            a.plus(new LongMatrix(3, 2));
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Mismatched addition should throw";
+    }
+
+    /**
+     * Tests multiplication of sparse and square long matrices.
+     */
+    private void testMultiplication() {
+        LongMatrix a = new LongMatrix(3, 4);
+        LongMatrix b = new LongMatrix(4, 2);
+        for (int i = 0; i < 3; i++) {
+            for (int k = 0; k < 4; k++) {
+                if ((i + k) % 2 == 0) {
+                    a.set(i, k, (i + 1) * 3_000_000_000L + k);
+                }
+            }
+        }
+        for (int k = 0; k < 4; k++) {
+            b.set(k, k % 2, k - 2);
+        }
+        assertValues(naiveProduct(a, b), a.times(b), "Sparse long multiplication failed");
+
+        LongSquareMatrix square = new LongSquareMatrix(new long[][]{{1, 2}, {3, 4}});
+        assert square.times(square) instanceof LongSquareMatrix;
+        assertValues(new long[][]{{7, 10}, {15, 22}}, square.times(square), "Square multiplication failed");
+        assert !(square.times(new LongMatrix(2, 3)) instanceof LongSquareMatrix);
+    }
+
+    /**
+     * Tests the LongBandMatrix structure and its band-limited operations.
+     */
+    private void testBandMatrix() {
+        LongBandMatrix band = new LongBandMatrix(6, 1);
+        band.set(0, 0, 4_000_000_000L);
+        band.set(0, 1, -1);
+        assert band.get(3, 2) == -1 && band.get(5, 5) == 4_000_000_000L && band.get(0, 2) == 0;
+        boolean thrown = false;
+        try {
+            band.set(0, 3, 1);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Skipping a band should throw";
+
+        LongBandMatrix other = new LongBandMatrix(6, 2);
+        other.set(0, 0, 2);
+        other.set(0, 1, 3);
+        other.set(0, 2, 5);
+        LongBandMatrix sum = band.plus(other);
+        assert sum.getBandCount() == 3 && sum.get(2, 0) == 5 && sum.get(1, 1) == 4_000_000_002L;
+
+        assertValues(naiveProduct(band, other), band.times(other), "Band x band multiplication failed");
+        LongMatrix sparse = new LongMatrix(6, 2);
+        sparse.set(0, 1, 7);
+        sparse.set(5, 0, -2);
+        assertValues(naiveProduct(band, sparse), band.times(sparse), "Band x matrix multiplication failed");
+        assertValues(naiveProduct(sparse.times(new LongMatrix(2, 6)), band),
+                sparse.times(new LongMatrix(2, 6)).times(band), "Matrix x band multiplication failed");
+    }
+
+    /**
+     * Tests the widening conversions from the int matrices.
+     */
+    private void testConversions() {
+        Matrix matrix = new Matrix(3, 2);
+        matrix.set(0, 1, Integer.MIN_VALUE);
+        matrix.set(2, 0, Integer.MAX_VALUE);
+        LongMatrix widened = LongMatrix.from(matrix);
+        assert widened.get(0, 1) == Integer.MIN_VALUE && widened.get(2, 0) == Integer.MAX_VALUE;
+        assert widened.getNonZeroCount() == 2;
+
+        SquareMatrix square = new SquareMatrix(new int[][]{{1, 0}, {0, -5}});
+        assertValues(new long[][]{{1, 0}, {0, -5}}, LongSquareMatrix.from(square), "SquareMatrix conversion failed");
+
+        BandMatrix band = new BandMatrix(4, 1);
+        band.set(0, 0, 9);
+        band.set(0, 1, -3);
+        LongBandMatrix longBand = LongBandMatrix.from(band);
+        assert longBand.getBandCount() == 2;
+        int[][] expected = band.toArray();
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                assert longBand.get(i, j) == expected[i][j] : "BandMatrix conversion failed";
+            }
+        }
+    }
+
+    /**
+     * Tests that multiplyExact doesn't wrap around where the int product does.
+     */
+    private void testMultiplyExact() {
+        SquareMatrix a = new SquareMatrix(3);
+        SquareMatrix b = new SquareMatrix(3);
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                if ((i * 3 + j) % 4 != 3) {
+                    a.set(i, j, Integer.MAX_VALUE - i - j);
+                    b.set(i, j, (i - j) * 100_000);
+                }
+            }
+        }
+        LongMatrix exact = LongMatrix.multiplyExact(a, b);
+        long[][] expected = naiveProduct(LongMatrix.from(a), LongMatrix.from(b));
+        assertValues(expected, exact, "multiplyExact failed");
+        MatrixInterface wrapped = a.times(b);
+        boolean differs = false;
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                assert wrapped.get(i, j) == (int) expected[i][j] : "The int product should wrap around";
+                differs |= wrapped.get(i, j) != expected[i][j];
+            }
+        }
+        assert differs : "The test values should overflow int";
+
+        DenseMatrix dense = new DenseMatrix(new int[][]{{1, 2, 3}, {4, 5, 6}});
+        CsrMatrix csr = CsrMatrix.from(new DenseMatrix(new int[][]{{1}, {0}, {-1}}));
+        assertValues(new long[][]{{-2}, {-2}}, LongMatrix.multiplyExact(dense, csr), "Mixed multiplyExact failed");
+
+        boolean thrown = false;
+        try {
+            LongMatrix.multiplyExact(dense, dense);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Mismatched multiplication should throw";
+    }
+}
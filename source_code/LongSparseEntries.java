@@ -0,0 +1,198 @@
+package assignmenttwo;
+
+import java.util.Arrays;
+
+/**
+ * The long-valued counterpart of SparseEntries, used by LongMatrix (and by DoubleMatrix, which stores
+ * the raw bits of its doubles here). Both share the key table of
+ * SparseKeyTable; only the parallel value array holds longs.
+ * <p>
+ * Memory per non-zero is 16 bytes per slot (8 byte key + 8 byte value), divided by the load factor.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public class LongSparseEntries extends SparseKeyTable {
+
+    /** Values stored in parallel to the keys. */
+    private long[] values;
+
+    /**
+     * Constructs an empty store with the minimum capacity.
+     */
+    public LongSparseEntries() {
+        this(0);
+    }
+
+    /**
+     * Constructs an empty store that can hold the expected number of entries without resizing.
+     *
+     * @param expectedSize The expected number of non-zero entries.
+     */
+    public LongSparseEntries(int expectedSize) {
+        super(expectedSize);
+        this.values = new long[capacity()];
+    }
+
+    /**
+     * Fetches the value stored at the given position.
+     *
+     * @param row The row index.
+     * @param column The column index.
+     * @return The stored value, or 0 if there is no entry.
+     */
+    public long get(int row, int column) {
+        return this.values[probe(pack(row, column))];
+    }
+
+    /**
+     * Stores a value at the given position, replacing any previous value.
+     * Callers are expected to remove entries instead of storing zeros.
+     *
+     * @param row The row index.
+     * @param column The column index.
+     * @param value The value to store.
+     */
+    public void put(int row, int column, long value) {
+        long key = pack(row, column);
+        int slot = probe(key);
+        this.values[slot] = value;
+        if (!isOccupied(slot)) {
+            occupy(slot, key);
+        }
+    }
+
+    /**
+     * Adds a delta to the value at the given position, removing the entry if the result is 0.
+     *
+     * @param row The row index.
+     * @param column The column index.
+     * @param delta The amount to add.
+     */
+    public void add(int row, int column, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        long key = pack(row, column);
+        int slot = probe(key);
+        if (!isOccupied(slot)) {
+            this.values[slot] = delta;
+            occupy(slot, key);
+        } else if (this.values[slot] + delta == 0) {
+            removeSlot(slot);
+        } else {
+            this.values[slot] += delta;
+        }
+    }
+
+    /**
+     * Removes the entry at the given position (if there is one).
+     *
+     * @param row The row index.
+     * @param column The column index.
+     */
+    public void remove(int row, int column) {
+        int slot = probe(pack(row, column));
+        if (isOccupied(slot)) {
+            removeSlot(slot);
+        }
+    }
+
+    /**
+     * Multiplies every value by a factor in place. Products that wrap around to 0 are removed in a second pass.
+     *
+     * @param factor The factor (0 clears the store).
+     */
+    public void scale(long factor) {
+        if (factor == 0) {
+            clear();
+            return;
+        }
+        boolean zeros = false;
+        for (int slot = 0; slot < this.values.length; slot++) {
+            if (isOccupied(slot)) {
+                this.values[slot] *= factor;
+                zeros |= this.values[slot] == 0;
+            }
+        }
+        if (zeros) {
+            removeZeros();
+        }
+    }
+
+    /**
+     * @param slot An occupied slot index.
+     * @return the value of the entry in that slot.
+     */
+    public long valueAt(int slot) {
+        return this.values[slot];
+    }
+
+    /**
+     * Two stores are equal if they hold exactly the same entries (table layout is irrelevant).
+     *
+     * @param o the object to be compared for equality with this store.
+     * @return true if both stores hold the same entries.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LongSparseEntries)) {
+            return false;
+        }
+        LongSparseEntries other = (LongSparseEntries) o;
+        if (size() != other.size()) {
+            return false;
+        }
+        for (int slot = 0; slot < this.values.length; slot++) {
+            if (isOccupied(slot) && other.get(rowAt(slot), columnAt(slot)) != this.values[slot]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Order independent hash code over all entries.
+     *
+     * @return a hash code value for this store.
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int slot = 0; slot < this.values.length; slot++) {
+            if (isOccupied(slot)) {
+                hash += Long.hashCode(keyAt(slot)) ^ Long.hashCode(this.values[slot]);
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    void moveValue(int from, int to) {
+        this.values[to] = from < 0 ? 0 : this.values[from];
+    }
+
+    @Override
+    void clearValues() {
+        Arrays.fill(this.values, 0);
+    }
+
+    @Override
+    boolean isZeroAt(int slot) {
+        return this.values[slot] == 0;
+    }
+
+    @Override
+    void resizeValues(int[] targets, int capacity) {
+        long[] oldValues = this.values;
+        this.values = new long[capacity];
+        for (int slot = 0; slot < targets.length; slot++) {
+            if (targets[slot] >= 0) {
+                this.values[targets[slot]] = oldValues[slot];
+            }
+        }
+    }
+}
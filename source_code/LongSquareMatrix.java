@@ -0,0 +1,117 @@
+package assignmenttwo;
+
+/**
+ * The long-valued counterpart of SquareMatrix.
+ * Inherits the sparse storage and operations from LongMatrix and keeps results square.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public class LongSquareMatrix extends LongMatrix implements LongMatrixInterface {
+
+    /**
+     * The dimensions of this LongSquareMatrix Instance (rows == columns).
+     */
+    private final int size;
+
+    /**
+     * Constructs an all-zero square matrix.
+     *
+     * @param size The number of rows/columns for the matrix.
+     */
+    public LongSquareMatrix(int size) {
+        super(size, size);
+        this.size = size;
+    }
+
+    /**
+     * Constructs a LongSquareMatrix from a square 2D array.
+     *
+     * @param array The 2D array to construct the LongSquareMatrix from.
+     */
+    public LongSquareMatrix(long[][] array) {
+        this(getSquareSize(array));
+        for (int i = 0; i < this.size; i++) {
+            for (int j = 0; j < this.size; j++) {
+                set(i, j, array[i][j]);
+            }
+        }
+    }
+
+    /**
+     * Validates that the array is square.
+     *
+     * @param array The 2D array.
+     * @return the size of the array.
+     */
+    private static int getSquareSize(long[][] array) {
+        if (array == null) {
+            throw new IllegalArgumentException("The provided 2D array is null.");
+        }
+        for (long[] row : array) {
+            if (row.length != array.length) {
+                throw new IllegalArgumentException("The provided 2D array is not square.");
+            }
+        }
+        return array.length;
+    }
+
+    /**
+     * Widens an int SquareMatrix into a LongSquareMatrix.
+     *
+     * @param matrix The int square matrix.
+     * @return the LongSquareMatrix holding the same values.
+     */
+    public static LongSquareMatrix from(SquareMatrix matrix) {
+        if (matrix == null) {
+            throw new IllegalArgumentException("The provided matrix is null.");
+        }
+        LongSquareMatrix result = new LongSquareMatrix(matrix.getSize());
+        matrix.forEachNonZero(result.entries::put);
+        return result;
+    }
+
+    /**
+     * Returns the size of the square matrix.
+     *
+     * @return The number of rows/columns of the square matrix.
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Constructs an identity matrix of the given size.
+     *
+     * @param size The given size.
+     * @return An identity matrix.
+     */
+    public static LongSquareMatrix identityMatrix(int size) {
+        LongSquareMatrix identityMatrix = new LongSquareMatrix(size);
+        for (int i = 0; i < size; i++) {
+            identityMatrix.set(i, i, 1);
+        }
+        return identityMatrix;
+    }
+
+    @Override
+    public LongMatrix plus(LongMatrixInterface other) {
+        super.validateAddition(other);
+        LongSquareMatrix result = new LongSquareMatrix(this.size);
+        super.performAddition(result, other);
+        return result;
+    }
+
+    @Override
+    public LongMatrix times(LongMatrixInterface other) {
+        super.validateMultiplication(other);
+        LongMatrix result;
+        if (this.getColumns() == other.getColumns()) {
+            result = new LongSquareMatrix(this.size);
+        } else { // The resulting matrix is not square
+            result = new LongMatrix(this.getRows(), other.getColumns());
+        }
+        super.performMultiplication(result, other);
+        return result;
+    }
+}
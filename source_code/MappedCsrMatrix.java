@@ -0,0 +1,164 @@
+package assignmenttwo;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * CSR matrix backed by a memory-mapped file (see MatrixFileHeader for the format), for sparse matrices that are
+ * larger than the available memory. It is an OffHeapCsrMatrix on regions of a MappedMemory, so all kernels
+ * run directly over the mapping; results of plus and times are allocated in the arena passed when the file
+ * is opened.
+ * <p>
+ * The structure of a CSR matrix is fixed once it is written. In READ_WRITE mode set can still change the value
+ * of a stored entry (to a non-zero value), force() makes the change durable. Everything else throws an
+ * UnsupportedOperationException, like for the other compressed matrices.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public class MappedCsrMatrix extends OffHeapCsrMatrix implements AutoCloseable {
+
+    /** The mapped file. */
+    private final Path path;
+
+    /** The access mode. */
+    private final MappedMode mode;
+
+    /** The mapping of the whole file (header included). */
+    private final MappedMemory file;
+
+    /**
+     * @param arena The arena for the results.
+     * @param header The header of the file.
+     * @param file The mapping of the whole file.
+     * @param path The mapped file.
+     * @param mode The access mode.
+     */
+    private MappedCsrMatrix(OffHeapArena arena, MatrixFileHeader header, MappedMemory file,
+                            Path path, MappedMode mode) {
+        super(arena, header.rows, header.columns,
+                file.region(MatrixFileHeader.BYTES, (header.rows + 1L) * Long.BYTES),
+                file.region(MatrixFileHeader.BYTES + (header.rows + 1L) * Long.BYTES,
+                        header.entries * Integer.BYTES),
+                file.region(MatrixFileHeader.BYTES + (header.rows + 1L) * Long.BYTES + header.entries * Integer.BYTES,
+                        header.entries * Integer.BYTES));
+        this.file = file;
+        this.path = path;
+        this.mode = mode;
+    }
+
+    /**
+     * Creates (or overwrites) a file holding any matrix in CSR layout and maps it read-write.
+     * The matrix is converted in two passes over its non-zero entries, straight into the mapping.
+     *
+     * @param path The file.
+     * @param matrix The matrix to write.
+     * @param arena The arena for the results of plus and times.
+     * @return the mapped matrix.
+     * @throws IOException If the file can't be created.
+     */
+    public static MappedCsrMatrix write(Path path, MatrixInterface matrix, OffHeapArena arena) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("The path is null.");
+        }
+        long[] offsets = rowOffsets(matrix);
+        MatrixFileHeader header = new MatrixFileHeader(MatrixFileHeader.CSR, matrix.getRows(), matrix.getColumns(),
+                0, offsets[matrix.getRows()]);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            header.write(channel);
+            MappedMemory file = MappedMemory.map(channel, MatrixFileHeader.BYTES + header.dataBytes(),
+                    MappedMode.READ_WRITE);
+            MappedCsrMatrix mapped = new MappedCsrMatrix(arena, header, file, path, MappedMode.READ_WRITE);
+            mapped.scatter(matrix, offsets);
+            return mapped;
+        }
+    }
+
+    /**
+     * Maps an existing CSR matrix file.
+     *
+     * @param path The file.
+     * @param mode The access mode.
+     * @param arena The arena for the results of plus and times.
+     * @return the mapped matrix.
+     * @throws IOException If the file can't be read.
+     */
+    public static MappedCsrMatrix open(Path path, MappedMode mode, OffHeapArena arena) throws IOException {
+        if (path == null || mode == null) {
+            throw new IllegalArgumentException("The path and the mode can't be null.");
+        }
+        try (FileChannel channel = mode == MappedMode.READ_WRITE
+                ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ)) {
+            MatrixFileHeader header = MatrixFileHeader.read(channel);
+            if (!header.isCompressed()) {
+                throw new IllegalArgumentException("The matrix file is not a CSR or sparse matrix.");
+            }
+            MappedMemory file = MappedMemory.map(channel, MatrixFileHeader.BYTES + header.dataBytes(), mode);
+            return new MappedCsrMatrix(arena, header, file, path, mode);
+        }
+    }
+
+    /**
+     * @return the mapped file.
+     */
+    public Path getPath() {
+        return this.path;
+    }
+
+    /**
+     * @return the access mode.
+     */
+    public MappedMode getMode() {
+        return this.mode;
+    }
+
+    /**
+     * @param other the other matrix.
+     * @return true if other is this matrix or a memory-mapped matrix of the same file.
+     */
+    @Override
+    public boolean sharesStorageWith(MatrixInterface other) {
+        return other == this || MappedDenseMatrix.mapsSameFile(this.path, other);
+    }
+
+    /**
+     * Changes the value of a stored entry in READ_WRITE mode. Adding or removing entries would change the
+     * structure, which is fixed, so it throws an UnsupportedOperationException like any write in READ_ONLY mode.
+     *
+     * @param row the row position.
+     * @param column the column position.
+     * @param value the new (non-zero) value.
+     */
+    @Override
+    public void set(int row, int column, int value) {
+        validateIndices(row, column);
+        if (this.mode == MappedMode.READ_ONLY) {
+            throw new UnsupportedOperationException("The matrix file was mapped read-only.");
+        }
+        long position = find(row, column);
+        if (position < 0 || value == 0) {
+            throw new UnsupportedOperationException("The structure of a MappedCsrMatrix is fixed, " +
+                    "only stored entries can be changed to non-zero values.");
+        }
+        this.values.setInt(position, value);
+    }
+
+    /**
+     * Writes all changes to the storage device.
+     */
+    public void force() {
+        this.file.force();
+    }
+
+    /**
+     * Drops the mapping, every later access throws an IllegalStateException. Closing twice has no effect.
+     */
+    @Override
+    public void close() {
+        this.file.close();
+    }
+}
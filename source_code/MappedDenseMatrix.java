@@ -0,0 +1,220 @@
+package assignmenttwo;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Dense matrix backed by a memory-mapped file (see MatrixFileHeader for the format), for matrices that are
+ * larger than the available memory: the operating system pages the rows in and out as they are used.
+ * It is an OffHeapDenseMatrix on a MappedMemory, so all kernels run directly over the mapping;
+ * results of plus and times are allocated in the arena passed when the file is opened.
+ * <p>
+ * Writes (set, addInPlace, scaleInPlace, or use as a multiplyInto result) reach the file through the page cache,
+ * force() makes them durable. In READ_ONLY mode every write throws an UnsupportedOperationException.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public class MappedDenseMatrix extends OffHeapDenseMatrix implements AutoCloseable {
+
+    /** The mapped file. */
+    private final Path path;
+
+    /** The access mode. */
+    private final MappedMode mode;
+
+    /** The mapping of the whole file (header included). */
+    private final MappedMemory file;
+
+    /**
+     * @param arena The arena for the results.
+     * @param header The header of the file.
+     * @param file The mapping of the whole file.
+     * @param path The mapped file.
+     * @param mode The access mode.
+     */
+    private MappedDenseMatrix(OffHeapArena arena, MatrixFileHeader header, MappedMemory file,
+                              Path path, MappedMode mode) {
+        super(arena, header.rows, header.columns, file.region(MatrixFileHeader.BYTES, header.dataBytes()));
+        this.file = file;
+        this.path = path;
+        this.mode = mode;
+    }
+
+    /**
+     * Creates (or overwrites) a file holding an all-zero matrix and maps it read-write.
+     *
+     * @param path The file.
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param arena The arena for the results of plus and times.
+     * @return the mapped matrix.
+     * @throws IOException If the file can't be created.
+     */
+    public static MappedDenseMatrix create(Path path, int rows, int columns, OffHeapArena arena) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("The path is null.");
+        }
+        if (rows <= 0 || columns <= 0) {
+            throw new IllegalArgumentException("Can not construct a matrix " +
+                    "with values of 0 for rows or columns.");
+        }
+        MatrixFileHeader header = new MatrixFileHeader(MatrixFileHeader.DENSE, rows, columns, 0, (long) rows * columns);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            header.write(channel);
+            MappedMemory file = MappedMemory.map(channel, MatrixFileHeader.BYTES + header.dataBytes(),
+                    MappedMode.READ_WRITE);
+            return new MappedDenseMatrix(arena, header, file, path, MappedMode.READ_WRITE);
+        }
+    }
+
+    /**
+     * Creates (or overwrites) a file holding a copy of any matrix and maps it read-write.
+     *
+     * @param path The file.
+     * @param matrix The matrix to write.
+     * @param arena The arena for the results of plus and times.
+     * @return the mapped matrix.
+     * @throws IOException If the file can't be created.
+     */
+    public static MappedDenseMatrix write(Path path, MatrixInterface matrix, OffHeapArena arena) throws IOException {
+        if (matrix == null) {
+            throw new IllegalArgumentException("The provided matrix is null.");
+        }
+        MappedDenseMatrix mapped = create(path, matrix.getRows(), matrix.getColumns(), arena);
+        mapped.addInPlace(matrix);
+        return mapped;
+    }
+
+    /**
+     * Maps an existing dense matrix file.
+     *
+     * @param path The file.
+     * @param mode The access mode.
+     * @param arena The arena for the results of plus and times.
+     * @return the mapped matrix.
+     * @throws IOException If the file can't be read.
+     */
+    public static MappedDenseMatrix open(Path path, MappedMode mode, OffHeapArena arena) throws IOException {
+        if (path == null || mode == null) {
+            throw new IllegalArgumentException("The path and the mode can't be null.");
+        }
+        try (FileChannel channel = mode == MappedMode.READ_WRITE
+                ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ)) {
+            MatrixFileHeader header = MatrixFileHeader.read(channel);
+            if (header.kind != MatrixFileHeader.DENSE) {
+                throw new IllegalArgumentException("The matrix file is not a dense matrix.");
+            }
+            MappedMemory file = MappedMemory.map(channel, MatrixFileHeader.BYTES + header.dataBytes(), mode);
+            return new MappedDenseMatrix(arena, header, file, path, mode);
+        }
+    }
+
+    /**
+     * @return the mapped file.
+     */
+    public Path getPath() {
+        return this.path;
+    }
+
+    /**
+     * @return the access mode.
+     */
+    public MappedMode getMode() {
+        return this.mode;
+    }
+
+    /**
+     * @param other the other matrix.
+     * @return true if other is this matrix or a memory-mapped matrix of the same file.
+     */
+    @Override
+    public boolean sharesStorageWith(MatrixInterface other) {
+        return other == this || mapsSameFile(this.path, other);
+    }
+
+    /**
+     * Tells whether a matrix is a memory-mapped matrix (dense or CSR) of the given file.
+     *
+     * @param path The file.
+     * @param other The matrix.
+     * @return true if other maps the same file.
+     */
+    static boolean mapsSameFile(Path path, MatrixInterface other) {
+        Path otherPath = other instanceof MappedDenseMatrix ? ((MappedDenseMatrix) other).getPath()
+                : other instanceof MappedCsrMatrix ? ((MappedCsrMatrix) other).getPath() : null;
+        if (otherPath == null) {
+            return false;
+        }
+        try {
+            return Files.isSameFile(path, otherPath);
+        } catch (IOException e) {
+            return path.toAbsolutePath().normalize().equals(otherPath.toAbsolutePath().normalize());
+        }
+    }
+
+    /**
+     * Sets the value of an entry in the file.
+     *
+     * @param row the row position.
+     * @param column the column position.
+     * @param value the new value.
+     */
+    @Override
+    public void set(int row, int column, int value) {
+        checkWritable();
+        super.set(row, column, value);
+    }
+
+    /**
+     * Adds another matrix to this matrix in place, in the file.
+     *
+     * @param other The matrix to add.
+     */
+    @Override
+    public void addInPlace(MatrixInterface other) {
+        checkWritable();
+        super.addInPlace(other);
+    }
+
+    /**
+     * Multiplies every value by a factor in place, in the file.
+     *
+     * @param factor The factor.
+     */
+    @Override
+    public void scaleInPlace(int factor) {
+        checkWritable();
+        super.scaleInPlace(factor);
+    }
+
+    /**
+     * Throws an UnsupportedOperationException in READ_ONLY mode.
+     */
+    private void checkWritable() {
+        if (this.mode == MappedMode.READ_ONLY) {
+            throw new UnsupportedOperationException("The matrix file was mapped read-only.");
+        }
+    }
+
+    /**
+     * Writes all changes to the storage device.
+     */
+    public void force() {
+        this.file.force();
+    }
+
+    /**
+     * Drops the mapping, every later access throws an IllegalStateException. Changes that were not forced
+     * are still written back by the operating system. Closing twice has no effect.
+     */
+    @Override
+    public void close() {
+        this.file.close();
+    }
+}
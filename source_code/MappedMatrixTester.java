@@ -0,0 +1,301 @@
+package assignmenttwo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+/**
+ * This is a tester class for the memory-mapped matrices (MappedDenseMatrix and MappedCsrMatrix).
+ * The files are written to a temporary directory, reopened, and the results compared to the heap matrices.
+ *
+ * @author Nikola Desnica
+ * @version 1.0
+ */
+public class MappedMatrixTester {
+
+    /**
+     * Runs all the test methods for the memory-mapped matrices.
+     */
+    public void runTests() {
+        Path directory = null;
+        try (OffHeapArena arena = OffHeapArena.open()) {
+            directory = Files.createTempDirectory("mapped-matrix-test");
+            testChunkedMemory(directory.resolve("chunked.bin"));
+            testDenseMatrix(directory.resolve("dense.bin"), arena);
+            testCsrMatrix(directory.resolve("csr.bin"), arena);
+            testInvalidFiles(directory, arena);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deleteDirectory(directory);
+        }
+        System.out.println("All MappedMatrix tests passed!");
+    }
+
+    /**
+     * Deletes the temporary directory and its files.
+     *
+     * @param directory The directory (may be null).
+     */
+    private static void deleteDirectory(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Builds a small sparse test matrix.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param seed Changes the pattern of the entries.
+     * @return the sparse matrix.
+     */
+    private static Matrix sample(int rows, int columns, int seed) {
+        Matrix matrix = new Matrix(rows, columns);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                if ((i * 5 + j * 3 + seed) % 4 == 0) {
+                    matrix.set(i, j, (i + 2) * (j - seed));
+                }
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Tests the chunk arithmetic of MappedMemory with tiny chunks and regions.
+     *
+     * @param file The file to use.
+     * @throws IOException If the file can't be used.
+     */
+    private void testChunkedMemory(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedMemory memory = MappedMemory.map(channel, 100, MappedMode.READ_WRITE, 3);
+            assert channel.size() == 100 : "A read-write mapping should grow the file";
+            MappedMemory region = memory.region(8, 80);
+            for (int i = 0; i < 20; i++) {
+                region.setInt(i, i * 31 - 7);
+            }
+            for (int i = 0; i < 20; i++) {
+                assert region.getInt(i) == i * 31 - 7 : "Chunked int access failed";
+            }
+            assert memory.getInt(2) == -7 : "Region offset failed";
+            region.setLong(3, -1L);
+            assert region.getLong(3) == -1L && region.getInt(6) == -1 && region.getInt(7) == -1;
+            region.clear();
+            assert region.getLong(3) == 0 && memory.getInt(1) == 0 && memory.getInt(22) == 0;
+            memory.force();
+
+            boolean thrown = false;
+            try {
+                region.getInt(20);
+            } catch (IndexOutOfBoundsException e) {
+                thrown = true;
+            }
+            assert thrown : "Access outside the region should throw";
+
+            thrown = false;
+            try {
+                memory.region(6, 40);
+            } catch (IllegalArgumentException e) {
+                thrown = true;
+            }
+            assert thrown : "A region that is not aligned to ints should throw";
+            MappedMemory ints = region.region(4, 40);
+            int[] values = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+            int[] copy = new int[10];
+            ints.writeInts(0, values, 0, 10);
+            ints.readInts(0, copy, 0, 10);
+            assert Arrays.equals(values, copy) && memory.getInt(3) == 1 : "Bulk access across chunks failed";
+            memory.setInt(13, 10);
+            ints.clear();
+            assert memory.getInt(3) == 0 && memory.getInt(12) == 0 && memory.getInt(13) == 10;
+            thrown = false;
+            try {
+                ints.getLong(0);
+            } catch (IllegalArgumentException e) {
+                thrown = true;
+            }
+            assert thrown : "Long access on a region that is not aligned to longs should throw";
+
+            memory.close();
+            thrown = false;
+            try {
+                region.getInt(0);
+            } catch (IllegalStateException e) {
+                thrown = true;
+            }
+            assert thrown : "Access after close should throw";
+        }
+    }
+
+    /**
+     * Tests creating, writing, forcing and reopening a dense matrix file.
+     *
+     * @param file The file to use.
+     * @param arena The arena for the results.
+     * @throws IOException If the file can't be used.
+     */
+    private void testDenseMatrix(Path file, OffHeapArena arena) throws IOException {
+        Matrix a = sample(6, 5, 1);
+        Matrix b = sample(5, 4, 2);
+        try (MappedDenseMatrix mapped = MappedDenseMatrix.write(file, a, arena)) {
+            assert mapped.getMode() == MappedMode.READ_WRITE && mapped.getPath().equals(file);
+            TestMatrices.assertSameValues(a, mapped, "Writing the file failed");
+            mapped.set(5, 4, 77);
+            a.set(5, 4, 77);
+            mapped.force();
+        }
+        assert Files.size(file) == MatrixFileHeader.BYTES + 6 * 5 * Integer.BYTES;
+
+        try (MappedDenseMatrix mapped = MappedDenseMatrix.open(file, MappedMode.READ_ONLY, arena)) {
+            TestMatrices.assertSameValues(a, mapped, "Reopening the file failed");
+            TestMatrices.assertSameValues(a.plus(a), mapped.plus(a), "Addition failed");
+            TestMatrices.assertSameValues(a.times(b), mapped.times(b), "Multiplication failed");
+            TestMatrices.assertSameValues(a.times(b).plus(a.times(b)), mapped.times(b).plus(a.times(b)),
+                    "Chained operations failed");
+            assert mapped.times(b) instanceof OffHeapDenseMatrix;
+            boolean thrown = false;
+            try {
+                mapped.set(0, 0, 1);
+            } catch (UnsupportedOperationException e) {
+                thrown = true;
+            }
+            assert thrown : "Writing a read-only file should throw";
+        }
+
+        Path productFile = file.resolveSibling("product.bin");
+        try (MappedDenseMatrix product = MappedDenseMatrix.create(productFile, 6, 4, arena)) {
+            OffHeapDenseMatrix.from(arena, a).multiplyInto(product, b);
+            product.force();
+        }
+        try (MappedDenseMatrix product = MappedDenseMatrix.open(productFile, MappedMode.READ_WRITE, arena)) {
+            TestMatrices.assertSameValues(a.times(b), product, "multiplyInto a mapped result failed");
+            product.scaleInPlace(0);
+            assert product.nonZeros().count() == 0;
+        }
+
+        Path squareFile = file.resolveSibling("square.bin");
+        try (MappedDenseMatrix square = MappedDenseMatrix.create(squareFile, 4, 4, arena);
+             MappedDenseMatrix alias = MappedDenseMatrix.open(squareFile, MappedMode.READ_WRITE, arena)) {
+            assert square.sharesStorageWith(alias) && alias.sharesStorageWith(square);
+            boolean thrown = false;
+            try {
+                DenseMatrix.from(sample(4, 4, 1)).multiplyInto(alias, square);
+            } catch (IllegalArgumentException e) {
+                thrown = true;
+            }
+            assert thrown : "A result mapping the file of an operand should be rejected";
+        }
+    }
+
+    /**
+     * Tests writing and reopening a CSR matrix file.
+     *
+     * @param file The file to use.
+     * @param arena The arena for the results.
+     * @throws IOException If the file can't be used.
+     */
+    private void testCsrMatrix(Path file, OffHeapArena arena) throws IOException {
+        Matrix a = sample(7, 6, 3);
+        Matrix b = sample(6, 5, 0);
+        long nnz;
+        try (MappedCsrMatrix mapped = MappedCsrMatrix.write(file, a, arena)) {
+            TestMatrices.assertSameValues(a, mapped, "Writing the file failed");
+            nnz = mapped.getNonZeroCount();
+            assert nnz == CsrMatrix.from(a).getNonZeroCount();
+            int row = 0;
+            while (mapped.rowStart(row) == mapped.rowEnd(row)) {
+                row++;
+            }
+            int column = mapped.columnAt(mapped.rowStart(row));
+            mapped.set(row, column, -123);
+            a.set(row, column, -123);
+            mapped.force();
+
+            boolean thrown = false;
+            try {
+                mapped.set(row, column, 0);
+            } catch (UnsupportedOperationException e) {
+                thrown = true;
+            }
+            assert thrown : "Removing an entry should throw";
+        }
+
+        try (MappedCsrMatrix mapped = MappedCsrMatrix.open(file, MappedMode.READ_ONLY, arena)) {
+            assert mapped.getNonZeroCount() == nnz;
+            TestMatrices.assertSameValues(a, mapped, "Reopening the file failed");
+            TestMatrices.assertSameValues(a.times(b), mapped.times(b), "Multiplication failed");
+            TestMatrices.assertSameValues(a.plus(a), mapped.plus(a), "Addition failed");
+            int[] x = {1, -2, 3, -4, 5, -6};
+            int[] expected = a.times(x);
+            int[] y = mapped.times(x);
+            for (int i = 0; i < expected.length; i++) {
+                assert y[i] == expected[i] : "Vector multiplication failed";
+            }
+            boolean thrown = false;
+            try {
+                mapped.set(0, 0, 1);
+            } catch (UnsupportedOperationException e) {
+                thrown = true;
+            }
+            assert thrown : "Writing a read-only file should throw";
+        }
+    }
+
+    /**
+     * Tests that wrong or truncated files are rejected.
+     *
+     * @param directory The directory for the files.
+     * @param arena The arena for the results.
+     * @throws IOException If the files can't be used.
+     */
+    private void testInvalidFiles(Path directory, OffHeapArena arena) throws IOException {
+        Path dense = directory.resolve("dense.bin");
+        boolean thrown = false;
+        try {
+            MappedCsrMatrix.open(dense, MappedMode.READ_ONLY, arena);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Opening a dense file as CSR should throw";
+
+        Path truncated = directory.resolve("truncated.bin");
+        Files.write(truncated, Files.readAllBytes(dense), StandardOpenOption.CREATE);
+        try (FileChannel channel = FileChannel.open(truncated, StandardOpenOption.WRITE)) {
+            channel.truncate(MatrixFileHeader.BYTES + 4);
+        }
+        thrown = false;
+        try {
+            MappedDenseMatrix.open(truncated, MappedMode.READ_ONLY, arena);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "A truncated file should throw";
+
+        Path garbage = directory.resolve("garbage.bin");
+        Files.write(garbage, new byte[100]);
+        thrown = false;
+        try {
+            MappedDenseMatrix.open(garbage, MappedMode.READ_ONLY, arena);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "A file without the magic number should throw";
+    }
+}
@@ -0,0 +1,289 @@
+package assignmenttwo;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * OffHeapMemory on a memory-mapped file, so the operating system page cache decides which parts are resident
+ * and the file can be larger than the available memory. A MappedByteBuffer is limited to 2^31 bytes,
+ * so the file is mapped in chunks of 2^chunkShift bytes (like BufferArena) and region() gives views on parts
+ * of the file (for example the arrays behind a header). All values are little-endian, so the files
+ * don't depend on the machine that wrote them.
+ * <p>
+ * close() drops the mappings (for the file and all its regions) and fails every later access, the mappings
+ * themselves are released when the garbage collector collects the buffers.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public class MappedMemory implements OffHeapMemory {
+
+    /** Default chunk size: 2^30 bytes. */
+    public static final int DEFAULT_CHUNK_SHIFT = 30;
+
+    /** The mapped chunks of the whole file, shared by all regions (all null once closed). */
+    private final MappedByteBuffer[] chunks;
+
+    /** log2 of the chunk size. */
+    private final int shift;
+
+    /** offset & mask is the offset inside a chunk. */
+    private final long mask;
+
+    /** Offset of this region in the file. */
+    private final long base;
+
+    /** The size of this region in bytes. */
+    private final long byteSize;
+
+    /**
+     * @param chunks The mapped chunks of the whole file.
+     * @param shift log2 of the chunk size.
+     * @param base Offset of this region in the file.
+     * @param byteSize The size of this region in bytes.
+     */
+    private MappedMemory(MappedByteBuffer[] chunks, int shift, long base, long byteSize) {
+        this.chunks = chunks;
+        this.shift = shift;
+        this.mask = (1L << shift) - 1;
+        this.base = base;
+        this.byteSize = byteSize;
+    }
+
+    /**
+     * Maps the first byteSize bytes of a file with the default chunk size. A read-write mapping grows the file
+     * (with zeros) if it is shorter.
+     *
+     * @param channel The channel of the file (opened for reading, and for writing if writable).
+     * @param byteSize The number of bytes to map.
+     * @param mode The access mode.
+     * @return the mapped memory.
+     * @throws IOException If the file can't be mapped.
+     */
+    public static MappedMemory map(FileChannel channel, long byteSize, MappedMode mode) throws IOException {
+        return map(channel, byteSize, mode, DEFAULT_CHUNK_SHIFT);
+    }
+
+    /**
+     * Maps the first byteSize bytes of a file in chunks of 2^chunkShift bytes (small chunks are useful for testing).
+     *
+     * @param channel The channel of the file (opened for reading, and for writing if writable).
+     * @param byteSize The number of bytes to map.
+     * @param mode The access mode.
+     * @param chunkShift log2 of the chunk size, between 3 and 30.
+     * @return the mapped memory.
+     * @throws IOException If the file can't be mapped.
+     */
+    public static MappedMemory map(FileChannel channel, long byteSize, MappedMode mode, int chunkShift)
+            throws IOException {
+        if (channel == null || mode == null || byteSize < 0) {
+            throw new IllegalArgumentException("The channel and mode can't be null and the size can't be negative.");
+        }
+        if (chunkShift < 3 || chunkShift > 30) {
+            throw new IllegalArgumentException("The chunk shift must be between 3 and 30.");
+        }
+        FileChannel.MapMode mapMode = mode == MappedMode.READ_WRITE
+                ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        if (mode == MappedMode.READ_ONLY && channel.size() < byteSize) {
+            throw new IllegalArgumentException("The file is shorter than the mapped size.");
+        }
+        int count = (int) ((byteSize + (1L << chunkShift) - 1) >>> chunkShift);
+        MappedByteBuffer[] chunks = new MappedByteBuffer[count];
+        for (int c = 0; c < count; c++) {
+            long offset = (long) c << chunkShift;
+            long size = Math.min(1L << chunkShift, byteSize - offset);
+            chunks[c] = channel.map(mapMode, offset, size);
+            chunks[c].order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return new MappedMemory(chunks, chunkShift, 0, byteSize);
+    }
+
+    /**
+     * Returns a view on a part of this memory (offsets of the view start at 0).
+     * The region must start at a multiple of 4 bytes in the file, and of 8 bytes for long access.
+     *
+     * @param offset The offset in bytes.
+     * @param size The size of the view in bytes.
+     * @return the view.
+     */
+    public MappedMemory region(long offset, long size) {
+        if (offset < 0 || size < 0 || offset > this.byteSize - size) {
+            throw new IndexOutOfBoundsException("The region is out of bounds for " + this.byteSize + " bytes.");
+        }
+        if (((this.base + offset) & (Integer.BYTES - 1)) != 0) {
+            throw new IllegalArgumentException("A region must start at a multiple of " + Integer.BYTES + " bytes.");
+        }
+        return new MappedMemory(this.chunks, this.shift, this.base + offset, size);
+    }
+
+    /**
+     * Finds the chunk of a byte offset and checks the bounds and the mapping.
+     *
+     * @param offset The byte offset in this region.
+     * @param width The number of bytes accessed.
+     * @return the chunk.
+     */
+    private MappedByteBuffer chunk(long offset, int width) {
+        if (offset < 0 || offset > this.byteSize - width) {
+            throw new IndexOutOfBoundsException("Offset " + offset + " is out of bounds for " + this.byteSize
+                    + " bytes.");
+        }
+        MappedByteBuffer chunk = this.chunks[(int) ((this.base + offset) >>> this.shift)];
+        if (chunk == null) {
+            throw new IllegalStateException("The mapped file is closed.");
+        }
+        return chunk;
+    }
+
+    /**
+     * Checks that the longs of this region don't cross a chunk boundary.
+     */
+    private void checkLongAlignment() {
+        if ((this.base & (Long.BYTES - 1)) != 0) {
+            throw new IllegalArgumentException("Long access needs a region at a multiple of " + Long.BYTES
+                    + " bytes.");
+        }
+    }
+
+    /**
+     * @return the size of the block in bytes.
+     */
+    @Override
+    public long byteSize() {
+        return this.byteSize;
+    }
+
+    /**
+     * Reads the int at an index (in ints, not bytes).
+     *
+     * @param index The index.
+     * @return the value.
+     */
+    @Override
+    public int getInt(long index) {
+        long offset = index << 2;
+        return chunk(offset, Integer.BYTES).getInt((int) ((this.base + offset) & this.mask));
+    }
+
+    /**
+     * Writes the int at an index (in ints, not bytes).
+     *
+     * @param index The index.
+     * @param value The value.
+     */
+    @Override
+    public void setInt(long index, int value) {
+        long offset = index << 2;
+        chunk(offset, Integer.BYTES).putInt((int) ((this.base + offset) & this.mask), value);
+    }
+
+    /**
+     * Reads the long at an index (in longs, not bytes).
+     *
+     * @param index The index.
+     * @return the value.
+     */
+    @Override
+    public long getLong(long index) {
+        checkLongAlignment();
+        long offset = index << 3;
+        return chunk(offset, Long.BYTES).getLong((int) ((this.base + offset) & this.mask));
+    }
+
+    /**
+     * Writes the long at an index (in longs, not bytes).
+     *
+     * @param index The index.
+     * @param value The value.
+     */
+    @Override
+    public void setLong(long index, long value) {
+        checkLongAlignment();
+        long offset = index << 3;
+        chunk(offset, Long.BYTES).putLong((int) ((this.base + offset) & this.mask), value);
+    }
+
+    /**
+     * Sets every byte of this region of the file to 0.
+     */
+    @Override
+    public void clear() {
+        long offset = 0;
+        boolean longs = (this.base & (Long.BYTES - 1)) == 0;
+        for (; longs && offset + Long.BYTES <= this.byteSize; offset += Long.BYTES) {
+            chunk(offset, Long.BYTES).putLong((int) ((this.base + offset) & this.mask), 0);
+        }
+        for (; offset + Integer.BYTES <= this.byteSize; offset += Integer.BYTES) {
+            chunk(offset, Integer.BYTES).putInt((int) ((this.base + offset) & this.mask), 0);
+        }
+        for (; offset < this.byteSize; offset++) {
+            chunk(offset, 1).put((int) ((this.base + offset) & this.mask), (byte) 0);
+        }
+    }
+
+    /**
+     * Copies ints from this memory into an array with bulk copies per chunk (no per-element calls).
+     *
+     * @param index The first int index.
+     * @param target The array.
+     * @param offset The first position in the array.
+     * @param length The number of ints.
+     */
+    public void readInts(long index, int[] target, int offset, int length) {
+        long position = index << 2;
+        while (length > 0) {
+            int inChunk = (int) ((this.base + position) & this.mask);
+            int count = (int) Math.min(length, ((1L << this.shift) - inChunk) >>> 2);
+            chunk(position, count << 2).slice(inChunk, count << 2).order(ByteOrder.LITTLE_ENDIAN)
+                    .asIntBuffer().get(target, offset, count);
+            position += (long) count << 2;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * Copies ints from an array into this memory with bulk copies per chunk (no per-element calls).
+     *
+     * @param index The first int index.
+     * @param source The array.
+     * @param offset The first position in the array.
+     * @param length The number of ints.
+     */
+    public void writeInts(long index, int[] source, int offset, int length) {
+        long position = index << 2;
+        while (length > 0) {
+            int inChunk = (int) ((this.base + position) & this.mask);
+            int count = (int) Math.min(length, ((1L << this.shift) - inChunk) >>> 2);
+            chunk(position, count << 2).slice(inChunk, count << 2).order(ByteOrder.LITTLE_ENDIAN)
+                    .asIntBuffer().put(source, offset, count);
+            position += (long) count << 2;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * Writes all changes of the whole file to the storage device.
+     */
+    public void force() {
+        for (MappedByteBuffer chunk : this.chunks) {
+            if (chunk == null) {
+                throw new IllegalStateException("The mapped file is closed.");
+            }
+            if (!chunk.isReadOnly()) {
+                chunk.force();
+            }
+        }
+    }
+
+    /**
+     * Drops the mappings of the whole file (and all its regions). Closing twice has no effect.
+     */
+    public void close() {
+        Arrays.fill(this.chunks, null);
+    }
+}
@@ -0,0 +1,16 @@
+package assignmenttwo;
+
+/**
+ * The access modes of the memory-mapped matrices (MappedDenseMatrix, MappedCsrMatrix).
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public enum MappedMode {
+
+    /** The file is mapped read-only, every write throws an UnsupportedOperationException. */
+    READ_ONLY,
+
+    /** The file is mapped read-write, writes reach the file through the page cache (see force()). */
+    READ_WRITE
+}
@@ -1,24 +1,37 @@
 package assignmenttwo;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.Spliterator;
 
 /**
- * Maintains the entries of the Matrix in a HashMap for operation runtimes of O(1).
- * Compare to previous ArrayList implementation with operation runtimes of O(n).
- * The Entries class became obsolete, we have cleaner and less code now.
+ * Maintains the entries of the Matrix in a primitive open-addressing table (SparseEntries)
+ * for operation runtimes of O(1) without allocating on get or set.
+ * Compare to previous HashMap&lt;Pair, Integer&gt; implementation, which boxed every value and
+ * allocated a Pair key per access (roughly 80 bytes per entry compared to 12-16 now).
  * Has getter and setter methods for entries.
  * Performs matrix operations (i.e. addition and multiplication).
  * Has methods that validate and handle potential errors.
  *
  * @author Nikola Desnica (UNI: ndd2131)
- * @version 5.0
+ * @version 6.0
  */
 public class Matrix implements MatrixInterface {
 
     /**
      * Efficiently holds the non-zero entries of this Matrix Instance.
      */
-    protected HashMap<Pair, Integer> entries;
+    protected SparseEntries entries;
+
+    /**
+     * The number of changes of this Matrix Instance (package-private so kernels writing to the table count too).
+     */
+    long modifications;
+
+    /**
+     * The rows of this Matrix Instance grouped for multiplyAccumulate, with the modification count they were
+     * grouped at (null until the first use).
+     */
+    private RowView rowView;
 
     /**
      * The number of rows in this Matrix Instance.
@@ -41,7 +54,7 @@ public class Matrix implements MatrixInterface {
                     "with values of 0 for rows or columns.");
         }
         this.rows = rows; this.columns = columns;
-        this.entries = new HashMap<>();
+        this.entries = new SparseEntries();
     }
 
     /**
@@ -60,6 +73,14 @@ public class Matrix implements MatrixInterface {
         return this.columns;
     }
 
+    /**
+     * @return the number of changes so far.
+     */
+    @Override
+    public long getModificationCount() {
+        return this.modifications;
+    }
+
     /**
      * Fetches the value at the specified index.
      *
@@ -70,7 +91,7 @@ public class Matrix implements MatrixInterface {
     @Override
     public int get(int row, int column) {
         validateIndices(row, column);
-        return this.entries.getOrDefault(new Pair(row, column), 0);
+        return this.entries.get(row, column);
     }
 
     /**
@@ -88,11 +109,11 @@ public class Matrix implements MatrixInterface {
     @Override
     public void set(int row, int column, int value) {
         validateIndices(row, column);
-        Pair pairKey = new Pair(row, column);
+        this.modifications++;
         if (value == 0) {
-            this.entries.remove(pairKey);
+            this.entries.remove(row, column);
         } else {
-            this.entries.put(pairKey, value);
+            this.entries.put(row, column, value);
         }
     }
 
@@ -125,14 +146,15 @@ public class Matrix implements MatrixInterface {
 
         String formatString = "%" + maxWidth + "d";
 
+        int[][] array = toArray();
         for (int i = 0; i < this.rows; i++) {
             sb.append("[");
             for (int j = 0; j < this.columns; j++) {
                 if (j != 0) {
                     sb.append(" ");
-                    sb.append(String.format(formatString, get(i, j)));
+                    sb.append(String.format(formatString, array[i][j]));
                 } else {
-                    sb.append(get(i, j)); // for the first column
+                    sb.append(array[i][j]); // for the first column
                 }
             }
             sb.append("]\n");
@@ -146,16 +168,10 @@ public class Matrix implements MatrixInterface {
      * @return the element with the maximum width.
      */
     private int getMaxWidth() {
-        int maxWidth = 0;
-        for (int i = 0; i < this.rows; i++) {
-            for (int j = 0; j < this.columns; j++) {
-                int width = Integer.toString(get(i, j)).length();
-                if (width > maxWidth) {
-                    maxWidth = width;
-                }
-            }
-        }
-        return maxWidth;
+        // Cells that are not stored print as 0 (width 1)
+        int[] maxWidth = {(long) this.rows * this.columns > this.entries.size() ? 1 : 0};
+        forEachNonZero((i, j, value) -> maxWidth[0] = Math.max(maxWidth[0], Integer.toString(value).length()));
+        return maxWidth[0];
     }
 
     /**
@@ -167,10 +183,10 @@ public class Matrix implements MatrixInterface {
     public int[][] toArray() {
         int[][] array = new int[this.getRows()][this.getColumns()]; // initialize to all zeros by default
 
-        for (Map.Entry<Pair, Integer> entry : this.entries.entrySet()) {
-            Pair indices = entry.getKey();
-            int value = entry.getValue();
-            array[indices.row][indices.column] = value;
+        for (int slot = 0; slot < this.entries.capacity(); slot++) {
+            if (this.entries.isOccupied(slot)) {
+                array[this.entries.rowAt(slot)][this.entries.columnAt(slot)] = this.entries.valueAt(slot);
+            }
         }
 
         return array;
@@ -178,7 +194,7 @@ public class Matrix implements MatrixInterface {
 
     /**
      * Checks if the provided Matrix is equal to the current Matrix.
-     * Uses the HashMap class equals method (way simpler than ArrayList implementation).
+     * Uses the SparseEntries equals method (way simpler than ArrayList implementation).
      * <p>
      * Two Matrix objects are considered equal if:
      * <ul>
@@ -241,12 +257,24 @@ public class Matrix implements MatrixInterface {
     /**
      * Facilitates matrix addition for the plus method.
      * Omits value from resulting sparse matrix if entry is 0.
+     * If the result is a sparse Matrix and the other matrix is a sparse Matrix or a BandMatrix,
+     * only the stored entries (and band diagonals) are visited instead of every cell.
      *
      * @param result The empty result matrix to be populated.
      * @param other The matrix to be added to our Matrix instance.
      */
     @Override
     public void performAddition(MatrixInterface result, MatrixInterface other) {
+        if (result instanceof Matrix) {
+            if (other instanceof Matrix) {
+                performSparseAddition(result, (Matrix) other);
+                return;
+            }
+            if (other instanceof BandMatrix) {
+                performBandAddition(result, (BandMatrix) other);
+                return;
+            }
+        }
         for (int i = 0; i < this.rows; i++) {
             for (int j = 0; j < this.columns; j++) {
                 int sum = this.get(i, j) + other.get(i, j);
@@ -257,6 +285,73 @@ public class Matrix implements MatrixInterface {
         }
     }
 
+    /**
+     * Adds two sparse matrices by walking the union of their stored entries, in O(nnz + other.nnz).
+     * Entries present in both matrices are summed when this matrix is walked,
+     * the second walk only adds the entries that exist in the other matrix alone.
+     *
+     * @param result The empty sparse result matrix to be populated.
+     * @param other The sparse matrix to be added to our Matrix instance.
+     */
+    private void performSparseAddition(MatrixInterface result, Matrix other) {
+        for (int slot = 0; slot < this.entries.capacity(); slot++) {
+            if (this.entries.isOccupied(slot)) {
+                int i = this.entries.rowAt(slot);
+                int j = this.entries.columnAt(slot);
+                int sum = this.entries.valueAt(slot) + other.entries.get(i, j);
+                if (sum != 0) {
+                    result.set(i, j, sum);
+                }
+            }
+        }
+        for (int slot = 0; slot < other.entries.capacity(); slot++) {
+            if (other.entries.isOccupied(slot)) {
+                int i = other.entries.rowAt(slot);
+                int j = other.entries.columnAt(slot);
+                if (this.entries.get(i, j) == 0) {
+                    result.set(i, j, other.entries.valueAt(slot));
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a BandMatrix to this sparse matrix by walking the band diagonals directly
+     * and then the stored entries that lie outside the band, in O(size * bands + nnz).
+     *
+     * @param result The empty sparse result matrix to be populated.
+     * @param band The BandMatrix to be added to our Matrix instance.
+     */
+    private void performBandAddition(MatrixInterface result, BandMatrix band) {
+        int size = band.getSize();
+        int bandCount = band.getBandCount();
+        for (int d = 0; d < bandCount; d++) {
+            int bandValue = band.getBandValue(d);
+            for (int i = 0; i + d < size; i++) {
+                int sum = bandValue + this.entries.get(i, i + d);
+                if (sum != 0) {
+                    result.set(i, i + d, sum);
+                }
+                if (d != 0) {
+                    sum = bandValue + this.entries.get(i + d, i);
+                    if (sum != 0) {
+                        result.set(i + d, i, sum);
+                    }
+                }
+            }
+        }
+        for (int slot = 0; slot < this.entries.capacity(); slot++) {
+            if (this.entries.isOccupied(slot)) {
+                int i = this.entries.rowAt(slot);
+                int j = this.entries.columnAt(slot);
+                int bandIndex = j >= i ? j - i : i - j;
+                if (bandIndex >= bandCount) {
+                    result.set(i, j, this.entries.valueAt(slot));
+                }
+            }
+        }
+    }
+
     /**
      * Multiplies the current Matrix with another Matrix.
      *
@@ -290,12 +385,34 @@ public class Matrix implements MatrixInterface {
     /**
      * Facilitates matrix multiplication for the times method.
      * Omits value from resulting sparse matrix if entry is 0.
+     * If the other matrix is also sparse (Matrix, SquareMatrix or CsrMatrix), the sparse kernel is used,
+     * a DenseMatrix is combined row by row with the stored entries of this matrix,
+     * and a BandMatrix only meets the stored entries inside its band.
      *
      * @param result The empty result matrix to be populated.
      * @param other The matrix to be multiplied with our Matrix instance.
      */
     @Override
     public void performMultiplication(MatrixInterface result, MatrixInterface other) {
+        if (other instanceof Matrix) {
+            Matrix sparse = (Matrix) other;
+            SparseRows.multiply(SparseRows.of(this.entries, this.rows), this.rows,
+                    SparseRows.of(sparse.entries, sparse.rows), sparse.columns, result);
+            return;
+        }
+        if (other instanceof CsrMatrix) {
+            SparseRows.multiply(SparseRows.of(this.entries, this.rows), this.rows,
+                    ((CsrMatrix) other).asSparseRows(), other.getColumns(), result);
+            return;
+        }
+        if (other instanceof DenseMatrix) {
+            performDenseMultiplication(result, (DenseMatrix) other);
+            return;
+        }
+        if (other instanceof BandMatrix) {
+            MatrixKernels.sparseTimesBand(this, (BandMatrix) other, result);
+            return;
+        }
         for (int i = 0; i < this.rows; i++) {
             for (int j = 0; j < other.getColumns(); j++) {
                 int sum = 0;
@@ -308,4 +425,196 @@ public class Matrix implements MatrixInterface {
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Multiplies this Matrix with a column vector: y = A * x.
+     * Only the stored entries are visited (one slot scan of the table), so this is O(capacity) ~ O(nnz).
+     *
+     * @param x The vector to multiply by.
+     * @param y The vector receiving the product (overwritten).
+     */
+    @Override
+    public void timesInto(int[] x, int[] y) {
+        validateVectorMultiplication(x, y);
+        Arrays.fill(y, 0);
+        for (int slot = 0; slot < this.entries.capacity(); slot++) {
+            if (this.entries.isOccupied(slot)) {
+                y[this.entries.rowAt(slot)] += this.entries.valueAt(slot) * x[this.entries.columnAt(slot)];
+            }
+        }
+    }
+
+    /**
+     * Passes the stored entries of the rows [fromRow, toRow) to the action in one scan of the table,
+     * O(capacity) ~ O(nnz) (the order within the range is the table order, not row by row).
+     *
+     * @param fromRow The first row (inclusive).
+     * @param toRow The last row (exclusive).
+     * @param action The action receiving (row, column, value).
+     */
+    @Override
+    public void forEachNonZero(int fromRow, int toRow, IntTriConsumer action) {
+        validateRowRange(fromRow, toRow, action);
+        boolean allRows = fromRow == 0 && toRow == this.rows;
+        for (int slot = 0; slot < this.entries.capacity(); slot++) {
+            if (this.entries.isOccupied(slot)) {
+                int row = this.entries.rowAt(slot);
+                if (allRows || (row >= fromRow && row < toRow)) {
+                    action.accept(row, this.entries.columnAt(slot), this.entries.valueAt(slot));
+                }
+            }
+        }
+    }
+
+    /**
+     * The table has no row order, so the entries are first grouped into a CsrMatrix snapshot
+     * in O(nnz + rows) and the spliterator splits its row ranges (later set calls are not seen).
+     *
+     * @return the spliterator over the non-zero entries.
+     */
+    @Override
+    public Spliterator<MatrixEntry> spliterator() {
+        return CsrMatrix.fromMatrix(this).spliterator();
+    }
+
+    /**
+     * Adds another matrix to this Matrix in place by adding its non-zero entries to the table
+     * (entries that cancel out are removed). Adding the matrix to itself doubles it.
+     *
+     * @param other The matrix to add.
+     */
+    @Override
+    public void addInPlace(MatrixInterface other) {
+        validateAddition(other);
+        if (other == this) {
+            scaleInPlace(2);
+            return;
+        }
+        this.modifications++;
+        other.forEachNonZero(this.entries::add);
+    }
+
+    /**
+     * Multiplies every stored value by a factor in place, O(capacity). A factor of 0 clears
+     * the table but keeps its capacity, so refilling it (e.g. by multiplyInto) doesn't allocate.
+     *
+     * @param factor The factor.
+     */
+    @Override
+    public void scaleInPlace(int factor) {
+        this.modifications++;
+        this.entries.scale(factor);
+    }
+
+    /**
+     * Computes result += alpha * this * other. With a sparse result and a Matrix or CsrMatrix operand,
+     * every stored entry (i, k) meets row k of the other matrix and the products go straight into the
+     * table of the result; other combinations use the generic kernel.
+     * <p>
+     * A Matrix operand is read through its row view (see rowView()), so repeated calls with an unchanged
+     * operand and a result whose table is already large enough (e.g. the result of an earlier multiplyInto)
+     * don't allocate. Grouping a changed operand allocates its view once, and a growing result table
+     * allocates when it resizes.
+     *
+     * @param result The matrix accumulating the product.
+     * @param alpha The factor of the product.
+     * @param other The matrix to multiply by.
+     */
+    @Override
+    public void multiplyAccumulate(MatrixInterface result, int alpha, MatrixInterface other) {
+        validateResult(result, other);
+        if (alpha == 0) {
+            return;
+        }
+        SparseRows right = null;
+        if (other instanceof Matrix) {
+            right = ((Matrix) other).rowView();
+        } else if (other instanceof CsrMatrix) {
+            right = ((CsrMatrix) other).asSparseRows();
+        }
+        if (right == null || !(result instanceof Matrix)) {
+            MatrixInterface.super.multiplyAccumulate(result, alpha, other);
+            return;
+        }
+        SparseEntries target = ((Matrix) result).entries;
+        ((Matrix) result).modifications++;
+        for (int slot = 0; slot < this.entries.capacity(); slot++) {
+            if (this.entries.isOccupied(slot)) {
+                int i = this.entries.rowAt(slot);
+                int k = this.entries.columnAt(slot);
+                int scaled = alpha * this.entries.valueAt(slot);
+                for (int q = right.rowPtr[k]; q < right.rowPtr[k + 1]; q++) {
+                    target.add(i, right.columns[q], scaled * right.values[q]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the entries grouped by row, rebuilt in O(nnz + rows) only when this matrix changed since the
+     * last call. The view is kept with the matrix (it costs about 8 bytes per non-zero) and must not be
+     * modified.
+     *
+     * @return the row-grouped entries.
+     */
+    SparseRows rowView() {
+        RowView view = this.rowView;
+        if (view == null || view.modifications != this.modifications) {
+            view = new RowView(SparseRows.of(this.entries, this.rows), this.modifications);
+            this.rowView = view;
+        }
+        return view.rows;
+    }
+
+    /**
+     * Multiplies this sparse matrix with a DenseMatrix: every stored entry (i, k) adds
+     * value * row k of the dense matrix to row i of the result, so the rows of B are read contiguously.
+     *
+     * @param result The empty result matrix to be populated.
+     * @param other The DenseMatrix to be multiplied with our Matrix instance.
+     */
+    private void performDenseMultiplication(MatrixInterface result, DenseMatrix other) {
+        SparseRows left = SparseRows.of(this.entries, this.rows);
+        int resultColumns = other.getColumns();
+        int[] accumulator = new int[resultColumns];
+        for (int i = 0; i < this.rows; i++) {
+            if (left.rowPtr[i] == left.rowPtr[i + 1]) {
+                continue;
+            }
+            Arrays.fill(accumulator, 0);
+            for (int p = left.rowPtr[i]; p < left.rowPtr[i + 1]; p++) {
+                int value = left.values[p];
+                int offset = left.columns[p] * resultColumns;
+                for (int j = 0; j < resultColumns; j++) {
+                    accumulator[j] += value * other.data[offset + j];
+                }
+            }
+            for (int j = 0; j < resultColumns; j++) {
+                if (accumulator[j] != 0) {
+                    result.set(i, j, accumulator[j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * A row-grouped snapshot of the entries and the modification count it was taken at.
+     */
+    private static final class RowView {
+
+        /** The grouped entries. */
+        private final SparseRows rows;
+
+        /** The modification count of the matrix when it was grouped. */
+        private final long modifications;
+
+        /**
+         * @param rows The grouped entries.
+         * @param modifications The modification count of the matrix.
+         */
+        private RowView(SparseRows rows, long modifications) {
+            this.rows = rows;
+            this.modifications = modifications;
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package assignmenttwo;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plans the product of a chain of matrices. The order of the products does not change the result,
+ * but it changes the work by orders of magnitude when the shapes or the densities differ, so the
+ * cheapest parenthesization is chosen by dynamic programming over all the subchains, in O(n^3) for n operands.
+ * <p>
+ * The cost model estimates the multiply-adds and the entries written for every product:
+ * <ul>
+ *     <li>Two band matrices (BandMatrix or GeneralBandMatrix) take rows * width1 * width2 multiply-adds,
+ *     and the product is again banded, with the bandwidths added.</li>
+ *     <li>Anything else takes nnz1 * nnz2 / k multiply-adds for an inner dimension k (rows * k * columns for
+ *     two dense operands). The entries of the product are estimated as if the entries were spread
+ *     uniformly: the density of the product is 1 - (1 - d1 * d2)^k.</li>
+ * </ul>
+ * The chosen tree is evaluated on a ForkJoinPool: the two operands of a product are independent, so they are
+ * computed in parallel, and every product picks its kernel through MatrixOps.times.
+ * The operands must not be modified while a product is running.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public final class MatrixChain {
+
+    /** The operands, in order. */
+    private final MatrixInterface[] matrices;
+
+    /** split[i][j] is the last operand of the left part of the best product of i..j. */
+    private final int[][] split;
+
+    /** The estimated cost of the chosen order. */
+    private final double cost;
+
+    /** The estimated cost of multiplying from left to right. */
+    private final double leftToRightCost;
+
+    /**
+     * @param matrices The operands, in order.
+     * @param split The best split of every subchain.
+     * @param cost The estimated cost of the chosen order.
+     * @param leftToRightCost The estimated cost of multiplying from left to right.
+     */
+    private MatrixChain(MatrixInterface[] matrices, int[][] split, double cost, double leftToRightCost) {
+        this.matrices = matrices;
+        this.split = split;
+        this.cost = cost;
+        this.leftToRightCost = leftToRightCost;
+    }
+
+    /**
+     * The estimated shape of an operand or of a partial product.
+     */
+    private static final class Estimate {
+
+        /** The number of rows. */
+        final int rows;
+
+        /** The number of columns. */
+        final int columns;
+
+        /** The estimated number of non-zero entries. */
+        final double nonZeros;
+
+        /** Diagonals below the main diagonal, or -1 if the matrix is not banded. */
+        final int lower;
+
+        /** Diagonals above the main diagonal, or -1 if the matrix is not banded. */
+        final int upper;
+
+        /**
+         * @param rows The number of rows.
+         * @param columns The number of columns.
+         * @param nonZeros The estimated number of non-zero entries.
+         * @param lower Diagonals below the main diagonal, or -1.
+         * @param upper Diagonals above the main diagonal, or -1.
+         */
+        Estimate(int rows, int columns, double nonZeros, int lower, int upper) {
+            this.rows = rows;
+            this.columns = columns;
+            this.nonZeros = nonZeros;
+            this.lower = lower;
+            this.upper = upper;
+        }
+
+        /**
+         * @return true if the matrix is a band matrix.
+         */
+        boolean isBanded() {
+            return this.lower >= 0;
+        }
+
+        /**
+         * Estimates an operand from its type, without looking at its entries.
+         * Types that don't know their number of entries are counted as dense.
+         *
+         * @param matrix The operand.
+         * @return the estimate.
+         */
+        static Estimate of(MatrixInterface matrix) {
+            int rows = matrix.getRows();
+            int columns = matrix.getColumns();
+            if (matrix instanceof BandMatrix) {
+                BandMatrix band = (BandMatrix) matrix;
+                int bandwidth = Math.max(0, Math.min(band.getBandCount(), band.getSize()) - 1);
+                return banded(rows, bandwidth, bandwidth);
+            }
+            if (matrix instanceof GeneralBandMatrix) {
+                GeneralBandMatrix band = (GeneralBandMatrix) matrix;
+                return banded(rows, band.getLowerBandwidth(), band.getUpperBandwidth());
+            }
+            double nonZeros = (double) rows * columns;
+            if (matrix instanceof Matrix) {
+                nonZeros = ((Matrix) matrix).entries.size();
+            } else if (matrix instanceof CsrMatrix) {
+                nonZeros = ((CsrMatrix) matrix).getNonZeroCount();
+            } else if (matrix instanceof CscMatrix) {
+                nonZeros = ((CscMatrix) matrix).getNonZeroCount();
+            }
+            return new Estimate(rows, columns, nonZeros, -1, -1);
+        }
+
+        /**
+         * @param size The size of the square band matrix.
+         * @param lower Diagonals below the main diagonal.
+         * @param upper Diagonals above the main diagonal.
+         * @return the estimate of a full band.
+         */
+        static Estimate banded(int size, int lower, int upper) {
+            double nonZeros = (double) size * (lower + upper + 1)
+                    - (double) lower * (lower + 1) / 2 - (double) upper * (upper + 1) / 2;
+            return new Estimate(size, size, nonZeros, lower, upper);
+        }
+
+        /**
+         * @param other The right operand.
+         * @return the estimated multiply-adds of this times other.
+         */
+        double productWork(Estimate other) {
+            if (this.isBanded() && other.isBanded()) {
+                return (double) this.rows * (this.lower + this.upper + 1) * (other.lower + other.upper + 1);
+            }
+            return this.columns == 0 ? 0 : this.nonZeros * other.nonZeros / this.columns;
+        }
+
+        /**
+         * @param other The right operand.
+         * @return the estimate of this times other.
+         */
+        Estimate times(Estimate other) {
+            if (this.isBanded() && other.isBanded()) {
+                int limit = Math.max(0, this.rows - 1);
+                return banded(this.rows, Math.min(limit, this.lower + other.lower),
+                        Math.min(limit, this.upper + other.upper));
+            }
+            double cells = (double) this.rows * other.columns;
+            if (cells == 0 || this.columns == 0) {
+                return new Estimate(this.rows, other.columns, 0, -1, -1);
+            }
+            double density = this.nonZeros / ((double) this.rows * this.columns)
+                    * (other.nonZeros / ((double) other.rows * other.columns));
+            double empty = Math.exp(this.columns * Math.log1p(-Math.min(1, density)));
+            return new Estimate(this.rows, other.columns, cells * (1 - empty), -1, -1);
+        }
+    }
+
+    /**
+     * Chooses the cheapest order for the product of a chain of matrices.
+     *
+     * @param matrices The operands, in order.
+     * @return the plan.
+     */
+    public static MatrixChain plan(MatrixInterface... matrices) {
+        if (matrices == null || matrices.length == 0) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, there are no matrices.");
+        }
+        for (int i = 0; i < matrices.length; i++) {
+            if (matrices[i] == null) {
+                throw new IllegalArgumentException("Cannot multiply these matrices, matrix " + i + " is null.");
+            }
+            if (i > 0) {
+                matrices[i - 1].validateMultiplication(matrices[i]);
+            }
+        }
+        int n = matrices.length;
+        Estimate[][] estimates = new Estimate[n][n];
+        double[][] costs = new double[n][n];
+        int[][] split = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            estimates[i][i] = Estimate.of(matrices[i]);
+        }
+        for (int length = 2; length <= n; length++) {
+            for (int i = 0; i + length <= n; i++) {
+                int j = i + length - 1;
+                costs[i][j] = Double.POSITIVE_INFINITY;
+                for (int k = i; k < j; k++) {
+                    Estimate left = estimates[i][k];
+                    Estimate right = estimates[k + 1][j];
+                    Estimate product = left.times(right);
+                    double cost = costs[i][k] + costs[k + 1][j] + left.productWork(right) + product.nonZeros;
+                    if (cost < costs[i][j]) {
+                        costs[i][j] = cost;
+                        split[i][j] = k;
+                        estimates[i][j] = product;
+                    }
+                }
+            }
+        }
+        Estimate running = estimates[0][0];
+        double leftToRight = 0;
+        for (int i = 1; i < n; i++) {
+            Estimate product = running.times(estimates[i][i]);
+            leftToRight += running.productWork(estimates[i][i]) + product.nonZeros;
+            running = product;
+        }
+        return new MatrixChain(matrices.clone(), split, costs[0][n - 1], leftToRight);
+    }
+
+    /**
+     * @return the estimated cost of the chosen order.
+     */
+    public double getEstimatedCost() {
+        return this.cost;
+    }
+
+    /**
+     * @return the estimated cost of multiplying from left to right, for comparison.
+     */
+    public double getLeftToRightCost() {
+        return this.leftToRightCost;
+    }
+
+    /**
+     * Multiplies the chain in the chosen order on the common pool.
+     *
+     * @return a new matrix holding the product (the operand itself for a single matrix).
+     */
+    public MatrixInterface multiply() {
+        return multiply(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Multiplies the chain in the chosen order, computing independent products in parallel.
+     *
+     * @param pool The pool to run the products on.
+     * @return a new matrix holding the product (the operand itself for a single matrix).
+     */
+    public MatrixInterface multiply(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("The ForkJoinPool can not be null.");
+        }
+        return pool.invoke(new ProductTask(0, this.matrices.length - 1));
+    }
+
+    /**
+     * Shows the chosen order, with operands numbered from 0, e.g. "((0 1) 2)".
+     *
+     * @return the parenthesization.
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        appendOrder(builder, 0, this.matrices.length - 1);
+        return builder.toString();
+    }
+
+    /**
+     * @param builder The builder to append to.
+     * @param from The first operand of the subchain.
+     * @param to The last operand of the subchain.
+     */
+    private void appendOrder(StringBuilder builder, int from, int to) {
+        if (from == to) {
+            builder.append(from);
+            return;
+        }
+        int middle = this.split[from][to];
+        builder.append('(');
+        appendOrder(builder, from, middle);
+        builder.append(' ');
+        appendOrder(builder, middle + 1, to);
+        builder.append(')');
+    }
+
+    /**
+     * Computes the product of a subchain: the two parts run in parallel, then they are multiplied.
+     */
+    private final class ProductTask extends RecursiveTask<MatrixInterface> {
+
+        /** The serialization version. */
+        private static final long serialVersionUID = 1L;
+
+        /** The first operand of the subchain. */
+        private final int from;
+
+        /** The last operand of the subchain. */
+        private final int to;
+
+        /**
+         * @param from The first operand of the subchain.
+         * @param to The last operand of the subchain.
+         */
+        ProductTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected MatrixInterface compute() {
+            if (this.from == this.to) {
+                return MatrixChain.this.matrices[this.from];
+            }
+            int middle = MatrixChain.this.split[this.from][this.to];
+            ProductTask left = new ProductTask(this.from, middle);
+            ProductTask right = new ProductTask(middle + 1, this.to);
+            invokeAll(left, right);
+            return MatrixOps.times(left.join(), right.join());
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package assignmenttwo;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This is a tester class for the MatrixChain product planner and MatrixOps.multiplyAll.
+ * The chosen orders are checked on chains where the best order is known, and the products are compared
+ * to multiplying from left to right.
+ *
+ * @author Nikola Desnica
+ * @version 1.0
+ */
+public class MatrixChainTester {
+
+    /**
+     * Runs all the test methods for MatrixChain.
+     */
+    public void runTests() {
+        testShapes();
+        testSparsityAndBands();
+        testProducts();
+        testInvalidChains();
+        System.out.println("All MatrixChain tests passed!");
+    }
+
+    /**
+     * Builds a sparse test matrix.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param seed Changes the pattern of the entries.
+     * @return the sparse matrix.
+     */
+    private static Matrix sample(int rows, int columns, int seed) {
+        Matrix matrix = new Matrix(rows, columns);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                if ((i * 3 + j * 5 + seed) % 4 == 0) {
+                    matrix.set(i, j, (i + seed) % 5 - (j % 3));
+                }
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Builds a dense test matrix.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param seed Changes the values.
+     * @return the dense matrix.
+     */
+    private static DenseMatrix dense(int rows, int columns, int seed) {
+        DenseMatrix matrix = new DenseMatrix(rows, columns);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                matrix.set(i, j, (i * 7 + j * 3 + seed) % 9 - 4);
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Tests the chosen order for dense chains of different shapes.
+     */
+    private void testShapes() {
+        MatrixChain chain = MatrixChain.plan(dense(10, 100, 1), dense(100, 5, 2), dense(5, 50, 3));
+        assert chain.toString().equals("((0 1) 2)") : "The narrow product should come first";
+        assert chain.getEstimatedCost() == chain.getLeftToRightCost();
+
+        chain = MatrixChain.plan(dense(50, 2, 1), dense(2, 50, 2), dense(50, 2, 3));
+        assert chain.toString().equals("(0 (1 2))") : "The outer product should be avoided";
+        assert chain.getEstimatedCost() * 10 < chain.getLeftToRightCost();
+
+        chain = MatrixChain.plan(dense(30, 4, 1), dense(4, 30, 2), dense(30, 4, 3), dense(4, 30, 4),
+                dense(30, 4, 5));
+        assert chain.toString().equals("(0 ((1 2) (3 4)))") : "Independent products should be split";
+        assert MatrixChain.plan(dense(3, 4, 1)).toString().equals("0");
+    }
+
+    /**
+     * Tests that the number of entries and the bandwidths change the order for chains of equal shapes.
+     */
+    private void testSparsityAndBands() {
+        Matrix sparse = new Matrix(30, 30);
+        for (int i = 0; i < 30; i++) {
+            sparse.set(i, (i * 7) % 30, i + 1);
+        }
+        MatrixChain chain = MatrixChain.plan(dense(30, 30, 1), dense(30, 30, 2), sparse);
+        assert chain.toString().equals("(0 (1 2))") : "The sparse operand should be used first";
+        assert chain.getEstimatedCost() < chain.getLeftToRightCost();
+
+        BandMatrix narrow = new BandMatrix(40, 1);
+        narrow.set(0, 0, 2);
+        narrow.set(0, 1, -1);
+        chain = MatrixChain.plan(dense(40, 40, 3), narrow, narrow);
+        assert chain.toString().equals("(0 (1 2))") : "The band product should be computed first";
+
+        MatrixInterface bands = MatrixOps.multiplyAll(narrow, narrow, narrow);
+        assert bands instanceof GeneralBandMatrix : "A chain of band matrices should stay banded";
+        assert ((GeneralBandMatrix) bands).getUpperBandwidth() == 3;
+        TestMatrices.assertSameValues(narrow.times(narrow).times(narrow), bands, "The band chain failed");
+    }
+
+    /**
+     * Tests chains of mixed types against the product from left to right.
+     */
+    private void testProducts() {
+        BandMatrix band = new BandMatrix(6, 2);
+        band.set(0, 0, 3);
+        band.set(0, 1, 1);
+        MatrixInterface[] chain = {sample(4, 6, 1), band, dense(6, 9, 2), CsrMatrix.from(sample(9, 2, 3)),
+            sample(2, 8, 0), dense(8, 3, 1)};
+        MatrixInterface expected = chain[0];
+        for (int i = 1; i < chain.length; i++) {
+            expected = expected.times(chain[i]);
+        }
+        TestMatrices.assertSameValues(expected, MatrixOps.multiplyAll(chain), "The mixed chain failed");
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            TestMatrices.assertSameValues(expected, MatrixOps.multiplyAll(pool, chain), "The chain on a pool failed");
+        } finally {
+            pool.shutdown();
+        }
+        assert MatrixOps.multiplyAll(chain[0]) == chain[0] : "A single matrix is its own product";
+    }
+
+    /**
+     * Tests that empty and mismatched chains are rejected.
+     */
+    private void testInvalidChains() {
+        boolean thrown = false;
+        try {
+            MatrixChain.plan();
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "An empty chain should throw";
+
+        thrown = false;
+        try {
+            MatrixChain.plan(new Matrix(2, 3), null);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "A null operand should throw";
+
+        thrown = false;
+        try {
+            MatrixOps.multiplyAll(new Matrix(2, 3), new Matrix(3, 4), new Matrix(3, 4));
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Mismatched dimensions should throw";
+    }
+}
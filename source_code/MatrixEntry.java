@@ -0,0 +1,87 @@
+package assignmenttwo;
+
+/**
+ * An immutable (row, column, value) triple, the element type of MatrixInterface.nonZeros().
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public final class MatrixEntry {
+
+    /** The row of the entry. */
+    private final int row;
+
+    /** The column of the entry. */
+    private final int column;
+
+    /** The value of the entry. */
+    private final int value;
+
+    /**
+     * Constructs a MatrixEntry.
+     *
+     * @param row The row of the entry.
+     * @param column The column of the entry.
+     * @param value The value of the entry.
+     */
+    public MatrixEntry(int row, int column, int value) {
+        this.row = row;
+        this.column = column;
+        this.value = value;
+    }
+
+    /**
+     * @return row.
+     */
+    public int getRow() {
+        return this.row;
+    }
+
+    /**
+     * @return column.
+     */
+    public int getColumn() {
+        return this.column;
+    }
+
+    /**
+     * @return value.
+     */
+    public int getValue() {
+        return this.value;
+    }
+
+    /**
+     * Two entries are equal if their row, column and value are equal.
+     *
+     * @param object the object to be compared for equality with the current MatrixEntry.
+     * @return true if the specified object is equal to the current MatrixEntry, false otherwise.
+     */
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof MatrixEntry)) {
+            return false;
+        }
+        MatrixEntry other = (MatrixEntry) object;
+        return this.row == other.row && this.column == other.column && this.value == other.value;
+    }
+
+    /**
+     * @return the hash code of the entry.
+     */
+    @Override
+    public int hashCode() {
+        return (31 * this.row + this.column) * 31 + this.value;
+    }
+
+    /**
+     * @return the entry as "(row, column) = value".
+     */
+    @Override
+    public String toString() {
+        return "(" + this.row + ", " + this.column + ") = " + this.value;
+    }
+}
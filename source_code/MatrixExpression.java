@@ -0,0 +1,513 @@
+package assignmenttwo;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A lazy matrix expression: plus, times and scale only record the operation, nothing is computed until
+ * evaluate() is called on the whole expression.
+ * <pre>
+ * MatrixInterface result = MatrixExpression.of(a).plus(b).times(c).plus(d).evaluate();
+ * </pre>
+ * evaluate() plans the expression as a DAG before running it:
+ * <ul>
+ *     <li>Common subexpressions are merged: operations on the same matrices (by identity) are one node, also
+ *     when they were built separately, and a + b is the same node as b + a. A node used more than once is
+ *     evaluated once.</li>
+ *     <li>Sums and scalings are flattened into a list of terms coeff * x, like terms are combined
+ *     (a + a is 2 * a) and all terms are added into one accumulator in a single pass, without intermediate
+ *     sums.</li>
+ *     <li>A product term is not materialized either: its operands are evaluated and the product goes straight
+ *     into the accumulator with a multiply-accumulate kernel (result += coeff * left * right), so
+ *     (a + b) * c + d runs as one addition for a + b, then d and the product into the same accumulator.</li>
+ *     <li>The accumulator is a DenseMatrix when any term involves a DenseMatrix (so the dense kernels run) and
+ *     a sparse Matrix otherwise.</li>
+ * </ul>
+ * The operand matrices must not be modified between building and evaluating an expression.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public final class MatrixExpression {
+
+    /** Operation of a leaf (a matrix). */
+    private static final int LEAF = 0;
+
+    /** Operation of a sum. */
+    private static final int PLUS = 1;
+
+    /** Operation of a product. */
+    private static final int TIMES = 2;
+
+    /** Operation of a scaling by a factor. */
+    private static final int SCALE = 3;
+
+    /** The operation of this node. */
+    private final int operation;
+
+    /** The matrix of a leaf. */
+    private final MatrixInterface matrix;
+
+    /** The left (or only) operand. */
+    private final MatrixExpression left;
+
+    /** The right operand. */
+    private final MatrixExpression right;
+
+    /** The factor of a scaling. */
+    private final int factor;
+
+    /** The number of rows of the value. */
+    private final int rows;
+
+    /** The number of columns of the value. */
+    private final int columns;
+
+    /**
+     * @param operation The operation.
+     * @param matrix The matrix of a leaf.
+     * @param left The left operand.
+     * @param right The right operand.
+     * @param factor The factor of a scaling.
+     * @param rows The number of rows of the value.
+     * @param columns The number of columns of the value.
+     */
+    private MatrixExpression(int operation, MatrixInterface matrix, MatrixExpression left, MatrixExpression right,
+                             int factor, int rows, int columns) {
+        this.operation = operation;
+        this.matrix = matrix;
+        this.left = left;
+        this.right = right;
+        this.factor = factor;
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    /**
+     * Starts an expression with a matrix.
+     *
+     * @param matrix The matrix.
+     * @return the expression whose value is the matrix.
+     */
+    public static MatrixExpression of(MatrixInterface matrix) {
+        if (matrix == null) {
+            throw new IllegalArgumentException("The provided matrix is null.");
+        }
+        return new MatrixExpression(LEAF, matrix, null, null, 1, matrix.getRows(), matrix.getColumns());
+    }
+
+    /**
+     * @return the number of rows of the value.
+     */
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * @return the number of columns of the value.
+     */
+    public int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * @param other The expression to add.
+     * @return the expression this + other.
+     */
+    public MatrixExpression plus(MatrixExpression other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot add these two matrices, the passed Matrix is null.");
+        }
+        if (this.rows != other.rows || this.columns != other.columns) {
+            throw new IllegalArgumentException("Cannot add these two matrices, their dimensions don't match.");
+        }
+        return new MatrixExpression(PLUS, null, this, other, 1, this.rows, this.columns);
+    }
+
+    /**
+     * @param other The matrix to add.
+     * @return the expression this + other.
+     */
+    public MatrixExpression plus(MatrixInterface other) {
+        return plus(of(other));
+    }
+
+    /**
+     * @param other The expression to multiply by.
+     * @return the expression this * other.
+     */
+    public MatrixExpression times(MatrixExpression other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the passed Matrix is null.");
+        }
+        if (this.columns != other.rows) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the columns of this matrix" +
+                    "don't match the rows of the matrix that was passed.");
+        }
+        return new MatrixExpression(TIMES, null, this, other, 1, this.rows, other.columns);
+    }
+
+    /**
+     * @param other The matrix to multiply by.
+     * @return the expression this * other.
+     */
+    public MatrixExpression times(MatrixInterface other) {
+        return times(of(other));
+    }
+
+    /**
+     * @param factor The factor.
+     * @return the expression factor * this.
+     */
+    public MatrixExpression scale(int factor) {
+        return new MatrixExpression(SCALE, null, this, null, factor, this.rows, this.columns);
+    }
+
+    /**
+     * Evaluates the expression. The value of a bare leaf is its matrix itself, any other value is a new
+     * DenseMatrix or Matrix.
+     *
+     * @return the value of the expression.
+     */
+    public MatrixInterface evaluate() {
+        Plan plan = new Plan();
+        int root = plan.add(this);
+        return plan.value(root);
+    }
+
+    /**
+     * Writes the expression with the operators, every leaf as its dimensions (for debugging).
+     *
+     * @return the String representation of this expression.
+     */
+    @Override
+    public String toString() {
+        switch (this.operation) {
+            case LEAF:
+                return "[" + this.rows + "x" + this.columns + "]";
+            case PLUS:
+                return "(" + this.left + " + " + this.right + ")";
+            case TIMES:
+                return this.left + " * " + this.right;
+            default:
+                return this.factor + " * " + this.left;
+        }
+    }
+
+    /**
+     * The merged DAG of an expression and the evaluation that runs on it. Every distinct node gets an id,
+     * the arrays of the plan are indexed by it.
+     */
+    private static final class Plan {
+
+        /** The ids of the nodes that were added, by identity (expressions reused while building). */
+        private final Map<MatrixExpression, Integer> byIdentity = new IdentityHashMap<>();
+
+        /** The ids of the leaves, by the identity of their matrix. */
+        private final Map<MatrixInterface, Integer> leaves = new IdentityHashMap<>();
+
+        /** The ids of the operations, by operation and operand ids. */
+        private final Map<Key, Integer> operations = new HashMap<>();
+
+        /** The node of every id (for the operation, the matrix and the factor). */
+        private final List<MatrixExpression> nodes = new ArrayList<>();
+
+        /** The left operand id of every id. */
+        private final List<Integer> lefts = new ArrayList<>();
+
+        /** The right operand id of every id. */
+        private final List<Integer> rights = new ArrayList<>();
+
+        /** The number of uses of every id by other nodes. */
+        private final List<Integer> uses = new ArrayList<>();
+
+        /** The ids whose value comes from a DenseMatrix somewhere below them (set once, when they are added). */
+        private final BitSet dense = new BitSet();
+
+        /** The values of the nodes used more than once, after their first evaluation. */
+        private final Map<Integer, MatrixInterface> values = new HashMap<>();
+
+        /**
+         * Adds a node and its operands, merging it with an equal node that was added before.
+         *
+         * @param node The node.
+         * @return the id of the node.
+         */
+        int add(MatrixExpression node) {
+            Integer known = this.byIdentity.get(node);
+            if (known != null) {
+                return known;
+            }
+            int id;
+            if (node.operation == LEAF) {
+                Integer leaf = this.leaves.get(node.matrix);
+                id = leaf != null ? leaf : create(node, -1, -1);
+                this.leaves.put(node.matrix, id);
+            } else {
+                int left = add(node.left);
+                int right = node.right == null ? -1 : add(node.right);
+                if (node.operation == PLUS && right < left) {
+                    int swap = left;
+                    left = right;
+                    right = swap;
+                }
+                Key key = new Key(node.operation, left, right, node.factor);
+                Integer operation = this.operations.get(key);
+                if (operation != null) {
+                    id = operation;
+                } else {
+                    id = create(node, left, right);
+                    this.operations.put(key, id);
+                    use(left);
+                    use(right);
+                }
+            }
+            this.byIdentity.put(node, id);
+            return id;
+        }
+
+        /**
+         * @param node The node.
+         * @param left The left operand id.
+         * @param right The right operand id.
+         * @return the id of the new node.
+         */
+        private int create(MatrixExpression node, int left, int right) {
+            this.nodes.add(node);
+            this.lefts.add(left);
+            this.rights.add(right);
+            this.uses.add(0);
+            int id = this.nodes.size() - 1;
+            boolean dense = node.operation == LEAF
+                    ? node.matrix instanceof DenseMatrix || node.matrix instanceof OffHeapDenseMatrix
+                    : this.dense.get(left) || (right >= 0 && this.dense.get(right));
+            this.dense.set(id, dense);
+            return id;
+        }
+
+        /**
+         * @param id The id of an operand (-1 for none).
+         */
+        private void use(int id) {
+            if (id >= 0) {
+                this.uses.set(id, this.uses.get(id) + 1);
+            }
+        }
+
+        /**
+         * @param id The id of a node.
+         * @return true if the node is materialized as a value (a leaf or a node with several uses).
+         */
+        private boolean isValue(int id) {
+            return this.nodes.get(id).operation == LEAF || this.uses.get(id) > 1;
+        }
+
+        /**
+         * Returns the value of a node, evaluating it (once, for shared nodes).
+         *
+         * @param id The id of the node.
+         * @return the value.
+         */
+        MatrixInterface value(int id) {
+            MatrixExpression node = this.nodes.get(id);
+            if (node.operation == LEAF) {
+                return node.matrix;
+            }
+            MatrixInterface value = this.values.get(id);
+            if (value == null) {
+                value = evaluateSum(id);
+                if (this.uses.get(id) > 1) {
+                    this.values.put(id, value);
+                }
+            }
+            return value;
+        }
+
+        /**
+         * Evaluates a node as a sum of terms into one new accumulator.
+         *
+         * @param id The id of the node.
+         * @return the value.
+         */
+        private MatrixInterface evaluateSum(int id) {
+            Map<Integer, Integer> terms = new HashMap<>();
+            List<Integer> order = new ArrayList<>();
+            collectTerms(id, 1, true, terms, order);
+            MatrixExpression node = this.nodes.get(id);
+            boolean dense = false;
+            for (int term : order) {
+                dense |= isDense(term);
+            }
+            MatrixInterface accumulator = dense ? new DenseMatrix(node.rows, node.columns)
+                    : new Matrix(node.rows, node.columns);
+            for (int term : order) {
+                int coefficient = terms.get(term);
+                if (coefficient == 0) {
+                    continue;
+                }
+                if (this.nodes.get(term).operation == TIMES && (term == id || !isValue(term))) {
+                    accumulateProduct(accumulator, coefficient, value(this.lefts.get(term)),
+                            value(this.rights.get(term)));
+                } else {
+                    addScaled(accumulator, coefficient, value(term));
+                }
+            }
+            return accumulator;
+        }
+
+        /**
+         * Flattens the sums and scalings below a node into terms coefficient * node. Values and products end a
+         * term, the coefficients of equal terms are added up.
+         *
+         * @param id The id of the node.
+         * @param coefficient The coefficient of the node.
+         * @param root True for the node being evaluated (expanded even if it is shared).
+         * @param terms The coefficient of every term.
+         * @param order The terms in the order they were found.
+         */
+        private void collectTerms(int id, int coefficient, boolean root, Map<Integer, Integer> terms,
+                                  List<Integer> order) {
+            MatrixExpression node = this.nodes.get(id);
+            if ((isValue(id) && !root) || node.operation == TIMES) {
+                Integer known = terms.get(id);
+                if (known == null) {
+                    order.add(id);
+                    terms.put(id, coefficient);
+                } else {
+                    terms.put(id, known + coefficient);
+                }
+            } else if (node.operation == PLUS) {
+                collectTerms(this.lefts.get(id), coefficient, false, terms, order);
+                collectTerms(this.rights.get(id), coefficient, false, terms, order);
+            } else {
+                collectTerms(this.lefts.get(id), coefficient * node.factor, false, terms, order);
+            }
+        }
+
+        /**
+         * @param id The id of a node.
+         * @return true if the value of the node comes from a DenseMatrix somewhere below it.
+         */
+        private boolean isDense(int id) {
+            return this.dense.get(id);
+        }
+
+        /**
+         * Adds coefficient * left * right to the accumulator. A DenseMatrix left operand runs its own tiled
+         * kernel; otherwise every entry (i, k) of the left operand adds row k of the right operand to row i,
+         * with the axpy kernel for a dense right operand and by scattering the CSR row otherwise.
+         *
+         * @param accumulator The DenseMatrix or Matrix accumulator.
+         * @param coefficient The coefficient.
+         * @param left The left operand.
+         * @param right The right operand.
+         */
+        private static void accumulateProduct(MatrixInterface accumulator, int coefficient, MatrixInterface left,
+                                              MatrixInterface right) {
+            if (left instanceof DenseMatrix || (left instanceof Matrix && accumulator instanceof Matrix)) {
+                left.multiplyAccumulate(accumulator, coefficient, right);
+                return;
+            }
+            int columns = accumulator.getColumns();
+            if (accumulator instanceof DenseMatrix) {
+                int[] target = ((DenseMatrix) accumulator).data;
+                if (right instanceof DenseMatrix) {
+                    int[] rows = ((DenseMatrix) right).data;
+                    IntKernels kernels = IntKernels.get();
+                    left.forEachNonZero((i, k, value) ->
+                            kernels.axpy(coefficient * value, rows, k * columns, target, i * columns, columns));
+                    return;
+                }
+                SparseRows rows = CsrMatrix.from(right).asSparseRows();
+                left.forEachNonZero((i, k, value) -> {
+                    int scaled = coefficient * value;
+                    for (int p = rows.rowPtr[k]; p < rows.rowPtr[k + 1]; p++) {
+                        target[i * columns + rows.columns[p]] += scaled * rows.values[p];
+                    }
+                });
+                return;
+            }
+            SparseEntries target = ((Matrix) accumulator).entries;
+            SparseRows rows = CsrMatrix.from(right).asSparseRows();
+            left.forEachNonZero((i, k, value) -> {
+                int scaled = coefficient * value;
+                for (int p = rows.rowPtr[k]; p < rows.rowPtr[k + 1]; p++) {
+                    target.add(i, rows.columns[p], scaled * rows.values[p]);
+                }
+            });
+        }
+
+        /**
+         * Adds coefficient * value to the accumulator in one pass over the entries of the value.
+         *
+         * @param accumulator The DenseMatrix or Matrix accumulator.
+         * @param coefficient The coefficient.
+         * @param value The value to add.
+         */
+        private static void addScaled(MatrixInterface accumulator, int coefficient, MatrixInterface value) {
+            if (accumulator instanceof DenseMatrix) {
+                int[] target = ((DenseMatrix) accumulator).data;
+                if (value instanceof DenseMatrix) {
+                    IntKernels.get().axpy(coefficient, ((DenseMatrix) value).data, 0, target, 0, target.length);
+                    return;
+                }
+                int columns = accumulator.getColumns();
+                value.forEachNonZero((i, j, entry) -> target[i * columns + j] += coefficient * entry);
+            } else {
+                SparseEntries target = ((Matrix) accumulator).entries;
+                value.forEachNonZero((i, j, entry) -> target.add(i, j, coefficient * entry));
+            }
+        }
+    }
+
+    /**
+     * The identity of an operation node: its operation, operand ids and factor.
+     */
+    private static final class Key {
+
+        /** The operation. */
+        private final int operation;
+
+        /** The left operand id. */
+        private final int left;
+
+        /** The right operand id (-1 for none). */
+        private final int right;
+
+        /** The factor of a scaling. */
+        private final int factor;
+
+        /**
+         * @param operation The operation.
+         * @param left The left operand id.
+         * @param right The right operand id.
+         * @param factor The factor of a scaling.
+         */
+        Key(int operation, int left, int right, int factor) {
+            this.operation = operation;
+            this.left = left;
+            this.right = right;
+            this.factor = factor;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return this.operation == other.operation && this.left == other.left && this.right == other.right
+                    && this.factor == other.factor;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.operation, this.left, this.right, this.factor);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package assignmenttwo;
+
+/**
+ * This is a tester class for the lazy MatrixExpression.
+ * The values are compared to the eager plus and times, and a counting Matrix checks that shared
+ * subexpressions are evaluated once.
+ *
+ * @author Nikola Desnica
+ * @version 1.0
+ */
+public class MatrixExpressionTester {
+
+    /**
+     * Runs all the test methods for MatrixExpression.
+     */
+    public void runTests() {
+        testChains();
+        testLikeTerms();
+        testCommonSubexpressions();
+        testDeepSharing();
+        testKernelChoice();
+        testInvalidExpressions();
+        System.out.println("All MatrixExpression tests passed!");
+    }
+
+    /**
+     * A Matrix counting the full passes over its entries (forEachNonZero over all rows, or the table walk of
+     * the sparse multiplyAccumulate kernel).
+     */
+    private static final class CountingMatrix extends Matrix {
+
+        /** The number of passes over all rows. */
+        int passes;
+
+        /**
+         * @param matrix The values to copy.
+         */
+        CountingMatrix(Matrix matrix) {
+            super(matrix.getRows(), matrix.getColumns());
+            matrix.forEachNonZero(this::set);
+        }
+
+        @Override
+        public void forEachNonZero(int fromRow, int toRow, IntTriConsumer action) {
+            if (fromRow == 0 && toRow == getRows()) {
+                this.passes++;
+            }
+            super.forEachNonZero(fromRow, toRow, action);
+        }
+
+        @Override
+        public void multiplyAccumulate(MatrixInterface result, int alpha, MatrixInterface other) {
+            if (result instanceof Matrix && (other instanceof Matrix || other instanceof CsrMatrix)) {
+                this.passes++;
+            }
+            super.multiplyAccumulate(result, alpha, other);
+        }
+    }
+
+    /**
+     * Builds a sparse test matrix.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param seed Changes the pattern of the entries.
+     * @return the sparse matrix.
+     */
+    private static Matrix sample(int rows, int columns, int seed) {
+        Matrix matrix = new Matrix(rows, columns);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                if ((i * 5 + j * 3 + seed) % 4 == 0) {
+                    matrix.set(i, j, (i + seed) * (j - 2));
+                }
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Tests chains of operations against the eager operations.
+     */
+    private void testChains() {
+        Matrix a = sample(5, 4, 1);
+        Matrix b = sample(5, 4, 2);
+        Matrix c = sample(4, 6, 3);
+        Matrix d = sample(5, 6, 0);
+        MatrixInterface expected = a.plus(b).times(c).plus(d);
+        MatrixInterface actual = MatrixExpression.of(a).plus(b).times(c).plus(d).evaluate();
+        TestMatrices.assertSameValues(expected, actual, "(a + b) * c + d failed");
+        assert actual instanceof Matrix : "Sparse operands should give a sparse result";
+
+        Matrix e = sample(6, 3, 1);
+        MatrixInterface nested = MatrixExpression.of(a).times(c).plus(MatrixExpression.of(b).times(c))
+                .times(e).scale(-2).evaluate();
+        MatrixInterface product = a.times(c).plus(b.times(c)).times(e);
+        assert nested.plus(product).plus(product).nonZeros().count() == 0 : "Nested products failed";
+
+        assert MatrixExpression.of(a).evaluate() == a : "A bare leaf is its own value";
+        TestMatrices.assertSameValues(a.times(c), MatrixExpression.of(a).times(c).evaluate(),
+                "A single product failed");
+        TestMatrices.assertSameValues(new BandMatrix(5, 1).plus(DenseMatrix.from(sample(5, 5, 2))),
+                MatrixExpression.of(new BandMatrix(5, 1)).plus(DenseMatrix.from(sample(5, 5, 2))).evaluate(),
+                "Mixed types failed");
+    }
+
+    /**
+     * Tests that like terms and scalings are combined.
+     */
+    private void testLikeTerms() {
+        Matrix a = sample(4, 4, 1);
+        MatrixExpression x = MatrixExpression.of(a);
+        MatrixInterface six = x.plus(x).scale(3).evaluate();
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                assert six.get(i, j) == 6 * a.get(i, j) : "Like terms failed";
+            }
+        }
+        MatrixInterface zero = x.scale(-1).plus(x).evaluate();
+        assert zero.nonZeros().count() == 0 : "Cancelling terms should leave no entry";
+        MatrixInterface squares = x.times(x).plus(x.times(x).scale(2)).evaluate();
+        TestMatrices.assertSameValues(a.times(a).plus(a.times(a)).plus(a.times(a)), squares, "Scaled products failed");
+    }
+
+    /**
+     * Tests that equal subexpressions are evaluated once, also when they were built separately.
+     */
+    private void testCommonSubexpressions() {
+        CountingMatrix a = new CountingMatrix(sample(5, 5, 1));
+        Matrix b = sample(5, 5, 2);
+        Matrix c = sample(5, 5, 3);
+        Matrix d = sample(5, 5, 0);
+        MatrixInterface result = MatrixExpression.of(a).plus(b).times(c)
+                .plus(MatrixExpression.of(b).plus(a).times(d)).evaluate();
+        TestMatrices.assertSameValues(a.plus(b).times(c).plus(a.plus(b).times(d)), result, "Shared sum failed");
+        assert a.passes == 1 : "a + b and b + a should be evaluated once";
+
+        a.passes = 0;
+        result = MatrixExpression.of(a).times(b).plus(MatrixExpression.of(a).times(b)).evaluate();
+        TestMatrices.assertSameValues(a.times(b).plus(a.times(b)), result, "Shared product failed");
+        assert a.passes == 1 : "a * b should be computed once";
+
+        a.passes = 0;
+        MatrixExpression shared = MatrixExpression.of(a).times(b);
+        result = shared.times(c).plus(shared.times(d)).evaluate();
+        TestMatrices.assertSameValues(a.times(b).times(c).plus(a.times(b).times(d)), result, "Shared operand failed");
+        assert a.passes == 1 : "A shared product operand should be computed once";
+    }
+
+    /**
+     * Tests a deep expression that uses every level twice: planning and evaluating it visits every node once,
+     * where a walk of all the paths would take 2^depth steps.
+     */
+    private void testDeepSharing() {
+        Matrix a = sample(2, 2, 1);
+        MatrixExpression sum = MatrixExpression.of(a);
+        MatrixExpression product = MatrixExpression.of(a);
+        Matrix expectedSum = a;
+        Matrix expectedProduct = a;
+        for (int level = 0; level < 60; level++) {
+            sum = sum.plus(sum).plus(a);
+            product = product.times(product).plus(a);
+            expectedSum = expectedSum.plus(expectedSum).plus(a);
+            expectedProduct = expectedProduct.times(expectedProduct).plus(a);
+        }
+        TestMatrices.assertSameValues(expectedSum, sum.evaluate(), "A deep shared sum failed");
+        TestMatrices.assertSameValues(expectedProduct, product.evaluate(), "A deep shared product failed");
+
+        DenseMatrix dense = DenseMatrix.from(sample(2, 2, 4));
+        MatrixInterface mixed = MatrixExpression.of(dense).plus(sum).evaluate();
+        assert mixed instanceof DenseMatrix : "A dense leaf below shared levels should give a dense result";
+        TestMatrices.assertSameValues(dense.plus(expectedSum), mixed, "A deep dense sum failed");
+    }
+
+    /**
+     * Tests that dense terms give a dense accumulator.
+     */
+    private void testKernelChoice() {
+        Matrix a = sample(6, 5, 1);
+        DenseMatrix dense = DenseMatrix.from(sample(5, 7, 2));
+        Matrix d = sample(6, 7, 3);
+        MatrixInterface result = MatrixExpression.of(a).times(dense).plus(d).scale(2).evaluate();
+        assert result instanceof DenseMatrix : "A dense operand should give a dense result";
+        TestMatrices.assertSameValues(a.times(dense).plus(d).plus(a.times(dense).plus(d)), result,
+                "Dense products failed");
+
+        MatrixInterface both = MatrixExpression.of(DenseMatrix.from(a)).times(dense)
+                .plus(MatrixExpression.of(a).times(CsrMatrix.from(dense))).evaluate();
+        TestMatrices.assertSameValues(a.times(dense).plus(a.times(dense)), both, "Dense and CSR products failed");
+    }
+
+    /**
+     * Tests that invalid expressions are rejected when they are built.
+     */
+    private void testInvalidExpressions() {
+        boolean thrown = false;
+        try {
+            MatrixExpression.of(new Matrix(2, 3)).plus(new Matrix(3, 2));
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Adding mismatched matrices should throw";
+
+        thrown = false;
+        try {
+            MatrixExpression.of(new Matrix(2, 3)).times(new Matrix(2, 3));
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Multiplying mismatched matrices should throw";
+    }
+}
@@ -0,0 +1,157 @@
+package assignmenttwo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * The fixed size header of the matrix files (little-endian, 64 bytes, so the arrays behind it stay aligned):
+ * <pre>
+ * offset  0  int   magic "AMTX"
+ * offset  4  int   version (VERSION, files of other versions are rejected)
+ * offset  8  int   kind (DENSE, CSR, SPARSE, BAND)
+ * offset 12  int   rows
+ * offset 16  int   columns
+ * offset 20  int   flags (SQUARE)
+ * offset 24  long  number of stored entries
+ * </pre>
+ * Followed by the little-endian arrays of the kind:
+ * <ul>
+ *     <li>DENSE: rows * columns ints in row-major order.</li>
+ *     <li>CSR and SPARSE: rows + 1 long row offsets, then the int column indices and the int values.
+ *     SPARSE is a hash based Matrix stored as CSR, so it can be mapped like a CSR file.</li>
+ *     <li>BAND: the values of the bands of a symmetric BandMatrix (entries ints, the main diagonal first).</li>
+ * </ul>
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+final class MatrixFileHeader {
+
+    /** The size of the header in bytes. */
+    static final int BYTES = 64;
+
+    /** The magic number ("AMTX" read as a little-endian int). */
+    static final int MAGIC = 0x58544D41;
+
+    /** The current version of the format. */
+    static final int VERSION = 1;
+
+    /** Kind of a dense row-major matrix. */
+    static final int DENSE = 0;
+
+    /** Kind of a CSR matrix. */
+    static final int CSR = 1;
+
+    /** Kind of a hash based sparse matrix (stored as CSR). */
+    static final int SPARSE = 2;
+
+    /** Kind of a symmetric band matrix. */
+    static final int BAND = 3;
+
+    /** Flag of a matrix that was a SquareMatrix. */
+    static final int SQUARE = 1;
+
+    /** The kind of the file. */
+    final int kind;
+
+    /** The number of rows. */
+    final int rows;
+
+    /** The number of columns. */
+    final int columns;
+
+    /** The flags. */
+    final int flags;
+
+    /** The number of stored entries (rows * columns for DENSE, the number of bands for BAND). */
+    final long entries;
+
+    /**
+     * @param kind The kind of the file.
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param flags The flags.
+     * @param entries The number of stored entries.
+     */
+    MatrixFileHeader(int kind, int rows, int columns, int flags, long entries) {
+        this.kind = kind;
+        this.rows = rows;
+        this.columns = columns;
+        this.flags = flags;
+        this.entries = entries;
+    }
+
+    /**
+     * @return true for the kinds stored as CSR arrays (CSR, SPARSE).
+     */
+    boolean isCompressed() {
+        return this.kind == CSR || this.kind == SPARSE;
+    }
+
+    /**
+     * @return the size of the data behind the header in bytes.
+     */
+    long dataBytes() {
+        if (this.kind == DENSE || this.kind == BAND) {
+            return this.entries * Integer.BYTES;
+        }
+        return (this.rows + 1L) * Long.BYTES + 2 * this.entries * Integer.BYTES;
+    }
+
+    /**
+     * Writes the header at the start of the file.
+     *
+     * @param channel The channel of the file.
+     * @throws IOException If the header can't be written.
+     */
+    void write(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, this.kind)
+                .putInt(12, this.rows).putInt(16, this.columns).putInt(20, this.flags).putLong(24, this.entries);
+        int written = 0;
+        while (written < BYTES) {
+            written += channel.write(buffer, written);
+        }
+    }
+
+    /**
+     * Reads and validates the header at the start of the file.
+     *
+     * @param channel The channel of the file.
+     * @return the header.
+     * @throws IOException If the header can't be read.
+     */
+    static MatrixFileHeader read(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        int read = 0;
+        while (read < BYTES) {
+            int count = channel.read(buffer, read);
+            if (count < 0) {
+                throw new IllegalArgumentException("The file is too short for a matrix header.");
+            }
+            read += count;
+        }
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("The file is not a matrix file.");
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported matrix file version " + version + ".");
+        }
+        int kind = buffer.getInt(8);
+        if (kind < DENSE || kind > BAND) {
+            throw new IllegalArgumentException("Unknown matrix file kind " + kind + ".");
+        }
+        MatrixFileHeader header = new MatrixFileHeader(kind, buffer.getInt(12), buffer.getInt(16),
+                buffer.getInt(20), buffer.getLong(24));
+        if (header.rows <= 0 || header.columns <= 0 || header.entries < 0
+                || (kind == DENSE && header.entries != (long) header.rows * header.columns)
+                || (kind == BAND && header.rows != header.columns)
+                || channel.size() < BYTES + header.dataBytes()) {
+            throw new IllegalArgumentException("The matrix file is corrupt or truncated.");
+        }
+        return header;
+    }
+}
@@ -0,0 +1,229 @@
+package assignmenttwo;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads and writes matrices in the versioned binary format of MatrixFileHeader. Every representation is
+ * written as its own arrays, so the cost is proportional to what is stored and not to rows * columns:
+ * <ul>
+ *     <li>BandMatrix: just the values of its bands (BAND).</li>
+ *     <li>Matrix and SquareMatrix: their entries as CSR arrays (SPARSE).</li>
+ *     <li>DenseMatrix and OffHeapDenseMatrix: the row-major values (DENSE).</li>
+ *     <li>Anything else (CsrMatrix, CscMatrix, band and off-heap CSR matrices): CSR arrays (CSR).</li>
+ * </ul>
+ * The arrays are little-endian and 8 byte aligned, so map() loads a DENSE, CSR or SPARSE file without copying
+ * (MappedDenseMatrix, MappedCsrMatrix) and read() copies the arrays into a heap matrix with bulk copies.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public final class MatrixFiles {
+
+    /**
+     * Not instantiable.
+     */
+    private MatrixFiles() {
+    }
+
+    /**
+     * Writes a matrix to a file (created or overwritten), in the kind that matches its representation.
+     *
+     * @param path The file.
+     * @param matrix The matrix to write.
+     * @throws IOException If the file can't be written.
+     */
+    public static void write(Path path, MatrixInterface matrix) throws IOException {
+        if (path == null || matrix == null) {
+            throw new IllegalArgumentException("The path and the matrix can't be null.");
+        }
+        if (matrix instanceof BandMatrix) {
+            BandMatrix band = (BandMatrix) matrix;
+            MatrixFileHeader header = new MatrixFileHeader(MatrixFileHeader.BAND, band.getSize(), band.getSize(),
+                    0, band.getBandCount());
+            try (Output output = new Output(path, header)) {
+                for (int d = 0; d < band.getBandCount(); d++) {
+                    output.data.setInt(d, band.getBandValue(d));
+                }
+            }
+        } else if (matrix instanceof DenseMatrix) {
+            DenseMatrix dense = (DenseMatrix) matrix;
+            try (Output output = new Output(path, new MatrixFileHeader(MatrixFileHeader.DENSE, dense.getRows(),
+                    dense.getColumns(), 0, dense.data.length))) {
+                output.data.writeInts(0, dense.data, 0, dense.data.length);
+            }
+        } else if (matrix instanceof OffHeapDenseMatrix) {
+            long size = (long) matrix.getRows() * matrix.getColumns();
+            try (Output output = new Output(path, new MatrixFileHeader(MatrixFileHeader.DENSE, matrix.getRows(),
+                    matrix.getColumns(), 0, size))) {
+                OffHeapMemory memory = ((OffHeapDenseMatrix) matrix).memory;
+                for (long index = 0; index < size; index++) {
+                    output.data.setInt(index, memory.getInt(index));
+                }
+            }
+        } else if (matrix instanceof OffHeapCsrMatrix) {
+            OffHeapCsrMatrix csr = (OffHeapCsrMatrix) matrix;
+            try (Output output = new Output(path, new MatrixFileHeader(MatrixFileHeader.CSR, csr.getRows(),
+                    csr.getColumns(), 0, csr.getNonZeroCount()))) {
+                long nnz = csr.getNonZeroCount();
+                long columnsOffset = (csr.getRows() + 1L) * Long.BYTES;
+                for (int i = 0; i <= csr.getRows(); i++) {
+                    output.data.setLong(i, i < csr.getRows() ? csr.rowStart(i) : nnz);
+                }
+                MappedMemory columns = output.data.region(columnsOffset, nnz * Integer.BYTES);
+                MappedMemory values = output.data.region(columnsOffset + nnz * Integer.BYTES, nnz * Integer.BYTES);
+                for (long p = 0; p < nnz; p++) {
+                    columns.setInt(p, csr.columnAt(p));
+                    values.setInt(p, csr.valueAt(p));
+                }
+            }
+        } else {
+            boolean sparse = matrix instanceof Matrix;
+            int flags = matrix instanceof SquareMatrix ? MatrixFileHeader.SQUARE : 0;
+            CsrMatrix csr = matrix instanceof CsrMatrix ? (CsrMatrix) matrix : CsrMatrix.from(matrix);
+            SparseRows rows = csr.asSparseRows();
+            int nnz = csr.getNonZeroCount();
+            try (Output output = new Output(path, new MatrixFileHeader(
+                    sparse ? MatrixFileHeader.SPARSE : MatrixFileHeader.CSR, csr.getRows(), csr.getColumns(),
+                    flags, nnz))) {
+                for (int i = 0; i <= csr.getRows(); i++) {
+                    output.data.setLong(i, rows.rowPtr[i]);
+                }
+                long columnsIndex = (csr.getRows() + 1L) * 2;
+                output.data.writeInts(columnsIndex, rows.columns, 0, nnz);
+                output.data.writeInts(columnsIndex + nnz, rows.values, 0, nnz);
+            }
+        }
+    }
+
+    /**
+     * Reads a matrix file into the heap representation of its kind: a BandMatrix, a Matrix (or SquareMatrix),
+     * a DenseMatrix or a CsrMatrix. The arrays are copied in bulk and the CSR arrays are validated.
+     *
+     * @param path The file.
+     * @return the matrix.
+     * @throws IOException If the file can't be read.
+     */
+    public static MatrixInterface read(Path path) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("The path is null.");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MatrixFileHeader header = MatrixFileHeader.read(channel);
+            MappedMemory file = MappedMemory.map(channel, MatrixFileHeader.BYTES + header.dataBytes(),
+                    MappedMode.READ_ONLY);
+            MappedMemory data = file.region(MatrixFileHeader.BYTES, header.dataBytes());
+            try {
+                return read(header, data);
+            } finally {
+                file.close();
+            }
+        }
+    }
+
+    /**
+     * Copies the arrays of a mapped file into a heap matrix.
+     *
+     * @param header The header of the file.
+     * @param data The mapped arrays.
+     * @return the matrix.
+     */
+    private static MatrixInterface read(MatrixFileHeader header, MappedMemory data) {
+        if (header.kind == MatrixFileHeader.BAND) {
+            BandMatrix band = new BandMatrix(header.rows, (int) Math.max(0, header.entries - 1));
+            for (int d = 0; d < header.entries; d++) {
+                int value = data.getInt(d);
+                if (value != 0) {
+                    band.set(0, d, value);
+                }
+            }
+            return band;
+        }
+        if (header.kind == MatrixFileHeader.DENSE) {
+            DenseMatrix dense = new DenseMatrix(header.rows, header.columns);
+            data.readInts(0, dense.data, 0, dense.data.length);
+            return dense;
+        }
+        if (header.entries > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("The matrix is too large for the heap, map it instead.");
+        }
+        int nnz = (int) header.entries;
+        int[] rowPtr = new int[header.rows + 1];
+        for (int i = 0; i <= header.rows; i++) {
+            rowPtr[i] = (int) data.getLong(i);
+        }
+        int[] columns = new int[nnz];
+        int[] values = new int[nnz];
+        long columnsIndex = (header.rows + 1L) * 2;
+        data.readInts(columnsIndex, columns, 0, nnz);
+        data.readInts(columnsIndex + nnz, values, 0, nnz);
+        CsrMatrix csr = new CsrMatrix(header.rows, header.columns, rowPtr, columns, values);
+        if (header.kind == MatrixFileHeader.CSR) {
+            return csr;
+        }
+        return (header.flags & MatrixFileHeader.SQUARE) != 0 ? csr.toSquareMatrix() : csr.toMatrix();
+    }
+
+    /**
+     * Maps a matrix file without copying: DENSE files as a MappedDenseMatrix, CSR and SPARSE files as a
+     * MappedCsrMatrix. A BAND file only holds a few values, so it is read into a BandMatrix.
+     *
+     * @param path The file.
+     * @param mode The access mode.
+     * @param arena The arena for the results of plus and times.
+     * @return the matrix.
+     * @throws IOException If the file can't be read.
+     */
+    public static MatrixInterface map(Path path, MappedMode mode, OffHeapArena arena) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("The path is null.");
+        }
+        int kind;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            kind = MatrixFileHeader.read(channel).kind;
+        }
+        if (kind == MatrixFileHeader.DENSE) {
+            return MappedDenseMatrix.open(path, mode, arena);
+        }
+        if (kind == MatrixFileHeader.BAND) {
+            return read(path);
+        }
+        return MappedCsrMatrix.open(path, mode, arena);
+    }
+
+    /**
+     * A new file with its header written and its data region mapped read-write.
+     * Closing it forces the data to the storage device and drops the mapping.
+     */
+    private static final class Output implements AutoCloseable {
+
+        /** The mapping of the whole file. */
+        private final MappedMemory file;
+
+        /** The data region behind the header. */
+        final MappedMemory data;
+
+        /**
+         * @param path The file.
+         * @param header The header to write.
+         * @throws IOException If the file can't be created.
+         */
+        Output(Path path, MatrixFileHeader header) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                header.write(channel);
+                this.file = MappedMemory.map(channel, MatrixFileHeader.BYTES + header.dataBytes(),
+                        MappedMode.READ_WRITE);
+                this.data = this.file.region(MatrixFileHeader.BYTES, header.dataBytes());
+            }
+        }
+
+        @Override
+        public void close() {
+            this.file.force();
+            this.file.close();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package assignmenttwo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+/**
+ * This is a tester class for MatrixFiles and the binary file format.
+ * Every representation is written, read back and mapped, and the results compared to the original matrices.
+ *
+ * @author Nikola Desnica
+ * @version 1.0
+ */
+public class MatrixFilesTester {
+
+    /**
+     * Runs all the test methods for MatrixFiles.
+     */
+    public void runTests() {
+        Path directory = null;
+        try (OffHeapArena arena = OffHeapArena.open()) {
+            directory = Files.createTempDirectory("matrix-files-test");
+            testRoundTrips(directory);
+            testMapping(directory, arena);
+            testVersions(directory, arena);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deleteDirectory(directory);
+        }
+        System.out.println("All MatrixFiles tests passed!");
+    }
+
+    /**
+     * Deletes the temporary directory and its files.
+     *
+     * @param directory The directory (may be null).
+     */
+    private static void deleteDirectory(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Builds a small sparse test matrix.
+     *
+     * @param matrix The matrix to fill.
+     * @param seed Changes the pattern of the entries.
+     * @return the filled matrix.
+     */
+    private static Matrix fill(Matrix matrix, int seed) {
+        for (int i = 0; i < matrix.getRows(); i++) {
+            for (int j = 0; j < matrix.getColumns(); j++) {
+                if ((i * 3 + j * 5 + seed) % 4 == 0) {
+                    matrix.set(i, j, (i + 1) * (j - seed));
+                }
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Tests that every representation is read back as the same kind of matrix with the same values.
+     *
+     * @param directory The directory for the files.
+     * @throws IOException If the files can't be used.
+     */
+    private void testRoundTrips(Path directory) throws IOException {
+        Matrix matrix = fill(new Matrix(7, 5), 1);
+        Path file = directory.resolve("sparse.bin");
+        MatrixFiles.write(file, matrix);
+        MatrixInterface read = MatrixFiles.read(file);
+        assert read instanceof Matrix && !(read instanceof SquareMatrix) : "A Matrix should be read as a Matrix";
+        TestMatrices.assertSameValues(matrix, read, "Matrix round trip failed");
+        assert Files.size(file) == MatrixFileHeader.BYTES + 8 * Long.BYTES
+                + 2L * CsrMatrix.from(matrix).getNonZeroCount() * Integer.BYTES : "Only the entries should be stored";
+
+        SquareMatrix square = (SquareMatrix) fill(new SquareMatrix(6), 2);
+        MatrixFiles.write(file, square);
+        read = MatrixFiles.read(file);
+        assert read instanceof SquareMatrix : "A SquareMatrix should be read as a SquareMatrix";
+        TestMatrices.assertSameValues(square, read, "SquareMatrix round trip failed");
+
+        DenseMatrix dense = DenseMatrix.from(fill(new Matrix(4, 9), 3));
+        file = directory.resolve("dense.bin");
+        MatrixFiles.write(file, dense);
+        read = MatrixFiles.read(file);
+        assert read instanceof DenseMatrix;
+        TestMatrices.assertSameValues(dense, read, "DenseMatrix round trip failed");
+
+        CsrMatrix csr = CsrMatrix.from(fill(new Matrix(5, 8), 0));
+        file = directory.resolve("csr.bin");
+        MatrixFiles.write(file, csr);
+        read = MatrixFiles.read(file);
+        assert read instanceof CsrMatrix;
+        TestMatrices.assertSameValues(csr, read, "CsrMatrix round trip failed");
+
+        BandMatrix band = new BandMatrix(1000, 2);
+        band.set(0, 0, 4);
+        band.set(0, 2, -1);
+        file = directory.resolve("band.bin");
+        MatrixFiles.write(file, band);
+        assert Files.size(file) == MatrixFileHeader.BYTES + 3 * Integer.BYTES : "Only the bands should be stored";
+        read = MatrixFiles.read(file);
+        assert read instanceof BandMatrix && ((BandMatrix) read).getBandCount() == 3;
+        assert read.get(7, 9) == -1 && read.get(9, 7) == -1 && read.get(8, 9) == 0 && read.get(999, 999) == 4;
+
+        try (OffHeapArena arena = OffHeapArena.open()) {
+            OffHeapCsrMatrix offHeap = OffHeapCsrMatrix.from(arena, matrix);
+            file = directory.resolve("offheap-csr.bin");
+            MatrixFiles.write(file, offHeap);
+            TestMatrices.assertSameValues(matrix, MatrixFiles.read(file), "OffHeapCsrMatrix round trip failed");
+            file = directory.resolve("offheap-dense.bin");
+            MatrixFiles.write(file, OffHeapDenseMatrix.from(arena, matrix));
+            assert MatrixFiles.read(file) instanceof DenseMatrix;
+            TestMatrices.assertSameValues(matrix, MatrixFiles.read(file), "OffHeapDenseMatrix round trip failed");
+        }
+    }
+
+    /**
+     * Tests mapping the files written by testRoundTrips without copying.
+     *
+     * @param directory The directory of the files.
+     * @param arena The arena for the results.
+     * @throws IOException If the files can't be used.
+     */
+    private void testMapping(Path directory, OffHeapArena arena) throws IOException {
+        Matrix b = fill(new Matrix(9, 3), 2);
+        MatrixInterface dense = MatrixFiles.read(directory.resolve("dense.bin"));
+        MatrixInterface mapped = MatrixFiles.map(directory.resolve("dense.bin"), MappedMode.READ_ONLY, arena);
+        assert mapped instanceof MappedDenseMatrix;
+        TestMatrices.assertSameValues(dense.times(b), mapped.times(b), "Multiplying a mapped dense file failed");
+        ((MappedDenseMatrix) mapped).close();
+
+        SquareMatrix square = (SquareMatrix) MatrixFiles.read(directory.resolve("sparse.bin"));
+        mapped = MatrixFiles.map(directory.resolve("sparse.bin"), MappedMode.READ_ONLY, arena);
+        assert mapped instanceof MappedCsrMatrix : "A SPARSE file should be mapped as CSR arrays";
+        TestMatrices.assertSameValues(square.times(square), mapped.times(square),
+                "Multiplying a mapped sparse file failed");
+        ((MappedCsrMatrix) mapped).close();
+
+        mapped = MatrixFiles.map(directory.resolve("band.bin"), MappedMode.READ_ONLY, arena);
+        assert mapped instanceof BandMatrix && mapped.get(500, 502) == -1;
+    }
+
+    /**
+     * Tests that files of another version or of an unknown kind are rejected.
+     *
+     * @param directory The directory for the files.
+     * @param arena The arena for the results.
+     * @throws IOException If the files can't be used.
+     */
+    private void testVersions(Path directory, OffHeapArena arena) throws IOException {
+        Matrix matrix = fill(new Matrix(6, 4), 3);
+        Path file = directory.resolve("version.bin");
+        try (MappedCsrMatrix written = MappedCsrMatrix.write(file, matrix, arena)) {
+            written.force();
+        }
+        TestMatrices.assertSameValues(matrix, MatrixFiles.read(file), "Reading the current version failed");
+
+        for (int version : new int[]{0, MatrixFileHeader.VERSION + 1}) {
+            writeHeaderInt(file, 4, version);
+            boolean thrown = false;
+            try {
+                MatrixFiles.read(file);
+            } catch (IllegalArgumentException e) {
+                thrown = true;
+            }
+            assert thrown : "Version " + version + " should throw";
+        }
+
+        writeHeaderInt(file, 4, MatrixFileHeader.VERSION);
+        writeHeaderInt(file, 8, MatrixFileHeader.BAND + 1);
+        boolean thrown = false;
+        try {
+            MatrixFiles.read(file);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "An unknown kind should throw";
+    }
+
+    /**
+     * Overwrites an int in the header of a file.
+     *
+     * @param file The file.
+     * @param offset The offset of the int in the header.
+     * @param value The new value.
+     * @throws IOException If the file can't be written.
+     */
+    private static void writeHeaderInt(Path file, int offset, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).putInt(0, value);
+            channel.write(buffer, offset);
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package assignmenttwo;
 
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  * Represents a matrix interface with basic operations for getting and setting values,
  * validating operations, performing addition and multiplication, and converting to an array.
  *
  * @author Nikola Desnica (UNI: ndd2131)
- * @version 3.0
+ * @version 6.0
  */
 public interface MatrixInterface {
 
@@ -32,7 +37,14 @@ public interface MatrixInterface {
      */
     int get(int i, int j);
 
-
+    /**
+     * Sets the value at the specified row and column position.
+     * Immutable implementations (e.g. CsrMatrix) throw an UnsupportedOperationException.
+     *
+     * @param i     the row position
+     * @param j     the column position
+     * @param value the value to set
+     */
     void set(int i, int j, int value);
 
     /**
@@ -51,9 +63,34 @@ public interface MatrixInterface {
      */
     void validateMultiplication(MatrixInterface other);
 
-    public Matrix plus(MatrixInterface other);
+    /**
+     * Adds another matrix to this matrix. Implementations may narrow the return type
+     * (e.g. Matrix returns a Matrix, an immutable CsrMatrix returns a new CsrMatrix).
+     *
+     * @param other the matrix to add
+     * @return a new matrix holding the sum
+     */
+    public MatrixInterface plus(MatrixInterface other);
 
-    public Matrix times(MatrixInterface other);
+    /**
+     * Multiplies this matrix with another matrix. Implementations may narrow the return type.
+     *
+     * @param other the matrix to multiply by
+     * @return a new matrix holding the product
+     */
+    public MatrixInterface times(MatrixInterface other);
+
+    /**
+     * Multiplies this matrix with another matrix, in parallel on the given pool (see ParallelMultiplier).
+     * The product has the same representation and values as times(other); a null pool runs times(other).
+     *
+     * @param other the matrix to multiply by
+     * @param pool  the pool to run the tasks on, or null for the sequential times
+     * @return a new matrix holding the product
+     */
+    default MatrixInterface times(MatrixInterface other, ForkJoinPool pool) {
+        return pool == null ? times(other) : new ParallelMultiplier(pool).times(this, other);
+    }
 
     /**
      * Helps in performing the matrix addition operation. It takes the result matrix
@@ -73,6 +110,214 @@ public interface MatrixInterface {
      */
     void performMultiplication(MatrixInterface result, MatrixInterface other);
 
+    /**
+     * Adds another matrix to this matrix in place (this += other), without allocating a result.
+     * Immutable implementations throw an UnsupportedOperationException, band matrices throw an
+     * IllegalArgumentException if the sum doesn't fit their structure.
+     *
+     * @param other the matrix to add (same dimensions)
+     */
+    void addInPlace(MatrixInterface other);
+
+    /**
+     * Multiplies every value of this matrix by a factor in place (a factor of 0 clears the matrix
+     * but keeps its storage). Immutable implementations throw an UnsupportedOperationException.
+     *
+     * @param factor the factor
+     */
+    void scaleInPlace(int factor);
+
+    /**
+     * Multiplies this matrix with another matrix into a caller-owned result: result = this * other.
+     * The result is cleared with scaleInPlace(0) and then accumulated into, so reusing the same result
+     * matrix in a loop doesn't allocate a new matrix on every step.
+     *
+     * @param result the matrix receiving the product (getRows() x other.getColumns(), not an operand)
+     * @param other  the matrix to multiply by
+     */
+    default void multiplyInto(MatrixInterface result, MatrixInterface other) {
+        validateResult(result, other);
+        result.scaleInPlace(0);
+        multiplyAccumulate(result, 1, other);
+    }
+
+    /**
+     * GEMM-style fused multiply-add: result += alpha * this * other, without a temporary for the product.
+     * This default walks the non-zero entries of this matrix and reads the other one with get;
+     * implementations override it with kernels for their storage.
+     *
+     * @param result the matrix accumulating the product (getRows() x other.getColumns(), not an operand)
+     * @param alpha  the factor of the product
+     * @param other  the matrix to multiply by
+     */
+    default void multiplyAccumulate(MatrixInterface result, int alpha, MatrixInterface other) {
+        validateResult(result, other);
+        if (alpha == 0) {
+            return;
+        }
+        int columns = other.getColumns();
+        forEachNonZero((i, k, value) -> {
+            int scaled = alpha * value;
+            for (int j = 0; j < columns; j++) {
+                int product = other.get(k, j);
+                if (product != 0) {
+                    result.set(i, j, result.get(i, j) + scaled * product);
+                }
+            }
+        });
+    }
+
+    /**
+     * Validates the operands of multiplyInto and multiplyAccumulate: the shapes have to match and the
+     * result can't share its storage with an operand (the kernels read the operands while they write the
+     * result), see sharesStorageWith. A BandMatrix result also has to be able to hold the product
+     * (see BandMatrix.holdsProduct).
+     *
+     * @param result the result matrix
+     * @param other  the matrix to multiply by
+     */
+    default void validateResult(MatrixInterface result, MatrixInterface other) {
+        validateMultiplication(other);
+        if (result == null) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the result matrix is null.");
+        }
+        if (result.getRows() != getRows() || result.getColumns() != other.getColumns()) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the dimensions of the result " +
+                    "matrix don't match the product.");
+        }
+        if (result.sharesStorageWith(this) || result.sharesStorageWith(other)
+                || sharesStorageWith(result) || other.sharesStorageWith(result)) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the result matrix can not be " +
+                    "one of the operands.");
+        }
+        if (result instanceof BandMatrix && !BandMatrix.holdsProduct(this, other)) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, a BandMatrix result can only " +
+                    "hold the product of two BandMatrix operands where one of them is diagonal.");
+        }
+    }
+
+    /**
+     * Tells whether writing one of two matrices can change the other, i.e. they are the same object or views
+     * of the same storage. multiplyInto and multiplyAccumulate reject a result that shares storage with an
+     * operand. The default only compares the objects; the memory-mapped matrices also compare their files.
+     *
+     * @param other the other matrix
+     * @return true if both matrices share their storage
+     */
+    default boolean sharesStorageWith(MatrixInterface other) {
+        return this == other;
+    }
+
+    /**
+     * Multiplies this matrix with a column vector: y = A * x.
+     *
+     * @param x the vector to multiply by (getColumns() values)
+     * @return a new vector holding the product (getRows() values)
+     */
+    default int[] times(int[] x) {
+        if (x == null) {
+            throw new IllegalArgumentException("Cannot multiply by this vector, the passed vector is null.");
+        }
+        int[] y = new int[getRows()];
+        timesInto(x, y);
+        return y;
+    }
+
+    /**
+     * Multiplies this matrix with a column vector into a caller-owned vector: y = A * x.
+     * y is overwritten, so iterative methods can reuse the same two vectors for every step.
+     * Every implementation has its own kernel that only touches the stored values.
+     *
+     * @param x the vector to multiply by (getColumns() values)
+     * @param y the vector receiving the product (getRows() values, must not be x)
+     */
+    void timesInto(int[] x, int[] y);
+
+    /**
+     * Validates the vectors passed to timesInto.
+     *
+     * @param x the vector to multiply by
+     * @param y the vector receiving the product
+     */
+    default void validateVectorMultiplication(int[] x, int[] y) {
+        if (x == null || y == null) {
+            throw new IllegalArgumentException("Cannot multiply by this vector, the passed vector is null.");
+        }
+        if (x.length != getColumns() || y.length != getRows()) {
+            throw new IllegalArgumentException("Cannot multiply by this vector, its length doesn't match " +
+                    "the dimensions of this matrix.");
+        }
+        if (x == y) {
+            throw new IllegalArgumentException("Cannot multiply by this vector, the result can not overwrite it.");
+        }
+    }
+
+    /**
+     * Passes every non-zero entry of the rows [fromRow, toRow) to the action, without boxing.
+     * Every implementation walks its own storage, so the work is proportional to the stored entries
+     * and not to the full shape. Rows are visited in order unless an implementation states otherwise.
+     *
+     * @param fromRow the first row (inclusive)
+     * @param toRow   the last row (exclusive)
+     * @param action  the action receiving (row, column, value)
+     */
+    void forEachNonZero(int fromRow, int toRow, IntTriConsumer action);
+
+    /**
+     * Passes every non-zero entry of the matrix to the action, without boxing.
+     *
+     * @param action the action receiving (row, column, value)
+     */
+    default void forEachNonZero(IntTriConsumer action) {
+        forEachNonZero(0, getRows(), action);
+    }
+
+    /**
+     * Validates the row range and action passed to forEachNonZero.
+     *
+     * @param fromRow the first row (inclusive)
+     * @param toRow   the last row (exclusive)
+     * @param action  the action receiving the entries
+     */
+    default void validateRowRange(int fromRow, int toRow, IntTriConsumer action) {
+        if (action == null) {
+            throw new IllegalArgumentException("The passed action is null.");
+        }
+        if (fromRow < 0 || toRow > getRows() || fromRow > toRow) {
+            throw new IllegalArgumentException("The indicated row range is out of bounds for this matrix.");
+        }
+    }
+
+    /**
+     * Returns a spliterator over the non-zero entries that splits by row ranges,
+     * so a parallel stream works on independent blocks of rows.
+     *
+     * @return the spliterator over the non-zero entries
+     */
+    default Spliterator<MatrixEntry> spliterator() {
+        return new NonZeroSpliterator(this, 0, getRows(), getColumns());
+    }
+
+    /**
+     * Returns a (sequential) stream of the non-zero entries; call parallel() on it to split by row ranges.
+     *
+     * @return the stream of non-zero entries
+     */
+    default Stream<MatrixEntry> nonZeros() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a counter that changes whenever a value of this matrix changes, so a result computed from it
+     * can be reused as long as the counter is the same (see ResultCache). Immutable types return 0.
+     * The default -1 means that the type doesn't count its changes; results of such matrices are not cached.
+     *
+     * @return the modification count, or -1 if it isn't tracked
+     */
+    default long getModificationCount() {
+        return -1;
+    }
+
     /**
      * Converts the matrix to a 2D array representation.
      *
@@ -0,0 +1,23 @@
+package assignmenttwo;
+
+/**
+ * A kernel for one operation on one pair of matrix representations, registered in a KernelRegistry.
+ * The operands have already been validated when the kernel is called.
+ *
+ * @param <L> the type of the left operand
+ * @param <R> the type of the right operand
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface MatrixKernel<L extends MatrixInterface, R extends MatrixInterface> {
+
+    /**
+     * Computes the operation.
+     *
+     * @param left the left operand
+     * @param right the right operand
+     * @return a new matrix holding the result
+     */
+    MatrixInterface apply(L left, R right);
+}
@@ -0,0 +1,256 @@
+package assignmenttwo;
+
+/**
+ * The built-in mixed-representation kernels of the KernelRegistry.
+ * Every kernel only visits the stored entries of both operands: a sparse operand contributes its
+ * non-zero entries, a band operand only the columns (or rows) inside its band.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+final class MatrixKernels {
+
+    /**
+     * Not instantiable.
+     */
+    private MatrixKernels() {
+    }
+
+    /**
+     * @param band A BandMatrix.
+     * @return the band values 0..reach, where reach is the outermost band that fits in the matrix.
+     */
+    private static int[] bandValues(BandMatrix band) {
+        int count = Math.max(1, Math.min(band.getBandCount(), band.getSize()));
+        int[] values = new int[count];
+        for (int d = 0; d < count; d++) {
+            values[d] = band.getBandValue(d);
+        }
+        return values;
+    }
+
+    /**
+     * Adds delta to an entry of a result matrix (through the table directly for a sparse Matrix).
+     *
+     * @param result The result matrix.
+     * @param row The row.
+     * @param column The column.
+     * @param delta The value to add.
+     */
+    private static void accumulate(MatrixInterface result, int row, int column, int delta) {
+        if (result instanceof Matrix) {
+            ((Matrix) result).modifications++;
+            ((Matrix) result).entries.add(row, column, delta);
+        } else {
+            result.set(row, column, result.get(row, column) + delta);
+        }
+    }
+
+    /**
+     * Sparse x band: every stored entry (i, k) of the left matrix meets row k of the band, O(nnz * bands).
+     *
+     * @param left The sparse Matrix.
+     * @param right The BandMatrix.
+     * @return the product as a sparse Matrix.
+     */
+    static MatrixInterface sparseTimesBand(Matrix left, BandMatrix right) {
+        Matrix result = new Matrix(left.getRows(), right.getSize());
+        sparseTimesBand(left, right, result);
+        return result;
+    }
+
+    /**
+     * Sparse x band into an empty result matrix.
+     *
+     * @param left The sparse Matrix.
+     * @param right The BandMatrix.
+     * @param result The empty result matrix to be populated.
+     */
+    static void sparseTimesBand(Matrix left, BandMatrix right, MatrixInterface result) {
+        int size = right.getSize();
+        int[] band = bandValues(right);
+        int reach = band.length - 1;
+        left.forEachNonZero((i, k, value) -> {
+            for (int j = Math.max(0, k - reach); j <= Math.min(size - 1, k + reach); j++) {
+                int bandValue = band[j >= k ? j - k : k - j];
+                if (bandValue != 0) {
+                    accumulate(result, i, j, value * bandValue);
+                }
+            }
+        });
+    }
+
+    /**
+     * Band x sparse: every stored entry (k, j) of the right matrix meets column k of the band, O(nnz * bands).
+     *
+     * @param left The BandMatrix.
+     * @param right The sparse Matrix.
+     * @return the product as a sparse Matrix.
+     */
+    static MatrixInterface bandTimesSparse(BandMatrix left, Matrix right) {
+        Matrix result = new Matrix(left.getSize(), right.getColumns());
+        bandTimesSparse(left, right, result);
+        return result;
+    }
+
+    /**
+     * Band x sparse into an empty result matrix.
+     *
+     * @param left The BandMatrix.
+     * @param right The sparse Matrix.
+     * @param result The empty result matrix to be populated.
+     */
+    static void bandTimesSparse(BandMatrix left, Matrix right, MatrixInterface result) {
+        int size = left.getSize();
+        int[] band = bandValues(left);
+        int reach = band.length - 1;
+        right.forEachNonZero((k, j, value) -> {
+            for (int i = Math.max(0, k - reach); i <= Math.min(size - 1, k + reach); i++) {
+                int bandValue = band[i >= k ? i - k : k - i];
+                if (bandValue != 0) {
+                    accumulate(result, i, j, bandValue * value);
+                }
+            }
+        });
+    }
+
+    /**
+     * Band x dense: row i of the result is the sum of band value * row k of B for the k inside the band,
+     * so every row of B is read contiguously (SIMD when available), O(size * bands * columns).
+     *
+     * @param left The BandMatrix.
+     * @param right The DenseMatrix.
+     * @return the product as a DenseMatrix.
+     */
+    static MatrixInterface bandTimesDense(BandMatrix left, DenseMatrix right) {
+        int size = left.getSize();
+        int columns = right.getColumns();
+        int[] band = bandValues(left);
+        int reach = band.length - 1;
+        DenseMatrix result = new DenseMatrix(size, columns);
+        IntKernels kernels = IntKernels.get();
+        for (int i = 0; i < size; i++) {
+            for (int k = Math.max(0, i - reach); k <= Math.min(size - 1, i + reach); k++) {
+                int bandValue = band[k >= i ? k - i : i - k];
+                if (bandValue != 0) {
+                    kernels.axpy(bandValue, right.data, k * columns, result.data, i * columns, columns);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Dense x band: A(i, k) only reaches the columns j inside the band around k, O(rows * size * bands).
+     *
+     * @param left The DenseMatrix.
+     * @param right The BandMatrix.
+     * @return the product as a DenseMatrix.
+     */
+    static MatrixInterface denseTimesBand(DenseMatrix left, BandMatrix right) {
+        int rows = left.getRows();
+        int size = right.getSize();
+        int[] band = bandValues(right);
+        int reach = band.length - 1;
+        DenseMatrix result = new DenseMatrix(rows, size);
+        for (int i = 0; i < rows; i++) {
+            int row = i * size;
+            for (int k = 0; k < size; k++) {
+                int value = left.data[row + k];
+                if (value == 0) {
+                    continue;
+                }
+                for (int j = Math.max(0, k - reach); j <= Math.min(size - 1, k + reach); j++) {
+                    result.data[row + j] += value * band[j >= k ? j - k : k - j];
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Detects the identity in O(1) for a BandMatrix and O(size) for a GeneralBandMatrix
+     * (other representations are never treated as the identity).
+     *
+     * @param matrix The matrix.
+     * @return true if the matrix is the identity.
+     */
+    static boolean isIdentity(MatrixInterface matrix) {
+        if (matrix instanceof BandMatrix) {
+            BandMatrix band = (BandMatrix) matrix;
+            return band.getBandCount() == 1 && band.getBandValue(0) == 1;
+        }
+        if (matrix instanceof GeneralBandMatrix) {
+            GeneralBandMatrix band = (GeneralBandMatrix) matrix;
+            if (band.getLowerBandwidth() != 0 || band.getUpperBandwidth() != 0) {
+                return false;
+            }
+            for (int i = 0; i < band.getSize(); i++) {
+                if (band.get(i, i) != 1) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * The generic product of the KernelRegistry: left.times(right), except that a product with the identity
+     * is a copy of the other operand. An off-heap left operand keeps its own times, so its product with the
+     * identity stays off the heap.
+     *
+     * @param left The left operand.
+     * @param right The right operand.
+     * @return the product.
+     */
+    static MatrixInterface genericTimes(MatrixInterface left, MatrixInterface right) {
+        if (isIdentity(left)) {
+            return copy(right);
+        }
+        if (isIdentity(right) && !(left instanceof OffHeapCsrMatrix || left instanceof OffHeapDenseMatrix)) {
+            return copy(left);
+        }
+        return left.times(right);
+    }
+
+    /**
+     * Copies a matrix for a product with the identity.
+     * <ul>
+     *     <li>DenseMatrix, BandMatrix and GeneralBandMatrix are copied into a new matrix of the same
+     *     representation.</li>
+     *     <li>The immutable CsrMatrix, CscMatrix and PersistentMatrix are returned as they are.</li>
+     *     <li>Every other representation (the off-heap, concurrent, tiled and versioned matrices) is copied
+     *     into a new sparse Matrix, a SquareMatrix for a SquareMatrix.</li>
+     * </ul>
+     *
+     * @param matrix The matrix to copy.
+     * @return the copy.
+     */
+    static MatrixInterface copy(MatrixInterface matrix) {
+        if (matrix instanceof CsrMatrix || matrix instanceof CscMatrix || matrix instanceof PersistentMatrix) {
+            return matrix;
+        }
+        if (matrix instanceof DenseMatrix) {
+            return DenseMatrix.from(matrix);
+        }
+        if (matrix instanceof GeneralBandMatrix) {
+            GeneralBandMatrix band = (GeneralBandMatrix) matrix;
+            return band.plus(new GeneralBandMatrix(band.getSize(), 0, 0));
+        }
+        if (matrix instanceof BandMatrix) {
+            BandMatrix band = (BandMatrix) matrix;
+            BandMatrix copy = new BandMatrix(band.getSize(), Math.max(0, band.getBandCount() - 1));
+            for (int d = 0; d < band.getBandCount() && d < band.getSize(); d++) {
+                if (band.getBandValue(d) != 0) {
+                    copy.set(0, d, band.getBandValue(d));
+                }
+            }
+            return copy;
+        }
+        Matrix copy = matrix instanceof SquareMatrix
+                ? new SquareMatrix(matrix.getRows()) : new Matrix(matrix.getRows(), matrix.getColumns());
+        matrix.forEachNonZero(copy::set);
+        return copy;
+    }
+}
@@ -0,0 +1,666 @@
+package assignmenttwo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Streams matrices in the Matrix Market coordinate format (the .mtx exchange format):
+ * <pre>
+ * %%MatrixMarket matrix coordinate integer general
+ * % comments
+ * rows columns entries
+ * row column value      (1-based, one entry per line)
+ * </pre>
+ * The reader maps the file and splits the entry lines into chunks of bytes that are parsed on a ForkJoinPool.
+ * A chunk starts at the first line beginning inside it and ends with the last such line, so no line is
+ * parsed twice or missed. Every chunk collects its entries in primitive buffers and the CSR arrays are built
+ * from them in bulk (a counting pass and a scatter, no per-entry set). The result is
+ * <ul>
+ *     <li>a BandMatrix when the matrix is square and every stored diagonal is full and constant on both sides
+ *     of the main diagonal (the symmetric Toeplitz structure a BandMatrix stores),</li>
+ *     <li>a CsrMatrix otherwise.</li>
+ * </ul>
+ * The integer and pattern fields and the general, symmetric and skew-symmetric symmetries are supported.
+ * Duplicate entries are added up, as most writers of the format expect.
+ * <p>
+ * The writer streams the non-zero entries (forEachNonZero) into a byte buffer and never builds toArray().
+ * A BandMatrix is written as a symmetric file holding only its lower triangle.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public final class MatrixMarket {
+
+    /** The minimum number of bytes per chunk of entry lines. */
+    static final int MIN_CHUNK_BYTES = 1 << 20;
+
+    /** The maximum number of bytes per chunk, every chunk is mapped as one buffer. */
+    static final int MAX_CHUNK_BYTES = 1 << 28;
+
+    /** The maximum length of a line, a chunk maps this many bytes past its end to finish its last line. */
+    static final int MAX_LINE_BYTES = 1 << 12;
+
+    /** The maximum number of bytes the header and the comments before the size line may take. */
+    private static final int MAX_HEADER_BYTES = 1 << 24;
+
+    /** The size of the output buffer of the writer. */
+    private static final int OUTPUT_BUFFER_BYTES = 1 << 16;
+
+    /** Symmetry of a general file. */
+    private static final int GENERAL = 0;
+
+    /** Symmetry of a symmetric file (only the lower triangle is stored). */
+    private static final int SYMMETRIC = 1;
+
+    /** Symmetry of a skew-symmetric file (only the strict lower triangle is stored). */
+    private static final int SKEW_SYMMETRIC = 2;
+
+    /**
+     * Not instantiable.
+     */
+    private MatrixMarket() {
+    }
+
+    /**
+     * Reads a Matrix Market file on the common pool.
+     *
+     * @param path The file.
+     * @return a BandMatrix when the entries have band structure, a CsrMatrix otherwise.
+     * @throws IOException If the file can't be read.
+     */
+    public static MatrixInterface read(Path path) throws IOException {
+        return read(path, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Reads a Matrix Market file, parsing its chunks on the given pool.
+     *
+     * @param path The file.
+     * @param pool The pool to parse on.
+     * @return a BandMatrix when the entries have band structure, a CsrMatrix otherwise.
+     * @throws IOException If the file can't be read.
+     */
+    public static MatrixInterface read(Path path, ForkJoinPool pool) throws IOException {
+        if (pool == null) {
+            throw new IllegalArgumentException("The ForkJoinPool can not be null.");
+        }
+        return read(path, pool, 0);
+    }
+
+    /**
+     * Reads a Matrix Market file with a fixed chunk size (0 picks one from the file size and the parallelism).
+     *
+     * @param path The file.
+     * @param pool The pool to parse on.
+     * @param chunkBytes The number of bytes per chunk, or 0.
+     * @return a BandMatrix when the entries have band structure, a CsrMatrix otherwise.
+     * @throws IOException If the file can't be read.
+     */
+    static MatrixInterface read(Path path, ForkJoinPool pool, int chunkBytes) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("The path is null.");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Header header = Header.read(channel);
+            long bodyBytes = channel.size() - header.bodyStart;
+            if (chunkBytes <= 0) {
+                long perTask = bodyBytes / (4L * pool.getParallelism()) + 1;
+                chunkBytes = (int) Math.min(MAX_CHUNK_BYTES, Math.max(MIN_CHUNK_BYTES, perTask));
+            }
+            int chunkCount = (int) Math.max(1, (bodyBytes + chunkBytes - 1) / chunkBytes);
+            long fileSize = channel.size();
+            Chunk[] chunks = new Chunk[chunkCount];
+            for (int c = 0; c < chunkCount; c++) {
+                long start = header.bodyStart + (long) c * chunkBytes;
+                chunks[c] = new Chunk(channel, header, start, Math.min(fileSize, start + chunkBytes), fileSize);
+            }
+            pool.invoke(new ParseTask(chunks, 0, chunkCount));
+            for (Chunk chunk : chunks) {
+                if (chunk.error != null) {
+                    throw chunk.error;
+                }
+            }
+            return build(header, chunks);
+        }
+    }
+
+    /**
+     * Builds the matrix from the entries of all chunks.
+     *
+     * @param header The header of the file.
+     * @param chunks The parsed chunks.
+     * @return the matrix.
+     */
+    private static MatrixInterface build(Header header, Chunk[] chunks) {
+        long stored = 0;
+        long[] rowCounts = new long[header.rows + 1];
+        for (Chunk chunk : chunks) {
+            stored += chunk.rowIndices.size;
+            for (int p = 0; p < chunk.rowIndices.size; p++) {
+                int i = chunk.rowIndices.get(p);
+                int j = chunk.columnIndices.get(p);
+                rowCounts[i + 1]++;
+                if (header.symmetry != GENERAL && i != j) {
+                    rowCounts[j + 1]++;
+                }
+            }
+        }
+        if (stored != header.entries) {
+            throw new IllegalArgumentException("The file declares " + header.entries
+                    + " entries but holds " + stored + ".");
+        }
+        for (int i = 0; i < header.rows; i++) {
+            rowCounts[i + 1] += rowCounts[i];
+        }
+        if (rowCounts[header.rows] > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("The matrix has too many entries for a CsrMatrix.");
+        }
+        int[] rowPtr = new int[header.rows + 1];
+        for (int i = 0; i <= header.rows; i++) {
+            rowPtr[i] = (int) rowCounts[i];
+        }
+        int[] next = Arrays.copyOf(rowPtr, header.rows);
+        int[] colIdx = new int[rowPtr[header.rows]];
+        int[] values = new int[rowPtr[header.rows]];
+        int mirror = header.symmetry == SKEW_SYMMETRIC ? -1 : 1;
+        for (Chunk chunk : chunks) {
+            for (int p = 0; p < chunk.rowIndices.size; p++) {
+                int i = chunk.rowIndices.get(p);
+                int j = chunk.columnIndices.get(p);
+                int value = chunk.values.get(p);
+                colIdx[next[i]] = j;
+                values[next[i]++] = value;
+                if (header.symmetry != GENERAL && i != j) {
+                    colIdx[next[j]] = i;
+                    values[next[j]++] = mirror * value;
+                }
+            }
+        }
+        int nonZeros = CsrMatrix.compactRows(header.rows, rowPtr, colIdx, values);
+        CsrMatrix csr = new CsrMatrix(header.rows, header.columns, rowPtr, Arrays.copyOf(colIdx, nonZeros),
+                Arrays.copyOf(values, nonZeros), true);
+        BandMatrix band = nonZeros > 0 ? csr.asBandMatrix() : null;
+        return band != null ? band : csr;
+    }
+
+    /**
+     * Writes a matrix as a Matrix Market coordinate file (created or overwritten). A BandMatrix is written as
+     * a symmetric file, any other matrix as a general one.
+     *
+     * @param path The file.
+     * @param matrix The matrix to write.
+     * @throws IOException If the file can't be written.
+     */
+    public static void write(Path path, MatrixInterface matrix) throws IOException {
+        if (path == null || matrix == null) {
+            throw new IllegalArgumentException("The path and the matrix can't be null.");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Output output = new Output(channel);
+            if (matrix instanceof BandMatrix) {
+                BandMatrix band = (BandMatrix) matrix;
+                int size = band.getSize();
+                long entries = 0;
+                for (int d = 0; d < band.getBandCount() && d < size; d++) {
+                    entries += band.getBandValue(d) != 0 ? size - d : 0;
+                }
+                output.putHeader("symmetric", size, size, entries);
+                for (int j = 0; j < size; j++) {
+                    for (int d = 0; d < band.getBandCount() && j + d < size; d++) {
+                        if (band.getBandValue(d) != 0) {
+                            output.putEntry(j + d, j, band.getBandValue(d));
+                        }
+                    }
+                }
+            } else {
+                long[] entries = new long[1];
+                matrix.forEachNonZero((i, j, value) -> entries[0]++);
+                output.putHeader("general", matrix.getRows(), matrix.getColumns(), entries[0]);
+                matrix.forEachNonZero(output::putEntry);
+            }
+            output.flush();
+        }
+    }
+
+    /**
+     * The banner and the size line of a file.
+     */
+    private static final class Header {
+
+        /** True for a pattern file (no values, every entry is 1). */
+        final boolean pattern;
+
+        /** GENERAL, SYMMETRIC or SKEW_SYMMETRIC. */
+        final int symmetry;
+
+        /** The number of rows. */
+        final int rows;
+
+        /** The number of columns. */
+        final int columns;
+
+        /** The number of entry lines. */
+        final long entries;
+
+        /** The offset of the first byte after the size line. */
+        final long bodyStart;
+
+        /**
+         * @param pattern True for a pattern file.
+         * @param symmetry The symmetry.
+         * @param rows The number of rows.
+         * @param columns The number of columns.
+         * @param entries The number of entry lines.
+         * @param bodyStart The offset of the entry lines.
+         */
+        private Header(boolean pattern, int symmetry, int rows, int columns, long entries, long bodyStart) {
+            this.pattern = pattern;
+            this.symmetry = symmetry;
+            this.rows = rows;
+            this.columns = columns;
+            this.entries = entries;
+            this.bodyStart = bodyStart;
+        }
+
+        /**
+         * Reads and validates the banner, skips the comments and reads the size line.
+         *
+         * @param channel The channel of the file.
+         * @return the header.
+         * @throws IOException If the file can't be read.
+         */
+        static Header read(FileChannel channel) throws IOException {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    Math.min(channel.size(), MAX_HEADER_BYTES));
+            int position = 0;
+            String banner = null;
+            String sizeLine = null;
+            while (sizeLine == null && position < buffer.limit()) {
+                int end = position;
+                while (end < buffer.limit() && buffer.get(end) != '\n') {
+                    end++;
+                }
+                byte[] bytes = new byte[end - position];
+                buffer.get(position, bytes);
+                String line = new String(bytes, StandardCharsets.US_ASCII).trim();
+                position = end + 1;
+                if (banner == null) {
+                    banner = line;
+                } else if (!line.isEmpty() && !line.startsWith("%")) {
+                    sizeLine = line;
+                }
+            }
+            if (banner == null || sizeLine == null) {
+                throw new IllegalArgumentException("The Matrix Market file has no size line.");
+            }
+            String[] fields = banner.toLowerCase(Locale.ROOT).split("\\s+");
+            if (fields.length != 5 || !fields[0].equals("%%matrixmarket") || !fields[1].equals("matrix")) {
+                throw new IllegalArgumentException("The file is not a Matrix Market file.");
+            }
+            if (!fields[2].equals("coordinate")) {
+                throw new IllegalArgumentException("Only the coordinate format is supported.");
+            }
+            if (!fields[3].equals("integer") && !fields[3].equals("pattern")) {
+                throw new IllegalArgumentException("Only integer and pattern matrices are supported.");
+            }
+            int symmetry;
+            if (fields[4].equals("general")) {
+                symmetry = GENERAL;
+            } else if (fields[4].equals("symmetric")) {
+                symmetry = SYMMETRIC;
+            } else if (fields[4].equals("skew-symmetric")) {
+                symmetry = SKEW_SYMMETRIC;
+            } else {
+                throw new IllegalArgumentException("Unsupported symmetry " + fields[4] + ".");
+            }
+            String[] size = sizeLine.split("\\s+");
+            int rows;
+            int columns;
+            long entries;
+            try {
+                if (size.length != 3) {
+                    throw new NumberFormatException();
+                }
+                rows = Integer.parseInt(size[0]);
+                columns = Integer.parseInt(size[1]);
+                entries = Long.parseLong(size[2]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid size line: " + sizeLine);
+            }
+            if (rows <= 0 || columns <= 0 || entries < 0 || (symmetry != GENERAL && rows != columns)) {
+                throw new IllegalArgumentException("Invalid size line: " + sizeLine);
+            }
+            return new Header(fields[3].equals("pattern"), symmetry, rows, columns, entries,
+                    Math.min(position, channel.size()));
+        }
+    }
+
+    /**
+     * The entry lines starting inside one range of bytes and the entries parsed from them.
+     */
+    private static final class Chunk {
+
+        /** The channel of the file. */
+        private final FileChannel channel;
+
+        /** The header of the file. */
+        private final Header header;
+
+        /** The first byte of the range. */
+        private final long start;
+
+        /** The end (exclusive) of the range. */
+        private final long end;
+
+        /** The size of the file. */
+        private final long fileSize;
+
+        /** The 0-based row index of every entry. */
+        final CsrMatrix.IntBuffer rowIndices = new CsrMatrix.IntBuffer();
+
+        /** The 0-based column index of every entry. */
+        final CsrMatrix.IntBuffer columnIndices = new CsrMatrix.IntBuffer();
+
+        /** The value of every entry. */
+        final CsrMatrix.IntBuffer values = new CsrMatrix.IntBuffer();
+
+        /** The exception the parsing ended with, rethrown by read on the calling thread. */
+        IOException error;
+
+        /**
+         * @param channel The channel of the file.
+         * @param header The header of the file.
+         * @param start The first byte of the range.
+         * @param end The end (exclusive) of the range.
+         * @param fileSize The size of the file.
+         */
+        Chunk(FileChannel channel, Header header, long start, long end, long fileSize) {
+            this.channel = channel;
+            this.header = header;
+            this.start = start;
+            this.end = end;
+            this.fileSize = fileSize;
+        }
+
+        /**
+         * Maps the range (with the byte before it and room for the last line) and parses the lines
+         * starting inside it.
+         *
+         * @throws IOException If the file can't be mapped.
+         */
+        void parse() throws IOException {
+            long from = this.start == this.header.bodyStart ? this.start : this.start - 1;
+            long to = Math.min(this.fileSize, this.end + MAX_LINE_BYTES);
+            MappedByteBuffer buffer = this.channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+            int limit = (int) (this.end - from);
+            int position = 0;
+            if (from != this.start) {
+                // the line started before the range belongs to the previous chunk
+                while (buffer.get(position) != '\n') {
+                    position++;
+                    if (position == buffer.limit()) {
+                        return;
+                    }
+                }
+                position++;
+            }
+            while (position < limit) {
+                position = parseLine(buffer, position, from);
+            }
+        }
+
+        /**
+         * Parses the line starting at the position.
+         *
+         * @param buffer The mapped bytes.
+         * @param position The start of the line.
+         * @param base The file offset of the buffer (for the error messages).
+         * @return the start of the next line.
+         */
+        private int parseLine(MappedByteBuffer buffer, int position, long base) {
+            int limit = buffer.limit();
+            position = skipBlanks(buffer, position);
+            if (position == limit) {
+                return position;
+            }
+            byte first = buffer.get(position);
+            if (first == '\n' || first == '%') {
+                while (position < limit && buffer.get(position) != '\n') {
+                    position++;
+                }
+                return position + 1;
+            }
+            long row = 0;
+            long column = 0;
+            long value = 1;
+            int field = 0;
+            int fields = this.header.pattern ? 2 : 3;
+            while (field < fields) {
+                position = skipBlanks(buffer, position);
+                boolean negative = position < limit && buffer.get(position) == '-' && field == 2;
+                if (negative || (position < limit && buffer.get(position) == '+')) {
+                    position++;
+                }
+                int digits = position;
+                long number = 0;
+                while (position < limit && buffer.get(position) >= '0' && buffer.get(position) <= '9'
+                        && number <= Integer.MAX_VALUE + 1L) {
+                    number = number * 10 + buffer.get(position++) - '0';
+                }
+                if (position == digits || number > Integer.MAX_VALUE + (negative ? 1L : 0L)) {
+                    throw invalidLine(base + digits);
+                }
+                number = negative ? -number : number;
+                if (field == 0) {
+                    row = number;
+                } else if (field == 1) {
+                    column = number;
+                } else {
+                    value = number;
+                }
+                field++;
+            }
+            position = skipBlanks(buffer, position);
+            if (position == limit && limit == this.fileSize - base) {
+                position--;
+            } else if (position == limit || buffer.get(position) != '\n') {
+                throw invalidLine(base + position);
+            }
+            if (row < 1 || row > this.header.rows || column < 1 || column > this.header.columns
+                    || (this.header.symmetry == SKEW_SYMMETRIC && row == column)) {
+                throw new IllegalArgumentException("The entry (" + row + ", " + column
+                        + ") is outside the matrix or not allowed by its symmetry.");
+            }
+            this.rowIndices.add((int) row - 1);
+            this.columnIndices.add((int) column - 1);
+            this.values.add((int) value);
+            return position + 1;
+        }
+
+        /**
+         * @param buffer The mapped bytes.
+         * @param position The position to start at.
+         * @return the position of the first byte that is not a space, a tab or a carriage return.
+         */
+        private static int skipBlanks(MappedByteBuffer buffer, int position) {
+            while (position < buffer.limit()) {
+                byte b = buffer.get(position);
+                if (b != ' ' && b != '\t' && b != '\r') {
+                    break;
+                }
+                position++;
+            }
+            return position;
+        }
+
+        /**
+         * @param offset The offset of the invalid byte in the file.
+         * @return the exception for a malformed entry line.
+         */
+        private static IllegalArgumentException invalidLine(long offset) {
+            return new IllegalArgumentException("Malformed or too long entry line at byte " + offset + ".");
+        }
+    }
+
+    /**
+     * Parses a range of chunks, splitting it in halves until one chunk is left.
+     */
+    private static final class ParseTask extends RecursiveAction {
+
+        /** The serialization version. */
+        private static final long serialVersionUID = 1L;
+
+        /** All chunks. */
+        private final Chunk[] chunks;
+
+        /** The first chunk of this task. */
+        private final int from;
+
+        /** The end (exclusive) of the chunks of this task. */
+        private final int to;
+
+        /**
+         * @param chunks All chunks.
+         * @param from The first chunk of this task.
+         * @param to The end (exclusive) of the chunks of this task.
+         */
+        ParseTask(Chunk[] chunks, int from, int to) {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > 1) {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new ParseTask(this.chunks, this.from, middle), new ParseTask(this.chunks, middle, this.to));
+                return;
+            }
+            try {
+                this.chunks[this.from].parse();
+            } catch (IOException e) {
+                this.chunks[this.from].error = e;
+            }
+        }
+    }
+
+    /**
+     * Formats the lines of the writer as ASCII into a byte buffer and writes it to the channel when it is full.
+     */
+    private static final class Output {
+
+        /** The channel of the file. */
+        private final FileChannel channel;
+
+        /** The buffer. */
+        private final byte[] buffer = new byte[OUTPUT_BUFFER_BYTES];
+
+        /** The number of bytes in the buffer. */
+        private int size;
+
+        /** A failure of a write inside forEachNonZero, rethrown by flush. */
+        private IOException error;
+
+        /**
+         * @param channel The channel of the file.
+         */
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Writes the banner and the size line.
+         *
+         * @param symmetry The symmetry of the file.
+         * @param rows The number of rows.
+         * @param columns The number of columns.
+         * @param entries The number of entry lines.
+         */
+        void putHeader(String symmetry, int rows, int columns, long entries) {
+            byte[] banner = ("%%MatrixMarket matrix coordinate integer " + symmetry + "\n" + rows + " " + columns
+                    + " " + entries + "\n").getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(banner, 0, this.buffer, 0, banner.length);
+            this.size = banner.length;
+        }
+
+        /**
+         * Writes an entry line with 1-based indices.
+         *
+         * @param row The 0-based row.
+         * @param column The 0-based column.
+         * @param value The value.
+         */
+        void putEntry(int row, int column, int value) {
+            if (this.size > this.buffer.length - 36) {
+                drain();
+            }
+            putInt(row + 1L);
+            this.buffer[this.size++] = ' ';
+            putInt(column + 1L);
+            this.buffer[this.size++] = ' ';
+            putInt(value);
+            this.buffer[this.size++] = '\n';
+        }
+
+        /**
+         * Writes the decimal digits of a number.
+         *
+         * @param number The number.
+         */
+        private void putInt(long number) {
+            if (number < 0) {
+                this.buffer[this.size++] = '-';
+                number = -number;
+            }
+            int digits = 1;
+            for (long bound = 10; bound <= number; bound *= 10) {
+                digits++;
+            }
+            for (int k = this.size + digits - 1; k >= this.size; k--) {
+                this.buffer[k] = (byte) ('0' + number % 10);
+                number /= 10;
+            }
+            this.size += digits;
+        }
+
+        /**
+         * Writes the buffer to the channel, keeping the first failure for flush.
+         */
+        private void drain() {
+            if (this.error == null) {
+                try {
+                    ByteBuffer bytes = ByteBuffer.wrap(this.buffer, 0, this.size);
+                    while (bytes.hasRemaining()) {
+                        this.channel.write(bytes);
+                    }
+                } catch (IOException e) {
+                    this.error = e;
+                }
+            }
+            this.size = 0;
+        }
+
+        /**
+         * Writes what is left in the buffer.
+         *
+         * @throws IOException If a write failed.
+         */
+        void flush() throws IOException {
+            drain();
+            if (this.error != null) {
+                throw this.error;
+            }
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package assignmenttwo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * This is a tester class for the Matrix Market reader and writer (MatrixMarket).
+ * The chunked parser is tested with chunks far smaller than a line as well, so lines crossing chunk
+ * boundaries are covered.
+ *
+ * @author Nikola Desnica
+ * @version 1.0
+ */
+public class MatrixMarketTester {
+
+    /**
+     * Runs all the test methods for MatrixMarket.
+     */
+    public void runTests() {
+        Path directory = null;
+        try {
+            directory = Files.createTempDirectory("matrix-market-test");
+            testRoundTrip(directory.resolve("general.mtx"));
+            testBandDetection(directory.resolve("band.mtx"));
+            testFormatVariants(directory.resolve("variants.mtx"));
+            testChunkedParsing(directory.resolve("chunked.mtx"));
+            testInvalidFiles(directory.resolve("invalid.mtx"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deleteDirectory(directory);
+        }
+        System.out.println("All MatrixMarket tests passed!");
+    }
+
+    /**
+     * Deletes the temporary directory and its files.
+     *
+     * @param directory The directory (may be null).
+     */
+    private static void deleteDirectory(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Builds a sparse test matrix.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param seed Changes the pattern of the entries.
+     * @return the sparse matrix.
+     */
+    private static Matrix sample(int rows, int columns, int seed) {
+        Matrix matrix = new Matrix(rows, columns);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                if ((i * 7 + j * 11 + seed) % 5 == 0) {
+                    matrix.set(i, j, (i - 3) * (j + seed) * 1001);
+                }
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Writes a file from lines of text.
+     *
+     * @param file The file.
+     * @param lines The lines.
+     * @throws IOException If the file can't be written.
+     */
+    private static void writeLines(Path file, String... lines) throws IOException {
+        Files.write(file, String.join("\n", lines).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Tests writing and reading back general matrices.
+     *
+     * @param file The file to use.
+     * @throws IOException If the file can't be used.
+     */
+    private void testRoundTrip(Path file) throws IOException {
+        Matrix matrix = sample(9, 6, 2);
+        matrix.set(8, 5, Integer.MIN_VALUE);
+        matrix.set(0, 0, Integer.MAX_VALUE);
+        MatrixMarket.write(file, matrix);
+        String text = new String(Files.readAllBytes(file), StandardCharsets.US_ASCII);
+        assert text.startsWith("%%MatrixMarket matrix coordinate integer general\n9 6 "
+                + matrix.nonZeros().count() + "\n");
+        MatrixInterface read = MatrixMarket.read(file);
+        assert read instanceof CsrMatrix;
+        TestMatrices.assertSameValues(matrix, read, "Matrix round trip failed");
+
+        DenseMatrix dense = DenseMatrix.from(sample(4, 7, 1));
+        MatrixMarket.write(file, dense);
+        TestMatrices.assertSameValues(dense, MatrixMarket.read(file), "DenseMatrix round trip failed");
+    }
+
+    /**
+     * Tests that band structure is detected in symmetric and general files.
+     *
+     * @param file The file to use.
+     * @throws IOException If the file can't be used.
+     */
+    private void testBandDetection(Path file) throws IOException {
+        BandMatrix band = new BandMatrix(40, 3);
+        band.set(0, 0, 4);
+        band.set(0, 1, -1);
+        band.set(0, 3, 7);
+        MatrixMarket.write(file, band);
+        String text = new String(Files.readAllBytes(file), StandardCharsets.US_ASCII);
+        assert text.startsWith("%%MatrixMarket matrix coordinate integer symmetric\n40 40 116\n")
+                : "Only the lower triangle should be written";
+        MatrixInterface read = MatrixMarket.read(file);
+        assert read instanceof BandMatrix : "A symmetric band file should be read as a BandMatrix";
+        assert ((BandMatrix) read).getBandCount() == 4 && read.get(10, 13) == 7 && read.get(13, 11) == 0;
+        TestMatrices.assertSameValues(band, read, "BandMatrix round trip failed");
+
+        MatrixMarket.write(file, CsrMatrix.from(band));
+        assert MatrixMarket.read(file) instanceof BandMatrix : "A general band file should be read as a BandMatrix";
+
+        Matrix broken = CsrMatrix.from(band).toMatrix();
+        broken.set(20, 21, 5);
+        MatrixMarket.write(file, broken);
+        read = MatrixMarket.read(file);
+        assert read instanceof CsrMatrix : "A diagonal that is not constant is no band";
+        TestMatrices.assertSameValues(broken, read, "Reading a matrix close to a band failed");
+
+        broken = CsrMatrix.from(band).toMatrix();
+        broken.set(0, 3, 0);
+        broken.set(3, 0, 0);
+        MatrixMarket.write(file, broken);
+        assert MatrixMarket.read(file) instanceof CsrMatrix : "A diagonal that is not full is no band";
+    }
+
+    /**
+     * Tests comments, blank lines, carriage returns, pattern files, symmetric files and duplicate entries.
+     *
+     * @param file The file to use.
+     * @throws IOException If the file can't be used.
+     */
+    private void testFormatVariants(Path file) throws IOException {
+        writeLines(file, "%%MatrixMarket matrix coordinate integer general", "% a comment", "", "3 4 5",
+                "1 1 5\r", "  3   4  -2", "", "% another comment", "1 1 -1", "2 3 +8", "3 4 2");
+        MatrixInterface read = MatrixMarket.read(file);
+        assert read.get(0, 0) == 4 : "Duplicate entries should be added up";
+        assert read.get(1, 2) == 8 && read.get(2, 3) == 0 : "Cancelling duplicates should leave no entry";
+        assert read.nonZeros().count() == 2;
+
+        writeLines(file, "%%MatrixMarket matrix coordinate pattern symmetric", "3 3 3", "1 1", "3 1", "2 2");
+        read = MatrixMarket.read(file);
+        assert read instanceof CsrMatrix;
+        assert read.get(0, 2) == 1 && read.get(2, 0) == 1 && read.get(1, 1) == 1 && read.get(2, 2) == 0;
+
+        writeLines(file, "%%MatrixMarket matrix coordinate integer skew-symmetric", "3 3 2", "2 1 3", "3 2 -4", "");
+        read = MatrixMarket.read(file);
+        assert read.get(1, 0) == 3 && read.get(0, 1) == -3 && read.get(2, 1) == -4 && read.get(1, 2) == 4;
+    }
+
+    /**
+     * Tests that any split of the file into chunks gives the same matrix.
+     *
+     * @param file The file to use.
+     * @throws IOException If the file can't be used.
+     */
+    private void testChunkedParsing(Path file) throws IOException {
+        Matrix matrix = sample(120, 90, 3);
+        MatrixMarket.write(file, matrix);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int chunkBytes : new int[]{1, 7, 64, 1000, 1 << 20}) {
+                TestMatrices.assertSameValues(matrix, MatrixMarket.read(file, pool, chunkBytes),
+                        "Parsing with chunks of " + chunkBytes + " bytes failed");
+            }
+            TestMatrices.assertSameValues(matrix, MatrixMarket.read(file, pool), "Parsing on a pool failed");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Tests that invalid files are rejected.
+     *
+     * @param file The file to use.
+     * @throws IOException If the file can't be used.
+     */
+    private void testInvalidFiles(Path file) throws IOException {
+        String[][] invalid = {
+                {"%%MatrixMarket matrix array integer general", "2 2", "1", "2", "3", "4"},
+                {"%%MatrixMarket matrix coordinate real general", "2 2 1", "1 1 1.5"},
+                {"%%MatrixMarket matrix coordinate integer hermitian", "2 2 1", "1 1 1"},
+                {"not a matrix market file", "2 2 1", "1 1 1"},
+                {"%%MatrixMarket matrix coordinate integer general", "2 2 1", "3 1 1"},
+                {"%%MatrixMarket matrix coordinate integer general", "2 2 2", "1 1 1"},
+                {"%%MatrixMarket matrix coordinate integer general", "2 2 1", "1 1 x"},
+                {"%%MatrixMarket matrix coordinate integer general", "2 2 1", "1 1 3000000000"},
+                {"%%MatrixMarket matrix coordinate integer general", "2 2 1", "1 1 1 1"},
+                {"%%MatrixMarket matrix coordinate integer symmetric", "2 3 1", "1 1 1"},
+                {"%%MatrixMarket matrix coordinate integer skew-symmetric", "2 2 1", "1 1 1"},
+                {"%%MatrixMarket matrix coordinate integer general"}
+        };
+        for (String[] lines : invalid) {
+            writeLines(file, lines);
+            boolean thrown = false;
+            try {
+                MatrixMarket.read(file);
+            } catch (IllegalArgumentException e) {
+                thrown = true;
+            }
+            assert thrown : "Reading an invalid file should throw: " + String.join(" / ", lines);
+        }
+    }
+}
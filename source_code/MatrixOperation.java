@@ -0,0 +1,16 @@
+package assignmenttwo;
+
+/**
+ * The binary matrix operations that can be dispatched through a KernelRegistry.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public enum MatrixOperation {
+
+    /** Matrix addition (left + right). */
+    PLUS,
+
+    /** Matrix multiplication (left * right). */
+    TIMES
+}
@@ -0,0 +1,64 @@
+package assignmenttwo;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Entry point for mixed-type expressions: plus and times pick the best kernel for the runtime types
+ * of both operands through the default KernelRegistry, instead of the static type of the call site.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public final class MatrixOps {
+
+    /**
+     * Not instantiable.
+     */
+    private MatrixOps() {
+    }
+
+    /**
+     * Adds two matrices with the best registered kernel.
+     *
+     * @param left The left operand.
+     * @param right The right operand.
+     * @return a new matrix holding the sum.
+     */
+    public static MatrixInterface plus(MatrixInterface left, MatrixInterface right) {
+        return KernelRegistry.getDefault().apply(MatrixOperation.PLUS, left, right);
+    }
+
+    /**
+     * Multiplies two matrices with the best registered kernel.
+     *
+     * @param left The left operand.
+     * @param right The right operand.
+     * @return a new matrix holding the product.
+     */
+    public static MatrixInterface times(MatrixInterface left, MatrixInterface right) {
+        return KernelRegistry.getDefault().apply(MatrixOperation.TIMES, left, right);
+    }
+
+    /**
+     * Multiplies a chain of matrices in the cheapest order found by MatrixChain, computing independent
+     * products in parallel on the common pool.
+     *
+     * @param matrices The operands, in order.
+     * @return a new matrix holding the product (the operand itself for a single matrix).
+     */
+    public static MatrixInterface multiplyAll(MatrixInterface... matrices) {
+        return MatrixChain.plan(matrices).multiply();
+    }
+
+    /**
+     * Multiplies a chain of matrices in the cheapest order found by MatrixChain, computing independent
+     * products in parallel.
+     *
+     * @param pool The pool to run the products on.
+     * @param matrices The operands, in order.
+     * @return a new matrix holding the product (the operand itself for a single matrix).
+     */
+    public static MatrixInterface multiplyAll(ForkJoinPool pool, MatrixInterface... matrices) {
+        return MatrixChain.plan(matrices).multiply(pool);
+    }
+}
@@ -0,0 +1,182 @@
+package assignmenttwo;
+
+import java.util.Arrays;
+
+/**
+ * Matrix powers by binary exponentiation, for SquareMatrix.pow and BandMatrix.pow.
+ * A^k takes O(log k) products instead of k: the base is squared for every bit of k and multiplied into
+ * the result for every set bit.
+ * <ul>
+ *     <li>Dense powers run on three flat row-major buffers (result, base and scratch) that are swapped
+ *     after every product, so no array is allocated inside the loop.</li>
+ *     <li>Band powers stay in band storage while the band grows (the bandwidths add up with every
+ *     product) and switch to the dense buffers once a product would need a band as wide as the matrix.</li>
+ *     <li>With a modulus the values are kept in [0, modulus) and the products are summed in longs, which
+ *     are only reduced when they could overflow. Without one, integer arithmetic wraps like times().</li>
+ * </ul>
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+final class MatrixPower {
+
+    /**
+     * A product of two values below 2^31 is below 2^62, so a sum below this limit can take one more
+     * product without overflowing.
+     */
+    static final long REDUCE_LIMIT = 1L << 62;
+
+    /**
+     * Not instantiable.
+     */
+    private MatrixPower() {
+    }
+
+    /**
+     * @param exponent The exponent of a power.
+     */
+    static void validateExponent(long exponent) {
+        if (exponent < 0) {
+            throw new IllegalArgumentException("The exponent can not be negative.");
+        }
+    }
+
+    /**
+     * @param modulus The modulus of a power.
+     */
+    static void validateModulus(int modulus) {
+        if (modulus <= 0) {
+            throw new IllegalArgumentException("The modulus must be positive.");
+        }
+    }
+
+    /**
+     * Raises a dense square matrix to a power.
+     *
+     * @param base The matrix in row-major order, in [0, modulus) if there is a modulus. Used as a buffer.
+     * @param size The size of the matrix.
+     * @param exponent The exponent, at least 1.
+     * @param modulus The modulus, or 0 for wrapping integer arithmetic.
+     * @return the power in row-major order.
+     */
+    static int[] densePower(int[] base, int size, long exponent, int modulus) {
+        int[] result = null;
+        int[] scratch = new int[base.length];
+        long[] row = modulus == 0 ? null : new long[size];
+        long remaining = exponent;
+        while (true) {
+            if ((remaining & 1) != 0) {
+                if (result == null) {
+                    result = base.clone();
+                } else {
+                    multiply(result, base, scratch, size, modulus, row);
+                    int[] swap = result;
+                    result = scratch;
+                    scratch = swap;
+                }
+            }
+            remaining >>>= 1;
+            if (remaining == 0) {
+                return result;
+            }
+            multiply(base, base, scratch, size, modulus, row);
+            int[] swap = base;
+            base = scratch;
+            scratch = swap;
+        }
+    }
+
+    /**
+     * Computes C = A * B for square row-major matrices (mod modulus if there is one).
+     *
+     * @param a The left operand.
+     * @param b The right operand.
+     * @param c The result, overwritten. Must not be a or b.
+     * @param size The size of the matrices.
+     * @param modulus The modulus, or 0 for wrapping integer arithmetic.
+     * @param row A buffer of size longs, used with a modulus.
+     */
+    static void multiply(int[] a, int[] b, int[] c, int size, int modulus, long[] row) {
+        Arrays.fill(c, 0);
+        if (modulus == 0) {
+            DenseMatrix.multiplyAccumulate(a, b, c, size, size, size, DenseMatrix.DEFAULT_BLOCK_SIZE);
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            Arrays.fill(row, 0);
+            for (int k = 0; k < size; k++) {
+                long value = a[i * size + k];
+                if (value == 0) {
+                    continue;
+                }
+                int offset = k * size;
+                for (int j = 0; j < size; j++) {
+                    long sum = row[j] + value * b[offset + j];
+                    row[j] = sum >= REDUCE_LIMIT ? sum % modulus : sum;
+                }
+            }
+            for (int j = 0; j < size; j++) {
+                c[i * size + j] = (int) (row[j] % modulus);
+            }
+        }
+    }
+
+    /**
+     * Raises a band matrix to a power. The result stays banded as long as its band is narrower than
+     * the matrix, after that the remaining products are dense.
+     *
+     * @param base The matrix, in [0, modulus) if there is a modulus.
+     * @param exponent The exponent, at least 1.
+     * @param modulus The modulus, or 0 for wrapping integer arithmetic.
+     * @return the power, a GeneralBandMatrix or a DenseMatrix.
+     */
+    static MatrixInterface bandPower(GeneralBandMatrix base, long exponent, int modulus) {
+        int size = base.getSize();
+        GeneralBandMatrix result = null;
+        long remaining = exponent;
+        // Invariant: the power is result * base^remaining (result == null stands for the identity).
+        while (remaining > 0) {
+            boolean multiplyResult = (remaining & 1) != 0 && result != null;
+            if ((multiplyResult && isFull(result, base)) || (remaining > 1 && isFull(base, base))) {
+                DenseMatrix power = new DenseMatrix(size, size);
+                int[] dense = densePower(DenseMatrix.from(base).data, size, remaining, modulus);
+                if (result == null) {
+                    System.arraycopy(dense, 0, power.data, 0, dense.length);
+                } else {
+                    multiply(DenseMatrix.from(result).data, dense, power.data, size, modulus,
+                            modulus == 0 ? null : new long[size]);
+                }
+                return power;
+            }
+            if ((remaining & 1) != 0) {
+                result = result == null ? base : times(result, base, modulus);
+            }
+            remaining >>>= 1;
+            if (remaining > 0) {
+                base = times(base, base, modulus);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param left The left operand.
+     * @param right The right operand.
+     * @return true if the band of the product would be at least as wide as the matrix.
+     */
+    private static boolean isFull(GeneralBandMatrix left, GeneralBandMatrix right) {
+        int lower = Math.min(left.getSize() - 1, left.getLowerBandwidth() + right.getLowerBandwidth());
+        int upper = Math.min(left.getSize() - 1, left.getUpperBandwidth() + right.getUpperBandwidth());
+        return lower + upper + 1 >= left.getSize();
+    }
+
+    /**
+     * @param left The left operand.
+     * @param right The right operand.
+     * @param modulus The modulus, or 0 for wrapping integer arithmetic.
+     * @return the banded product.
+     */
+    private static GeneralBandMatrix times(GeneralBandMatrix left, GeneralBandMatrix right, int modulus) {
+        return modulus == 0 ? left.times(right) : left.timesModulo(right, modulus);
+    }
+}
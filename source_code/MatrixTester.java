@@ -16,11 +16,17 @@ public class MatrixTester {
         testConstructor();
         testGetters();
         testGetAndSet();
+        testManyEntries();
         testValidation();
         testEquals();
         testToArrayAndToString();
         testAddition();
+        testSparseAddition();
         testMultiplication();
+        testSparseMultiplication();
+        testVectorMultiplication();
+        testNonZeroIteration();
+        testInPlaceOperations();
         System.out.println("All Matrix tests passed!");
     }
 
@@ -59,6 +65,37 @@ public class MatrixTester {
         assert matrix.get(3, 4) == 20 : "Set or Get method failed.";
     }
 
+    /**
+     * Tests the sparse storage with enough entries to force resizing, then overwrites
+     * and removes entries (setting 0) to make sure probing still finds everything.
+     */
+    private void testManyEntries() {
+        Matrix matrix = new Matrix(300, 200);
+        for (int i = 0; i < 300; i++) {
+            for (int j = 0; j < 200; j += 3) {
+                matrix.set(i, j, i * 1000 + j + 1);
+            }
+        }
+
+        assert matrix.get(299, 198) == 299198 + 1 : "Set or Get failed after resizing.";
+        assert matrix.get(299, 199) == 0 : "Get failed for a missing entry.";
+
+        for (int i = 0; i < 300; i += 2) {
+            for (int j = 0; j < 200; j += 3) {
+                matrix.set(i, j, 0);
+            }
+        }
+        matrix.set(1, 0, -7);
+
+        for (int i = 0; i < 300; i++) {
+            for (int j = 0; j < 200; j += 3) {
+                int expected = i % 2 == 0 ? 0 : (i == 1 && j == 0 ? -7 : i * 1000 + j + 1);
+                assert matrix.get(i, j) == expected : "Zero removal broke the sparse storage.";
+            }
+        }
+        assert matrix.entries.size() == 150 * 67 : "Zero values should not be stored.";
+    }
+
     /**
      * Tests the validation checks in get and set methods of the Matrix class.
      * Ensures exceptions are thrown for invalid indices.
@@ -135,6 +172,48 @@ public class MatrixTester {
         assert result.get(0, 0) == 25 : "Matrix addition failed.";
     }
 
+    /**
+     * Tests the sparse addition paths (Matrix + Matrix, Matrix + BandMatrix and BandMatrix + Matrix)
+     * against element-wise sums of toArray(), including entries that cancel out.
+     */
+    private void testSparseAddition() {
+        Matrix matrix1 = new Matrix(6, 6);
+        Matrix matrix2 = new Matrix(6, 6);
+        for (int i = 0; i < 6; i++) {
+            matrix1.set(i, (i * 2) % 6, i + 1);
+            matrix2.set(i, (i * 3) % 6, -(i + 1));
+        }
+        matrix1.set(5, 0, 4);
+
+        assertSum(matrix1.plus(matrix2), matrix1, matrix2);
+
+        BandMatrix band = new BandMatrix(6);
+        band.set(0, 0, -1);
+        band.set(0, 1, 3);
+
+        assertSum(matrix1.plus(band), matrix1, band);
+        assertSum(band.plus(matrix1), band, matrix1);
+        assert matrix1.plus(band).get(0, 0) == 0 : "Addition with BandMatrix stored a cancelled entry.";
+    }
+
+    /**
+     * Asserts that a result is the element-wise sum of two matrices and stores no zeros.
+     *
+     * @param result The result of the addition.
+     * @param a The first operand.
+     * @param b The second operand.
+     */
+    private static void assertSum(Matrix result, MatrixInterface a, MatrixInterface b) {
+        int[][] first = a.toArray();
+        int[][] second = b.toArray();
+        for (int i = 0; i < result.getRows(); i++) {
+            for (int j = 0; j < result.getColumns(); j++) {
+                assert result.get(i, j) == first[i][j] + second[i][j] : "Sparse addition failed.";
+            }
+        }
+        assert result.entries.size() == countNonZeros(result.toArray()) : "Sparse addition stored a zero entry.";
+    }
+
     /**
      * Tests the multiplication operation (times method) of the Matrix class.
      * Ensures matrices are multiplied correctly.
@@ -151,4 +230,238 @@ public class MatrixTester {
         assert result.get(0, 0) == 150 : "Matrix multiplication failed.";
     }
 
+    /**
+     * Tests the sparse multiplication kernel against a plain triple loop over toArray(),
+     * including cancellations that must not leave zero entries behind.
+     */
+    private void testSparseMultiplication() {
+        Matrix matrix1 = new Matrix(7, 9);
+        Matrix matrix2 = new Matrix(9, 4);
+        for (int i = 0; i < 7; i++) {
+            for (int j = 0; j < 9; j++) {
+                if ((i * 3 + j) % 4 == 0) {
+                    matrix1.set(i, j, i - j);
+                }
+            }
+        }
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 4; j++) {
+                if ((i + j) % 3 != 0) {
+                    matrix2.set(i, j, i * j - 5);
+                }
+            }
+        }
+        matrix1.set(6, 0, 1);
+        matrix1.set(6, 1, 1);
+        matrix2.set(0, 3, 2);
+        matrix2.set(1, 3, -2);
+
+        Matrix result = matrix1.times(matrix2);
+        int[][] a = matrix1.toArray();
+        int[][] b = matrix2.toArray();
+        for (int i = 0; i < 7; i++) {
+            for (int j = 0; j < 4; j++) {
+                int expected = 0;
+                for (int k = 0; k < 9; k++) {
+                    expected += a[i][k] * b[k][j];
+                }
+                assert result.get(i, j) == expected : "Sparse multiplication failed.";
+            }
+        }
+        assert result.entries.size() == countNonZeros(result.toArray()) : "Sparse multiplication stored a zero entry.";
+
+        Matrix row = new Matrix(1, 2);
+        row.set(0, 0, 1);
+        row.set(0, 1, 1);
+        Matrix column = new Matrix(2, 1);
+        column.set(0, 0, 2);
+        column.set(1, 0, -2);
+
+        assert row.times(column).entries.isEmpty() : "Sparse multiplication stored a cancelled entry.";
+    }
+
+    /**
+     * Counts the non-zero values in a 2D array.
+     *
+     * @param array The array.
+     * @return the number of non-zero values.
+     */
+    private static int countNonZeros(int[][] array) {
+        int count = 0;
+        for (int[] row : array) {
+            for (int value : row) {
+                if (value != 0) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Tests the matrix-vector product of Matrix and SquareMatrix, including validation.
+     */
+    private void testVectorMultiplication() {
+        Matrix matrix = new Matrix(3, 4);
+        matrix.set(0, 0, 2);
+        matrix.set(0, 3, -1);
+        matrix.set(2, 1, 5);
+        int[] y = matrix.times(new int[]{1, 2, 3, 4});
+        assert y.length == 3 && y[0] == -2 && y[1] == 0 && y[2] == 10 : "Matrix times vector failed.";
+
+        SquareMatrix square = new SquareMatrix(2);
+        square.set(0, 1, 3);
+        square.set(1, 0, 4);
+        int[] result = {7, 7};
+        square.timesInto(new int[]{1, 2}, result);
+        assert result[0] == 6 && result[1] == 4 : "SquareMatrix timesInto failed (y must be overwritten).";
+
+        boolean thrown = false;
+        try {
+            matrix.times(new int[]{1, 2, 3});
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Vector of the wrong length should throw.";
+
+        thrown = false;
+        int[] same = {1, 2};
+        try {
+            square.timesInto(same, same);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Aliased vectors should throw.";
+    }
+
+    /**
+     * Tests forEachNonZero, the row range variant and the (parallel) stream of entries.
+     */
+    private void testNonZeroIteration() {
+        Matrix matrix = new Matrix(50, 40);
+        long expectedSum = 0;
+        int expectedCount = 0;
+        for (int i = 0; i < 50; i++) {
+            for (int j = (i * 7) % 5; j < 40; j += 6) {
+                matrix.set(i, j, i - j);
+                expectedSum += i - j;
+                expectedCount += i == j ? 0 : 1;
+            }
+        }
+        long[] sum = {0};
+        int[] count = {0};
+        matrix.forEachNonZero((i, j, value) -> {
+            assert value != 0 && matrix.get(i, j) == value : "forEachNonZero returned a wrong entry.";
+            sum[0] += value;
+            count[0]++;
+        });
+        assert sum[0] == expectedSum && count[0] == expectedCount : "forEachNonZero missed entries.";
+
+        matrix.forEachNonZero(10, 12, (i, j, value) -> {
+            assert i == 10 || i == 11 : "forEachNonZero ignored the row range.";
+        });
+
+        assert matrix.nonZeros().count() == expectedCount : "Stream count failed.";
+        assert matrix.nonZeros().parallel().mapToLong(MatrixEntry::getValue).sum() == expectedSum
+                : "Parallel stream sum failed.";
+        int[] previousRow = {-1};
+        matrix.nonZeros().forEach(entry -> {
+            assert entry.getRow() >= previousRow[0] : "Stream is not ordered by rows.";
+            previousRow[0] = entry.getRow();
+        });
+
+        SquareMatrix square = new SquareMatrix(new int[][]{{0, 2}, {3, 0}});
+        assert square.nonZeros().map(MatrixEntry::toString).reduce("", String::concat)
+                .equals("(0, 1) = 2(1, 0) = 3") : "SquareMatrix stream failed.";
+
+        boolean thrown = false;
+        try {
+            matrix.forEachNonZero(5, 51, (i, j, value) -> { });
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Row range out of bounds should throw.";
+    }
+
+    /**
+     * Tests addInPlace, scaleInPlace, multiplyInto and multiplyAccumulate, including validation.
+     */
+    private void testInPlaceOperations() {
+        Matrix a = new Matrix(3, 3);
+        a.set(0, 0, 2);
+        a.set(1, 2, -1);
+        a.set(2, 1, 4);
+        Matrix b = new Matrix(3, 3);
+        b.set(0, 0, -2);
+        b.set(2, 2, 5);
+
+        a.addInPlace(b);
+        assert a.get(0, 0) == 0 && a.get(2, 2) == 5 && a.get(1, 2) == -1 : "addInPlace failed.";
+        assert countNonZeros(a.toArray()) == 3 : "Cancelled entries should be removed.";
+        a.addInPlace(a);
+        assert a.get(2, 1) == 8 && a.get(2, 2) == 10 : "Adding a matrix to itself should double it.";
+
+        a.scaleInPlace(-1);
+        assert a.get(2, 1) == -8 && a.get(1, 2) == 2 : "scaleInPlace failed.";
+        Matrix wrap = new Matrix(2, 2);
+        wrap.set(0, 0, 1 << 30);
+        wrap.set(1, 1, 3);
+        wrap.scaleInPlace(4);
+        assert wrap.get(0, 0) == 0 && wrap.get(1, 1) == 12 : "Wrapped products should be removed.";
+        assert countNonZeros(wrap.toArray()) == 1;
+        a.scaleInPlace(0);
+        assert countNonZeros(a.toArray()) == 0 : "scaleInPlace(0) should clear the matrix.";
+
+        SquareMatrix left = new SquareMatrix(new int[][]{{1, 2, 0}, {0, 0, 3}, {4, 0, 5}});
+        SquareMatrix right = new SquareMatrix(new int[][]{{0, 1, 0}, {2, 0, 0}, {0, 0, 6}});
+        int[][] product = left.times(right).toArray();
+        Matrix result = new Matrix(3, 3);
+        for (int step = 0; step < 3; step++) {
+            left.multiplyInto(result, right); // reusing the result overwrites it
+            for (int i = 0; i < 3; i++) {
+                for (int j = 0; j < 3; j++) {
+                    assert result.get(i, j) == product[i][j] : "multiplyInto failed.";
+                }
+            }
+        }
+        left.multiplyAccumulate(result, -3, right);
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                assert result.get(i, j) == -2 * product[i][j] : "multiplyAccumulate failed.";
+            }
+        }
+        BandMatrix band = new BandMatrix(3, 1);
+        band.set(0, 0, 1);
+        band.set(0, 1, 2);
+        DenseMatrix dense = new DenseMatrix(3, 3);
+        left.multiplyAccumulate(dense, 2, band);
+        int[][] bandProduct = left.times(band).toArray();
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                assert dense.get(i, j) == 2 * bandProduct[i][j] : "Generic multiplyAccumulate failed.";
+            }
+        }
+
+        boolean thrown = false;
+        try {
+            left.multiplyInto(left, right);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Aliased result should throw.";
+        thrown = false;
+        try {
+            left.multiplyInto(new Matrix(3, 2), right);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Result with the wrong dimensions should throw.";
+        thrown = false;
+        try {
+            left.addInPlace(new Matrix(2, 3));
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Mismatched addInPlace should throw.";
+    }
 }
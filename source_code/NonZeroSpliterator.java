@@ -0,0 +1,134 @@
+package assignmenttwo;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the non-zero entries of a range of rows of a matrix (the default for
+ * MatrixInterface.spliterator()). It splits the row range in half, so parallel streams get
+ * independent row blocks, and every block pulls its entries with forEachNonZero(fromRow, toRow, action).
+ * <p>
+ * tryAdvance buffers one row at a time, forEachRemaining streams the remaining rows in one call.
+ * Entries come row by row; the order within a row is the order of the matrix' forEachNonZero.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+class NonZeroSpliterator implements Spliterator<MatrixEntry> {
+
+    /** The matrix whose entries are traversed. */
+    private final MatrixInterface matrix;
+
+    /** The next row that has not been buffered yet. */
+    private int row;
+
+    /** One past the last row of this spliterator. */
+    private final int endRow;
+
+    /** Estimated number of non-zero entries per row. */
+    private final double perRow;
+
+    /** Columns of the buffered row. */
+    private final CsrMatrix.IntBuffer bufferColumns = new CsrMatrix.IntBuffer();
+
+    /** Values of the buffered row. */
+    private final CsrMatrix.IntBuffer bufferValues = new CsrMatrix.IntBuffer();
+
+    /** The row held by the buffer. */
+    private int bufferRow;
+
+    /** The next buffered entry to emit. */
+    private int position;
+
+    /**
+     * Constructs a spliterator over rows [fromRow, toRow).
+     *
+     * @param matrix The matrix.
+     * @param fromRow The first row.
+     * @param toRow One past the last row.
+     * @param perRow Estimated number of non-zero entries per row (used by estimateSize).
+     */
+    NonZeroSpliterator(MatrixInterface matrix, int fromRow, int toRow, double perRow) {
+        this.matrix = matrix;
+        this.row = fromRow;
+        this.endRow = toRow;
+        this.perRow = perRow;
+    }
+
+    /**
+     * Emits the next entry, buffering the next non-empty row if needed.
+     *
+     * @param action The action receiving the entry.
+     * @return false if there are no entries left.
+     */
+    @Override
+    public boolean tryAdvance(Consumer<? super MatrixEntry> action) {
+        while (this.position == this.bufferColumns.size) {
+            if (this.row >= this.endRow) {
+                return false;
+            }
+            this.bufferColumns.size = 0;
+            this.bufferValues.size = 0;
+            this.position = 0;
+            this.bufferRow = this.row;
+            this.matrix.forEachNonZero(this.row, this.row + 1, (i, j, value) -> {
+                this.bufferColumns.add(j);
+                this.bufferValues.add(value);
+            });
+            this.row++;
+        }
+        int p = this.position++;
+        action.accept(new MatrixEntry(this.bufferRow, this.bufferColumns.get(p), this.bufferValues.get(p)));
+        return true;
+    }
+
+    /**
+     * Emits the rest of the buffered row, then all remaining rows in a single forEachNonZero call.
+     *
+     * @param action The action receiving the entries.
+     */
+    @Override
+    public void forEachRemaining(Consumer<? super MatrixEntry> action) {
+        while (this.position < this.bufferColumns.size) {
+            int p = this.position++;
+            action.accept(new MatrixEntry(this.bufferRow, this.bufferColumns.get(p), this.bufferValues.get(p)));
+        }
+        if (this.row < this.endRow) {
+            int from = this.row;
+            this.row = this.endRow;
+            this.matrix.forEachNonZero(from, this.endRow, (i, j, value) -> action.accept(new MatrixEntry(i, j, value)));
+        }
+    }
+
+    /**
+     * Splits off the first half of the remaining rows (only before a row has been buffered).
+     *
+     * @return the spliterator covering the first half, or null if it can't be split.
+     */
+    @Override
+    public Spliterator<MatrixEntry> trySplit() {
+        if (this.position < this.bufferColumns.size || this.endRow - this.row < 2) {
+            return null;
+        }
+        int middle = this.row + ((this.endRow - this.row) >>> 1);
+        NonZeroSpliterator prefix = new NonZeroSpliterator(this.matrix, this.row, middle, this.perRow);
+        this.row = middle;
+        return prefix;
+    }
+
+    /**
+     * @return the estimated number of remaining entries.
+     */
+    @Override
+    public long estimateSize() {
+        return (long) Math.ceil((this.endRow - this.row) * this.perRow) + (this.bufferColumns.size - this.position);
+    }
+
+    /**
+     * @return ORDERED (row by row) and NONNULL.
+     */
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+}
@@ -0,0 +1,68 @@
+package assignmenttwo;
+
+/**
+ * Owner of off-heap memory with an explicit lifetime: every OffHeapMemory allocated from an arena stays
+ * valid until the arena is closed, and closing it releases all of them at once. The matrices backed by
+ * the arena (OffHeapDenseMatrix, OffHeapCsrMatrix) only keep small handles on the heap, so their data is
+ * never scanned or moved by the garbage collector. Use it with try-with-resources.
+ * Two implementations exist:
+ * <ul>
+ *     <li>SegmentArena uses native MemorySegments of the JDK foreign memory API (jdk.incubator.foreign)
+ *     in a shared ResourceScope, so closing frees the memory immediately.</li>
+ *     <li>BufferArena uses direct ByteBuffers (in chunks, for long indexing); their memory is released
+ *     when the garbage collector collects the buffers after close.</li>
+ * </ul>
+ * SegmentArena lives in the optional source directory incubator/, so the default build
+ * (javac -d out *.java) doesn't need the incubator modules. The full build adds it with
+ * javac --add-modules jdk.incubator.vector,jdk.incubator.foreign -d out *.java incubator/*.java
+ * and is run with java --add-modules jdk.incubator.vector,jdk.incubator.foreign.
+ * open() picks SegmentArena when it was compiled and the module is available at runtime, and falls back to
+ * BufferArena otherwise, or when -Dassignmenttwo.offheap=buffer is set.
+ * Arenas can be used from several threads, closing one while it is in use is not allowed.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public interface OffHeapArena extends AutoCloseable {
+
+    /**
+     * Opens a new arena with the implementation selected for this JVM.
+     *
+     * @return the new arena.
+     */
+    static OffHeapArena open() {
+        if (!OffHeapArenaHolder.SEGMENTS) {
+            return new BufferArena();
+        }
+        try {
+            return (OffHeapArena) Class.forName("assignmenttwo.SegmentArena")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            return new BufferArena();
+        }
+    }
+
+    /**
+     * @return a short name of the implementation (for logging).
+     */
+    String name();
+
+    /**
+     * Allocates a zero-initialized block that lives until the arena is closed.
+     *
+     * @param byteSize The size in bytes.
+     * @return the block.
+     */
+    OffHeapMemory allocate(long byteSize);
+
+    /**
+     * @return false once the arena was closed.
+     */
+    boolean isAlive();
+
+    /**
+     * Closes the arena and releases all memory allocated from it. Closing twice has no effect.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,36 @@
+package assignmenttwo;
+
+/**
+ * Lazily checks once per JVM whether the foreign memory API can be used (see OffHeapArena.open()).
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+final class OffHeapArenaHolder {
+
+    /** True if SegmentArena can be loaded. */
+    static final boolean SEGMENTS = check();
+
+    /** Not instantiable. */
+    private OffHeapArenaHolder() {
+    }
+
+    /**
+     * Loads SegmentArena reflectively, so this class still links when it was not compiled
+     * or the incubator module is missing.
+     *
+     * @return true if SegmentArena is usable.
+     */
+    private static boolean check() {
+        if ("buffer".equals(System.getProperty("assignmenttwo.offheap"))) {
+            return false;
+        }
+        try {
+            ((OffHeapArena) Class.forName("assignmenttwo.SegmentArena")
+                    .getDeclaredConstructor().newInstance()).close();
+            return true;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return false;
+        }
+    }
+}
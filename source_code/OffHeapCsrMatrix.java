@@ -0,0 +1,578 @@
+package assignmenttwo;
+
+import java.util.Arrays;
+
+/**
+ * Immutable sparse matrix in Compressed Sparse Row (CSR) format stored off-heap in memory owned by an
+ * OffHeapArena: the row offsets are longs (so the number of stored entries is not limited to 2^31),
+ * the column indices and values are ints. Same layout as CsrMatrix, with the column indices of every
+ * row in ascending order. The matrix can be used until its arena is closed, results of plus and times
+ * are allocated in the same arena.
+ * <p>
+ * Results are built in two passes over the rows: the first counts the entries of every row, the second
+ * writes them, so the result is allocated once with its exact size and nothing of size nnz lives on the heap.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public class OffHeapCsrMatrix implements MatrixInterface {
+
+    /** The arena owning the memory. */
+    private final OffHeapArena arena;
+
+    /** The number of rows in this OffHeapCsrMatrix Instance. */
+    private final int rows;
+
+    /** The number of columns in this OffHeapCsrMatrix Instance. */
+    private final int columns;
+
+    /** Start offsets of each row in colIdx and values (rows + 1 longs). */
+    private final OffHeapMemory rowPtr;
+
+    /** Column index of every stored entry (ints), ascending within a row. */
+    private final OffHeapMemory colIdx;
+
+    /** Value of every stored entry (ints, never 0), package-private so MappedCsrMatrix can update it. */
+    final OffHeapMemory values;
+
+    /**
+     * Constructs an OffHeapCsrMatrix on memory that is known to be valid, or that is filled with scatter
+     * afterwards (used by the conversions, the kernels and MappedCsrMatrix).
+     *
+     * @param arena The arena owning the memory.
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param rowPtr The row start offsets.
+     * @param colIdx The column indices.
+     * @param values The values.
+     */
+    OffHeapCsrMatrix(OffHeapArena arena, int rows, int columns,
+                             OffHeapMemory rowPtr, OffHeapMemory colIdx, OffHeapMemory values) {
+        this.arena = arena;
+        this.rows = rows;
+        this.columns = columns;
+        this.rowPtr = rowPtr;
+        this.colIdx = colIdx;
+        this.values = values;
+    }
+
+    /**
+     * Copies any matrix into an OffHeapCsrMatrix in two passes over its non-zero entries
+     * (count per row, then scatter), the columns of every row are sorted afterwards if needed.
+     *
+     * @param arena The arena owning the memory.
+     * @param matrix The matrix to copy.
+     * @return the OffHeapCsrMatrix holding the same values.
+     */
+    public static OffHeapCsrMatrix from(OffHeapArena arena, MatrixInterface matrix) {
+        if (arena == null || !arena.isAlive()) {
+            throw new IllegalArgumentException("The arena is null or closed.");
+        }
+        long[] offsets = rowOffsets(matrix);
+        int rows = matrix.getRows();
+        long nnz = offsets[rows];
+        OffHeapCsrMatrix csr = new OffHeapCsrMatrix(arena, rows, matrix.getColumns(),
+                arena.allocate((long) (rows + 1) * Long.BYTES),
+                arena.allocate(nnz * Integer.BYTES), arena.allocate(nnz * Integer.BYTES));
+        csr.scatter(matrix, offsets);
+        return csr;
+    }
+
+    /**
+     * Counts the non-zero entries of every row (first pass of a conversion).
+     *
+     * @param matrix The matrix to convert.
+     * @return the row start offsets (length rows + 1, the last one is the number of non-zero entries).
+     */
+    static long[] rowOffsets(MatrixInterface matrix) {
+        if (matrix == null) {
+            throw new IllegalArgumentException("The provided matrix is null.");
+        }
+        int rows = matrix.getRows();
+        long[] offsets = new long[rows + 1];
+        matrix.forEachNonZero((i, j, value) -> offsets[i + 1]++);
+        for (int i = 0; i < rows; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        return offsets;
+    }
+
+    /**
+     * Writes the row offsets and the entries of a matrix into the (already allocated) memory of this matrix
+     * (second pass of a conversion) and sorts the columns of every row.
+     *
+     * @param matrix The matrix to convert.
+     * @param offsets The row start offsets computed by rowOffsets (used as cursors, so they are modified).
+     */
+    void scatter(MatrixInterface matrix, long[] offsets) {
+        for (int i = 0; i <= this.rows; i++) {
+            this.rowPtr.setLong(i, offsets[i]);
+        }
+        matrix.forEachNonZero((i, j, value) -> {
+            long position = offsets[i]++;
+            this.colIdx.setInt(position, j);
+            this.values.setInt(position, value);
+        });
+        for (int i = 0; i < this.rows; i++) {
+            sortRow(i);
+        }
+    }
+
+    /**
+     * Sorts the entries of a row by column (insertion sort, a single pass if the row is already sorted).
+     *
+     * @param row The row.
+     */
+    private void sortRow(int row) {
+        long start = rowStart(row);
+        long end = rowEnd(row);
+        for (long p = start + 1; p < end; p++) {
+            int column = this.colIdx.getInt(p);
+            int value = this.values.getInt(p);
+            long q = p - 1;
+            while (q >= start && this.colIdx.getInt(q) > column) {
+                this.colIdx.setInt(q + 1, this.colIdx.getInt(q));
+                this.values.setInt(q + 1, this.values.getInt(q));
+                q--;
+            }
+            this.colIdx.setInt(q + 1, column);
+            this.values.setInt(q + 1, value);
+        }
+    }
+
+    /**
+     * @return the arena owning the memory.
+     */
+    public OffHeapArena getArena() {
+        return this.arena;
+    }
+
+    /**
+     * @return rows.
+     */
+    @Override
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * @return columns.
+     */
+    @Override
+    public int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * @return the number of stored (non-zero) entries.
+     */
+    public long getNonZeroCount() {
+        return this.rowPtr.getLong(this.rows);
+    }
+
+    /**
+     * @param row The row index.
+     * @return the position of the first stored entry of the row.
+     */
+    public long rowStart(int row) {
+        return this.rowPtr.getLong(row);
+    }
+
+    /**
+     * @param row The row index.
+     * @return the position after the last stored entry of the row.
+     */
+    public long rowEnd(int row) {
+        return this.rowPtr.getLong(row + 1);
+    }
+
+    /**
+     * @param position A position between rowStart and rowEnd of some row.
+     * @return the column index of the stored entry.
+     */
+    public int columnAt(long position) {
+        return this.colIdx.getInt(position);
+    }
+
+    /**
+     * @param position A position between rowStart and rowEnd of some row.
+     * @return the value of the stored entry.
+     */
+    public int valueAt(long position) {
+        return this.values.getInt(position);
+    }
+
+    /**
+     * Fetches the value at the specified index with a binary search in the row.
+     *
+     * @param row the row position.
+     * @param column the column position.
+     * @return the value.
+     */
+    @Override
+    public int get(int row, int column) {
+        validateIndices(row, column);
+        long position = find(row, column);
+        return position < 0 ? 0 : this.values.getInt(position);
+    }
+
+    /**
+     * Binary search for a stored entry.
+     *
+     * @param row the row position.
+     * @param column the column position.
+     * @return the position of the entry, or -1 if it isn't stored.
+     */
+    long find(int row, int column) {
+        long low = rowStart(row);
+        long high = rowEnd(row) - 1;
+        while (low <= high) {
+            long middle = (low + high) >>> 1;
+            int current = this.colIdx.getInt(middle);
+            if (current < column) {
+                low = middle + 1;
+            } else if (current > column) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * An OffHeapCsrMatrix is immutable, copy it into an OffHeapDenseMatrix or a Matrix to modify it.
+     *
+     * @param row the row position.
+     * @param column the column position.
+     * @param value the new value.
+     */
+    @Override
+    public void set(int row, int column, int value) {
+        throw new UnsupportedOperationException("An OffHeapCsrMatrix is immutable, copy it to modify it.");
+    }
+
+    /**
+     * Not supported, an OffHeapCsrMatrix is immutable.
+     *
+     * @param other The matrix to add.
+     */
+    @Override
+    public void addInPlace(MatrixInterface other) {
+        throw new UnsupportedOperationException("An OffHeapCsrMatrix is immutable, copy it to modify it.");
+    }
+
+    /**
+     * Not supported, an OffHeapCsrMatrix is immutable.
+     *
+     * @param factor The factor.
+     */
+    @Override
+    public void scaleInPlace(int factor) {
+        throw new UnsupportedOperationException("An OffHeapCsrMatrix is immutable, copy it to modify it.");
+    }
+
+    /**
+     * Validates the indices passed (for get or set).
+     *
+     * @param row The row index.
+     * @param column The column index.
+     */
+    public void validateIndices(int row, int column) {
+        if (row < 0 || row > this.rows - 1) {
+            throw new IllegalArgumentException("The indicated row index is out of bounds for this matrix.");
+        }
+        if (column < 0 || column > this.columns - 1) {
+            throw new IllegalArgumentException("The indicated column index is out of bounds for this matrix.");
+        }
+    }
+
+    /**
+     * Validates the passed matrix before addition.
+     *
+     * @param other The Matrix to add.
+     */
+    @Override
+    public void validateAddition(MatrixInterface other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot add these two matrices, the passed Matrix is null.");
+        }
+        if (this.rows != other.getRows() || this.columns != other.getColumns()) {
+            throw new IllegalArgumentException("Cannot add these two matrices, their dimensions don't match.");
+        }
+    }
+
+    /**
+     * Validates the passed matrix before multiplication.
+     *
+     * @param other The Matrix to multiply by.
+     */
+    @Override
+    public void validateMultiplication(MatrixInterface other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the passed Matrix is null.");
+        }
+        if (this.columns != other.getRows()) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the columns of this matrix" +
+                    "don't match the rows of the matrix that was passed.");
+        }
+    }
+
+    /**
+     * Returns the operand as an OffHeapCsrMatrix (copied into this arena if it is something else).
+     *
+     * @param other The operand.
+     * @return the operand in CSR form.
+     */
+    private OffHeapCsrMatrix rowOperand(MatrixInterface other) {
+        return other instanceof OffHeapCsrMatrix ? (OffHeapCsrMatrix) other : from(this.arena, other);
+    }
+
+    /**
+     * Adds any matrix by merging the sorted rows. The result is an OffHeapCsrMatrix in the same arena.
+     *
+     * @param other The matrix to add.
+     * @return A new OffHeapCsrMatrix that is the result of the addition.
+     */
+    @Override
+    public OffHeapCsrMatrix plus(MatrixInterface other) {
+        validateAddition(other);
+        OffHeapCsrMatrix right = rowOperand(other);
+        OffHeapMemory resultPtr = this.arena.allocate((long) (this.rows + 1) * Long.BYTES);
+        long[] count = new long[1];
+        IntTriConsumer counter = (i, j, value) -> count[0]++;
+        for (int i = 0; i < this.rows; i++) {
+            mergeRow(i, right, counter);
+            resultPtr.setLong(i + 1, count[0]);
+        }
+        OffHeapCsrMatrix result = allocateResult(resultPtr, this.columns, count[0]);
+        IntTriConsumer writer = result.writer();
+        for (int i = 0; i < this.rows; i++) {
+            mergeRow(i, right, writer);
+        }
+        return result;
+    }
+
+    /**
+     * Facilitates matrix addition for the plus method. The result is populated with set (omitting zeros).
+     *
+     * @param result The empty result matrix to be populated.
+     * @param other The matrix to be added to our OffHeapCsrMatrix instance.
+     */
+    @Override
+    public void performAddition(MatrixInterface result, MatrixInterface other) {
+        OffHeapCsrMatrix right = rowOperand(other);
+        for (int i = 0; i < this.rows; i++) {
+            mergeRow(i, right, result::set);
+        }
+    }
+
+    /**
+     * Passes the non-zero sums of row i of this and right to the action, in ascending column order.
+     *
+     * @param i The row.
+     * @param right The other summand.
+     * @param action The action receiving (row, column, sum).
+     */
+    private void mergeRow(int i, OffHeapCsrMatrix right, IntTriConsumer action) {
+        long p = rowStart(i);
+        long pEnd = rowEnd(i);
+        long q = right.rowStart(i);
+        long qEnd = right.rowEnd(i);
+        while (p < pEnd || q < qEnd) {
+            int left = p < pEnd ? this.colIdx.getInt(p) : Integer.MAX_VALUE;
+            int other = q < qEnd ? right.colIdx.getInt(q) : Integer.MAX_VALUE;
+            int column = Math.min(left, other);
+            int sum = 0;
+            if (left == column) {
+                sum += this.values.getInt(p++);
+            }
+            if (other == column) {
+                sum += right.values.getInt(q++);
+            }
+            if (sum != 0) {
+                action.accept(i, column, sum);
+            }
+        }
+    }
+
+    /**
+     * Multiplies with any matrix (Gustavson, row by row). The result is an OffHeapCsrMatrix in the same arena.
+     *
+     * @param other The matrix to multiply by.
+     * @return A new OffHeapCsrMatrix that is the result of the multiplication.
+     */
+    @Override
+    public OffHeapCsrMatrix times(MatrixInterface other) {
+        validateMultiplication(other);
+        OffHeapCsrMatrix right = rowOperand(other);
+        RowAccumulator accumulator = new RowAccumulator(other.getColumns());
+        OffHeapMemory resultPtr = this.arena.allocate((long) (this.rows + 1) * Long.BYTES);
+        long[] count = new long[1];
+        IntTriConsumer counter = (i, j, value) -> count[0]++;
+        for (int i = 0; i < this.rows; i++) {
+            multiplyRow(i, right, accumulator, counter);
+            resultPtr.setLong(i + 1, count[0]);
+        }
+        OffHeapCsrMatrix result = allocateResult(resultPtr, other.getColumns(), count[0]);
+        IntTriConsumer writer = result.writer();
+        for (int i = 0; i < this.rows; i++) {
+            multiplyRow(i, right, accumulator, writer);
+        }
+        return result;
+    }
+
+    /**
+     * Facilitates matrix multiplication for the times method. The result is populated with set (omitting zeros).
+     *
+     * @param result The empty result matrix to be populated.
+     * @param other The matrix to be multiplied with our OffHeapCsrMatrix instance.
+     */
+    @Override
+    public void performMultiplication(MatrixInterface result, MatrixInterface other) {
+        OffHeapCsrMatrix right = rowOperand(other);
+        RowAccumulator accumulator = new RowAccumulator(other.getColumns());
+        for (int i = 0; i < this.rows; i++) {
+            multiplyRow(i, right, accumulator, result::set);
+        }
+    }
+
+    /**
+     * Computes row i of this * right and passes its non-zero entries to the action, in ascending column order.
+     *
+     * @param i The row.
+     * @param right The right operand.
+     * @param accumulator The dense row accumulator (reused for every row).
+     * @param action The action receiving (row, column, value).
+     */
+    private void multiplyRow(int i, OffHeapCsrMatrix right, RowAccumulator accumulator, IntTriConsumer action) {
+        int count = 0;
+        for (long p = rowStart(i); p < rowEnd(i); p++) {
+            int value = this.values.getInt(p);
+            int k = this.colIdx.getInt(p);
+            for (long q = right.rowStart(k); q < right.rowEnd(k); q++) {
+                int j = right.colIdx.getInt(q);
+                if (accumulator.lastRow[j] != i) {
+                    accumulator.lastRow[j] = i;
+                    accumulator.sums[j] = 0;
+                    accumulator.touched[count++] = j;
+                }
+                accumulator.sums[j] += value * right.values.getInt(q);
+            }
+        }
+        Arrays.sort(accumulator.touched, 0, count);
+        for (int t = 0; t < count; t++) {
+            int j = accumulator.touched[t];
+            accumulator.lastRow[j] = -1; // the same row is computed again by the second pass
+            if (accumulator.sums[j] != 0) {
+                action.accept(i, j, accumulator.sums[j]);
+            }
+        }
+    }
+
+    /**
+     * Allocates the column and value memory of a result whose row offsets are already known.
+     *
+     * @param resultPtr The row offsets.
+     * @param resultColumns The number of columns of the result.
+     * @param nnz The number of stored entries.
+     * @return the result, whose entries still have to be written in row order (see writer()).
+     */
+    private OffHeapCsrMatrix allocateResult(OffHeapMemory resultPtr, int resultColumns, long nnz) {
+        return new OffHeapCsrMatrix(this.arena, this.rows, resultColumns, resultPtr,
+                this.arena.allocate(nnz * Integer.BYTES), this.arena.allocate(nnz * Integer.BYTES));
+    }
+
+    /**
+     * @return an action that appends entries passed in row-major order to this matrix.
+     */
+    private IntTriConsumer writer() {
+        long[] position = new long[1];
+        return (i, j, value) -> {
+            this.colIdx.setInt(position[0], j);
+            this.values.setInt(position[0]++, value);
+        };
+    }
+
+    /**
+     * Multiplies this matrix with a column vector: y = A * x, one sequential dot product per row.
+     *
+     * @param x The vector to multiply by.
+     * @param y The vector receiving the product (overwritten).
+     */
+    @Override
+    public void timesInto(int[] x, int[] y) {
+        validateVectorMultiplication(x, y);
+        for (int i = 0; i < this.rows; i++) {
+            int sum = 0;
+            for (long p = rowStart(i); p < rowEnd(i); p++) {
+                sum += this.values.getInt(p) * x[this.colIdx.getInt(p)];
+            }
+            y[i] = sum;
+        }
+    }
+
+    /**
+     * Passes the stored entries of the rows [fromRow, toRow) to the action, in row-major order.
+     *
+     * @param fromRow The first row (inclusive).
+     * @param toRow The last row (exclusive).
+     * @param action The action receiving (row, column, value).
+     */
+    @Override
+    public void forEachNonZero(int fromRow, int toRow, IntTriConsumer action) {
+        validateRowRange(fromRow, toRow, action);
+        for (int i = fromRow; i < toRow; i++) {
+            for (long p = rowStart(i); p < rowEnd(i); p++) {
+                action.accept(i, this.colIdx.getInt(p), this.values.getInt(p));
+            }
+        }
+    }
+
+    /**
+     * Converts the matrix to a 2D (heap) array.
+     *
+     * @return A 2D array representation of the matrix.
+     */
+    @Override
+    public int[][] toArray() {
+        int[][] array = new int[this.rows][this.columns];
+        forEachNonZero((i, j, value) -> array[i][j] = value);
+        return array;
+    }
+
+    /**
+     * Transforms the matrix into a String representation (same layout as Matrix.toString()).
+     *
+     * @return The String representation of this OffHeapCsrMatrix.
+     */
+    @Override
+    public String toString() {
+        return new DenseMatrix(toArray()).toString();
+    }
+
+    /**
+     * Dense accumulator for one row of a product, reused for every row (the classic Gustavson workspace).
+     */
+    private static final class RowAccumulator {
+
+        /** The partial sums, valid where lastRow is the current row. */
+        final int[] sums;
+
+        /** The last row that touched every column. */
+        final int[] lastRow;
+
+        /** The columns touched by the current row. */
+        final int[] touched;
+
+        /**
+         * @param columns The number of columns of the product.
+         */
+        RowAccumulator(int columns) {
+            this.sums = new int[columns];
+            this.lastRow = new int[columns];
+            this.touched = new int[columns];
+            Arrays.fill(this.lastRow, -1);
+        }
+    }
+}
@@ -0,0 +1,470 @@
+package assignmenttwo;
+
+/**
+ * Dense matrix stored off-heap in row-major order (entry (i, j) at int index i * columns + j) in memory
+ * owned by an OffHeapArena. Indices are long, so unlike DenseMatrix the number of entries is not limited
+ * to 2^31, and the heap only holds this small handle. The matrix can be used until its arena is closed,
+ * results of plus and times are allocated in the same arena.
+ * <p>
+ * The multiplication runs row by row straight over the memory: row i of the product is accumulated in a
+ * heap buffer of one row (ikj order, so both operands are read sequentially) and then written back.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public class OffHeapDenseMatrix implements MatrixInterface {
+
+    /** The arena owning the memory. */
+    private final OffHeapArena arena;
+
+    /** The number of rows in this OffHeapDenseMatrix Instance. */
+    private final int rows;
+
+    /** The number of columns in this OffHeapDenseMatrix Instance. */
+    private final int columns;
+
+    /** The entries in row-major order (package-private so the kernels can work on it directly). */
+    final OffHeapMemory memory;
+
+    /**
+     * Constructs an all-zero OffHeapDenseMatrix in the given arena.
+     *
+     * @param arena The arena owning the memory.
+     * @param rows The indicated number of rows.
+     * @param columns The indicated number of columns.
+     */
+    public OffHeapDenseMatrix(OffHeapArena arena, int rows, int columns) {
+        if (arena == null || !arena.isAlive()) {
+            throw new IllegalArgumentException("The arena is null or closed.");
+        }
+        if (rows <= 0 || columns <= 0) {
+            throw new IllegalArgumentException("Can not construct a matrix " +
+                    "with values of 0 for rows or columns.");
+        }
+        this.arena = arena;
+        this.rows = rows;
+        this.columns = columns;
+        this.memory = arena.allocate((long) rows * columns * Integer.BYTES);
+    }
+
+    /**
+     * Constructs an OffHeapDenseMatrix on existing memory (used by MappedDenseMatrix).
+     * Results of plus and times are still allocated in the arena.
+     *
+     * @param arena The arena for the results.
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param memory The entries in row-major order (rows * columns ints).
+     */
+    OffHeapDenseMatrix(OffHeapArena arena, int rows, int columns, OffHeapMemory memory) {
+        if (arena == null) {
+            throw new IllegalArgumentException("The arena is null.");
+        }
+        this.arena = arena;
+        this.rows = rows;
+        this.columns = columns;
+        this.memory = memory;
+    }
+
+    /**
+     * Copies any matrix into an OffHeapDenseMatrix, visiting only its non-zero entries.
+     *
+     * @param arena The arena owning the memory.
+     * @param matrix The matrix to copy.
+     * @return the OffHeapDenseMatrix holding the same values.
+     */
+    public static OffHeapDenseMatrix from(OffHeapArena arena, MatrixInterface matrix) {
+        if (matrix == null) {
+            throw new IllegalArgumentException("The provided matrix is null.");
+        }
+        OffHeapDenseMatrix dense = new OffHeapDenseMatrix(arena, matrix.getRows(), matrix.getColumns());
+        dense.addFrom(matrix);
+        return dense;
+    }
+
+    /**
+     * @return the arena owning the memory.
+     */
+    public OffHeapArena getArena() {
+        return this.arena;
+    }
+
+    /**
+     * @return rows.
+     */
+    @Override
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * @return columns.
+     */
+    @Override
+    public int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * Fetches the value at the specified index.
+     *
+     * @param row the row position.
+     * @param column the column position.
+     * @return the value.
+     */
+    @Override
+    public int get(int row, int column) {
+        validateIndices(row, column);
+        return this.memory.getInt((long) row * this.columns + column);
+    }
+
+    /**
+     * Sets the value of an entry.
+     *
+     * @param row the row position.
+     * @param column the column position.
+     * @param value the new value.
+     */
+    @Override
+    public void set(int row, int column, int value) {
+        validateIndices(row, column);
+        this.memory.setInt((long) row * this.columns + column, value);
+    }
+
+    /**
+     * Validates the indices passed (for get or set).
+     *
+     * @param row The row index.
+     * @param column The column index.
+     */
+    public void validateIndices(int row, int column) {
+        if (row < 0 || row > this.rows - 1) {
+            throw new IllegalArgumentException("The indicated row index is out of bounds for this matrix.");
+        }
+        if (column < 0 || column > this.columns - 1) {
+            throw new IllegalArgumentException("The indicated column index is out of bounds for this matrix.");
+        }
+    }
+
+    /**
+     * Validates the passed matrix before addition.
+     *
+     * @param other The Matrix to add.
+     */
+    @Override
+    public void validateAddition(MatrixInterface other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot add these two matrices, the passed Matrix is null.");
+        }
+        if (this.rows != other.getRows() || this.columns != other.getColumns()) {
+            throw new IllegalArgumentException("Cannot add these two matrices, their dimensions don't match.");
+        }
+    }
+
+    /**
+     * Validates the passed matrix before multiplication.
+     *
+     * @param other The Matrix to multiply by.
+     */
+    @Override
+    public void validateMultiplication(MatrixInterface other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the passed Matrix is null.");
+        }
+        if (this.columns != other.getRows()) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the columns of this matrix" +
+                    "don't match the rows of the matrix that was passed.");
+        }
+    }
+
+    /**
+     * Adds any matrix to this matrix. The result is an OffHeapDenseMatrix in the same arena.
+     *
+     * @param other The matrix to add.
+     * @return A new OffHeapDenseMatrix that is the result of the addition.
+     */
+    @Override
+    public OffHeapDenseMatrix plus(MatrixInterface other) {
+        validateAddition(other);
+        OffHeapDenseMatrix result = new OffHeapDenseMatrix(this.arena, this.rows, this.columns);
+        performAddition(result, other);
+        return result;
+    }
+
+    /**
+     * Facilitates matrix addition for the plus method.
+     * An OffHeapDenseMatrix result is filled with a copy of this matrix and the non-zero entries of the other
+     * one are added on top, any other result is populated with set (omitting zeros).
+     *
+     * @param result The empty result matrix to be populated.
+     * @param other The matrix to be added to our OffHeapDenseMatrix instance.
+     */
+    @Override
+    public void performAddition(MatrixInterface result, MatrixInterface other) {
+        if (result instanceof OffHeapDenseMatrix) {
+            OffHeapDenseMatrix dense = (OffHeapDenseMatrix) result;
+            long size = (long) this.rows * this.columns;
+            for (long index = 0; index < size; index++) {
+                dense.memory.setInt(index, this.memory.getInt(index));
+            }
+            dense.addFrom(other);
+            return;
+        }
+        for (int i = 0; i < this.rows; i++) {
+            for (int j = 0; j < this.columns; j++) {
+                int sum = this.memory.getInt((long) i * this.columns + j) + other.get(i, j);
+                if (sum != 0) {
+                    result.set(i, j, sum);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a matrix into this matrix (an OffHeapDenseMatrix element by element, anything else
+     * through its non-zero entries).
+     *
+     * @param matrix The matrix to add (same dimensions).
+     */
+    private void addFrom(MatrixInterface matrix) {
+        if (matrix instanceof OffHeapDenseMatrix) {
+            OffHeapMemory source = ((OffHeapDenseMatrix) matrix).memory;
+            long size = (long) this.rows * this.columns;
+            for (long index = 0; index < size; index++) {
+                this.memory.setInt(index, this.memory.getInt(index) + source.getInt(index));
+            }
+            return;
+        }
+        matrix.forEachNonZero((i, j, value) -> {
+            long index = (long) i * this.columns + j;
+            this.memory.setInt(index, this.memory.getInt(index) + value);
+        });
+    }
+
+    /**
+     * Multiplies with any matrix. The result is an OffHeapDenseMatrix in the same arena.
+     *
+     * @param other The matrix to multiply by.
+     * @return A new OffHeapDenseMatrix that is the result of the multiplication.
+     */
+    @Override
+    public OffHeapDenseMatrix times(MatrixInterface other) {
+        validateMultiplication(other);
+        OffHeapDenseMatrix result = new OffHeapDenseMatrix(this.arena, this.rows, other.getColumns());
+        performMultiplication(result, other);
+        return result;
+    }
+
+    /**
+     * Facilitates matrix multiplication for the times method.
+     * Dense operands (OffHeapDenseMatrix, DenseMatrix) and compressed ones (OffHeapCsrMatrix, CsrMatrix)
+     * are read row by row directly, anything else is converted to a CsrMatrix first.
+     * A result that is not an OffHeapDenseMatrix is populated with set (omitting zeros).
+     *
+     * @param result The empty result matrix to be populated.
+     * @param other The matrix to be multiplied with our OffHeapDenseMatrix instance.
+     */
+    @Override
+    public void performMultiplication(MatrixInterface result, MatrixInterface other) {
+        MatrixInterface right = rowOperand(other);
+        int[] row = new int[other.getColumns()];
+        for (int i = 0; i < this.rows; i++) {
+            accumulateRow(i, 1, right, row);
+            if (result instanceof OffHeapDenseMatrix) {
+                ((OffHeapDenseMatrix) result).addRow(i, row);
+            } else {
+                for (int j = 0; j < row.length; j++) {
+                    if (row[j] != 0) {
+                        result.set(i, j, row[j]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes result += alpha * this * other. An OffHeapDenseMatrix result is accumulated into row by row
+     * with the kernels of performMultiplication.
+     *
+     * @param result The matrix accumulating the product.
+     * @param alpha The factor of the product.
+     * @param other The matrix to multiply by.
+     */
+    @Override
+    public void multiplyAccumulate(MatrixInterface result, int alpha, MatrixInterface other) {
+        validateResult(result, other);
+        if (alpha == 0) {
+            return;
+        }
+        if (!(result instanceof OffHeapDenseMatrix)) {
+            MatrixInterface.super.multiplyAccumulate(result, alpha, other);
+            return;
+        }
+        MatrixInterface right = rowOperand(other);
+        int[] row = new int[other.getColumns()];
+        for (int i = 0; i < this.rows; i++) {
+            accumulateRow(i, alpha, right, row);
+            ((OffHeapDenseMatrix) result).addRow(i, row);
+        }
+    }
+
+    /**
+     * Returns the operand in a representation whose rows can be read directly.
+     *
+     * @param other The right operand of a product.
+     * @return other if it is dense or compressed, its CsrMatrix conversion otherwise.
+     */
+    private static MatrixInterface rowOperand(MatrixInterface other) {
+        if (other instanceof OffHeapDenseMatrix || other instanceof DenseMatrix
+                || other instanceof OffHeapCsrMatrix || other instanceof CsrMatrix) {
+            return other;
+        }
+        return CsrMatrix.from(other);
+    }
+
+    /**
+     * Overwrites row with alpha * (row i of this) * right, in ikj order.
+     *
+     * @param i The row.
+     * @param alpha The factor of the product.
+     * @param right The right operand (see rowOperand).
+     * @param row The buffer receiving the row of the product (length right.getColumns()).
+     */
+    private void accumulateRow(int i, int alpha, MatrixInterface right, int[] row) {
+        int p = row.length;
+        for (int j = 0; j < p; j++) {
+            row[j] = 0;
+        }
+        long rowOffset = (long) i * this.columns;
+        for (int k = 0; k < this.columns; k++) {
+            int value = alpha * this.memory.getInt(rowOffset + k);
+            if (value == 0) {
+                continue;
+            }
+            if (right instanceof OffHeapDenseMatrix) {
+                OffHeapMemory b = ((OffHeapDenseMatrix) right).memory;
+                long offset = (long) k * p;
+                for (int j = 0; j < p; j++) {
+                    row[j] += value * b.getInt(offset + j);
+                }
+            } else if (right instanceof DenseMatrix) {
+                IntKernels.get().axpy(value, ((DenseMatrix) right).data, k * p, row, 0, p);
+            } else if (right instanceof OffHeapCsrMatrix) {
+                OffHeapCsrMatrix csr = (OffHeapCsrMatrix) right;
+                for (long q = csr.rowStart(k); q < csr.rowEnd(k); q++) {
+                    row[csr.columnAt(q)] += value * csr.valueAt(q);
+                }
+            } else {
+                CsrMatrix csr = (CsrMatrix) right;
+                for (int q = csr.rowStart(k); q < csr.rowEnd(k); q++) {
+                    row[csr.columnAt(q)] += value * csr.valueAt(q);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a heap buffer to row i.
+     *
+     * @param i The row.
+     * @param row The values to add (length columns).
+     */
+    private void addRow(int i, int[] row) {
+        long offset = (long) i * this.columns;
+        for (int j = 0; j < this.columns; j++) {
+            if (row[j] != 0) {
+                this.memory.setInt(offset + j, this.memory.getInt(offset + j) + row[j]);
+            }
+        }
+    }
+
+    /**
+     * Adds another matrix to this matrix in place, visiting only the non-zero entries of the other matrix.
+     *
+     * @param other The matrix to add.
+     */
+    @Override
+    public void addInPlace(MatrixInterface other) {
+        validateAddition(other);
+        addFrom(other);
+    }
+
+    /**
+     * Multiplies every value by a factor in place.
+     *
+     * @param factor The factor.
+     */
+    @Override
+    public void scaleInPlace(int factor) {
+        if (factor == 0) {
+            this.memory.clear();
+            return;
+        }
+        long size = (long) this.rows * this.columns;
+        for (long index = 0; index < size; index++) {
+            this.memory.setInt(index, this.memory.getInt(index) * factor);
+        }
+    }
+
+    /**
+     * Multiplies this matrix with a column vector: y = A * x, reading every row sequentially.
+     *
+     * @param x The vector to multiply by.
+     * @param y The vector receiving the product (overwritten).
+     */
+    @Override
+    public void timesInto(int[] x, int[] y) {
+        validateVectorMultiplication(x, y);
+        for (int i = 0; i < this.rows; i++) {
+            long offset = (long) i * this.columns;
+            int sum = 0;
+            for (int j = 0; j < this.columns; j++) {
+                sum += this.memory.getInt(offset + j) * x[j];
+            }
+            y[i] = sum;
+        }
+    }
+
+    /**
+     * Passes the non-zero entries of the rows [fromRow, toRow) to the action, reading the rows sequentially.
+     *
+     * @param fromRow The first row (inclusive).
+     * @param toRow The last row (exclusive).
+     * @param action The action receiving (row, column, value).
+     */
+    @Override
+    public void forEachNonZero(int fromRow, int toRow, IntTriConsumer action) {
+        validateRowRange(fromRow, toRow, action);
+        for (int i = fromRow; i < toRow; i++) {
+            long offset = (long) i * this.columns;
+            for (int j = 0; j < this.columns; j++) {
+                int value = this.memory.getInt(offset + j);
+                if (value != 0) {
+                    action.accept(i, j, value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts the matrix to a 2D (heap) array.
+     *
+     * @return A 2D array representation of the matrix.
+     */
+    @Override
+    public int[][] toArray() {
+        int[][] array = new int[this.rows][this.columns];
+        forEachNonZero((i, j, value) -> array[i][j] = value);
+        return array;
+    }
+
+    /**
+     * Transforms the matrix into a String representation (same layout as Matrix.toString()).
+     *
+     * @return The String representation of this OffHeapDenseMatrix.
+     */
+    @Override
+    public String toString() {
+        return new DenseMatrix(toArray()).toString();
+    }
+}
@@ -0,0 +1,216 @@
+package assignmenttwo;
+
+/**
+ * This is a tester class for the off-heap matrices (OffHeapDenseMatrix and OffHeapCsrMatrix).
+ * Every test runs with the arena selected by OffHeapArena.open() and with a BufferArena using tiny chunks,
+ * so the chunk arithmetic of the fallback is tested as well. The results are compared to the heap matrices.
+ *
+ * @author Nikola Desnica
+ * @version 1.0
+ */
+public class OffHeapMatrixTester {
+
+    /**
+     * Runs all the test methods for the off-heap matrices.
+     */
+    public void runTests() {
+        try (OffHeapArena arena = OffHeapArena.open(); OffHeapArena chunked = new BufferArena(4)) {
+            for (OffHeapArena current : new OffHeapArena[]{arena, chunked}) {
+                testMemory(current);
+                testDenseMatrix(current);
+                testCsrMatrix(current);
+                testMixedOperations(current);
+            }
+        }
+        testClosedArena();
+        System.out.println("All OffHeapMatrix tests passed!");
+    }
+
+    /**
+     * Builds a small sparse test matrix.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param seed Changes the pattern of the entries.
+     * @return the sparse matrix.
+     */
+    private static Matrix sample(int rows, int columns, int seed) {
+        Matrix matrix = new Matrix(rows, columns);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                if ((i * 7 + j * 3 + seed) % 4 == 0) {
+                    matrix.set(i, j, (i + 1) * (j - seed));
+                }
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Tests the long indexed memory blocks.
+     *
+     * @param arena The arena to allocate from.
+     */
+    private void testMemory(OffHeapArena arena) {
+        OffHeapMemory memory = arena.allocate(40);
+        assert memory.byteSize() == 40;
+        for (int i = 0; i < 10; i++) {
+            assert memory.getInt(i) == 0 : "Memory should be zero-initialized";
+            memory.setInt(i, i * 1_000_003);
+        }
+        for (int i = 0; i < 10; i++) {
+            assert memory.getInt(i) == i * 1_000_003 : arena.name() + " int access failed";
+        }
+        memory.setLong(2, Long.MIN_VALUE + 5);
+        assert memory.getLong(2) == Long.MIN_VALUE + 5 : arena.name() + " long access failed";
+        memory.clear();
+        assert memory.getLong(2) == 0 && memory.getInt(9) == 0 : "clear failed";
+
+        boolean thrown = false;
+        try {
+            memory.getInt(10);
+        } catch (IndexOutOfBoundsException e) {
+            thrown = true;
+        }
+        assert thrown : "Access outside the block should throw";
+    }
+
+    /**
+     * Tests the OffHeapDenseMatrix operations against DenseMatrix.
+     *
+     * @param arena The arena to allocate from.
+     */
+    private void testDenseMatrix(OffHeapArena arena) {
+        Matrix a = sample(5, 4, 1);
+        Matrix b = sample(4, 3, 2);
+        OffHeapDenseMatrix offHeap = OffHeapDenseMatrix.from(arena, a);
+        assert offHeap.getArena() == arena;
+        TestMatrices.assertSameValues(a, offHeap, "Conversion failed");
+        offHeap.set(4, 3, -9);
+        assert offHeap.get(4, 3) == -9;
+        a.set(4, 3, -9);
+
+        TestMatrices.assertSameValues(a.plus(a), offHeap.plus(a), "Addition failed");
+        TestMatrices.assertSameValues(a.times(b), offHeap.times(b), "Multiplication with a Matrix failed");
+        TestMatrices.assertSameValues(a.times(b), offHeap.times(DenseMatrix.from(b)),
+                "Multiplication with a DenseMatrix failed");
+        TestMatrices.assertSameValues(a.times(b), offHeap.times(OffHeapDenseMatrix.from(arena, b)),
+                "Multiplication with an OffHeapDenseMatrix failed");
+        TestMatrices.assertSameValues(a.times(b), offHeap.times(OffHeapCsrMatrix.from(arena, b)),
+                "Multiplication with an OffHeapCsrMatrix failed");
+        assert offHeap.times(b) instanceof OffHeapDenseMatrix;
+
+        int[] x = {3, -1, 4, 1};
+        int[] expected = a.times(x);
+        int[] y = offHeap.times(x);
+        for (int i = 0; i < expected.length; i++) {
+            assert y[i] == expected[i] : "Vector multiplication failed";
+        }
+
+        OffHeapDenseMatrix result = new OffHeapDenseMatrix(arena, 5, 3);
+        offHeap.multiplyInto(result, b);
+        offHeap.multiplyAccumulate(result, 2, b);
+        MatrixInterface product = a.times(b);
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j < 3; j++) {
+                assert result.get(i, j) == 3 * product.get(i, j) : "multiplyAccumulate failed";
+            }
+        }
+        offHeap.addInPlace(a);
+        offHeap.scaleInPlace(-1);
+        assert offHeap.get(4, 3) == 18 && offHeap.get(0, 0) == -2 * a.get(0, 0) : "In-place operations failed";
+        assert offHeap.toString().equals(new DenseMatrix(offHeap.toArray()).toString());
+    }
+
+    /**
+     * Tests the OffHeapCsrMatrix operations against Matrix.
+     *
+     * @param arena The arena to allocate from.
+     */
+    private void testCsrMatrix(OffHeapArena arena) {
+        Matrix a = sample(6, 5, 3);
+        Matrix b = sample(5, 7, 0);
+        OffHeapCsrMatrix csr = OffHeapCsrMatrix.from(arena, a);
+        TestMatrices.assertSameValues(a, csr, "Conversion failed");
+        assert csr.getNonZeroCount() == CsrMatrix.from(a).getNonZeroCount();
+        for (int i = 0; i < csr.getRows(); i++) {
+            for (long p = csr.rowStart(i) + 1; p < csr.rowEnd(i); p++) {
+                assert csr.columnAt(p - 1) < csr.columnAt(p) : "Columns should be ascending";
+            }
+        }
+
+        OffHeapCsrMatrix sum = csr.plus(sample(6, 5, 1));
+        TestMatrices.assertSameValues(a.plus(sample(6, 5, 1)), sum, "Addition failed");
+        Matrix negated = new Matrix(6, 5);
+        a.forEachNonZero((i, j, value) -> negated.set(i, j, -value));
+        assert csr.plus(negated).getNonZeroCount() == 0 : "Cancelled entries should not be stored";
+
+        OffHeapCsrMatrix product = csr.times(b);
+        TestMatrices.assertSameValues(a.times(b), product, "Multiplication failed");
+        TestMatrices.assertSameValues(a.times(b), csr.times(DenseMatrix.from(b)),
+                "Multiplication with a DenseMatrix failed");
+        Matrix target = new Matrix(6, 7);
+        csr.performMultiplication(target, b);
+        TestMatrices.assertSameValues(a.times(b), target, "performMultiplication failed");
+
+        int[] x = {1, 2, 3, 4, 5};
+        int[] expected = a.times(x);
+        int[] y = csr.times(x);
+        for (int i = 0; i < expected.length; i++) {
+            assert y[i] == expected[i] : "Vector multiplication failed";
+        }
+        assert csr.nonZeros().count() == csr.getNonZeroCount();
+
+        boolean thrown = false;
+        try {
+            csr.set(0, 0, 1);
+        } catch (UnsupportedOperationException e) {
+            thrown = true;
+        }
+        assert thrown : "An OffHeapCsrMatrix is immutable";
+    }
+
+    /**
+     * Tests heap matrices operating with off-heap operands.
+     *
+     * @param arena The arena to allocate from.
+     */
+    private void testMixedOperations(OffHeapArena arena) {
+        Matrix a = sample(4, 4, 2);
+        Matrix b = sample(4, 4, 3);
+        TestMatrices.assertSameValues(a.times(b), a.times(OffHeapCsrMatrix.from(arena, b)),
+                "Matrix x OffHeapCsrMatrix failed");
+        TestMatrices.assertSameValues(a.plus(b), DenseMatrix.from(a).plus(OffHeapDenseMatrix.from(arena, b)),
+                "DenseMatrix + OffHeapDenseMatrix failed");
+        TestMatrices.assertSameValues(a.times(b), MatrixOps.times(OffHeapDenseMatrix.from(arena, a), b),
+                "MatrixOps failed");
+    }
+
+    /**
+     * Tests that the memory can't be used after the arena was closed.
+     */
+    private void testClosedArena() {
+        for (OffHeapArena arena : new OffHeapArena[]{OffHeapArena.open(), new BufferArena()}) {
+            OffHeapDenseMatrix matrix = new OffHeapDenseMatrix(arena, 2, 2);
+            matrix.set(1, 1, 5);
+            arena.close();
+            assert !arena.isAlive();
+            arena.close(); // closing twice has no effect
+            boolean thrown = false;
+            try {
+                matrix.get(1, 1);
+            } catch (IllegalStateException e) {
+                thrown = true;
+            }
+            assert thrown : arena.name() + ": access after close should throw";
+
+            thrown = false;
+            try {
+                new OffHeapDenseMatrix(arena, 2, 2);
+            } catch (IllegalArgumentException e) {
+                thrown = true;
+            }
+            assert thrown : "Allocating from a closed arena should throw";
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package assignmenttwo;
+
+/**
+ * A block of zero-initialized off-heap memory owned by an OffHeapArena, addressed with long indices
+ * so it is not limited to 2^31 elements. The index is the element index of the accessed type
+ * (getInt(i) reads bytes [4i, 4i + 4), getLong(i) reads bytes [8i, 8i + 8)).
+ * Every access after the arena was closed throws an IllegalStateException.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public interface OffHeapMemory {
+
+    /**
+     * @return the size of the block in bytes.
+     */
+    long byteSize();
+
+    /**
+     * @param index The int index.
+     * @return the int at the index.
+     */
+    int getInt(long index);
+
+    /**
+     * @param index The int index.
+     * @param value The value to store.
+     */
+    void setInt(long index, int value);
+
+    /**
+     * @param index The long index.
+     * @return the long at the index.
+     */
+    long getLong(long index);
+
+    /**
+     * @param index The long index.
+     * @param value The value to store.
+     */
+    void setLong(long index, long value);
+
+    /**
+     * Sets every byte of the block to 0.
+     */
+    void clear();
+}
@@ -0,0 +1,381 @@
+package assignmenttwo;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Multiplies matrices that don't fit into memory, with an explicit memory budget. Both operands are
+ * partitioned into TiledMatrix objects on disk (operands that already are a TiledMatrix with the tile size of
+ * this multiplier are used as they are) and the result is written as a TiledMatrix, one tile at a time:
+ * <pre>
+ * for every result tile (ti, tj):
+ *     C(ti, tj) = sum over k of A(ti, k) * B(k, tj)     (pairs with an empty tile are skipped)
+ * </pre>
+ * The tiles are read and written on one I/O thread. While a pair of tiles is multiplied, the pair of the next
+ * step is already being read and the last finished result tile is being written, so I/O overlaps with the
+ * computation. At most WORKING_TILES tiles are in memory at once (the current and the prefetched pair, the
+ * result tile being accumulated and the one being written), the tile size is picked so they fit the budget.
+ * <p>
+ * The result can be used as a MatrixInterface, read tile by tile, or streamed into one CSR file with
+ * TiledMatrix.writeCsr.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public class OutOfCoreMultiplier {
+
+    /** The number of tiles in memory at once. */
+    public static final int WORKING_TILES = 6;
+
+    /** The memory budget in bytes. */
+    private final long memoryBudget;
+
+    /** The directory for the tiles of the operands. */
+    private final Path workDirectory;
+
+    /** The number of rows and columns of a full tile. */
+    private final int tileSize;
+
+    /**
+     * Constructs an OutOfCoreMultiplier with the largest tile size that fits the budget.
+     *
+     * @param memoryBudget The number of bytes the tiles in memory may take.
+     * @param workDirectory The directory for the tiles of the operands (created if it doesn't exist).
+     */
+    public OutOfCoreMultiplier(long memoryBudget, Path workDirectory) {
+        this(memoryBudget, workDirectory, tileSizeFor(memoryBudget));
+    }
+
+    /**
+     * Constructs an OutOfCoreMultiplier with a fixed tile size.
+     *
+     * @param memoryBudget The number of bytes the tiles in memory may take.
+     * @param workDirectory The directory for the tiles of the operands (created if it doesn't exist).
+     * @param tileSize The number of rows and columns of a full tile (WORKING_TILES of them have to fit).
+     */
+    public OutOfCoreMultiplier(long memoryBudget, Path workDirectory, int tileSize) {
+        if (workDirectory == null) {
+            throw new IllegalArgumentException("The work directory can not be null.");
+        }
+        if (tileSize <= 0 || tileSize > TiledMatrix.MAX_TILE_SIZE) {
+            throw new IllegalArgumentException("The tile size must be between 1 and "
+                    + TiledMatrix.MAX_TILE_SIZE + ".");
+        }
+        if (memoryBudget < tileBytes(tileSize) * WORKING_TILES) {
+            throw new IllegalArgumentException("The memory budget is too small for " + WORKING_TILES
+                    + " tiles of " + tileSize + " x " + tileSize + ".");
+        }
+        this.memoryBudget = memoryBudget;
+        this.workDirectory = workDirectory;
+        this.tileSize = tileSize;
+    }
+
+    /**
+     * The memory a tile may take: a dense tile takes one int per cell, a tile is stored as CSR only when that
+     * is smaller.
+     *
+     * @param tileSize The number of rows and columns of a full tile.
+     * @return the number of bytes.
+     */
+    private static long tileBytes(int tileSize) {
+        return (long) Integer.BYTES * tileSize * tileSize;
+    }
+
+    /**
+     * @param memoryBudget The number of bytes the tiles in memory may take.
+     * @return the largest tile size for which WORKING_TILES tiles fit the budget.
+     */
+    static int tileSizeFor(long memoryBudget) {
+        long cells = memoryBudget / (Integer.BYTES * (long) WORKING_TILES);
+        int tileSize = (int) Math.min(TiledMatrix.MAX_TILE_SIZE, (long) Math.sqrt((double) cells));
+        while (tileSize > 0 && tileBytes(tileSize) * WORKING_TILES > memoryBudget) {
+            tileSize--;
+        }
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("The memory budget is too small for a single tile.");
+        }
+        return tileSize;
+    }
+
+    /**
+     * @return the memory budget in bytes.
+     */
+    public long getMemoryBudget() {
+        return this.memoryBudget;
+    }
+
+    /**
+     * @return the number of rows and columns of a full tile.
+     */
+    public int getTileSize() {
+        return this.tileSize;
+    }
+
+    /**
+     * Multiplies two matrices of any type: the result left * right is written as tiles into the result
+     * directory. Tiles the multiplier had to write for the operands are deleted afterwards.
+     *
+     * @param left The left operand.
+     * @param right The right operand.
+     * @param resultDirectory The directory for the tiles of the result (created if it doesn't exist).
+     * @return the result.
+     * @throws IOException If the tiles can't be read or written.
+     */
+    public TiledMatrix multiply(MatrixInterface left, MatrixInterface right, Path resultDirectory)
+            throws IOException {
+        if (left == null || resultDirectory == null) {
+            throw new IllegalArgumentException("The operands and the result directory can not be null.");
+        }
+        left.validateMultiplication(right);
+        Files.createDirectories(this.workDirectory);
+        TiledMatrix a = null;
+        TiledMatrix b = null;
+        try {
+            a = tiles(left, "left");
+            b = tiles(right, "right");
+            return multiplyTiles(a, b, resultDirectory);
+        } finally {
+            if (a != null && a != left) {
+                a.delete();
+            }
+            if (b != null && b != right) {
+                b.delete();
+            }
+        }
+    }
+
+    /**
+     * @param matrix An operand.
+     * @param name The prefix of the temporary directory.
+     * @return the operand if it is a TiledMatrix with the tile size of this multiplier, its tiles otherwise.
+     * @throws IOException If the tiles can't be written.
+     */
+    private TiledMatrix tiles(MatrixInterface matrix, String name) throws IOException {
+        if (matrix instanceof TiledMatrix && ((TiledMatrix) matrix).getTileSize() == this.tileSize) {
+            return (TiledMatrix) matrix;
+        }
+        Path directory = Files.createTempDirectory(this.workDirectory, name + "-tiles");
+        return TiledMatrix.partition(directory, matrix, this.tileSize, this.memoryBudget);
+    }
+
+    /**
+     * Runs the schedule of tile products with the I/O on a separate thread.
+     *
+     * @param a The left operand.
+     * @param b The right operand.
+     * @param resultDirectory The directory for the tiles of the result.
+     * @return the result.
+     * @throws IOException If the tiles can't be read or written.
+     */
+    private TiledMatrix multiplyTiles(TiledMatrix a, TiledMatrix b, Path resultDirectory) throws IOException {
+        Files.createDirectories(resultDirectory);
+        int rows = a.getRows();
+        int columns = b.getColumns();
+        int[] tileEntries = new int[a.getTileRows() * b.getTileColumns()];
+        ExecutorService io = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "out-of-core-io");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Schedule schedule = new Schedule(a, b);
+            Future<Step> pending = schedule.next() ? io.submit(schedule.loader()) : null;
+            Future<?> writing = null;
+            DenseMatrix accumulator = null;
+            while (pending != null) {
+                Step step = await(pending);
+                pending = schedule.next() ? io.submit(schedule.loader()) : null;
+                if (accumulator == null) {
+                    accumulator = new DenseMatrix(TiledMatrix.tileExtent(rows, step.tileRow, this.tileSize),
+                            TiledMatrix.tileExtent(columns, step.tileColumn, this.tileSize));
+                }
+                accumulate(accumulator, step.left, step.right);
+                if (pending != null && schedule.tileRow == step.tileRow && schedule.tileColumn == step.tileColumn) {
+                    continue;
+                }
+                if (writing != null) {
+                    await(writing);
+                }
+                DenseMatrix finished = accumulator;
+                int index = step.tileRow * b.getTileColumns() + step.tileColumn;
+                Path file = TiledMatrix.tilePath(resultDirectory, step.tileRow, step.tileColumn);
+                writing = io.submit(() -> {
+                    if (finished.nonZeros().findAny().isPresent()) {
+                        tileEntries[index] = TiledMatrix.writeTile(file, finished);
+                    }
+                    return null;
+                });
+                accumulator = null;
+            }
+            if (writing != null) {
+                await(writing);
+            }
+        } finally {
+            io.shutdownNow();
+        }
+        // tiles left from an earlier result in the same directory
+        for (int ti = 0; ti < a.getTileRows(); ti++) {
+            for (int tj = 0; tj < b.getTileColumns(); tj++) {
+                if (tileEntries[ti * b.getTileColumns() + tj] == 0) {
+                    Files.deleteIfExists(TiledMatrix.tilePath(resultDirectory, ti, tj));
+                }
+            }
+        }
+        return new TiledMatrix(resultDirectory, rows, columns, this.tileSize, tileEntries);
+    }
+
+    /**
+     * Accumulates the product of two tiles: result += a * b. A dense right tile is added row by row with
+     * the axpy kernel, a CSR right tile is scattered by its rows.
+     *
+     * @param result The result tile.
+     * @param a The left tile (a DenseMatrix or a CsrMatrix).
+     * @param b The right tile (a DenseMatrix or a CsrMatrix).
+     */
+    private static void accumulate(DenseMatrix result, MatrixInterface a, MatrixInterface b) {
+        int[] target = result.data;
+        int width = result.getColumns();
+        if (b instanceof DenseMatrix) {
+            int[] right = ((DenseMatrix) b).data;
+            IntKernels kernels = IntKernels.get();
+            a.forEachNonZero((i, k, value) -> kernels.axpy(value, right, k * width, target, i * width, width));
+        } else {
+            SparseRows right = CsrMatrix.from(b).asSparseRows();
+            a.forEachNonZero((i, k, value) -> {
+                for (int p = right.rowPtr[k]; p < right.rowPtr[k + 1]; p++) {
+                    target[i * width + right.columns[p]] += value * right.values[p];
+                }
+            });
+        }
+    }
+
+    /**
+     * Waits for a task of the I/O thread and rethrows its failure.
+     *
+     * @param future The task.
+     * @param <T> The type of the result.
+     * @return the result of the task.
+     * @throws IOException If the task failed with an IOException or the wait was interrupted.
+     */
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the tile I/O.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * The steps (ti, tj, k) of the multiplication in the order they run: result tiles row by row, and for
+     * every result tile the k with a non-empty A(ti, k) and B(k, tj).
+     */
+    private static final class Schedule {
+
+        /** The left operand. */
+        private final TiledMatrix a;
+
+        /** The right operand. */
+        private final TiledMatrix b;
+
+        /** The tile row of the current step. */
+        int tileRow;
+
+        /** The tile column of the current step. */
+        int tileColumn;
+
+        /** The k of the current step. */
+        private int k = -1;
+
+        /**
+         * @param a The left operand.
+         * @param b The right operand.
+         */
+        Schedule(TiledMatrix a, TiledMatrix b) {
+            this.a = a;
+            this.b = b;
+        }
+
+        /**
+         * Advances to the next step.
+         *
+         * @return false if there is no step left.
+         */
+        boolean next() {
+            while (this.tileRow < this.a.getTileRows()) {
+                for (this.k++; this.k < this.a.getTileColumns(); this.k++) {
+                    if (this.a.getTileEntries(this.tileRow, this.k) != 0
+                            && this.b.getTileEntries(this.k, this.tileColumn) != 0) {
+                        return true;
+                    }
+                }
+                this.k = -1;
+                if (++this.tileColumn == this.b.getTileColumns()) {
+                    this.tileColumn = 0;
+                    this.tileRow++;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return a task loading the tiles of the current step.
+         */
+        Callable<Step> loader() {
+            int row = this.tileRow;
+            int column = this.tileColumn;
+            int middle = this.k;
+            return () -> new Step(row, column, this.a.readTile(row, middle), this.b.readTile(middle, column));
+        }
+    }
+
+    /**
+     * The loaded tiles of one step.
+     */
+    private static final class Step {
+
+        /** The tile row of the result tile. */
+        final int tileRow;
+
+        /** The tile column of the result tile. */
+        final int tileColumn;
+
+        /** The tile A(tileRow, k). */
+        final MatrixInterface left;
+
+        /** The tile B(k, tileColumn). */
+        final MatrixInterface right;
+
+        /**
+         * @param tileRow The tile row of the result tile.
+         * @param tileColumn The tile column of the result tile.
+         * @param left The tile A(tileRow, k).
+         * @param right The tile B(k, tileColumn).
+         */
+        Step(int tileRow, int tileColumn, MatrixInterface left, MatrixInterface right) {
+            this.tileRow = tileRow;
+            this.tileColumn = tileColumn;
+            this.left = left;
+            this.right = right;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package assignmenttwo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * This is a tester class for TiledMatrix and the OutOfCoreMultiplier.
+ * Tiny tiles and budgets are used, so every product runs over many tiles, including the smaller ones
+ * at the edges. The results are compared to the in-memory products.
+ *
+ * @author Nikola Desnica
+ * @version 1.0
+ */
+public class OutOfCoreMultiplierTester {
+
+    /**
+     * Runs all the test methods for TiledMatrix and the OutOfCoreMultiplier.
+     */
+    public void runTests() {
+        Path directory = null;
+        try {
+            directory = Files.createTempDirectory("out-of-core-test");
+            testTiledMatrix(directory);
+            testMultiply(directory);
+            testInvalidArguments(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deleteDirectory(directory);
+        }
+        System.out.println("All OutOfCoreMultiplier tests passed!");
+    }
+
+    /**
+     * Deletes the temporary directory with everything in it.
+     *
+     * @param directory The directory (may be null).
+     */
+    private static void deleteDirectory(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Builds a sparse test matrix.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param seed Changes the pattern of the entries.
+     * @return the sparse matrix.
+     */
+    private static Matrix sample(int rows, int columns, int seed) {
+        Matrix matrix = new Matrix(rows, columns);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                if ((i * 7 + j * 3 + seed) % 5 == 0 || (i < 4 && j < 4)) {
+                    matrix.set(i, j, (i + 1) * (j - seed) + 1);
+                }
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Tests partitioning, reading and streaming a TiledMatrix.
+     *
+     * @param directory The directory for the files.
+     * @throws IOException If the files can't be used.
+     */
+    private void testTiledMatrix(Path directory) throws IOException {
+        Matrix matrix = sample(23, 17, 1);
+        TiledMatrix tiled = TiledMatrix.partition(directory.resolve("tiled"), matrix, 5, 1 << 20);
+        assert tiled.getTileRows() == 5 && tiled.getTileColumns() == 4;
+        assert tiled.getNonZeroCount() == matrix.nonZeros().count();
+        assert tiled.readTile(4, 3).getRows() == 3 && tiled.readTile(4, 3).getColumns() == 2 : "Edge tiles are smaller";
+        assert tiled.readTile(0, 0) instanceof DenseMatrix : "A full tile should be stored dense";
+        TestMatrices.assertSameValues(matrix, tiled, "Partitioning failed");
+        for (int i = 0; i < matrix.getRows(); i++) {
+            for (int j = 0; j < matrix.getColumns(); j++) {
+                assert tiled.get(i, j) == matrix.get(i, j) : "get failed";
+            }
+        }
+        int[] previous = {-1, -1};
+        tiled.forEachNonZero(3, 19, (i, j, value) -> {
+            assert i >= 3 && i < 19 && (i > previous[0] || (i == previous[0] && j > previous[1]))
+                    : "Entries should come in row-major order";
+            previous[0] = i;
+            previous[1] = j;
+        });
+        int[] x = new int[17];
+        for (int j = 0; j < x.length; j++) {
+            x[j] = j - 8;
+        }
+        int[] expected = matrix.times(x);
+        int[] y = tiled.times(x);
+        for (int i = 0; i < expected.length; i++) {
+            assert y[i] == expected[i] : "Vector multiplication failed";
+        }
+        TestMatrices.assertSameValues(matrix.plus(matrix), tiled.plus(matrix), "Addition failed");
+
+        TiledMatrix smallBudget = TiledMatrix.partition(directory.resolve("small"), DenseMatrix.from(matrix), 5, 1);
+        TestMatrices.assertSameValues(matrix, smallBudget, "Partitioning one tile column per pass failed");
+        smallBudget.delete();
+        assert !Files.exists(directory.resolve("small")) : "delete should remove the directory";
+
+        Path csr = directory.resolve("tiled.bin");
+        tiled.writeCsr(csr);
+        TestMatrices.assertSameValues(matrix, MatrixFiles.read(csr), "Writing the CSR file failed");
+        try (OffHeapArena arena = OffHeapArena.open();
+             MappedCsrMatrix mapped = MappedCsrMatrix.open(csr, MappedMode.READ_ONLY, arena)) {
+            assert mapped.getNonZeroCount() == tiled.getNonZeroCount();
+            TestMatrices.assertSameValues(matrix, mapped, "Mapping the CSR file failed");
+        }
+
+        boolean thrown = false;
+        try {
+            tiled.set(0, 0, 1);
+        } catch (UnsupportedOperationException e) {
+            thrown = true;
+        }
+        assert thrown : "A TiledMatrix is immutable";
+    }
+
+    /**
+     * Tests out-of-core products of several operand types against the in-memory products.
+     *
+     * @param directory The directory for the files.
+     * @throws IOException If the files can't be used.
+     */
+    private void testMultiply(Path directory) throws IOException {
+        Path work = directory.resolve("work");
+        OutOfCoreMultiplier multiplier = new OutOfCoreMultiplier(OutOfCoreMultiplier.WORKING_TILES * 4 * 16, work);
+        assert multiplier.getTileSize() == 4;
+
+        Matrix a = sample(23, 17, 2);
+        Matrix b = sample(17, 19, 3);
+        TiledMatrix product = multiplier.multiply(a, b, directory.resolve("product"));
+        TestMatrices.assertSameValues(a.times(b), product, "Sparse product failed");
+        try (Stream<Path> left = Files.list(work)) {
+            assert left.count() == 0 : "The tiles of the operands should be deleted";
+        }
+
+        product = multiplier.multiply(DenseMatrix.from(a), DenseMatrix.from(b), directory.resolve("product"));
+        TestMatrices.assertSameValues(a.times(b), product, "Dense product failed");
+
+        BandMatrix band = new BandMatrix(17, 2);
+        band.set(0, 0, 3);
+        band.set(0, 2, -2);
+        TestMatrices.assertSameValues(a.times(band), multiplier.multiply(a, band, directory.resolve("band-product")),
+                "Product with a BandMatrix failed");
+
+        TiledMatrix tiled = TiledMatrix.partition(directory.resolve("b-tiles"), b, 4, 1 << 20);
+        TestMatrices.assertSameValues(a.times(b), multiplier.multiply(a, tiled, directory.resolve("tiled-product")),
+                "Product with a TiledMatrix failed");
+        assert Files.exists(TiledMatrix.tilePath(directory.resolve("b-tiles"), 0, 0))
+                : "A TiledMatrix operand should be kept";
+
+        Matrix zero = new Matrix(17, 19);
+        product = multiplier.multiply(a, zero, directory.resolve("product"));
+        assert product.getNonZeroCount() == 0 && !Files.exists(TiledMatrix.tilePath(directory.resolve("product"), 0, 0))
+                : "Tiles of an earlier result should be removed";
+
+        OutOfCoreMultiplier large = new OutOfCoreMultiplier(1 << 20, work);
+        assert large.getTileSize() == OutOfCoreMultiplier.tileSizeFor(1 << 20) && large.getTileSize() > 100;
+        TestMatrices.assertSameValues(a.times(b), large.multiply(a, b, directory.resolve("one-tile")),
+                "Single tile product failed");
+    }
+
+    /**
+     * Tests that invalid budgets and operands are rejected.
+     *
+     * @param directory The directory for the files.
+     * @throws IOException If the files can't be used.
+     */
+    private void testInvalidArguments(Path directory) throws IOException {
+        boolean thrown = false;
+        try {
+            new OutOfCoreMultiplier(OutOfCoreMultiplier.WORKING_TILES * 4 * 16 - 1, directory, 4);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "A budget below the working set should throw";
+
+        thrown = false;
+        try {
+            new OutOfCoreMultiplier(1 << 10, directory).multiply(new Matrix(3, 4), new Matrix(3, 4), directory);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Mismatched dimensions should throw";
+    }
+}
@@ -0,0 +1,446 @@
+package assignmenttwo;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Multiplies matrices on a ForkJoinPool, for any combination of MatrixInterface implementations.
+ * <ul>
+ *     <li>Two DenseMatrix operands are split into 2D tiles of the output, every tile runs the
+ *     cache-tiled DenseMatrix kernel over its own region of the result array.</li>
+ *     <li>Any other combination is split into blocks of output rows. Every block multiplies its rows
+ *     (sparse accumulator for sparse operands, dense rows for a DenseMatrix operand) into its own
+ *     buffers, or straight into its rows of the result array when the left operand is dense.</li>
+ * </ul>
+ * The product has the same representation as the sequential times() (a DenseMatrix for a dense left
+ * operand, a CsrMatrix or CscMatrix for two compressed operands of the same kind, a SquareMatrix for a
+ * square SquareMatrix product and a sparse Matrix otherwise). The off-heap types and band x band products
+ * of GeneralBandMatrix keep their own representation, so they run their sequential times().
+ * MatrixInterface.times(other, pool) is the opt-in entry point on the matrices themselves.
+ * Tasks never write to the same region, so no locks are needed. Integer arithmetic wraps the same way
+ * in any order, so the results are bit-identical to the sequential times().
+ * The operands must not be modified while a multiplication is running.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public class ParallelMultiplier {
+
+    /** Default number of output rows (and columns, for dense tiles) per task. */
+    public static final int DEFAULT_GRAIN = 64;
+
+    /** The pool the tasks run on. */
+    private final ForkJoinPool pool;
+
+    /** Output rows (and columns, for dense tiles) per task. */
+    private final int grain;
+
+    /**
+     * Constructs a ParallelMultiplier on the common pool with the default grain.
+     */
+    public ParallelMultiplier() {
+        this(ForkJoinPool.commonPool(), DEFAULT_GRAIN);
+    }
+
+    /**
+     * Constructs a ParallelMultiplier on the given pool with the default grain.
+     *
+     * @param pool The pool to run the tasks on.
+     */
+    public ParallelMultiplier(ForkJoinPool pool) {
+        this(pool, DEFAULT_GRAIN);
+    }
+
+    /**
+     * Constructs a ParallelMultiplier on the given pool.
+     *
+     * @param pool The pool to run the tasks on.
+     * @param grain The number of output rows (and columns, for dense tiles) per task.
+     */
+    public ParallelMultiplier(ForkJoinPool pool, int grain) {
+        if (pool == null) {
+            throw new IllegalArgumentException("The ForkJoinPool can not be null.");
+        }
+        if (grain <= 0) {
+            throw new IllegalArgumentException("The grain must be positive.");
+        }
+        this.pool = pool;
+        this.grain = grain;
+    }
+
+    /**
+     * @return the pool the tasks run on.
+     */
+    public ForkJoinPool getPool() {
+        return this.pool;
+    }
+
+    /**
+     * Multiplies two dense matrices, one 2D output tile per task.
+     *
+     * @param a The left operand.
+     * @param b The right operand.
+     * @return A new DenseMatrix that is the result of the multiplication.
+     */
+    public DenseMatrix times(DenseMatrix a, DenseMatrix b) {
+        a.validateMultiplication(b);
+        DenseMatrix result = new DenseMatrix(a.getRows(), b.getColumns());
+        int tileRows = (a.getRows() + this.grain - 1) / this.grain;
+        int tileColumns = (b.getColumns() + this.grain - 1) / this.grain;
+        this.pool.invoke(new DenseTileTask(a, b, result, tileColumns, 0, tileRows * tileColumns));
+        return result;
+    }
+
+    /**
+     * Multiplies any two matrices, giving the same representation as a.times(b) (see the class comment).
+     *
+     * @param a The left operand.
+     * @param b The right operand.
+     * @return A new matrix that is the result of the multiplication.
+     */
+    public MatrixInterface times(MatrixInterface a, MatrixInterface b) {
+        if (a == null) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the left Matrix is null.");
+        }
+        a.validateMultiplication(b);
+        if (a instanceof DenseMatrix && b instanceof DenseMatrix) {
+            return times((DenseMatrix) a, (DenseMatrix) b);
+        }
+        if (a instanceof OffHeapCsrMatrix || a instanceof OffHeapDenseMatrix || (a instanceof GeneralBandMatrix
+                && (b instanceof GeneralBandMatrix || b instanceof BandMatrix))) {
+            return a.times(b);
+        }
+        int rows = a.getRows();
+        int blockCount = (rows + this.grain - 1) / this.grain;
+        DenseMatrix denseResult = a instanceof DenseMatrix ? new DenseMatrix(rows, b.getColumns()) : null;
+        RowBlockTask root = new RowBlockTask(rowsOf(a), a instanceof DenseMatrix ? (DenseMatrix) a : null,
+                b instanceof DenseMatrix ? null : rowsOf(b), b instanceof DenseMatrix ? (DenseMatrix) b : null,
+                a.getColumns(), b.getColumns(), rows, denseResult, new RowBlock[blockCount], 0, blockCount);
+        this.pool.invoke(root);
+        if (denseResult != null) {
+            return denseResult;
+        }
+        CsrMatrix product = root.assemble();
+        if (a instanceof CsrMatrix && b instanceof CsrMatrix) {
+            return product;
+        }
+        if (a instanceof CscMatrix && b instanceof CscMatrix) {
+            return product.toCsc();
+        }
+        if (a instanceof SquareMatrix && a.getColumns() == b.getColumns()) {
+            return product.toSquareMatrix();
+        }
+        return product.toMatrix();
+    }
+
+    /**
+     * Groups the entries of a (non-dense) matrix by row in O(nnz + rows).
+     *
+     * @param matrix The matrix.
+     * @return the row-grouped entries, or null for a DenseMatrix (its array is used directly).
+     */
+    private static SparseRows rowsOf(MatrixInterface matrix) {
+        if (matrix instanceof DenseMatrix) {
+            return null;
+        }
+        if (matrix instanceof Matrix) {
+            return SparseRows.of(((Matrix) matrix).entries, matrix.getRows());
+        }
+        if (matrix instanceof CsrMatrix) {
+            return ((CsrMatrix) matrix).asSparseRows();
+        }
+        return SparseRows.of(matrix, false);
+    }
+
+    /**
+     * Computes a range of 2D output tiles of a dense product, splitting the range in half until
+     * a single tile is left.
+     */
+    private final class DenseTileTask extends RecursiveAction {
+
+        /** The serialization version. */
+        private static final long serialVersionUID = 1L;
+
+        /** The left operand. */
+        private final DenseMatrix a;
+
+        /** The right operand. */
+        private final DenseMatrix b;
+
+        /** The result, every tile writes its own region. */
+        private final DenseMatrix result;
+
+        /** The number of tiles per row of tiles. */
+        private final int tileColumns;
+
+        /** First tile index of this task. */
+        private final int from;
+
+        /** Tile index after the last tile of this task. */
+        private final int to;
+
+        /**
+         * @param a The left operand.
+         * @param b The right operand.
+         * @param result The result.
+         * @param tileColumns The number of tiles per row of tiles.
+         * @param from First tile index.
+         * @param to Tile index after the last tile.
+         */
+        DenseTileTask(DenseMatrix a, DenseMatrix b, DenseMatrix result, int tileColumns, int from, int to) {
+            this.a = a;
+            this.b = b;
+            this.result = result;
+            this.tileColumns = tileColumns;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > 1) {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new DenseTileTask(this.a, this.b, this.result, this.tileColumns, this.from, middle),
+                        new DenseTileTask(this.a, this.b, this.result, this.tileColumns, middle, this.to));
+                return;
+            }
+            int rowFrom = (this.from / this.tileColumns) * ParallelMultiplier.this.grain;
+            int columnFrom = (this.from % this.tileColumns) * ParallelMultiplier.this.grain;
+            DenseMatrix.multiplyBlock(1, this.a.data, this.b.data, this.result.data,
+                    this.a.getColumns(), this.b.getColumns(),
+                    rowFrom, Math.min(rowFrom + ParallelMultiplier.this.grain, this.a.getRows()),
+                    columnFrom, Math.min(columnFrom + ParallelMultiplier.this.grain, this.b.getColumns()),
+                    DenseMatrix.DEFAULT_BLOCK_SIZE);
+        }
+    }
+
+    /**
+     * The CSR pieces of one block of output rows.
+     */
+    private static final class RowBlock {
+
+        /** Number of entries in every row of the block. */
+        final int[] rowCounts;
+
+        /** Column indices of the block, ascending within every row. */
+        final int[] columns;
+
+        /** Values of the block. */
+        final int[] values;
+
+        /**
+         * @param rowCounts Number of entries per row.
+         * @param columns Column indices.
+         * @param values Values.
+         */
+        RowBlock(int[] rowCounts, int[] columns, int[] values) {
+            this.rowCounts = rowCounts;
+            this.columns = columns;
+            this.values = values;
+        }
+    }
+
+    /**
+     * Computes a range of row blocks of a product, splitting the range in half until a single block is left.
+     * Every block is stored in its own slot of the shared blocks array.
+     */
+    private final class RowBlockTask extends RecursiveAction {
+
+        /** The serialization version. */
+        private static final long serialVersionUID = 1L;
+
+        /** The row-grouped left operand, or null if it is dense. */
+        private final SparseRows leftRows;
+
+        /** The dense left operand, or null if it is not dense. */
+        private final DenseMatrix leftDense;
+
+        /** The row-grouped right operand, or null if it is dense. */
+        private final SparseRows rightRows;
+
+        /** The dense right operand, or null if it is not dense. */
+        private final DenseMatrix rightDense;
+
+        /** The inner dimension. */
+        private final int inner;
+
+        /** The number of columns of the result. */
+        private final int resultColumns;
+
+        /** The number of rows of the result. */
+        private final int resultRows;
+
+        /** The dense result whose rows the leaf tasks write, or null to collect CSR blocks. */
+        private final DenseMatrix denseResult;
+
+        /** One slot per block, filled by the leaf tasks. */
+        private final RowBlock[] blocks;
+
+        /** First block of this task. */
+        private final int from;
+
+        /** Block after the last block of this task. */
+        private final int to;
+
+        /**
+         * @param leftRows The row-grouped left operand (or null).
+         * @param leftDense The dense left operand (or null).
+         * @param rightRows The row-grouped right operand (or null).
+         * @param rightDense The dense right operand (or null).
+         * @param inner The inner dimension.
+         * @param resultColumns The number of columns of the result.
+         * @param resultRows The number of rows of the result.
+         * @param denseResult The dense result (or null).
+         * @param blocks The shared block slots.
+         * @param from First block.
+         * @param to Block after the last block.
+         */
+        RowBlockTask(SparseRows leftRows, DenseMatrix leftDense, SparseRows rightRows, DenseMatrix rightDense,
+                     int inner, int resultColumns, int resultRows, DenseMatrix denseResult, RowBlock[] blocks,
+                     int from, int to) {
+            this.leftRows = leftRows;
+            this.leftDense = leftDense;
+            this.rightRows = rightRows;
+            this.rightDense = rightDense;
+            this.inner = inner;
+            this.resultColumns = resultColumns;
+            this.resultRows = resultRows;
+            this.denseResult = denseResult;
+            this.blocks = blocks;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Creates a task for a sub-range of the blocks.
+         *
+         * @param newFrom First block.
+         * @param newTo Block after the last block.
+         * @return the task.
+         */
+        private RowBlockTask split(int newFrom, int newTo) {
+            return new RowBlockTask(this.leftRows, this.leftDense, this.rightRows, this.rightDense, this.inner,
+                    this.resultColumns, this.resultRows, this.denseResult, this.blocks, newFrom, newTo);
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > 1) {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(split(this.from, middle), split(middle, this.to));
+                return;
+            }
+            int rowFrom = this.from * ParallelMultiplier.this.grain;
+            int rowTo = Math.min(rowFrom + ParallelMultiplier.this.grain, this.resultRows);
+            this.blocks[this.from] = computeRows(rowFrom, rowTo);
+        }
+
+        /**
+         * Multiplies the rows [rowFrom, rowTo) into a sparse accumulator (or a dense row buffer when
+         * the right operand is dense) and collects the non-zero results in column order, or writes the
+         * rows of the dense result.
+         *
+         * @param rowFrom First row.
+         * @param rowTo Row after the last row.
+         * @return the CSR pieces of the rows (null when they were written to the dense result).
+         */
+        private RowBlock computeRows(int rowFrom, int rowTo) {
+            int[] accumulator = new int[this.resultColumns];
+            int[] lastRow = new int[this.resultColumns];
+            int[] touched = new int[this.resultColumns];
+            Arrays.fill(lastRow, -1);
+            int[] rowCounts = new int[rowTo - rowFrom];
+            CsrMatrix.IntBuffer columns = new CsrMatrix.IntBuffer();
+            CsrMatrix.IntBuffer values = new CsrMatrix.IntBuffer();
+
+            for (int i = rowFrom; i < rowTo; i++) {
+                int before = columns.size;
+                if (this.rightDense != null) {
+                    Arrays.fill(accumulator, 0);
+                }
+                int count = 0;
+                int start = this.leftRows != null ? this.leftRows.rowPtr[i] : 0;
+                int end = this.leftRows != null ? this.leftRows.rowPtr[i + 1] : this.inner;
+                for (int p = start; p < end; p++) {
+                    int k = this.leftRows != null ? this.leftRows.columns[p] : p;
+                    int value = this.leftRows != null ? this.leftRows.values[p] : this.leftDense.data[i * this.inner + p];
+                    if (value == 0) {
+                        continue;
+                    }
+                    if (this.rightDense != null) {
+                        int offset = k * this.resultColumns;
+                        for (int j = 0; j < this.resultColumns; j++) {
+                            accumulator[j] += value * this.rightDense.data[offset + j];
+                        }
+                    } else {
+                        for (int q = this.rightRows.rowPtr[k]; q < this.rightRows.rowPtr[k + 1]; q++) {
+                            int j = this.rightRows.columns[q];
+                            if (lastRow[j] != i) {
+                                lastRow[j] = i;
+                                touched[count++] = j;
+                                accumulator[j] = value * this.rightRows.values[q];
+                            } else {
+                                accumulator[j] += value * this.rightRows.values[q];
+                            }
+                        }
+                    }
+                }
+                if (this.denseResult != null) {
+                    int offset = i * this.resultColumns;
+                    if (this.rightDense != null) {
+                        System.arraycopy(accumulator, 0, this.denseResult.data, offset, this.resultColumns);
+                    } else {
+                        for (int t = 0; t < count; t++) {
+                            this.denseResult.data[offset + touched[t]] = accumulator[touched[t]];
+                        }
+                    }
+                } else if (this.rightDense != null) {
+                    for (int j = 0; j < this.resultColumns; j++) {
+                        if (accumulator[j] != 0) {
+                            columns.add(j);
+                            values.add(accumulator[j]);
+                        }
+                    }
+                } else {
+                    Arrays.sort(touched, 0, count);
+                    for (int t = 0; t < count; t++) {
+                        int j = touched[t];
+                        if (accumulator[j] != 0) {
+                            columns.add(j);
+                            values.add(accumulator[j]);
+                        }
+                    }
+                }
+                rowCounts[i - rowFrom] = columns.size - before;
+            }
+            return this.denseResult != null ? null : new RowBlock(rowCounts, columns.toArray(), values.toArray());
+        }
+
+        /**
+         * Concatenates the blocks into a single CsrMatrix (called once the root task is done).
+         *
+         * @return the product.
+         */
+        CsrMatrix assemble() {
+            int[] rowPtr = new int[this.resultRows + 1];
+            int total = 0;
+            int row = 0;
+            for (RowBlock block : this.blocks) {
+                for (int count : block.rowCounts) {
+                    total += count;
+                    rowPtr[++row] = total;
+                }
+            }
+            int[] columns = new int[total];
+            int[] values = new int[total];
+            int position = 0;
+            for (RowBlock block : this.blocks) {
+                System.arraycopy(block.columns, 0, columns, position, block.columns.length);
+                System.arraycopy(block.values, 0, values, position, block.values.length);
+                position += block.columns.length;
+            }
+            return new CsrMatrix(this.resultRows, this.resultColumns, rowPtr, columns, values, true);
+        }
+    }
+}
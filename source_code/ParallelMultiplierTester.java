@@ -0,0 +1,110 @@
+package assignmenttwo;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This is a tester class for the ParallelMultiplier class.
+ * Every combination of matrix types is multiplied in parallel and compared to the sequential times().
+ *
+ * @author Nikola Desnica
+ * @version 1.0
+ */
+public class ParallelMultiplierTester {
+
+    /**
+     * Runs all the test methods for the ParallelMultiplier class.
+     */
+    public void runTests() {
+        testValidation();
+        testDenseTiles();
+        testAllCombinations();
+        System.out.println("All ParallelMultiplier tests passed!");
+    }
+
+    /**
+     * Tests that invalid arguments are rejected.
+     */
+    private void testValidation() {
+        try {
+            new ParallelMultiplier(ForkJoinPool.commonPool(), 0);
+            assert false : "Expected an exception for a grain of 0.";
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        try {
+            new ParallelMultiplier().times(new Matrix(2, 3), new Matrix(2, 3));
+            assert false : "Expected an exception for incompatible dimensions.";
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Tests the 2D tiling of dense products with tiles that don't divide the dimensions.
+     */
+    private void testDenseTiles() {
+        DenseMatrix a = new DenseMatrix(23, 17);
+        DenseMatrix b = new DenseMatrix(17, 19);
+        for (int i = 0; i < 23; i++) {
+            for (int j = 0; j < 17; j++) {
+                a.set(i, j, (i * 13 + j * 7) % 9 - 4);
+            }
+        }
+        for (int i = 0; i < 17; i++) {
+            for (int j = 0; j < 19; j++) {
+                b.set(i, j, (i * 5 + j * 11) % 7 - 3);
+            }
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            DenseMatrix result = new ParallelMultiplier(pool, 5).times(a, b);
+            assert result.equals(a.times(b)) : "Parallel dense multiplication failed.";
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Tests every combination of the heap matrix types, comparing the values and the representation.
+     */
+    private void testAllCombinations() {
+        int size = 11;
+        Matrix sparse = new Matrix(size, size);
+        SquareMatrix square = new SquareMatrix(size);
+        for (int i = 0; i < size; i++) {
+            sparse.set(i, (i * 3) % size, i + 1);
+            sparse.set(i, (i * 5 + 2) % size, -i);
+            square.set((i * 7) % size, i, 2 * i - 3);
+        }
+        BandMatrix band = new BandMatrix(size);
+        band.set(0, 0, 2);
+        band.set(0, 1, -1);
+        DenseMatrix dense = DenseMatrix.from(square.plus(band));
+        ConcurrentSparseMatrix concurrent = new ConcurrentSparseMatrix(size, size);
+        concurrent.addInPlace(sparse);
+        MatrixInterface[] operands = {sparse, square, band, CsrMatrix.from(sparse), CsrMatrix.from(square).toCsc(),
+                dense, GeneralBandMatrix.from(band), concurrent};
+
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            ParallelMultiplier multiplier = new ParallelMultiplier(pool, 2);
+            for (MatrixInterface a : operands) {
+                for (MatrixInterface b : operands) {
+                    MatrixInterface expected = a.times(b);
+                    MatrixInterface actual = multiplier.times(a, b);
+                    String pair = a.getClass().getSimpleName() + " x " + b.getClass().getSimpleName();
+                    assert Arrays.deepEquals(expected.toArray(), actual.toArray())
+                            : "Parallel multiplication failed for " + pair + ".";
+                    assert expected.getClass() == actual.getClass() : "Wrong representation for " + pair + ".";
+                    assert expected.getClass() == a.times(b, pool).getClass()
+                            && Arrays.deepEquals(expected.toArray(), a.times(b, pool).toArray())
+                            : "The parallel times failed for " + pair + ".";
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package assignmenttwo;
+
+import java.util.Arrays;
+
+/**
+ * Immutable sparse matrix on a persistent trie. with(row, column, value) returns a new version that copies only
+ * the O(log32(rows * columns)) nodes on the path to the cell and shares all the other storage with this one.
+ * <p>
+ * A PersistentMatrix never changes after it was constructed (all fields are final), so any number of threads
+ * can read it at the same time without locks or copies, and every reader sees one consistent version.
+ * VersionedMatrix.snapshot() gives a PersistentMatrix of a mutable matrix in O(1).
+ * The entries are visited in row-major order, plus and times give a new sparse Matrix.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public final class PersistentMatrix implements MatrixInterface {
+
+    /** The number of rows in this PersistentMatrix Instance. */
+    private final int rows;
+
+    /** The number of columns in this PersistentMatrix Instance. */
+    private final int columns;
+
+    /** The entries, never modified. */
+    private final EntryTrie trie;
+
+    /**
+     * Constructs an all-zero PersistentMatrix with the given dimensions.
+     *
+     * @param rows The indicated number of rows.
+     * @param columns The indicated number of columns.
+     */
+    public PersistentMatrix(int rows, int columns) {
+        if (rows <= 0 || columns <= 0) {
+            throw new IllegalArgumentException("Can not construct a matrix " +
+                    "with values of 0 for rows or columns.");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.trie = EntryTrie.empty(rows, columns);
+    }
+
+    /**
+     * Wraps a trie that is not modified anymore (used by with and VersionedMatrix.snapshot).
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param trie The entries.
+     */
+    PersistentMatrix(int rows, int columns, EntryTrie trie) {
+        this.rows = rows;
+        this.columns = columns;
+        this.trie = trie;
+    }
+
+    /**
+     * Copies any matrix into a PersistentMatrix, visiting only its stored entries.
+     *
+     * @param matrix The matrix to copy.
+     * @return the PersistentMatrix holding the same values.
+     */
+    public static PersistentMatrix from(MatrixInterface matrix) {
+        if (matrix == null) {
+            throw new IllegalArgumentException("The provided matrix is null.");
+        }
+        VersionedMatrix copy = new VersionedMatrix(matrix.getRows(), matrix.getColumns());
+        matrix.forEachNonZero(copy::set);
+        return copy.snapshot();
+    }
+
+    /**
+     * @return trie, for VersionedMatrix.
+     */
+    EntryTrie getTrie() {
+        return this.trie;
+    }
+
+    /**
+     * @return rows.
+     */
+    @Override
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * @return columns.
+     */
+    @Override
+    public int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * @return 0, a PersistentMatrix never changes.
+     */
+    @Override
+    public long getModificationCount() {
+        return 0;
+    }
+
+    /**
+     * @return the number of stored (non-zero) entries.
+     */
+    public int getNonZeroCount() {
+        return this.trie.size();
+    }
+
+    /**
+     * Fetches the value at the specified index in O(log32(rows * columns)).
+     *
+     * @param row the row position.
+     * @param column the column position.
+     * @return the value.
+     */
+    @Override
+    public int get(int row, int column) {
+        validateIndices(row, column);
+        return this.trie.get(row, column);
+    }
+
+    /**
+     * Returns a new version with one value changed, sharing the storage of all the other cells with this one.
+     *
+     * @param row The row index.
+     * @param column The column index.
+     * @param value The new value (0 removes the entry).
+     * @return the new version, or this matrix if the cell already holds the value.
+     */
+    public PersistentMatrix with(int row, int column, int value) {
+        validateIndices(row, column);
+        EntryTrie updated = this.trie.put(row, column, value, null);
+        return updated == this.trie ? this : new PersistentMatrix(this.rows, this.columns, updated);
+    }
+
+    /**
+     * A PersistentMatrix is immutable, use with().
+     *
+     * @param row The row index.
+     * @param column The column index.
+     * @param value The desired value.
+     */
+    @Override
+    public void set(int row, int column, int value) {
+        throw new UnsupportedOperationException("A PersistentMatrix is immutable, use with().");
+    }
+
+    /**
+     * Not supported, a PersistentMatrix is immutable.
+     *
+     * @param other The matrix to add.
+     */
+    @Override
+    public void addInPlace(MatrixInterface other) {
+        throw new UnsupportedOperationException("A PersistentMatrix is immutable, use with().");
+    }
+
+    /**
+     * Not supported, a PersistentMatrix is immutable.
+     *
+     * @param factor The factor.
+     */
+    @Override
+    public void scaleInPlace(int factor) {
+        throw new UnsupportedOperationException("A PersistentMatrix is immutable, use with().");
+    }
+
+    /**
+     * Validates the passed indices (for get and with).
+     *
+     * @param row The row index.
+     * @param column The column index.
+     */
+    public void validateIndices(int row, int column) {
+        if (row < 0 || row > this.rows - 1) {
+            throw new IllegalArgumentException("The indicated row index is out of bounds for this matrix.");
+        }
+        if (column < 0 || column > this.columns - 1) {
+            throw new IllegalArgumentException("The indicated column index is out of bounds for this matrix.");
+        }
+    }
+
+    /**
+     * Validates the passed matrix before addition.
+     *
+     * @param other The Matrix to add.
+     */
+    @Override
+    public void validateAddition(MatrixInterface other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot add these two matrices, the passed Matrix is null.");
+        }
+        if (this.rows != other.getRows() || this.columns != other.getColumns()) {
+            throw new IllegalArgumentException("Cannot add these two matrices, their dimensions don't match.");
+        }
+    }
+
+    /**
+     * Validates the passed matrix before multiplication.
+     *
+     * @param other The Matrix to multiply by.
+     */
+    @Override
+    public void validateMultiplication(MatrixInterface other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the passed Matrix is null.");
+        }
+        if (this.columns != other.getRows()) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the columns of this matrix" +
+                    "don't match the rows of the matrix that was passed.");
+        }
+    }
+
+    /**
+     * Adds another matrix into a new sparse Matrix.
+     *
+     * @param other The matrix to add.
+     * @return A new Matrix that is the result of the addition.
+     */
+    @Override
+    public MatrixInterface plus(MatrixInterface other) {
+        validateAddition(other);
+        Matrix result = new Matrix(this.rows, this.columns);
+        performAddition(result, other);
+        return result;
+    }
+
+    /**
+     * Facilitates matrix addition for the plus method: the entries of the other matrix are copied into the
+     * empty result and the entries of this matrix are added on top.
+     *
+     * @param result The empty result matrix to be populated.
+     * @param other The matrix to be added to our PersistentMatrix instance.
+     */
+    @Override
+    public void performAddition(MatrixInterface result, MatrixInterface other) {
+        other.forEachNonZero(result::set);
+        forEachNonZero((i, j, value) -> result.set(i, j, result.get(i, j) + value));
+    }
+
+    /**
+     * Multiplies with another matrix into a new sparse Matrix.
+     *
+     * @param other The matrix to multiply by.
+     * @return A new Matrix that is the result of the multiplication.
+     */
+    @Override
+    public MatrixInterface times(MatrixInterface other) {
+        validateMultiplication(other);
+        Matrix result = new Matrix(this.rows, other.getColumns());
+        performMultiplication(result, other);
+        return result;
+    }
+
+    /**
+     * Facilitates matrix multiplication for the times method.
+     *
+     * @param result The empty result matrix to be populated.
+     * @param other The matrix to be multiplied with our PersistentMatrix instance.
+     */
+    @Override
+    public void performMultiplication(MatrixInterface result, MatrixInterface other) {
+        multiplyAccumulate(result, 1, other);
+    }
+
+    /**
+     * Multiplies this PersistentMatrix with a column vector: y = A * x.
+     *
+     * @param x The vector to multiply by.
+     * @param y The vector receiving the product (overwritten).
+     */
+    @Override
+    public void timesInto(int[] x, int[] y) {
+        validateVectorMultiplication(x, y);
+        Arrays.fill(y, 0);
+        forEachNonZero((i, j, value) -> y[i] += value * x[j]);
+    }
+
+    /**
+     * Passes the entries of the rows [fromRow, toRow) to the action in row-major order. Only the nodes
+     * holding those rows are visited.
+     *
+     * @param fromRow The first row (inclusive).
+     * @param toRow The last row (exclusive).
+     * @param action The action receiving (row, column, value).
+     */
+    @Override
+    public void forEachNonZero(int fromRow, int toRow, IntTriConsumer action) {
+        validateRowRange(fromRow, toRow, action);
+        this.trie.forEach(fromRow, toRow, action);
+    }
+
+    /**
+     * Converts the matrix to a 2D array.
+     *
+     * @return A 2D array representation of the matrix.
+     */
+    @Override
+    public int[][] toArray() {
+        int[][] array = new int[this.rows][this.columns];
+        forEachNonZero((i, j, value) -> array[i][j] = value);
+        return array;
+    }
+
+    /**
+     * Transforms a PersistentMatrix instance into a String representation of the Matrix
+     * (same layout as Matrix.toString()).
+     *
+     * @return The String representation of this PersistentMatrix.
+     */
+    @Override
+    public String toString() {
+        Matrix matrix = new Matrix(this.rows, this.columns);
+        forEachNonZero(matrix::set);
+        return matrix.toString();
+    }
+}
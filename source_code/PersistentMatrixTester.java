@@ -0,0 +1,206 @@
+package assignmenttwo;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This is a tester class for PersistentMatrix and VersionedMatrix.
+ * Every version is compared to a Matrix holding the expected values, and reader threads check that the
+ * snapshots they see stay consistent while a writer keeps changing the matrix.
+ *
+ * @author Nikola Desnica
+ * @version 1.0
+ */
+public class PersistentMatrixTester {
+
+    /**
+     * Runs all the test methods for PersistentMatrix and VersionedMatrix.
+     */
+    public void runTests() {
+        testWith();
+        testSnapshots();
+        testOperations();
+        testConcurrentReaders();
+        System.out.println("All PersistentMatrix tests passed!");
+    }
+
+    /**
+     * Tests that with() gives new versions and leaves the old ones unchanged.
+     */
+    private void testWith() {
+        PersistentMatrix empty = new PersistentMatrix(300, 200);
+        PersistentMatrix matrix = empty;
+        Matrix expected = new Matrix(300, 200);
+        for (int n = 0; n < 2000; n++) {
+            int i = (n * 37) % 300;
+            int j = (n * 53 + n / 7) % 200;
+            matrix = matrix.with(i, j, n % 11 - 5);
+            expected.set(i, j, n % 11 - 5);
+        }
+        TestMatrices.assertSameValues(expected, matrix, "with failed");
+        assert matrix.getNonZeroCount() == expected.nonZeros().count() : "The entry count is wrong";
+        assert empty.getNonZeroCount() == 0 && empty.get(4, 5) == 0 : "The first version should stay empty";
+
+        PersistentMatrix changed = matrix.with(7, 9, 12345);
+        assert changed.get(7, 9) == 12345 && matrix.get(7, 9) == expected.get(7, 9) : "Old versions should not change";
+        assert changed.with(7, 9, 12345) == changed : "Setting the same value should return the same version";
+        PersistentMatrix removed = changed.with(7, 9, 0);
+        assert removed.get(7, 9) == 0 && changed.get(7, 9) == 12345 : "Removing failed";
+
+        int[] previous = {-1, -1};
+        int[] count = {0};
+        matrix.forEachNonZero(100, 150, (i, j, value) -> {
+            assert i >= 100 && i < 150 && (i > previous[0] || (i == previous[0] && j > previous[1]))
+                    : "Entries should come in row-major order";
+            assert value == expected.get(i, j) : "Iteration returned a wrong value";
+            previous[0] = i;
+            previous[1] = j;
+            count[0]++;
+        });
+        assert count[0] == expected.nonZeros().filter(e -> e.getRow() >= 100 && e.getRow() < 150).count();
+
+        PersistentMatrix single = new PersistentMatrix(1, 1).with(0, 0, 3);
+        assert single.get(0, 0) == 3 && single.with(0, 0, 0).getNonZeroCount() == 0;
+
+        boolean thrown = false;
+        try {
+            matrix.set(0, 0, 1);
+        } catch (UnsupportedOperationException e) {
+            thrown = true;
+        }
+        assert thrown : "A PersistentMatrix is immutable";
+        thrown = false;
+        try {
+            matrix.with(300, 0, 1);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Indices out of bounds should throw";
+    }
+
+    /**
+     * Tests that snapshots of a VersionedMatrix keep their values while the matrix changes.
+     */
+    private void testSnapshots() {
+        VersionedMatrix matrix = new VersionedMatrix(50, 40);
+        for (int i = 0; i < 50; i++) {
+            matrix.set(i, (i * 3) % 40, i + 1);
+        }
+        assert matrix.getVersion() == 50;
+        PersistentMatrix first = matrix.snapshot();
+        assert matrix.snapshot() == first : "An unchanged matrix should give the same snapshot";
+        int[][] values = first.toArray();
+
+        for (int i = 0; i < 50; i++) {
+            matrix.set(i, (i * 3) % 40, -i);
+            matrix.set(i, (i * 7) % 40, 2 * i + 1);
+        }
+        matrix.set(3, 3, matrix.get(3, 3));
+        assert matrix.getVersion() == 150 : "Only real changes should count";
+        PersistentMatrix second = matrix.snapshot();
+        assert second != first && second.get(5, 15) == -5 && second.get(5, 35) == 11;
+        int[][] unchanged = first.toArray();
+        for (int i = 0; i < 50; i++) {
+            for (int j = 0; j < 40; j++) {
+                assert unchanged[i][j] == values[i][j] : "A snapshot should not change";
+            }
+        }
+
+        VersionedMatrix branch = new VersionedMatrix(first);
+        branch.set(0, 0, 99);
+        assert branch.get(0, 0) == 99 && first.get(0, 0) == 1 && matrix.get(0, 0) == 1
+                : "A branch should not change its snapshot";
+        assert branch.snapshot().get(1, 3) == 2;
+
+        Matrix source = new Matrix(6, 5);
+        source.set(1, 2, 4);
+        source.set(5, 4, -3);
+        PersistentMatrix copy = PersistentMatrix.from(source);
+        source.set(1, 2, 8);
+        assert copy.get(1, 2) == 4 && copy.get(5, 4) == -3 && copy.getNonZeroCount() == 2 : "from failed";
+    }
+
+    /**
+     * Tests the arithmetic and the in-place operations against Matrix.
+     */
+    private void testOperations() {
+        Matrix a = new Matrix(8, 6);
+        Matrix b = new Matrix(6, 7);
+        for (int i = 0; i < 8; i++) {
+            for (int j = 0; j < 7; j++) {
+                if ((i + j) % 3 == 0) {
+                    a.set(i, j % 6, i - j);
+                    b.set(j % 6, j, i + j + 1);
+                }
+            }
+        }
+        PersistentMatrix persistent = PersistentMatrix.from(a);
+        TestMatrices.assertSameValues(a.times(b), persistent.times(b), "times failed");
+        TestMatrices.assertSameValues(a.plus(a), persistent.plus(a), "plus failed");
+        int[] x = {1, -2, 3, 0, 5, -1};
+        int[] expected = a.times(x);
+        int[] y = persistent.times(x);
+        for (int i = 0; i < 8; i++) {
+            assert y[i] == expected[i] : "Vector multiplication failed";
+        }
+
+        VersionedMatrix versioned = new VersionedMatrix(persistent);
+        PersistentMatrix before = versioned.snapshot();
+        versioned.addInPlace(a);
+        TestMatrices.assertSameValues(a.plus(a), versioned, "addInPlace failed");
+        versioned.scaleInPlace(-3);
+        Matrix scaled = a.plus(a);
+        scaled.scaleInPlace(-3);
+        TestMatrices.assertSameValues(scaled, versioned, "scaleInPlace failed");
+        TestMatrices.assertSameValues(a, before, "The in-place operations should not change a snapshot");
+        versioned.scaleInPlace(0);
+        assert versioned.getNonZeroCount() == 0 : "Scaling by 0 should remove every entry";
+    }
+
+    /**
+     * Tests that readers on other threads always see a consistent snapshot while the writer keeps changing
+     * the matrix: the writer sets a whole row to the same value before every snapshot.
+     */
+    private void testConcurrentReaders() {
+        VersionedMatrix matrix = new VersionedMatrix(4, 64);
+        AtomicReference<PersistentMatrix> latest = new AtomicReference<>(matrix.snapshot());
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicBoolean failed = new AtomicBoolean();
+        Thread[] readers = new Thread[3];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                do {
+                    PersistentMatrix snapshot = latest.get();
+                    int value = snapshot.get(1, 0);
+                    int[] seen = {0};
+                    snapshot.forEachNonZero(1, 2, (i, j, v) -> {
+                        if (v != value) {
+                            failed.set(true);
+                        }
+                        seen[0]++;
+                    });
+                    if (seen[0] != (value == 0 ? 0 : 64)) {
+                        failed.set(true);
+                    }
+                } while (!done.get());
+            });
+            readers[r].start();
+        }
+        for (int version = 1; version <= 500; version++) {
+            for (int j = 0; j < 64; j++) {
+                matrix.set(1, j, version);
+            }
+            latest.set(matrix.snapshot());
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            try {
+                reader.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        assert !failed.get() : "A reader saw a partly written snapshot";
+        assert latest.get().get(1, 63) == 500;
+    }
+}
@@ -0,0 +1,368 @@
+package assignmenttwo;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opt-in memoization of plus and times results for code that keeps recomputing the same products.
+ * <p>
+ * A result is stored under the operation and the identity of both operands, together with their
+ * getModificationCount() at the time it was computed. A later call with the same operand objects reuses it
+ * only if neither counter moved, so any set (or in-place operation) on an operand makes the entry stale.
+ * The result's own counter is recorded too, so a caller that changes a returned result doesn't get the
+ * changed matrix back. Operands whose type doesn't track its changes (counter -1) are never cached.
+ * <p>
+ * The cache holds at most maxBytes of results (estimated from their storage) and evicts the least recently
+ * used ones first; a result larger than the whole budget is returned without being stored. The operands are
+ * only weakly referenced, so caching a product doesn't keep its operands alive.
+ * The methods are thread-safe; the products are computed outside the lock.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public final class ResultCache {
+
+    /** The estimated fixed size of a stored result and its key. */
+    private static final long ENTRY_OVERHEAD = 96;
+
+    /** The memory budget in bytes. */
+    private final long maxBytes;
+
+    /** The entries in access order, the least recently used one first. */
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** The queue of operands that were garbage collected. */
+    private final ReferenceQueue<MatrixInterface> collected = new ReferenceQueue<>();
+
+    /** The estimated size of the stored results. */
+    private long usedBytes;
+
+    /** The number of calls answered from the cache. */
+    private long hits;
+
+    /** The number of calls that computed their result. */
+    private long misses;
+
+    /** The number of entries removed to stay within the budget. */
+    private long evictions;
+
+    /**
+     * Constructs an empty cache.
+     *
+     * @param maxBytes The memory budget for the stored results in bytes.
+     */
+    public ResultCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("The memory budget of the cache must be positive.");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Adds two matrices through MatrixOps, reusing the result of an earlier call on the same unchanged operands.
+     *
+     * @param left The left operand.
+     * @param right The right operand.
+     * @return the sum. It is shared with later calls, so it should not be changed.
+     */
+    public MatrixInterface plus(MatrixInterface left, MatrixInterface right) {
+        return apply(MatrixOperation.PLUS, left, right);
+    }
+
+    /**
+     * Multiplies two matrices through MatrixOps, reusing the result of an earlier call on the same unchanged
+     * operands.
+     *
+     * @param left The left operand.
+     * @param right The right operand.
+     * @return the product. It is shared with later calls, so it should not be changed.
+     */
+    public MatrixInterface times(MatrixInterface left, MatrixInterface right) {
+        return apply(MatrixOperation.TIMES, left, right);
+    }
+
+    /**
+     * Looks the result up and computes and stores it on a miss.
+     *
+     * @param operation The operation.
+     * @param left The left operand.
+     * @param right The right operand.
+     * @return the result.
+     */
+    private MatrixInterface apply(MatrixOperation operation, MatrixInterface left, MatrixInterface right) {
+        if (left == null || right == null) {
+            throw new IllegalArgumentException("Cannot apply " + operation + ", an operand is null.");
+        }
+        long leftCount = left.getModificationCount();
+        long rightCount = right.getModificationCount();
+        boolean cacheable = leftCount >= 0 && rightCount >= 0;
+        Key key = cacheable ? new Key(operation, left, right, this.collected) : null;
+        synchronized (this) {
+            expungeCollected();
+            if (cacheable) {
+                Entry entry = this.entries.get(key);
+                if (entry != null) {
+                    if (entry.leftCount == leftCount && entry.rightCount == rightCount
+                            && entry.result.getModificationCount() == entry.resultCount) {
+                        this.hits++;
+                        return entry.result;
+                    }
+                    remove(key);
+                }
+            }
+            this.misses++;
+        }
+
+        MatrixInterface result = operation == MatrixOperation.PLUS
+                ? MatrixOps.plus(left, right) : MatrixOps.times(left, right);
+        long resultCount = result.getModificationCount();
+        long bytes = estimateBytes(result);
+        if (!cacheable || resultCount < 0 || bytes > this.maxBytes) {
+            return result;
+        }
+        synchronized (this) {
+            Entry previous = this.entries.put(key, new Entry(result, leftCount, rightCount, resultCount, bytes));
+            if (previous != null) {
+                this.usedBytes -= previous.bytes;
+            }
+            this.usedBytes += bytes;
+            evict();
+        }
+        return result;
+    }
+
+    /**
+     * Removes the least recently used entries until the stored results fit the budget.
+     */
+    private void evict() {
+        Iterator<Map.Entry<Key, Entry>> iterator = this.entries.entrySet().iterator();
+        while (this.usedBytes > this.maxBytes && iterator.hasNext()) {
+            this.usedBytes -= iterator.next().getValue().bytes;
+            iterator.remove();
+            this.evictions++;
+        }
+    }
+
+    /**
+     * Removes the entries whose operands were garbage collected (they can't be looked up anymore).
+     */
+    private void expungeCollected() {
+        Object reference;
+        while ((reference = this.collected.poll()) != null) {
+            Key key = ((Operand) reference).key;
+            if (key != null) {
+                remove(key);
+            }
+        }
+    }
+
+    /**
+     * Removes an entry.
+     *
+     * @param key The key of the entry.
+     */
+    private void remove(Key key) {
+        Entry entry = this.entries.remove(key);
+        if (entry != null) {
+            this.usedBytes -= entry.bytes;
+        }
+    }
+
+    /**
+     * Estimates the memory held by a result from its representation.
+     *
+     * @param matrix The result.
+     * @return the estimated size in bytes.
+     */
+    static long estimateBytes(MatrixInterface matrix) {
+        long storage;
+        if (matrix instanceof DenseMatrix) {
+            storage = 4L * matrix.getRows() * matrix.getColumns();
+        } else if (matrix instanceof Matrix) {
+            storage = 12L * ((Matrix) matrix).entries.capacity();
+        } else if (matrix instanceof CsrMatrix) {
+            storage = 8L * ((CsrMatrix) matrix).getNonZeroCount() + 4L * (matrix.getRows() + 1);
+        } else if (matrix instanceof CscMatrix) {
+            storage = 8L * ((CscMatrix) matrix).getNonZeroCount() + 4L * (matrix.getColumns() + 1);
+        } else if (matrix instanceof GeneralBandMatrix) {
+            GeneralBandMatrix band = (GeneralBandMatrix) matrix;
+            storage = 4L * band.getRows() * (band.getLowerBandwidth() + band.getUpperBandwidth() + 1);
+        } else if (matrix instanceof BandMatrix) {
+            storage = 4L * ((BandMatrix) matrix).getBandCount();
+        } else {
+            storage = 12L * matrix.nonZeros().count();
+        }
+        return storage + ENTRY_OVERHEAD;
+    }
+
+    /**
+     * Removes all the stored results (the counters are kept).
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+        this.usedBytes = 0;
+    }
+
+    /**
+     * @return the number of stored results.
+     */
+    public synchronized int size() {
+        expungeCollected();
+        return this.entries.size();
+    }
+
+    /**
+     * @return the estimated size of the stored results in bytes.
+     */
+    public synchronized long getUsedBytes() {
+        return this.usedBytes;
+    }
+
+    /**
+     * @return maxBytes.
+     */
+    public long getMaxBytes() {
+        return this.maxBytes;
+    }
+
+    /**
+     * @return the number of calls answered from the cache.
+     */
+    public synchronized long getHitCount() {
+        return this.hits;
+    }
+
+    /**
+     * @return the number of calls that computed their result (including the ones that can't be cached).
+     */
+    public synchronized long getMissCount() {
+        return this.misses;
+    }
+
+    /**
+     * @return the number of results removed to stay within the budget.
+     */
+    public synchronized long getEvictionCount() {
+        return this.evictions;
+    }
+
+    /**
+     * @return the share of the calls answered from the cache (0 before the first call).
+     */
+    public synchronized double getHitRate() {
+        long calls = this.hits + this.misses;
+        return calls == 0 ? 0 : (double) this.hits / calls;
+    }
+
+    /**
+     * A weak reference to an operand that knows the key it belongs to.
+     */
+    private static final class Operand extends WeakReference<MatrixInterface> {
+
+        /** The key holding this reference. */
+        private Key key;
+
+        /**
+         * @param operand The operand.
+         * @param queue The queue notified when the operand is collected.
+         */
+        private Operand(MatrixInterface operand, ReferenceQueue<MatrixInterface> queue) {
+            super(operand, queue);
+        }
+    }
+
+    /**
+     * The operation and the identity of both operands. Two keys are equal while both refer to the same
+     * (still reachable) operand objects.
+     */
+    private static final class Key {
+
+        /** The operation. */
+        private final MatrixOperation operation;
+
+        /** The left operand. */
+        private final Operand left;
+
+        /** The right operand. */
+        private final Operand right;
+
+        /** The hash code, from the identity of the operands. */
+        private final int hash;
+
+        /**
+         * @param operation The operation.
+         * @param left The left operand.
+         * @param right The right operand.
+         * @param queue The queue notified when an operand is collected.
+         */
+        private Key(MatrixOperation operation, MatrixInterface left, MatrixInterface right,
+                    ReferenceQueue<MatrixInterface> queue) {
+            this.operation = operation;
+            this.left = new Operand(left, queue);
+            this.right = new Operand(right, queue);
+            this.left.key = this;
+            this.right.key = this;
+            this.hash = (operation.hashCode() * 31 + System.identityHashCode(left)) * 31
+                    + System.identityHashCode(right);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            MatrixInterface left = this.left.get();
+            MatrixInterface right = this.right.get();
+            return this.operation == key.operation && left != null && right != null
+                    && left == key.left.get() && right == key.right.get();
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    /**
+     * A stored result with the counters it was computed at.
+     */
+    private static final class Entry {
+
+        /** The result. */
+        private final MatrixInterface result;
+
+        /** The modification count of the left operand. */
+        private final long leftCount;
+
+        /** The modification count of the right operand. */
+        private final long rightCount;
+
+        /** The modification count of the result when it was stored. */
+        private final long resultCount;
+
+        /** The estimated size of the result. */
+        private final long bytes;
+
+        /**
+         * @param result The result.
+         * @param leftCount The modification count of the left operand.
+         * @param rightCount The modification count of the right operand.
+         * @param resultCount The modification count of the result.
+         * @param bytes The estimated size of the result.
+         */
+        private Entry(MatrixInterface result, long leftCount, long rightCount, long resultCount, long bytes) {
+            this.result = result;
+            this.leftCount = leftCount;
+            this.rightCount = rightCount;
+            this.resultCount = resultCount;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package assignmenttwo;
+
+/**
+ * This is a tester class for the ResultCache.
+ * It checks that unchanged operands are answered from the cache, that every kind of change makes an entry
+ * stale, and that the budget is kept by evicting the least recently used results.
+ *
+ * @author Nikola Desnica
+ * @version 1.0
+ */
+public class ResultCacheTester {
+
+    /**
+     * Runs all the test methods for ResultCache.
+     */
+    public void runTests() {
+        testHits();
+        testModifications();
+        testEviction();
+        testUntracked();
+        System.out.println("All ResultCache tests passed!");
+    }
+
+    /**
+     * Creates a sparse Matrix with a few entries depending on the seed.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param seed The seed.
+     * @return the matrix.
+     */
+    private static Matrix sparse(int rows, int columns, int seed) {
+        Matrix matrix = new Matrix(rows, columns);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                if ((i * 3 + j * 5 + seed) % 4 == 0) {
+                    matrix.set(i, j, (i + j + seed) % 7 - 3);
+                }
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Tests that repeated calls on the same unchanged operands return the stored result.
+     */
+    private void testHits() {
+        ResultCache cache = new ResultCache(1 << 20);
+        Matrix a = sparse(12, 9, 1);
+        Matrix b = sparse(9, 7, 2);
+        MatrixInterface product = cache.times(a, b);
+        TestMatrices.assertSameValues(a.times(b), product, "times failed");
+        assert cache.times(a, b) == product && cache.times(a, b) == product : "An unchanged product should be reused";
+        assert cache.getHitCount() == 2 && cache.getMissCount() == 1 && cache.size() == 1;
+
+        Matrix c = sparse(12, 9, 3);
+        MatrixInterface sum = cache.plus(a, c);
+        TestMatrices.assertSameValues(a.plus(c), sum, "plus failed");
+        assert cache.plus(a, c) == sum && cache.plus(c, a) != sum : "The order of the operands is part of the key";
+        assert cache.size() == 3 && cache.getHitRate() > 0.4 && cache.getUsedBytes() > 0;
+
+        DenseMatrix dense = new DenseMatrix(9, 7);
+        dense.set(2, 3, 4);
+        assert cache.times(a, dense) == cache.times(a, dense) : "Dense operands should be cached too";
+        assert cache.times(a, sparse(9, 7, 2)) != product : "Equal values are not the same operand";
+
+        cache.clear();
+        assert cache.size() == 0 && cache.getUsedBytes() == 0 && cache.getHitCount() == 4;
+        assert cache.times(a, b) != product : "A cleared cache should compute again";
+    }
+
+    /**
+     * Tests that changing an operand or a returned result makes the entry stale.
+     */
+    private void testModifications() {
+        ResultCache cache = new ResultCache(1 << 20);
+        Matrix a = sparse(10, 8, 4);
+        Matrix b = sparse(8, 6, 5);
+        MatrixInterface product = cache.times(a, b);
+        a.set(0, 0, a.get(0, 0) + 11);
+        MatrixInterface changed = cache.times(a, b);
+        assert changed != product : "set on an operand should make the product stale";
+        TestMatrices.assertSameValues(a.times(b), changed, "The recomputed product is wrong");
+        assert cache.size() == 1 : "The stale entry should be replaced";
+
+        b.scaleInPlace(3);
+        TestMatrices.assertSameValues(a.times(b), cache.times(a, b), "scaleInPlace should make the product stale");
+        MatrixInterface sum = cache.plus(a, a);
+        a.addInPlace(sparse(10, 8, 6));
+        TestMatrices.assertSameValues(a.plus(a), cache.plus(a, a), "addInPlace should make the sum stale");
+
+        MatrixInterface result = cache.times(a, b);
+        result.set(1, 1, result.get(1, 1) + 1);
+        MatrixInterface fresh = cache.times(a, b);
+        assert fresh != result && sum != null : "A changed result should not be returned";
+        TestMatrices.assertSameValues(a.times(b), fresh, "The product after changing the result is wrong");
+
+        BandMatrix band = new BandMatrix(8, 1);
+        band.set(0, 0, 2);
+        band.set(0, 1, 1);
+        Matrix left = sparse(8, 8, 7);
+        MatrixInterface bandProduct = cache.times(left, band);
+        band.set(0, 0, 5);
+        TestMatrices.assertSameValues(left.times(band), cache.times(left, band), "set on a BandMatrix should be seen");
+        assert cache.times(left, band) != bandProduct;
+
+        VersionedMatrix versioned = new VersionedMatrix(8, 8);
+        versioned.set(3, 4, 2);
+        MatrixInterface versionedProduct = cache.times(versioned, left);
+        PersistentMatrix snapshot = versioned.snapshot();
+        assert cache.times(versioned, left) == versionedProduct && cache.times(snapshot, left) != null;
+        versioned.set(3, 4, 2);
+        assert cache.times(versioned, left) == versionedProduct : "Setting the same value changes nothing";
+        versioned.set(3, 5, 1);
+        TestMatrices.assertSameValues(versioned.times(left), cache.times(versioned, left),
+                "A new version should be seen");
+        assert cache.times(snapshot, left) == cache.times(snapshot, left) : "A snapshot never changes";
+    }
+
+    /**
+     * Tests that the budget is kept by evicting the least recently used results.
+     */
+    private void testEviction() {
+        DenseMatrix a = new DenseMatrix(20, 20);
+        DenseMatrix b = new DenseMatrix(20, 20);
+        DenseMatrix c = new DenseMatrix(20, 20);
+        for (int i = 0; i < 20; i++) {
+            a.set(i, i, 1);
+            b.set(i, (i + 1) % 20, 2);
+            c.set((i + 3) % 20, i, 3);
+        }
+        long entry = ResultCache.estimateBytes(new DenseMatrix(20, 20));
+        ResultCache cache = new ResultCache(2 * entry);
+        MatrixInterface ab = cache.times(a, b);
+        MatrixInterface bc = cache.times(b, c);
+        assert cache.size() == 2 && cache.getUsedBytes() == 2 * entry && cache.getEvictionCount() == 0;
+        assert cache.times(a, b) == ab : "The product should be stored";
+        MatrixInterface ca = cache.times(c, a);
+        assert cache.size() == 2 && cache.getEvictionCount() == 1 : "Going over the budget should evict";
+        assert cache.getUsedBytes() <= cache.getMaxBytes();
+        assert cache.times(a, b) == ab && cache.times(c, a) == ca : "The recently used products should stay";
+        assert cache.times(b, c) != bc : "The least recently used product should be evicted";
+        TestMatrices.assertSameValues(b.times(c), cache.times(b, c), "The recomputed product is wrong");
+
+        ResultCache small = new ResultCache(entry / 2);
+        MatrixInterface large = small.times(a, b);
+        assert small.size() == 0 && small.getUsedBytes() == 0 && small.times(a, b) != large
+                : "A result larger than the budget should not be stored";
+        assert small.getEvictionCount() == 0 && small.getMissCount() == 2;
+
+        boolean thrown = false;
+        try {
+            new ResultCache(0);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "A budget of 0 should throw";
+    }
+
+    /**
+     * Tests that matrices that don't count their changes are never cached, and that null operands throw.
+     */
+    private void testUntracked() {
+        ResultCache cache = new ResultCache(1 << 20);
+        Matrix a = sparse(6, 6, 8);
+        ConcurrentSparseMatrix untracked = new ConcurrentSparseMatrix(6, 6);
+        untracked.addInPlace(a);
+        assert untracked.getModificationCount() == -1;
+        MatrixInterface first = cache.plus(a, untracked);
+        assert cache.plus(a, untracked) != first && cache.size() == 0 : "Untracked operands should not be cached";
+        TestMatrices.assertSameValues(a.plus(untracked), first, "The sum with an untracked operand is wrong");
+        assert cache.getMissCount() == 2 && cache.getHitCount() == 0;
+        assert CsrMatrix.from(a).getModificationCount() == 0 : "An immutable matrix never changes";
+
+        boolean thrown = false;
+        try {
+            cache.times(a, null);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "A null operand should throw";
+        thrown = false;
+        try {
+            cache.times(a, new Matrix(5, 6));
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Mismatched dimensions should throw";
+    }
+}
@@ -0,0 +1,99 @@
+package assignmenttwo;
+
+/**
+ * Plain-loop implementation of IntKernels, used when the Vector API is not available.
+ * The loops are simple enough for the JIT to unroll (and often auto-vectorize) them.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public class ScalarKernels implements IntKernels {
+
+    /**
+     * @return "scalar".
+     */
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    /**
+     * Computes y += alpha * x with a plain loop.
+     *
+     * @param alpha The scalar factor.
+     * @param x The source array.
+     * @param xOff The offset in x.
+     * @param y The accumulator array.
+     * @param yOff The offset in y.
+     * @param length The number of elements.
+     */
+    @Override
+    public void axpy(int alpha, int[] x, int xOff, int[] y, int yOff, int length) {
+        for (int i = 0; i < length; i++) {
+            y[yOff + i] += alpha * x[xOff + i];
+        }
+    }
+
+    /**
+     * Computes four axpy updates sharing the same x in one loop.
+     *
+     * @param alpha0 The factor for the first row.
+     * @param alpha1 The factor for the second row.
+     * @param alpha2 The factor for the third row.
+     * @param alpha3 The factor for the fourth row.
+     * @param x The source array.
+     * @param xOff The offset in x.
+     * @param y The accumulator array.
+     * @param yOff0 The offset of the first row in y.
+     * @param yOff1 The offset of the second row in y.
+     * @param yOff2 The offset of the third row in y.
+     * @param yOff3 The offset of the fourth row in y.
+     * @param length The number of elements.
+     */
+    @Override
+    public void axpy4(int alpha0, int alpha1, int alpha2, int alpha3, int[] x, int xOff,
+                      int[] y, int yOff0, int yOff1, int yOff2, int yOff3, int length) {
+        for (int i = 0; i < length; i++) {
+            int value = x[xOff + i];
+            y[yOff0 + i] += alpha0 * value;
+            y[yOff1 + i] += alpha1 * value;
+            y[yOff2 + i] += alpha2 * value;
+            y[yOff3 + i] += alpha3 * value;
+        }
+    }
+
+    /**
+     * Computes y += x with a plain loop.
+     *
+     * @param x The source array.
+     * @param xOff The offset in x.
+     * @param y The accumulator array.
+     * @param yOff The offset in y.
+     * @param length The number of elements.
+     */
+    @Override
+    public void add(int[] x, int xOff, int[] y, int yOff, int length) {
+        for (int i = 0; i < length; i++) {
+            y[yOff + i] += x[xOff + i];
+        }
+    }
+
+    /**
+     * Computes the dot product of x and y with a plain loop.
+     *
+     * @param x The first array.
+     * @param xOff The offset in x.
+     * @param y The second array.
+     * @param yOff The offset in y.
+     * @param length The number of elements.
+     * @return the dot product.
+     */
+    @Override
+    public int dot(int[] x, int xOff, int[] y, int yOff, int length) {
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += x[xOff + i] * y[yOff + i];
+        }
+        return sum;
+    }
+}
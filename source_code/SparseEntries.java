@@ -0,0 +1,200 @@
+package assignmenttwo;
+
+import java.util.Arrays;
+
+/**
+ * Primitive open-addressing store for the non-zero entries of a sparse matrix.
+ * Each (row, column) position is packed into a single long key and the values are kept
+ * in a parallel int array, so get and put/remove never allocate (no Pair keys, no boxing).
+ * The keys, probing and backward-shift deletion live in SparseKeyTable; this class only stores the values.
+ * <p>
+ * Every slot takes 12 bytes (8 byte key + 4 byte value). The table doubles once it is 3/4 full, so it is
+ * between 3/8 and 3/4 full and a non-zero costs 16 to 32 bytes (12 / load factor).
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public class SparseEntries extends SparseKeyTable {
+
+    /** Values stored in parallel to the keys. */
+    private int[] values;
+
+    /**
+     * Constructs an empty store with the minimum capacity.
+     */
+    public SparseEntries() {
+        this(0);
+    }
+
+    /**
+     * Constructs an empty store that can hold the expected number of entries without resizing.
+     *
+     * @param expectedSize The expected number of non-zero entries.
+     */
+    public SparseEntries(int expectedSize) {
+        super(expectedSize);
+        this.values = new int[capacity()];
+    }
+
+    /**
+     * Fetches the value stored at the given position.
+     *
+     * @param row The row index.
+     * @param column The column index.
+     * @return The stored value, or 0 if there is no entry.
+     */
+    public int get(int row, int column) {
+        return this.values[probe(pack(row, column))];
+    }
+
+    /**
+     * Stores a value at the given position, replacing any previous value.
+     * Callers are expected to remove entries instead of storing zeros.
+     *
+     * @param row The row index.
+     * @param column The column index.
+     * @param value The value to store.
+     */
+    public void put(int row, int column, int value) {
+        long key = pack(row, column);
+        int slot = probe(key);
+        this.values[slot] = value;
+        if (!isOccupied(slot)) {
+            occupy(slot, key);
+        }
+    }
+
+    /**
+     * Adds a delta to the value at the given position, removing the entry if the result is 0.
+     *
+     * @param row The row index.
+     * @param column The column index.
+     * @param delta The amount to add.
+     */
+    public void add(int row, int column, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        long key = pack(row, column);
+        int slot = probe(key);
+        if (!isOccupied(slot)) {
+            this.values[slot] = delta;
+            occupy(slot, key);
+        } else if (this.values[slot] + delta == 0) {
+            removeSlot(slot);
+        } else {
+            this.values[slot] += delta;
+        }
+    }
+
+    /**
+     * Removes the entry at the given position (if there is one).
+     *
+     * @param row The row index.
+     * @param column The column index.
+     */
+    public void remove(int row, int column) {
+        int slot = probe(pack(row, column));
+        if (isOccupied(slot)) {
+            removeSlot(slot);
+        }
+    }
+
+    /**
+     * Multiplies every value by a factor in place. Products that wrap around to 0 are removed in a second pass.
+     *
+     * @param factor The factor (0 clears the store).
+     */
+    public void scale(int factor) {
+        if (factor == 0) {
+            clear();
+            return;
+        }
+        boolean zeros = false;
+        for (int slot = 0; slot < this.values.length; slot++) {
+            if (isOccupied(slot)) {
+                this.values[slot] *= factor;
+                zeros |= this.values[slot] == 0;
+            }
+        }
+        if (zeros) {
+            removeZeros();
+        }
+    }
+
+    /**
+     * @param slot An occupied slot index.
+     * @return the value of the entry in that slot.
+     */
+    public int valueAt(int slot) {
+        return this.values[slot];
+    }
+
+    /**
+     * Two stores are equal if they hold exactly the same entries (table layout is irrelevant).
+     *
+     * @param o the object to be compared for equality with this store.
+     * @return true if both stores hold the same entries.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SparseEntries)) {
+            return false;
+        }
+        SparseEntries other = (SparseEntries) o;
+        if (size() != other.size()) {
+            return false;
+        }
+        for (int slot = 0; slot < this.values.length; slot++) {
+            if (isOccupied(slot) && other.get(rowAt(slot), columnAt(slot)) != this.values[slot]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Order independent hash code over all entries.
+     *
+     * @return a hash code value for this store.
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int slot = 0; slot < this.values.length; slot++) {
+            if (isOccupied(slot)) {
+                hash += Long.hashCode(keyAt(slot)) ^ this.values[slot];
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    void moveValue(int from, int to) {
+        this.values[to] = from < 0 ? 0 : this.values[from];
+    }
+
+    @Override
+    void clearValues() {
+        Arrays.fill(this.values, 0);
+    }
+
+    @Override
+    boolean isZeroAt(int slot) {
+        return this.values[slot] == 0;
+    }
+
+    @Override
+    void resizeValues(int[] targets, int capacity) {
+        int[] oldValues = this.values;
+        this.values = new int[capacity];
+        for (int slot = 0; slot < targets.length; slot++) {
+            if (targets[slot] >= 0) {
+                this.values[targets[slot]] = oldValues[slot];
+            }
+        }
+    }
+}
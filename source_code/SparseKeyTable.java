@@ -0,0 +1,299 @@
+package assignmenttwo;
+
+import java.util.Arrays;
+
+/**
+ * The key half of the primitive open-addressing stores SparseEntries (int values) and LongSparseEntries
+ * (long values). Each (row, column) position is packed into a single long key; collisions are resolved with
+ * linear probing and removals use backward-shift deletion, which keeps probe sequences short without
+ * tombstones. Subclasses keep the values in a parallel array and only supply the hooks that move them.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+abstract class SparseKeyTable {
+
+    /** Marks an unused slot. Indices are never negative, so this key can never be produced by pack(). */
+    private static final long EMPTY = -1L;
+
+    /** Multiplier for Fibonacci hashing of the packed keys. */
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    /** Smallest table size (must be a power of two). */
+    private static final int MIN_CAPACITY = 8;
+
+    /** The table grows once it is more than 3/4 full. */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /** Packed (row, column) keys, EMPTY for unused slots. */
+    private long[] keys;
+
+    /** The number of stored entries. */
+    private int size;
+
+    /** keys.length - 1, used to wrap probe indices. */
+    private int mask;
+
+    /** 64 - log2(keys.length), used by the hash function. */
+    private int shift;
+
+    /** The size at which the table is resized. */
+    private int threshold;
+
+    /**
+     * Constructs an empty table that can hold the expected number of entries without resizing.
+     * The subclass allocates its values for capacity() slots.
+     *
+     * @param expectedSize The expected number of non-zero entries.
+     */
+    SparseKeyTable(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("The expected number of entries can not be negative.");
+        }
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * Packs a row and column index into a single key.
+     *
+     * @param row The row index.
+     * @param column The column index.
+     * @return The packed key.
+     */
+    public static long pack(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @return the number of stored (non-zero) entries.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return true if no entries are stored.
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Removes all entries but keeps the current table, so refilling does not allocate.
+     */
+    public void clear() {
+        if (this.size == 0) {
+            return;
+        }
+        Arrays.fill(this.keys, EMPTY);
+        clearValues();
+        this.size = 0;
+    }
+
+    /**
+     * Returns the number of slots in the table. Together with isOccupied, rowAt, columnAt and valueAt
+     * this lets kernels walk the stored entries without allocating an iterator.
+     *
+     * @return the number of slots.
+     */
+    public int capacity() {
+        return this.keys.length;
+    }
+
+    /**
+     * @param slot The slot index.
+     * @return true if the slot holds an entry.
+     */
+    public boolean isOccupied(int slot) {
+        return this.keys[slot] != EMPTY;
+    }
+
+    /**
+     * @param slot An occupied slot index.
+     * @return the row index of the entry in that slot.
+     */
+    public int rowAt(int slot) {
+        return (int) (this.keys[slot] >>> 32);
+    }
+
+    /**
+     * @param slot An occupied slot index.
+     * @return the column index of the entry in that slot.
+     */
+    public int columnAt(int slot) {
+        return (int) this.keys[slot];
+    }
+
+    /**
+     * @param slot An occupied slot index.
+     * @return the packed key of the entry in that slot.
+     */
+    final long keyAt(int slot) {
+        return this.keys[slot];
+    }
+
+    /**
+     * Walks the probe sequence of a key.
+     *
+     * @param key The packed key.
+     * @return the slot holding the key, or the empty slot that ends its probe sequence.
+     */
+    final int probe(long key) {
+        int slot = hash(key);
+        long current;
+        while ((current = this.keys[slot]) != EMPTY && current != key) {
+            slot = (slot + 1) & this.mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Stores a new key in the empty slot returned by probe. The caller stores the value in that slot first,
+     * because the table may be resized here.
+     *
+     * @param slot The empty slot.
+     * @param key The packed key.
+     */
+    final void occupy(int slot, long key) {
+        this.keys[slot] = key;
+        if (++this.size > this.threshold) {
+            resize(this.keys.length << 1);
+        }
+    }
+
+    /**
+     * Removes the entries whose value became 0 (e.g. products that wrapped around in a scale). A backward
+     * shift can move a later entry into the current slot, so that slot is checked again.
+     */
+    final void removeZeros() {
+        int slot = 0;
+        while (slot < this.keys.length) {
+            if (this.keys[slot] != EMPTY && isZeroAt(slot)) {
+                removeSlot(slot);
+            } else {
+                slot++;
+            }
+        }
+    }
+
+    /**
+     * Empties a slot and shifts the following entries of the probe sequence back,
+     * so lookups never have to skip over deleted slots.
+     *
+     * @param slot The slot to empty.
+     */
+    final void removeSlot(int slot) {
+        int gap = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & this.mask;
+            long key = this.keys[next];
+            if (key == EMPTY) {
+                break;
+            }
+            int home = hash(key);
+            // The entry may move into the gap only if the gap lies on its probe path.
+            if (((next - home) & this.mask) >= ((next - gap) & this.mask)) {
+                this.keys[gap] = key;
+                moveValue(next, gap);
+                gap = next;
+            }
+        }
+        this.keys[gap] = EMPTY;
+        moveValue(-1, gap);
+        this.size--;
+    }
+
+    /**
+     * Moves a value to another slot (from is -1 to reset the slot to 0).
+     *
+     * @param from The slot holding the value, or -1.
+     * @param to The slot receiving it.
+     */
+    abstract void moveValue(int from, int to);
+
+    /**
+     * Resets every value to 0.
+     */
+    abstract void clearValues();
+
+    /**
+     * @param slot An occupied slot index.
+     * @return true if the value in that slot is 0.
+     */
+    abstract boolean isZeroAt(int slot);
+
+    /**
+     * Replaces the values with an array of the new capacity, moving every value to its new slot.
+     *
+     * @param targets The new slot of every old slot (-1 for the empty ones).
+     * @param capacity The new table size.
+     */
+    abstract void resizeValues(int[] targets, int capacity);
+
+    /**
+     * Computes the home slot of a key.
+     *
+     * @param key The packed key.
+     * @return the home slot.
+     */
+    private int hash(long key) {
+        return (int) ((key * GOLDEN) >>> this.shift);
+    }
+
+    /**
+     * Rehashes all keys into a table of the given size and lets the subclass move the values along.
+     *
+     * @param newCapacity The new table size (a power of two).
+     */
+    private void resize(int newCapacity) {
+        long[] oldKeys = this.keys;
+        int[] targets = new int[oldKeys.length];
+        allocate(newCapacity);
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            long key = oldKeys[slot];
+            if (key == EMPTY) {
+                targets[slot] = -1;
+                continue;
+            }
+            int target = hash(key);
+            while (this.keys[target] != EMPTY) {
+                target = (target + 1) & this.mask;
+            }
+            this.keys[target] = key;
+            targets[slot] = target;
+        }
+        resizeValues(targets, newCapacity);
+    }
+
+    /**
+     * Allocates an empty key array of the given size and updates the derived fields (size is left untouched).
+     *
+     * @param capacity The table size (a power of two).
+     */
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        Arrays.fill(this.keys, EMPTY);
+        this.mask = capacity - 1;
+        this.shift = 64 - Integer.numberOfTrailingZeros(capacity);
+        this.threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * Finds the smallest power of two table that holds the expected number of entries.
+     *
+     * @param expectedSize The expected number of entries.
+     * @return the table size.
+     */
+    private static int tableSizeFor(int expectedSize) {
+        long needed = (long) Math.ceil(expectedSize / (double) LOAD_FACTOR) + 1;
+        int capacity = MIN_CAPACITY;
+        while (capacity < needed) {
+            if (capacity >= 1 << 30) {
+                throw new IllegalArgumentException("Too many entries for a single sparse matrix.");
+            }
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
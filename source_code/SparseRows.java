@@ -0,0 +1,203 @@
+package assignmenttwo;
+
+import java.util.Arrays;
+
+/**
+ * A row-grouped snapshot of the non-zero entries of a sparse Matrix.
+ * The hash based storage has no row order, so kernels that need to walk one row at a time
+ * (e.g. the sparse multiplication) first bucket the entries by row with a counting sort in O(nnz + rows).
+ * The entries of row i are found at positions rowPtr[i] (inclusive) to rowPtr[i + 1] (exclusive).
+ * Columns inside a row are in no particular order, unless the rows were built with sorted().
+ * Also hosts the row-by-row sparse multiplication kernel shared by Matrix and CsrMatrix.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public class SparseRows {
+
+    /** Start offsets of each row, with one extra element holding the total number of entries. */
+    final int[] rowPtr;
+
+    /** Column index of every entry. */
+    final int[] columns;
+
+    /** Value of every entry. */
+    final int[] values;
+
+    /**
+     * Wraps already grouped arrays.
+     *
+     * @param rowPtr The row start offsets (length rows + 1).
+     * @param columns The column indices.
+     * @param values The values.
+     */
+    SparseRows(int[] rowPtr, int[] columns, int[] values) {
+        this.rowPtr = rowPtr;
+        this.columns = columns;
+        this.values = values;
+    }
+
+    /**
+     * Groups the entries of a sparse store by row.
+     *
+     * @param entries The sparse store.
+     * @param rows The number of rows of the matrix that owns the store.
+     * @return the grouped entries.
+     */
+    static SparseRows of(SparseEntries entries, int rows) {
+        int[] rowPtr = new int[rows + 1];
+        int capacity = entries.capacity();
+        for (int slot = 0; slot < capacity; slot++) {
+            if (entries.isOccupied(slot)) {
+                rowPtr[entries.rowAt(slot) + 1]++;
+            }
+        }
+        for (int i = 0; i < rows; i++) {
+            rowPtr[i + 1] += rowPtr[i];
+        }
+
+        int[] next = new int[rows];
+        System.arraycopy(rowPtr, 0, next, 0, rows);
+        int[] columns = new int[entries.size()];
+        int[] values = new int[entries.size()];
+        for (int slot = 0; slot < capacity; slot++) {
+            if (entries.isOccupied(slot)) {
+                int position = next[entries.rowAt(slot)]++;
+                columns[position] = entries.columnAt(slot);
+                values[position] = entries.valueAt(slot);
+            }
+        }
+        return new SparseRows(rowPtr, columns, values);
+    }
+
+    /**
+     * Groups the stored entries of any matrix by row, from two passes of forEachNonZero in O(nnz + rows).
+     * With byColumn set, the entries are grouped by column instead and hold their row indices.
+     *
+     * @param matrix The matrix.
+     * @param byColumn Whether to group by column instead of by row.
+     * @return the grouped entries.
+     */
+    static SparseRows of(MatrixInterface matrix, boolean byColumn) {
+        int groups = byColumn ? matrix.getColumns() : matrix.getRows();
+        int[] rowPtr = new int[groups + 1];
+        matrix.forEachNonZero((i, j, value) -> rowPtr[(byColumn ? j : i) + 1]++);
+        for (int g = 0; g < groups; g++) {
+            rowPtr[g + 1] += rowPtr[g];
+        }
+
+        int[] next = Arrays.copyOf(rowPtr, groups);
+        int[] columns = new int[rowPtr[groups]];
+        int[] values = new int[rowPtr[groups]];
+        matrix.forEachNonZero((i, j, value) -> {
+            int position = next[byColumn ? j : i]++;
+            columns[position] = byColumn ? i : j;
+            values[position] = value;
+        });
+        return new SparseRows(rowPtr, columns, values);
+    }
+
+    /**
+     * Groups the entries of a sparse store by row with the columns of every row in ascending order,
+     * using two stable counting sorts (first by column, then by row) in O(nnz + rows + columns).
+     * With byColumn set, the roles are swapped and the result groups the entries by column
+     * with ascending row indices (i.e. the compressed column layout).
+     *
+     * @param entries The sparse store.
+     * @param rows The number of rows of the matrix that owns the store.
+     * @param columns The number of columns of the matrix that owns the store.
+     * @param byColumn Whether to group by column instead of by row.
+     * @return the grouped entries.
+     */
+    static SparseRows sorted(SparseEntries entries, int rows, int columns, boolean byColumn) {
+        int major = byColumn ? columns : rows;
+        int minor = byColumn ? rows : columns;
+        int capacity = entries.capacity();
+        int count = entries.size();
+
+        // First pass: bucket by the minor index.
+        int[] minorPtr = new int[minor + 1];
+        for (int slot = 0; slot < capacity; slot++) {
+            if (entries.isOccupied(slot)) {
+                minorPtr[(byColumn ? entries.rowAt(slot) : entries.columnAt(slot)) + 1]++;
+            }
+        }
+        for (int m = 0; m < minor; m++) {
+            minorPtr[m + 1] += minorPtr[m];
+        }
+        int[] next = Arrays.copyOf(minorPtr, minor);
+        int[] bucketMajor = new int[count];
+        int[] bucketValues = new int[count];
+        int[] majorPtr = new int[major + 1];
+        for (int slot = 0; slot < capacity; slot++) {
+            if (entries.isOccupied(slot)) {
+                int majorIndex = byColumn ? entries.columnAt(slot) : entries.rowAt(slot);
+                int position = next[byColumn ? entries.rowAt(slot) : entries.columnAt(slot)]++;
+                bucketMajor[position] = majorIndex;
+                bucketValues[position] = entries.valueAt(slot);
+                majorPtr[majorIndex + 1]++;
+            }
+        }
+        for (int m = 0; m < major; m++) {
+            majorPtr[m + 1] += majorPtr[m];
+        }
+
+        // Second pass: stable bucket by the major index, so minor indices come out ascending.
+        next = Arrays.copyOf(majorPtr, major);
+        int[] minorIndices = new int[count];
+        int[] values = new int[count];
+        for (int m = 0; m < minor; m++) {
+            for (int p = minorPtr[m]; p < minorPtr[m + 1]; p++) {
+                int position = next[bucketMajor[p]]++;
+                minorIndices[position] = m;
+                values[position] = bucketValues[p];
+            }
+        }
+        return new SparseRows(majorPtr, minorIndices, values);
+    }
+
+    /**
+     * Row-by-row sparse multiplication (Gustavson's algorithm).
+     * For every row i of the left matrix, each stored entry (i, k) is multiplied with the stored entries
+     * of row k of the right matrix and summed into a sparse accumulator for row i.
+     * Only the stored non-zeros are visited, so the cost is proportional to the number of
+     * scalar multiplications instead of rows * columns * other.columns.
+     *
+     * @param left The row-grouped entries of the left matrix.
+     * @param leftRows The number of rows of the left matrix.
+     * @param right The row-grouped entries of the right matrix.
+     * @param resultColumns The number of columns of the right matrix.
+     * @param result The empty result matrix to be populated (zeros are omitted).
+     */
+    static void multiply(SparseRows left, int leftRows, SparseRows right, int resultColumns,
+                         MatrixInterface result) {
+        int[] accumulator = new int[resultColumns];
+        int[] lastRow = new int[resultColumns]; // the last row that touched each column
+        int[] touched = new int[resultColumns]; // the columns touched by the current row
+        Arrays.fill(lastRow, -1);
+
+        for (int i = 0; i < leftRows; i++) {
+            int count = 0;
+            for (int p = left.rowPtr[i]; p < left.rowPtr[i + 1]; p++) {
+                int k = left.columns[p];
+                int value = left.values[p];
+                for (int q = right.rowPtr[k]; q < right.rowPtr[k + 1]; q++) {
+                    int j = right.columns[q];
+                    if (lastRow[j] != i) {
+                        lastRow[j] = i;
+                        touched[count++] = j;
+                        accumulator[j] = value * right.values[q];
+                    } else {
+                        accumulator[j] += value * right.values[q];
+                    }
+                }
+            }
+            for (int t = 0; t < count; t++) {
+                int j = touched[t];
+                if (accumulator[j] != 0) {
+                    result.set(i, j, accumulator[j]);
+                }
+            }
+        }
+    }
+}
@@ -120,4 +120,93 @@ public class SquareMatrix extends Matrix implements MatrixInterface {
         return result;
     }
 
-}
\ No newline at end of file
+    /**
+     * Multiplies with another square matrix of the same size using Strassen-Winograd
+     * with the default cutoff. Meant for large, fairly dense products; the result is exactly
+     * the result of times().
+     *
+     * @param other The square matrix to multiply by.
+     * @return A new SquareMatrix that is the result of the multiplication.
+     */
+    public SquareMatrix timesStrassen(MatrixInterface other) {
+        return timesStrassen(other, new StrassenMultiplier());
+    }
+
+    /**
+     * Multiplies with another square matrix of the same size using Strassen-Winograd.
+     * Pass the same StrassenMultiplier to repeated calls to reuse its scratch buffers.
+     *
+     * @param other The square matrix to multiply by.
+     * @param multiplier The multiplier (holds the cutoff and the scratch buffers).
+     * @return A new SquareMatrix that is the result of the multiplication.
+     */
+    public SquareMatrix timesStrassen(MatrixInterface other, StrassenMultiplier multiplier) {
+        super.validateMultiplication(other);
+        if (other.getColumns() != this.size) {
+            throw new IllegalArgumentException("Strassen multiplication needs two square matrices of the same size.");
+        }
+        int[] product = multiplier.multiply(DenseMatrix.from(this).data, DenseMatrix.from(other).data, this.size);
+        SquareMatrix result = new SquareMatrix(this.size);
+        for (int index = 0; index < product.length; index++) {
+            if (product[index] != 0) {
+                result.set(index / this.size, index % this.size, product[index]);
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * Raises this matrix to a power by binary exponentiation: O(log k) dense products instead of k,
+     * on buffers that are reused for every product. Integer arithmetic wraps the same way as times().
+     *
+     * @param exponent The exponent (0 gives the identity).
+     * @return A new SquareMatrix holding this matrix to the power exponent.
+     */
+    public SquareMatrix pow(long exponent) {
+        MatrixPower.validateExponent(exponent);
+        return power(exponent, 0);
+    }
+
+    /**
+     * Raises this matrix to a power modulo a modulus by binary exponentiation. The intermediate values
+     * stay in [0, modulus), so large exponents can't overflow.
+     *
+     * @param exponent The exponent (0 gives the identity).
+     * @param modulus The modulus.
+     * @return A new SquareMatrix holding this matrix to the power exponent, with values in [0, modulus).
+     */
+    public SquareMatrix pow(long exponent, int modulus) {
+        MatrixPower.validateExponent(exponent);
+        MatrixPower.validateModulus(modulus);
+        return power(exponent, modulus);
+    }
+
+    /**
+     * @param exponent The exponent.
+     * @param modulus The modulus, or 0 for wrapping integer arithmetic.
+     * @return the power.
+     */
+    private SquareMatrix power(long exponent, int modulus) {
+        SquareMatrix result = new SquareMatrix(this.size);
+        if (exponent == 0) {
+            for (int i = 0; i < this.size; i++) {
+                result.set(i, i, modulus == 1 ? 0 : 1);
+            }
+            return result;
+        }
+        int[] base = DenseMatrix.from(this).data;
+        if (modulus != 0) {
+            for (int index = 0; index < base.length; index++) {
+                base[index] = Math.floorMod(base[index], modulus);
+            }
+        }
+        int[] power = MatrixPower.densePower(base, this.size, exponent, modulus);
+        for (int index = 0; index < power.length; index++) {
+            if (power[index] != 0) {
+                result.set(index / this.size, index % this.size, power[index]);
+            }
+        }
+        return result;
+    }
+}
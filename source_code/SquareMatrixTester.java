@@ -1,5 +1,7 @@
 package assignmenttwo;
 
+import java.util.Arrays;
+
 /**
  * This is a tester class for the SquareMatrix class.
  * We test all methods and a lot of edge cases.
@@ -23,6 +25,8 @@ public class SquareMatrixTester {
         testIdentityMatrix();
         testAddition();
         testMultiplication();
+        testStrassenMultiplication();
+        testPow();
         System.out.println("All SquareMatrix tests passed!");
     }
 
@@ -210,4 +214,108 @@ public class SquareMatrixTester {
                 && result2.get(3, 3) == 0
                 && result2.get(4, 4) == 0: "Failed on addition with all zero matrix";
     }
+
+    /**
+     * Tests the Strassen-Winograd multiplication against the classical multiplication,
+     * for sizes that need padding and with small cutoffs so several recursion levels run.
+     */
+    public static void testStrassenMultiplication() {
+        for (int size : new int[]{1, 5, 8, 13, 33}) {
+            SquareMatrix sqMatrix1 = new SquareMatrix(size);
+            SquareMatrix sqMatrix2 = new SquareMatrix(size);
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    sqMatrix1.set(i, j, (i * 7 + j * 3) % 13 - 6);
+                    sqMatrix2.set(i, j, (i * 5 + j * 11) % 17 - 8);
+                }
+            }
+            Matrix expected = sqMatrix1.times(sqMatrix2);
+            for (int cutoff : new int[]{1, 2, 3, StrassenMultiplier.DEFAULT_CUTOFF}) {
+                StrassenMultiplier multiplier = new StrassenMultiplier(cutoff);
+                assert sqMatrix1.timesStrassen(sqMatrix2, multiplier).equals(expected)
+                        : "Failed on testStrassenMultiplication";
+                assert sqMatrix2.timesStrassen(sqMatrix1, multiplier).equals(sqMatrix2.times(sqMatrix1))
+                        : "Failed on testStrassenMultiplication (reused workspace)";
+            }
+        }
+
+        SquareMatrix overflow = new SquareMatrix(new int[][]{{Integer.MAX_VALUE, 3}, {-7, Integer.MIN_VALUE}});
+        assert overflow.timesStrassen(overflow, new StrassenMultiplier(1)).equals(overflow.times(overflow))
+                : "Failed on testStrassenMultiplication (wrap-around)";
+    }
+
+    /**
+     * Multiplies two square arrays modulo a modulus, one reduction per product, as a reference for pow.
+     *
+     * @param a The left operand, values in [0, modulus).
+     * @param b The right operand, values in [0, modulus).
+     * @param modulus The modulus.
+     * @return the product modulo the modulus.
+     */
+    private static int[][] multiplyModulo(int[][] a, int[][] b, int modulus) {
+        int[][] product = new int[a.length][a.length];
+        for (int i = 0; i < a.length; i++) {
+            for (int j = 0; j < a.length; j++) {
+                long sum = 0;
+                for (int k = 0; k < a.length; k++) {
+                    sum = (sum + (long) a[i][k] * b[k][j]) % modulus;
+                }
+                product[i][j] = (int) sum;
+            }
+        }
+        return product;
+    }
+
+    /**
+     * Tests the binary exponentiation against repeated multiplication, with and without a modulus.
+     */
+    public static void testPow() {
+        SquareMatrix sqMatrix = new SquareMatrix(6);
+        for (int i = 0; i < 6; i++) {
+            for (int j = 0; j < 6; j++) {
+                if ((i + 2 * j) % 3 != 0) {
+                    sqMatrix.set(i, j, (i * 5 + j) % 7 - 3);
+                }
+            }
+        }
+        Matrix expected = SquareMatrix.identityMatrix(6);
+        for (int k = 0; k <= 13; k++) {
+            assert sqMatrix.pow(k).equals(expected) : "Failed on testPow (exponent " + k + ")";
+            expected = expected.times(sqMatrix);
+        }
+
+        int modulus = Integer.MAX_VALUE;
+        SquareMatrix large = new SquareMatrix(new int[][]{{modulus - 1, 3, -5}, {7, modulus - 2, 1}, {0, 2, -1}});
+        int[][] base = large.pow(1, modulus).toArray();
+        assert base[0][2] == modulus - 5 : "Failed on testPow (values should be reduced)";
+        int[][] reference = SquareMatrix.identityMatrix(3).toArray();
+        for (int k = 0; k <= 20; k++) {
+            assert Arrays.deepEquals(large.pow(k, modulus).toArray(), reference)
+                    : "Failed on testPow (modulus, exponent " + k + ")";
+            reference = multiplyModulo(reference, base, modulus);
+        }
+        int[][] half = large.pow(500_000_000_000_000_000L, modulus).toArray();
+        assert Arrays.deepEquals(large.pow(1_000_000_000_000_000_000L, modulus).toArray(),
+                multiplyModulo(half, half, modulus)) : "Failed on testPow (large exponent)";
+
+        SquareMatrix fibonacci = new SquareMatrix(new int[][]{{1, 1}, {1, 0}});
+        assert fibonacci.pow(90, 1_000_000_007).get(0, 1) == (int) (2880067194370816120L % 1_000_000_007)
+                : "Failed on testPow (Fibonacci)";
+        assert fibonacci.pow(0, 1).equals(new SquareMatrix(2)) : "Failed on testPow (modulus 1)";
+
+        boolean thrown = false;
+        try {
+            sqMatrix.pow(-1);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Failed on testPow (negative exponent)";
+        thrown = false;
+        try {
+            sqMatrix.pow(2, 0);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown : "Failed on testPow (modulus 0)";
+    }
 }
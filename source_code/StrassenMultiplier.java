@@ -0,0 +1,277 @@
+package assignmenttwo;
+
+/**
+ * Strassen-Winograd multiplication of square matrices stored in flat row-major int arrays.
+ * Every level of the recursion replaces 8 half-size products by 7 (and 15 additions),
+ * which gives O(n^2.81) instead of O(n^3). Integer arithmetic wraps the same way for additions,
+ * subtractions and multiplications, so the result is exactly the classical result.
+ * <p>
+ * Details:
+ * <ul>
+ *     <li>Sizes are padded with zeros to cutoff-sized blocks times a power of two (the padding is less
+ *     than 2^levels per dimension, not up to the next power of two).</li>
+ *     <li>Below the cutoff the classical ikj kernel runs on the (cache sized) block.</li>
+ *     <li>Operands are strided views, so quadrants are never copied. Every level needs four scratch
+ *     buffers; they are allocated once and kept for the next call with the same padded size.</li>
+ * </ul>
+ * An instance reuses its scratch buffers and is therefore not thread-safe.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public class StrassenMultiplier {
+
+    /** Default size below which the classical kernel is used. */
+    public static final int DEFAULT_CUTOFF = 128;
+
+    /** Size below which the classical kernel is used. */
+    private final int cutoff;
+
+    /** Padded size the scratch buffers were allocated for. */
+    private int workspaceSize;
+
+    /** Scratch buffers per level: [level][0..3] = sA, sB, x, y. */
+    private int[][][] workspace;
+
+    /**
+     * Constructs a StrassenMultiplier with the default cutoff.
+     */
+    public StrassenMultiplier() {
+        this(DEFAULT_CUTOFF);
+    }
+
+    /**
+     * Constructs a StrassenMultiplier with the given cutoff.
+     *
+     * @param cutoff Size below which the classical kernel is used.
+     */
+    public StrassenMultiplier(int cutoff) {
+        if (cutoff <= 0) {
+            throw new IllegalArgumentException("The cutoff must be positive.");
+        }
+        this.cutoff = cutoff;
+    }
+
+    /**
+     * @return the size below which the classical kernel is used.
+     */
+    public int getCutoff() {
+        return this.cutoff;
+    }
+
+    /**
+     * Multiplies two n x n matrices given in row-major order.
+     *
+     * @param a The left operand (n * n elements).
+     * @param b The right operand (n * n elements).
+     * @param n The size of the matrices.
+     * @return the product in row-major order (n * n elements).
+     */
+    public int[] multiply(int[] a, int[] b, int n) {
+        if (a == null || b == null || n <= 0 || a.length != n * n || b.length != n * n) {
+            throw new IllegalArgumentException("Both operands must hold n * n values.");
+        }
+        int levels = levelsFor(n);
+        int padded = paddedSize(n, levels);
+        int[] product = new int[padded * padded];
+        if (padded == n) {
+            prepareWorkspace(padded, levels);
+            multiply(a, 0, n, b, 0, n, product, 0, n, n, 0);
+            return product;
+        }
+        int[] paddedA = new int[padded * padded];
+        int[] paddedB = new int[padded * padded];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(a, i * n, paddedA, i * padded, n);
+            System.arraycopy(b, i * n, paddedB, i * padded, n);
+        }
+        prepareWorkspace(padded, levels);
+        multiply(paddedA, 0, padded, paddedB, 0, padded, product, 0, padded, padded, 0);
+        int[] result = new int[n * n];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(product, i * padded, result, i * n, n);
+        }
+        return result;
+    }
+
+    /**
+     * Computes how many times the size has to be halved to get below the cutoff.
+     *
+     * @param n The size.
+     * @return the number of recursion levels.
+     */
+    private int levelsFor(int n) {
+        int levels = 0;
+        while (((n + (1 << levels) - 1) >> levels) > this.cutoff) {
+            levels++;
+        }
+        return levels;
+    }
+
+    /**
+     * @param n The size.
+     * @param levels The number of recursion levels.
+     * @return the smallest size >= n that can be halved levels times.
+     */
+    private static int paddedSize(int n, int levels) {
+        int block = (n + (1 << levels) - 1) >> levels;
+        return block << levels;
+    }
+
+    /**
+     * Allocates the scratch buffers for a padded size, unless they already exist.
+     *
+     * @param padded The padded size.
+     * @param levels The number of recursion levels.
+     */
+    private void prepareWorkspace(int padded, int levels) {
+        if (this.workspace != null && this.workspaceSize == padded && this.workspace.length == levels) {
+            return;
+        }
+        this.workspace = new int[levels][4][];
+        int half = padded;
+        for (int level = 0; level < levels; level++) {
+            half >>= 1;
+            for (int buffer = 0; buffer < 4; buffer++) {
+                this.workspace[level][buffer] = new int[half * half];
+            }
+        }
+        this.workspaceSize = padded;
+    }
+
+    /**
+     * Computes C = A * B for n x n strided views (C is overwritten).
+     * The schedule keeps the seven Winograd products in the four C quadrants and two scratch buffers:
+     * <pre>
+     * S1 = A21 + A22   T1 = B12 - B11   P1 = A11 B11   P5 = S1 T1
+     * S2 = S1 - A11    T2 = B22 - T1    P2 = A12 B21   P6 = S2 T2
+     * S3 = A11 - A21   T3 = B22 - B12   P3 = S4 B22    P7 = S3 T3
+     * S4 = A12 - S2    T4 = T2 - B21    P4 = A22 T4
+     * C11 = P1 + P2, U2 = P1 + P6, U3 = U2 + P7, U4 = U2 + P5
+     * C12 = U4 + P3, C21 = U3 - P4, C22 = U3 + P5
+     * </pre>
+     *
+     * @param a Array of A.
+     * @param aOff Offset of A.
+     * @param aStride Row stride of A.
+     * @param b Array of B.
+     * @param bOff Offset of B.
+     * @param bStride Row stride of B.
+     * @param c Array of C.
+     * @param cOff Offset of C.
+     * @param cStride Row stride of C.
+     * @param n The size of the views.
+     * @param level The recursion level (index into the workspace).
+     */
+    private void multiply(int[] a, int aOff, int aStride, int[] b, int bOff, int bStride,
+                          int[] c, int cOff, int cStride, int n, int level) {
+        if (level == this.workspace.length) {
+            classical(a, aOff, aStride, b, bOff, bStride, c, cOff, cStride, n);
+            return;
+        }
+        int h = n >> 1;
+        int a11 = aOff, a12 = aOff + h, a21 = aOff + h * aStride, a22 = a21 + h;
+        int b11 = bOff, b12 = bOff + h, b21 = bOff + h * bStride, b22 = b21 + h;
+        int c11 = cOff, c12 = cOff + h, c21 = cOff + h * cStride, c22 = c21 + h;
+        int[] sA = this.workspace[level][0];
+        int[] sB = this.workspace[level][1];
+        int[] x = this.workspace[level][2];
+        int[] y = this.workspace[level][3];
+        int next = level + 1;
+
+        multiply(a, a11, aStride, b, b11, bStride, x, 0, h, h, next);                  // x = P1
+        multiply(a, a12, aStride, b, b21, bStride, c, c11, cStride, h, next);          // C11 = P2
+        combine(c, c11, cStride, c, c11, cStride, x, 0, h, 1, h);                      // C11 = P1 + P2
+
+        combine(sA, 0, h, a, a21, aStride, a, a22, aStride, 1, h);                     // sA = S1
+        combine(sB, 0, h, b, b12, bStride, b, b11, bStride, -1, h);                    // sB = T1
+        multiply(sA, 0, h, sB, 0, h, c, c22, cStride, h, next);                        // C22 = P5
+
+        combine(sA, 0, h, sA, 0, h, a, a11, aStride, -1, h);                           // sA = S2
+        combine(sB, 0, h, b, b22, bStride, sB, 0, h, -1, h);                           // sB = T2
+        multiply(sA, 0, h, sB, 0, h, c, c12, cStride, h, next);                        // C12 = P6
+        combine(c, c12, cStride, c, c12, cStride, x, 0, h, 1, h);                      // C12 = U2
+
+        combine(sA, 0, h, a, a12, aStride, sA, 0, h, -1, h);                           // sA = S4
+        multiply(sA, 0, h, b, b22, bStride, y, 0, h, h, next);                         // y = P3
+        combine(sB, 0, h, sB, 0, h, b, b21, bStride, -1, h);                           // sB = T4
+        multiply(a, a22, aStride, sB, 0, h, x, 0, h, h, next);                         // x = P4
+
+        combine(sA, 0, h, a, a11, aStride, a, a21, aStride, -1, h);                    // sA = S3
+        combine(sB, 0, h, b, b22, bStride, b, b12, bStride, -1, h);                    // sB = T3
+        multiply(sA, 0, h, sB, 0, h, c, c21, cStride, h, next);                        // C21 = P7
+
+        combine(c, c21, cStride, c, c21, cStride, c, c12, cStride, 1, h);              // C21 = U3
+        combine(c, c12, cStride, c, c12, cStride, c, c22, cStride, 1, h);              // C12 = U4
+        combine(c, c22, cStride, c, c21, cStride, c, c22, cStride, 1, h);              // C22 = U3 + P5
+        combine(c, c12, cStride, c, c12, cStride, y, 0, h, 1, h);                      // C12 = U4 + P3
+        combine(c, c21, cStride, c, c21, cStride, x, 0, h, -1, h);                     // C21 = U3 - P4
+    }
+
+    /**
+     * Computes D = X + sign * Y element-wise for n x n strided views (D may alias X or Y).
+     *
+     * @param d Array of D.
+     * @param dOff Offset of D.
+     * @param dStride Row stride of D.
+     * @param x Array of X.
+     * @param xOff Offset of X.
+     * @param xStride Row stride of X.
+     * @param y Array of Y.
+     * @param yOff Offset of Y.
+     * @param yStride Row stride of Y.
+     * @param sign 1 to add, -1 to subtract.
+     * @param n The size of the views.
+     */
+    private static void combine(int[] d, int dOff, int dStride, int[] x, int xOff, int xStride,
+                                int[] y, int yOff, int yStride, int sign, int n) {
+        for (int i = 0; i < n; i++) {
+            int dRow = dOff + i * dStride;
+            int xRow = xOff + i * xStride;
+            int yRow = yOff + i * yStride;
+            if (sign > 0) {
+                for (int j = 0; j < n; j++) {
+                    d[dRow + j] = x[xRow + j] + y[yRow + j];
+                }
+            } else {
+                for (int j = 0; j < n; j++) {
+                    d[dRow + j] = x[xRow + j] - y[yRow + j];
+                }
+            }
+        }
+    }
+
+    /**
+     * Classical ikj kernel for n x n strided views (C is overwritten). It only runs on blocks below
+     * the cutoff, which fit in cache, so it behaves like a single tile of the DenseMatrix kernel.
+     * The j loop runs through IntKernels (SIMD when available).
+     *
+     * @param a Array of A.
+     * @param aOff Offset of A.
+     * @param aStride Row stride of A.
+     * @param b Array of B.
+     * @param bOff Offset of B.
+     * @param bStride Row stride of B.
+     * @param c Array of C.
+     * @param cOff Offset of C.
+     * @param cStride Row stride of C.
+     * @param n The size of the views.
+     */
+    private static void classical(int[] a, int aOff, int aStride, int[] b, int bOff, int bStride,
+                                  int[] c, int cOff, int cStride, int n) {
+        IntKernels kernels = IntKernels.get();
+        for (int i = 0; i < n; i++) {
+            int cRow = cOff + i * cStride;
+            for (int j = 0; j < n; j++) {
+                c[cRow + j] = 0;
+            }
+            int aRow = aOff + i * aStride;
+            for (int k = 0; k < n; k++) {
+                int value = a[aRow + k];
+                if (value != 0) {
+                    kernels.axpy(value, b, bOff + k * bStride, c, cRow, n);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package assignmenttwo;
+
+/**
+ * Assertions shared by the tester classes.
+ *
+ * @author Nikola Desnica
+ * @version 1.0
+ */
+final class TestMatrices {
+
+    /**
+     * Not instantiable.
+     */
+    private TestMatrices() {
+    }
+
+    /**
+     * Asserts that two matrices have the same dimensions and hold the same values.
+     *
+     * @param expected The expected matrix.
+     * @param actual The actual matrix.
+     * @param message The failure message.
+     */
+    static void assertSameValues(MatrixInterface expected, MatrixInterface actual, String message) {
+        assert expected.getRows() == actual.getRows() && expected.getColumns() == actual.getColumns() : message;
+        int[][] a = expected.toArray();
+        int[][] b = actual.toArray();
+        for (int i = 0; i < a.length; i++) {
+            for (int j = 0; j < a[i].length; j++) {
+                assert a[i][j] == b[i][j] : message;
+            }
+        }
+    }
+}
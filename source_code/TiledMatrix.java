@@ -0,0 +1,638 @@
+package assignmenttwo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Immutable matrix stored on disk as square tiles of tileSize x tileSize (the tiles in the last tile row and
+ * column are smaller). Every tile that holds an entry is a file of the MatrixFiles format in the directory of
+ * the matrix, as a DenseMatrix or a CsrMatrix, whichever is smaller. Empty tiles have no file.
+ * <p>
+ * Only the number of entries of every tile is kept in memory. The MatrixInterface methods load the tiles
+ * they need (get keeps the last tile), forEachNonZero holds one row of tiles at a time, and writeCsr streams
+ * the whole matrix into one CSR file that MappedCsrMatrix can map. OutOfCoreMultiplier partitions its operands
+ * into TiledMatrix objects and writes its results as one.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public class TiledMatrix implements MatrixInterface {
+
+    /** The largest tile size, so the entries of a tile always fit an int. */
+    public static final int MAX_TILE_SIZE = 1 << 15;
+
+    /** The directory of the tile files. */
+    private final Path directory;
+
+    /** The number of rows in this TiledMatrix Instance. */
+    private final int rows;
+
+    /** The number of columns in this TiledMatrix Instance. */
+    private final int columns;
+
+    /** The number of rows and columns of a full tile. */
+    private final int tileSize;
+
+    /** The number of rows of tiles. */
+    private final int tileRows;
+
+    /** The number of columns of tiles. */
+    private final int tileColumns;
+
+    /** The number of entries of every tile, row-major (0 for tiles without a file). */
+    private final int[] tileEntries;
+
+    /** The index of the tile last loaded by get, or -1. */
+    private int cachedIndex = -1;
+
+    /** The tile last loaded by get. */
+    private MatrixInterface cachedTile;
+
+    /**
+     * Constructs a TiledMatrix over tile files that were already written (used by partition and
+     * OutOfCoreMultiplier).
+     *
+     * @param directory The directory of the tile files.
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param tileSize The number of rows and columns of a full tile.
+     * @param tileEntries The number of entries of every tile, row-major.
+     */
+    TiledMatrix(Path directory, int rows, int columns, int tileSize, int[] tileEntries) {
+        this.directory = directory;
+        this.rows = rows;
+        this.columns = columns;
+        this.tileSize = tileSize;
+        this.tileRows = tileCount(rows, tileSize);
+        this.tileColumns = tileCount(columns, tileSize);
+        this.tileEntries = tileEntries;
+    }
+
+    /**
+     * @param length The number of rows or columns.
+     * @param tileSize The number of rows and columns of a full tile.
+     * @return the number of tiles needed to cover them.
+     */
+    static int tileCount(int length, int tileSize) {
+        return (int) ((length + (long) tileSize - 1) / tileSize);
+    }
+
+    /**
+     * @param length The number of rows or columns.
+     * @param tile The index of the tile along them.
+     * @param tileSize The number of rows and columns of a full tile.
+     * @return the number of rows or columns of that tile (smaller for the last tile).
+     */
+    static int tileExtent(int length, int tile, int tileSize) {
+        return (int) Math.min(tileSize, length - (long) tile * tileSize);
+    }
+
+    /**
+     * Writes any matrix to a directory as tiles. The rows are read in bands of tileSize rows with
+     * forEachNonZero(fromRow, toRow); the entries of a band are buffered for as many tile columns at once as
+     * fit into the memory budget (at least one), so a band is read more than once only when it doesn't fit.
+     *
+     * @param directory The directory for the tile files (created if it doesn't exist).
+     * @param source The matrix to write.
+     * @param tileSize The number of rows and columns of a full tile.
+     * @param memoryBudget The number of bytes the buffered entries of a band may take.
+     * @return the TiledMatrix.
+     * @throws IOException If the tiles can't be written.
+     */
+    public static TiledMatrix partition(Path directory, MatrixInterface source, int tileSize, long memoryBudget)
+            throws IOException {
+        if (directory == null || source == null) {
+            throw new IllegalArgumentException("The directory and the matrix can't be null.");
+        }
+        if (tileSize <= 0 || tileSize > MAX_TILE_SIZE) {
+            throw new IllegalArgumentException("The tile size must be between 1 and " + MAX_TILE_SIZE + ".");
+        }
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException("The memory budget must be positive.");
+        }
+        Files.createDirectories(directory);
+        int rows = source.getRows();
+        int columns = source.getColumns();
+        int tileRows = tileCount(rows, tileSize);
+        int tileColumns = tileCount(columns, tileSize);
+        // an entry is buffered as three ints, a tile column of a band holds at most tileSize^2 of them
+        long perTileColumn = 3L * Integer.BYTES * tileSize * tileSize;
+        int tileColumnsPerPass = (int) Math.max(1, Math.min(tileColumns, memoryBudget / perTileColumn));
+        int[] tileEntries = new int[tileRows * tileColumns];
+        for (int ti = 0; ti < tileRows; ti++) {
+            int fromRow = ti * tileSize;
+            int toRow = fromRow + tileExtent(rows, ti, tileSize);
+            for (int firstTile = 0; firstTile < tileColumns; firstTile += tileColumnsPerPass) {
+                int passTiles = Math.min(tileColumnsPerPass, tileColumns - firstTile);
+                int fromColumn = firstTile * tileSize;
+                int toColumn = (int) Math.min(columns, fromColumn + (long) passTiles * tileSize);
+                CsrMatrix.IntBuffer[][] buffers = new CsrMatrix.IntBuffer[passTiles][];
+                source.forEachNonZero(fromRow, toRow, (i, j, value) -> {
+                    if (j >= fromColumn && j < toColumn) {
+                        int tile = (j - fromColumn) / tileSize;
+                        if (buffers[tile] == null) {
+                            buffers[tile] = new CsrMatrix.IntBuffer[]{
+                                    new CsrMatrix.IntBuffer(), new CsrMatrix.IntBuffer(), new CsrMatrix.IntBuffer()};
+                        }
+                        buffers[tile][0].add(i - fromRow);
+                        buffers[tile][1].add(j - fromColumn - tile * tileSize);
+                        buffers[tile][2].add(value);
+                    }
+                });
+                for (int t = 0; t < passTiles; t++) {
+                    if (buffers[t] == null) {
+                        continue;
+                    }
+                    int tj = firstTile + t;
+                    MatrixInterface tile = toTile(toRow - fromRow, tileExtent(columns, tj, tileSize), buffers[t]);
+                    buffers[t] = null;
+                    if (tile != null) {
+                        tileEntries[ti * tileColumns + tj] = writeTile(tilePath(directory, ti, tj), tile);
+                    }
+                }
+            }
+        }
+        return new TiledMatrix(directory, rows, columns, tileSize, tileEntries);
+    }
+
+    /**
+     * Builds a tile from buffered entries (in any order, duplicates are added up).
+     *
+     * @param rows The number of rows of the tile.
+     * @param columns The number of columns of the tile.
+     * @param entries The row, column and value buffers.
+     * @return the tile, or null if no entry is left.
+     */
+    private static CsrMatrix toTile(int rows, int columns, CsrMatrix.IntBuffer[] entries) {
+        int count = entries[0].size;
+        int[] rowPtr = new int[rows + 1];
+        for (int p = 0; p < count; p++) {
+            rowPtr[entries[0].get(p) + 1]++;
+        }
+        for (int i = 0; i < rows; i++) {
+            rowPtr[i + 1] += rowPtr[i];
+        }
+        int[] next = Arrays.copyOf(rowPtr, rows);
+        int[] colIdx = new int[count];
+        int[] values = new int[count];
+        for (int p = 0; p < count; p++) {
+            int position = next[entries[0].get(p)]++;
+            colIdx[position] = entries[1].get(p);
+            values[position] = entries[2].get(p);
+        }
+        int nonZeros = CsrMatrix.compactRows(rows, rowPtr, colIdx, values);
+        if (nonZeros == 0) {
+            return null;
+        }
+        return new CsrMatrix(rows, columns, rowPtr, Arrays.copyOf(colIdx, nonZeros),
+                Arrays.copyOf(values, nonZeros), true);
+    }
+
+    /**
+     * Writes a tile as a DenseMatrix or a CsrMatrix file, whichever is smaller.
+     *
+     * @param file The file of the tile.
+     * @param tile The tile (a CsrMatrix or a DenseMatrix).
+     * @return the number of entries of the tile.
+     * @throws IOException If the tile can't be written.
+     */
+    static int writeTile(Path file, MatrixInterface tile) throws IOException {
+        int entries = tile instanceof CsrMatrix ? ((CsrMatrix) tile).getNonZeroCount() : (int) tile.nonZeros().count();
+        // a CSR entry takes a column index and a value, a dense cell only the value
+        boolean dense = 2L * entries > (long) tile.getRows() * tile.getColumns();
+        if (dense && !(tile instanceof DenseMatrix)) {
+            tile = DenseMatrix.from(tile);
+        } else if (!dense && !(tile instanceof CsrMatrix)) {
+            tile = CsrMatrix.from(tile);
+        }
+        MatrixFiles.write(file, tile);
+        return entries;
+    }
+
+    /**
+     * @param directory The directory of the tile files.
+     * @param tileRow The tile row.
+     * @param tileColumn The tile column.
+     * @return the path of the tile file.
+     */
+    static Path tilePath(Path directory, int tileRow, int tileColumn) {
+        return directory.resolve("tile-" + tileRow + "-" + tileColumn + ".bin");
+    }
+
+    /**
+     * @return the directory of the tile files.
+     */
+    public Path getDirectory() {
+        return this.directory;
+    }
+
+    /**
+     * @return the number of rows and columns of a full tile.
+     */
+    public int getTileSize() {
+        return this.tileSize;
+    }
+
+    /**
+     * @return the number of rows of tiles.
+     */
+    public int getTileRows() {
+        return this.tileRows;
+    }
+
+    /**
+     * @return the number of columns of tiles.
+     */
+    public int getTileColumns() {
+        return this.tileColumns;
+    }
+
+    /**
+     * @param tileRow The tile row.
+     * @param tileColumn The tile column.
+     * @return the number of entries of the tile (0 for a tile without a file).
+     */
+    public int getTileEntries(int tileRow, int tileColumn) {
+        validateTile(tileRow, tileColumn);
+        return this.tileEntries[tileRow * this.tileColumns + tileColumn];
+    }
+
+    /**
+     * @return the number of stored entries.
+     */
+    public long getNonZeroCount() {
+        long count = 0;
+        for (int entries : this.tileEntries) {
+            count += entries;
+        }
+        return count;
+    }
+
+    /**
+     * Loads a tile from its file (the rows and columns of the tile are relative to its first row and column).
+     *
+     * @param tileRow The tile row.
+     * @param tileColumn The tile column.
+     * @return the tile as a DenseMatrix or a CsrMatrix, an empty CsrMatrix for a tile without a file.
+     * @throws IOException If the tile can't be read.
+     */
+    public MatrixInterface readTile(int tileRow, int tileColumn) throws IOException {
+        validateTile(tileRow, tileColumn);
+        if (this.tileEntries[tileRow * this.tileColumns + tileColumn] == 0) {
+            int tileRowCount = tileExtent(this.rows, tileRow, this.tileSize);
+            int tileColumnCount = tileExtent(this.columns, tileColumn, this.tileSize);
+            return new CsrMatrix(tileRowCount, tileColumnCount, new int[tileRowCount + 1], new int[0], new int[0],
+                    true);
+        }
+        return MatrixFiles.read(tilePath(this.directory, tileRow, tileColumn));
+    }
+
+    /**
+     * Validates the indices of a tile.
+     *
+     * @param tileRow The tile row.
+     * @param tileColumn The tile column.
+     */
+    private void validateTile(int tileRow, int tileColumn) {
+        if (tileRow < 0 || tileRow >= this.tileRows || tileColumn < 0 || tileColumn >= this.tileColumns) {
+            throw new IllegalArgumentException("The indicated tile is out of bounds for this matrix.");
+        }
+    }
+
+    /**
+     * Streams the matrix into one file of the CSR kind of MatrixFiles, one row of tiles at a time, so it can
+     * be mapped with MappedCsrMatrix.open or read back with MatrixFiles.read.
+     *
+     * @param file The file (created or overwritten).
+     * @throws IOException If the tiles can't be read or the file can't be written.
+     */
+    public void writeCsr(Path file) throws IOException {
+        long nnz = getNonZeroCount();
+        MatrixFileHeader header = new MatrixFileHeader(MatrixFileHeader.CSR, this.rows, this.columns, 0, nnz);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            header.write(channel);
+            MappedMemory mapping = MappedMemory.map(channel, MatrixFileHeader.BYTES + header.dataBytes(),
+                    MappedMode.READ_WRITE);
+            try {
+                MappedMemory data = mapping.region(MatrixFileHeader.BYTES, header.dataBytes());
+                long columnsOffset = (this.rows + 1L) * Long.BYTES;
+                MappedMemory columnIndices = data.region(columnsOffset, nnz * Integer.BYTES);
+                MappedMemory values = data.region(columnsOffset + nnz * Integer.BYTES, nnz * Integer.BYTES);
+                long[] position = new long[1];
+                int[] row = {0};
+                data.setLong(0, 0);
+                forEachNonZero((i, j, value) -> {
+                    while (row[0] < i) {
+                        data.setLong(++row[0], position[0]);
+                    }
+                    columnIndices.setInt(position[0], j);
+                    values.setInt(position[0]++, value);
+                });
+                while (row[0] < this.rows) {
+                    data.setLong(++row[0], position[0]);
+                }
+                mapping.force();
+            } finally {
+                mapping.close();
+            }
+        }
+    }
+
+    /**
+     * Deletes the tile files and the directory (if nothing else is left in it).
+     * The matrix can't be used afterwards.
+     *
+     * @throws IOException If a file can't be deleted.
+     */
+    public void delete() throws IOException {
+        for (int ti = 0; ti < this.tileRows; ti++) {
+            for (int tj = 0; tj < this.tileColumns; tj++) {
+                Files.deleteIfExists(tilePath(this.directory, ti, tj));
+            }
+        }
+        Arrays.fill(this.tileEntries, 0);
+        this.cachedIndex = -1;
+        this.cachedTile = null;
+        try {
+            Files.deleteIfExists(this.directory);
+        } catch (DirectoryNotEmptyException e) {
+            // other files are left in the directory, keep it
+        }
+    }
+
+    /**
+     * @return rows.
+     */
+    @Override
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * @return columns.
+     */
+    @Override
+    public int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * @return 0, a TiledMatrix never changes.
+     */
+    @Override
+    public long getModificationCount() {
+        return 0;
+    }
+
+    /**
+     * Fetches the value at the specified index from its tile. The tile last used is kept in memory,
+     * so reading the cells of one tile loads it once.
+     *
+     * @param row the row position.
+     * @param column the column position.
+     * @return the value.
+     */
+    @Override
+    public int get(int row, int column) {
+        validateIndices(row, column);
+        int index = row / this.tileSize * this.tileColumns + column / this.tileSize;
+        if (this.tileEntries[index] == 0) {
+            return 0;
+        }
+        if (index != this.cachedIndex) {
+            this.cachedTile = load(row / this.tileSize, column / this.tileSize);
+            this.cachedIndex = index;
+        }
+        return this.cachedTile.get(row % this.tileSize, column % this.tileSize);
+    }
+
+    /**
+     * Loads a tile, failures are rethrown unchecked (for the MatrixInterface methods).
+     *
+     * @param tileRow The tile row.
+     * @param tileColumn The tile column.
+     * @return the tile.
+     */
+    private MatrixInterface load(int tileRow, int tileColumn) {
+        try {
+            return readTile(tileRow, tileColumn);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A TiledMatrix is immutable.
+     *
+     * @param row The row index.
+     * @param column The column index.
+     * @param value The desired value.
+     */
+    @Override
+    public void set(int row, int column, int value) {
+        throw new UnsupportedOperationException("A TiledMatrix is immutable.");
+    }
+
+    /**
+     * Not supported, a TiledMatrix is immutable.
+     *
+     * @param other The matrix to add.
+     */
+    @Override
+    public void addInPlace(MatrixInterface other) {
+        throw new UnsupportedOperationException("A TiledMatrix is immutable.");
+    }
+
+    /**
+     * Not supported, a TiledMatrix is immutable.
+     *
+     * @param factor The factor.
+     */
+    @Override
+    public void scaleInPlace(int factor) {
+        throw new UnsupportedOperationException("A TiledMatrix is immutable.");
+    }
+
+    /**
+     * Validates the passed indices (for get).
+     *
+     * @param row The row index.
+     * @param column The column index.
+     */
+    public void validateIndices(int row, int column) {
+        if (row < 0 || row > this.rows - 1) {
+            throw new IllegalArgumentException("The indicated row index is out of bounds for this matrix.");
+        }
+        if (column < 0 || column > this.columns - 1) {
+            throw new IllegalArgumentException("The indicated column index is out of bounds for this matrix.");
+        }
+    }
+
+    /**
+     * Validates the passed matrix before addition.
+     *
+     * @param other The Matrix to add.
+     */
+    @Override
+    public void validateAddition(MatrixInterface other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot add these two matrices, the passed Matrix is null.");
+        }
+        if (this.rows != other.getRows() || this.columns != other.getColumns()) {
+            throw new IllegalArgumentException("Cannot add these two matrices, their dimensions don't match.");
+        }
+    }
+
+    /**
+     * Validates the passed matrix before multiplication.
+     *
+     * @param other The Matrix to multiply by.
+     */
+    @Override
+    public void validateMultiplication(MatrixInterface other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the passed Matrix is null.");
+        }
+        if (this.columns != other.getRows()) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the columns of this matrix" +
+                    "don't match the rows of the matrix that was passed.");
+        }
+    }
+
+    /**
+     * Adds another matrix into a new sparse Matrix in memory (use OutOfCoreMultiplier for results that
+     * don't fit).
+     *
+     * @param other The matrix to add.
+     * @return A new Matrix that is the result of the addition.
+     */
+    @Override
+    public MatrixInterface plus(MatrixInterface other) {
+        validateAddition(other);
+        Matrix result = new Matrix(this.rows, this.columns);
+        performAddition(result, other);
+        return result;
+    }
+
+    /**
+     * Facilitates matrix addition for the plus method: the entries of the other matrix are copied into the
+     * empty result and the entries of the tiles are added on top.
+     *
+     * @param result The empty result matrix to be populated.
+     * @param other The matrix to be added to our TiledMatrix instance.
+     */
+    @Override
+    public void performAddition(MatrixInterface result, MatrixInterface other) {
+        other.forEachNonZero(result::set);
+        forEachNonZero((i, j, value) -> result.set(i, j, result.get(i, j) + value));
+    }
+
+    /**
+     * Multiplies with another matrix into a new sparse Matrix in memory. For operands and results that
+     * don't fit into memory use OutOfCoreMultiplier, which keeps everything in tiles.
+     *
+     * @param other The matrix to multiply by.
+     * @return A new Matrix that is the result of the multiplication.
+     */
+    @Override
+    public MatrixInterface times(MatrixInterface other) {
+        validateMultiplication(other);
+        Matrix result = new Matrix(this.rows, other.getColumns());
+        performMultiplication(result, other);
+        return result;
+    }
+
+    /**
+     * Facilitates matrix multiplication for the times method: the empty result accumulates the product
+     * one row of tiles at a time.
+     *
+     * @param result The empty result matrix to be populated.
+     * @param other The matrix to be multiplied with our TiledMatrix instance.
+     */
+    @Override
+    public void performMultiplication(MatrixInterface result, MatrixInterface other) {
+        multiplyAccumulate(result, 1, other);
+    }
+
+    /**
+     * Multiplies this TiledMatrix with a column vector: y = A * x, one row of tiles at a time.
+     *
+     * @param x The vector to multiply by.
+     * @param y The vector receiving the product (overwritten).
+     */
+    @Override
+    public void timesInto(int[] x, int[] y) {
+        validateVectorMultiplication(x, y);
+        Arrays.fill(y, 0);
+        forEachNonZero((i, j, value) -> y[i] += value * x[j]);
+    }
+
+    /**
+     * Passes the entries of the rows [fromRow, toRow) to the action in row-major order. The tiles of one
+     * row of tiles are loaded together and released before the next row of tiles.
+     *
+     * @param fromRow The first row (inclusive).
+     * @param toRow The last row (exclusive).
+     * @param action The action receiving (row, column, value).
+     */
+    @Override
+    public void forEachNonZero(int fromRow, int toRow, IntTriConsumer action) {
+        validateRowRange(fromRow, toRow, action);
+        if (fromRow == toRow) {
+            return;
+        }
+        for (int ti = fromRow / this.tileSize; ti <= (toRow - 1) / this.tileSize; ti++) {
+            int firstRow = ti * this.tileSize;
+            MatrixInterface[] tiles = new MatrixInterface[this.tileColumns];
+            for (int tj = 0; tj < this.tileColumns; tj++) {
+                if (this.tileEntries[ti * this.tileColumns + tj] != 0) {
+                    tiles[tj] = load(ti, tj);
+                }
+            }
+            int first = Math.max(fromRow, firstRow);
+            int last = Math.min(toRow, firstRow + tileExtent(this.rows, ti, this.tileSize));
+            for (int i = first; i < last; i++) {
+                int row = i;
+                for (int tj = 0; tj < this.tileColumns; tj++) {
+                    if (tiles[tj] != null) {
+                        int firstColumn = tj * this.tileSize;
+                        tiles[tj].forEachNonZero(i - firstRow, i - firstRow + 1,
+                                (r, c, value) -> action.accept(row, firstColumn + c, value));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts the matrix to a 2D array.
+     *
+     * @return A 2D array representation of the matrix.
+     */
+    @Override
+    public int[][] toArray() {
+        int[][] array = new int[this.rows][this.columns];
+        forEachNonZero((i, j, value) -> array[i][j] = value);
+        return array;
+    }
+
+    /**
+     * Transforms a TiledMatrix instance into a String representation of the Matrix
+     * (same layout as Matrix.toString()).
+     *
+     * @return The String representation of this TiledMatrix.
+     */
+    @Override
+    public String toString() {
+        Matrix matrix = new Matrix(this.rows, this.columns);
+        forEachNonZero(matrix::set);
+        return matrix.toString();
+    }
+}
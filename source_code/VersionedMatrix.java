@@ -0,0 +1,335 @@
+package assignmenttwo;
+
+import java.util.Arrays;
+
+/**
+ * Mutable sparse matrix on the same persistent trie as PersistentMatrix, with an O(1) snapshot().
+ * <p>
+ * set updates the trie nodes this matrix created since the last snapshot in place and copies the path to the
+ * cell otherwise. snapshot() wraps the current trie in a PersistentMatrix and starts a new owner token, so
+ * the nodes of the snapshot are never written again: later sets copy the paths they touch (once each) and the
+ * snapshot keeps sharing everything else. Readers can therefore use snapshots from any thread without locks
+ * or copies while the matrix keeps changing.
+ * <p>
+ * A VersionedMatrix itself is not thread-safe: it has one writer, which hands snapshots to the readers.
+ * getVersion() counts the changes, so a reader can tell whether its snapshot is still current.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public class VersionedMatrix implements MatrixInterface {
+
+    /** The number of rows in this VersionedMatrix Instance. */
+    private final int rows;
+
+    /** The number of columns in this VersionedMatrix Instance. */
+    private final int columns;
+
+    /** The current entries. */
+    private EntryTrie trie;
+
+    /** The token of the nodes this matrix may update in place (renewed by snapshot). */
+    private Object owner = new Object();
+
+    /** The number of changes so far. */
+    private long version;
+
+    /** The snapshot of the current version, or null if it changed since the last snapshot. */
+    private PersistentMatrix snapshot;
+
+    /**
+     * Constructs an all-zero VersionedMatrix with the given dimensions.
+     *
+     * @param rows The indicated number of rows.
+     * @param columns The indicated number of columns.
+     */
+    public VersionedMatrix(int rows, int columns) {
+        if (rows <= 0 || columns <= 0) {
+            throw new IllegalArgumentException("Can not construct a matrix " +
+                    "with values of 0 for rows or columns.");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.trie = EntryTrie.empty(rows, columns);
+    }
+
+    /**
+     * Constructs a VersionedMatrix starting from a snapshot in O(1). The snapshot is shared, not copied,
+     * and stays unchanged.
+     *
+     * @param snapshot The PersistentMatrix to start from.
+     */
+    public VersionedMatrix(PersistentMatrix snapshot) {
+        if (snapshot == null) {
+            throw new IllegalArgumentException("The provided matrix is null.");
+        }
+        this.rows = snapshot.getRows();
+        this.columns = snapshot.getColumns();
+        this.trie = snapshot.getTrie();
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Returns the current values as an immutable PersistentMatrix in O(1). Later changes of this matrix
+     * don't change the snapshot.
+     *
+     * @return the snapshot.
+     */
+    public PersistentMatrix snapshot() {
+        if (this.snapshot == null) {
+            this.owner = new Object();
+            this.snapshot = new PersistentMatrix(this.rows, this.columns, this.trie);
+        }
+        return this.snapshot;
+    }
+
+    /**
+     * @return the number of cell changes so far. It only grows, so an equal version means equal values.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * @return rows.
+     */
+    @Override
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * @return columns.
+     */
+    @Override
+    public int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * @return the version, see getVersion().
+     */
+    @Override
+    public long getModificationCount() {
+        return this.version;
+    }
+
+    /**
+     * @return the number of stored (non-zero) entries.
+     */
+    public int getNonZeroCount() {
+        return this.trie.size();
+    }
+
+    /**
+     * Fetches the value at the specified index in O(log32(rows * columns)).
+     *
+     * @param row the row position.
+     * @param column the column position.
+     * @return the value.
+     */
+    @Override
+    public int get(int row, int column) {
+        validateIndices(row, column);
+        return this.trie.get(row, column);
+    }
+
+    /**
+     * Sets the value at the specified index (0 removes the entry). Snapshots taken before are not changed.
+     *
+     * @param row The row index.
+     * @param column The column index.
+     * @param value The desired value.
+     */
+    @Override
+    public void set(int row, int column, int value) {
+        validateIndices(row, column);
+        EntryTrie updated = this.trie.put(row, column, value, this.owner);
+        if (updated != this.trie) {
+            this.trie = updated;
+            this.version++;
+            this.snapshot = null;
+        }
+    }
+
+    /**
+     * Adds another matrix of the same dimensions into this matrix, visiting only its stored entries.
+     *
+     * @param other The matrix to add.
+     */
+    @Override
+    public void addInPlace(MatrixInterface other) {
+        validateAddition(other);
+        if (other == this) {
+            scaleInPlace(2);
+            return;
+        }
+        other.forEachNonZero((i, j, value) -> set(i, j, this.trie.get(i, j) + value));
+    }
+
+    /**
+     * Multiplies every entry of this matrix by a factor. The entries are read from the current version
+     * while the new one is built, so the current trie is frozen first.
+     *
+     * @param factor The factor.
+     */
+    @Override
+    public void scaleInPlace(int factor) {
+        if (factor == 1) {
+            return;
+        }
+        EntryTrie current = this.trie;
+        this.owner = new Object();
+        current.forEach(0, this.rows, (i, j, value) -> set(i, j, value * factor));
+    }
+
+    /**
+     * Validates the passed indices (for get and set).
+     *
+     * @param row The row index.
+     * @param column The column index.
+     */
+    public void validateIndices(int row, int column) {
+        if (row < 0 || row > this.rows - 1) {
+            throw new IllegalArgumentException("The indicated row index is out of bounds for this matrix.");
+        }
+        if (column < 0 || column > this.columns - 1) {
+            throw new IllegalArgumentException("The indicated column index is out of bounds for this matrix.");
+        }
+    }
+
+    /**
+     * Validates the passed matrix before addition.
+     *
+     * @param other The Matrix to add.
+     */
+    @Override
+    public void validateAddition(MatrixInterface other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot add these two matrices, the passed Matrix is null.");
+        }
+        if (this.rows != other.getRows() || this.columns != other.getColumns()) {
+            throw new IllegalArgumentException("Cannot add these two matrices, their dimensions don't match.");
+        }
+    }
+
+    /**
+     * Validates the passed matrix before multiplication.
+     *
+     * @param other The Matrix to multiply by.
+     */
+    @Override
+    public void validateMultiplication(MatrixInterface other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the passed Matrix is null.");
+        }
+        if (this.columns != other.getRows()) {
+            throw new IllegalArgumentException("Cannot multiply these matrices, the columns of this matrix" +
+                    "don't match the rows of the matrix that was passed.");
+        }
+    }
+
+    /**
+     * Adds another matrix into a new sparse Matrix.
+     *
+     * @param other The matrix to add.
+     * @return A new Matrix that is the result of the addition.
+     */
+    @Override
+    public MatrixInterface plus(MatrixInterface other) {
+        validateAddition(other);
+        Matrix result = new Matrix(this.rows, this.columns);
+        performAddition(result, other);
+        return result;
+    }
+
+    /**
+     * Facilitates matrix addition for the plus method: the entries of the other matrix are copied into the
+     * empty result and the entries of this matrix are added on top.
+     *
+     * @param result The empty result matrix to be populated.
+     * @param other The matrix to be added to our VersionedMatrix instance.
+     */
+    @Override
+    public void performAddition(MatrixInterface result, MatrixInterface other) {
+        other.forEachNonZero(result::set);
+        forEachNonZero((i, j, value) -> result.set(i, j, result.get(i, j) + value));
+    }
+
+    /**
+     * Multiplies with another matrix into a new sparse Matrix.
+     *
+     * @param other The matrix to multiply by.
+     * @return A new Matrix that is the result of the multiplication.
+     */
+    @Override
+    public MatrixInterface times(MatrixInterface other) {
+        validateMultiplication(other);
+        Matrix result = new Matrix(this.rows, other.getColumns());
+        performMultiplication(result, other);
+        return result;
+    }
+
+    /**
+     * Facilitates matrix multiplication for the times method.
+     *
+     * @param result The empty result matrix to be populated.
+     * @param other The matrix to be multiplied with our VersionedMatrix instance.
+     */
+    @Override
+    public void performMultiplication(MatrixInterface result, MatrixInterface other) {
+        multiplyAccumulate(result, 1, other);
+    }
+
+    /**
+     * Multiplies this VersionedMatrix with a column vector: y = A * x.
+     *
+     * @param x The vector to multiply by.
+     * @param y The vector receiving the product (overwritten).
+     */
+    @Override
+    public void timesInto(int[] x, int[] y) {
+        validateVectorMultiplication(x, y);
+        Arrays.fill(y, 0);
+        forEachNonZero((i, j, value) -> y[i] += value * x[j]);
+    }
+
+    /**
+     * Passes the entries of the rows [fromRow, toRow) to the action in row-major order.
+     * The matrix must not be changed by the action.
+     *
+     * @param fromRow The first row (inclusive).
+     * @param toRow The last row (exclusive).
+     * @param action The action receiving (row, column, value).
+     */
+    @Override
+    public void forEachNonZero(int fromRow, int toRow, IntTriConsumer action) {
+        validateRowRange(fromRow, toRow, action);
+        this.trie.forEach(fromRow, toRow, action);
+    }
+
+    /**
+     * Converts the matrix to a 2D array.
+     *
+     * @return A 2D array representation of the matrix.
+     */
+    @Override
+    public int[][] toArray() {
+        int[][] array = new int[this.rows][this.columns];
+        forEachNonZero((i, j, value) -> array[i][j] = value);
+        return array;
+    }
+
+    /**
+     * Transforms a VersionedMatrix instance into a String representation of the Matrix
+     * (same layout as Matrix.toString()).
+     *
+     * @return The String representation of this VersionedMatrix.
+     */
+    @Override
+    public String toString() {
+        Matrix matrix = new Matrix(this.rows, this.columns);
+        forEachNonZero(matrix::set);
+        return matrix.toString();
+    }
+}
@@ -0,0 +1,144 @@
+package assignmenttwo;
+
+import jdk.incubator.foreign.MemoryAccess;
+import jdk.incubator.foreign.MemorySegment;
+import jdk.incubator.foreign.ResourceScope;
+
+/**
+ * OffHeapArena on native MemorySegments of the JDK foreign memory API. All segments are allocated in one
+ * shared ResourceScope, so they can be read from any thread and are freed together when the arena is closed.
+ * Accesses are bounds checked by the segments and throw an IllegalStateException after close.
+ * Lives in the optional source directory incubator/ because it needs the incubator module
+ * (javac/java --add-modules jdk.incubator.foreign), see OffHeapArena.open().
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public class SegmentArena implements OffHeapArena {
+
+    /** The scope owning all segments of this arena. */
+    private final ResourceScope scope = ResourceScope.newSharedScope();
+
+    /**
+     * @return "segment".
+     */
+    @Override
+    public String name() {
+        return "segment";
+    }
+
+    /**
+     * Allocates a zeroed native segment in the scope of this arena.
+     *
+     * @param byteSize The size in bytes.
+     * @return the block.
+     */
+    @Override
+    public OffHeapMemory allocate(long byteSize) {
+        if (byteSize < 0) {
+            throw new IllegalArgumentException("The size can not be negative.");
+        }
+        MemorySegment segment = MemorySegment.allocateNative(Math.max(byteSize, 1), Long.BYTES, this.scope);
+        segment.fill((byte) 0);
+        return new Memory(segment, byteSize);
+    }
+
+    /**
+     * @return true until the arena is closed.
+     */
+    @Override
+    public boolean isAlive() {
+        return this.scope.isAlive();
+    }
+
+    /**
+     * Closes the scope, which frees all segments at once (closing twice does nothing).
+     */
+    @Override
+    public void close() {
+        if (this.scope.isAlive()) {
+            this.scope.close();
+        }
+    }
+
+    /**
+     * A block backed by a single native segment.
+     */
+    private static final class Memory implements OffHeapMemory {
+
+        /** The native segment. */
+        private final MemorySegment segment;
+
+        /** The requested size in bytes. */
+        private final long byteSize;
+
+        /**
+         * @param segment The native segment.
+         * @param byteSize The requested size in bytes.
+         */
+        Memory(MemorySegment segment, long byteSize) {
+            this.segment = segment;
+            this.byteSize = byteSize;
+        }
+
+        /**
+         * @return the size of the block in bytes.
+         */
+        @Override
+        public long byteSize() {
+            return this.byteSize;
+        }
+
+        /**
+         * Reads the int at an index (in ints, not bytes).
+         *
+         * @param index The index.
+         * @return the value.
+         */
+        @Override
+        public int getInt(long index) {
+            return MemoryAccess.getIntAtIndex(this.segment, index);
+        }
+
+        /**
+         * Writes the int at an index (in ints, not bytes).
+         *
+         * @param index The index.
+         * @param value The value.
+         */
+        @Override
+        public void setInt(long index, int value) {
+            MemoryAccess.setIntAtIndex(this.segment, index, value);
+        }
+
+        /**
+         * Reads the long at an index (in longs, not bytes).
+         *
+         * @param index The index.
+         * @return the value.
+         */
+        @Override
+        public long getLong(long index) {
+            return MemoryAccess.getLongAtIndex(this.segment, index);
+        }
+
+        /**
+         * Writes the long at an index (in longs, not bytes).
+         *
+         * @param index The index.
+         * @param value The value.
+         */
+        @Override
+        public void setLong(long index, long value) {
+            MemoryAccess.setLongAtIndex(this.segment, index, value);
+        }
+
+        /**
+         * Sets every byte of the segment to 0.
+         */
+        @Override
+        public void clear() {
+            this.segment.fill((byte) 0);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package assignmenttwo;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * IntKernels on top of the JDK Vector API, using the widest int species the CPU supports
+ * (8 lanes with AVX2, 16 with AVX-512, 4 with NEON). Every loop runs full vectors up to the
+ * loop bound and finishes the tail with scalar code.
+ * <p>
+ * Only loaded through IntKernels.get(), which falls back to ScalarKernels if this class was not compiled
+ * (it is in the optional incubator/ source directory) or jdk.incubator.vector is not present at runtime.
+ *
+ * @author Nikola Desnica (UNI: ndd2131)
+ * @version 1.0
+ */
+public class VectorKernels implements IntKernels {
+
+    /** The preferred species of this CPU. */
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    /**
+     * @return "vector-" followed by the lane count of the species.
+     */
+    @Override
+    public String name() {
+        return "vector-" + SPECIES.length() + "x32";
+    }
+
+    /**
+     * Computes y += alpha * x a vector at a time, the tail with scalar code.
+     *
+     * @param alpha The scalar factor.
+     * @param x The source array.
+     * @param xOff The offset in x.
+     * @param y The accumulator array.
+     * @param yOff The offset in y.
+     * @param length The number of elements.
+     */
+    @Override
+    public void axpy(int alpha, int[] x, int xOff, int[] y, int yOff, int length) {
+        int i = 0;
+        int upper = SPECIES.loopBound(length);
+        for (; i < upper; i += SPECIES.length()) {
+            IntVector xv = IntVector.fromArray(SPECIES, x, xOff + i);
+            IntVector.fromArray(SPECIES, y, yOff + i).add(xv.mul(alpha)).intoArray(y, yOff + i);
+        }
+        for (; i < length; i++) {
+            y[yOff + i] += alpha * x[xOff + i];
+        }
+    }
+
+    /**
+     * Computes four axpy updates sharing the same x, loading every vector of x once for all four rows.
+     *
+     * @param alpha0 The factor for the first row.
+     * @param alpha1 The factor for the second row.
+     * @param alpha2 The factor for the third row.
+     * @param alpha3 The factor for the fourth row.
+     * @param x The source array.
+     * @param xOff The offset in x.
+     * @param y The accumulator array.
+     * @param yOff0 The offset of the first row in y.
+     * @param yOff1 The offset of the second row in y.
+     * @param yOff2 The offset of the third row in y.
+     * @param yOff3 The offset of the fourth row in y.
+     * @param length The number of elements.
+     */
+    @Override
+    public void axpy4(int alpha0, int alpha1, int alpha2, int alpha3, int[] x, int xOff,
+                      int[] y, int yOff0, int yOff1, int yOff2, int yOff3, int length) {
+        int i = 0;
+        int upper = SPECIES.loopBound(length);
+        for (; i < upper; i += SPECIES.length()) {
+            IntVector xv = IntVector.fromArray(SPECIES, x, xOff + i);
+            IntVector.fromArray(SPECIES, y, yOff0 + i).add(xv.mul(alpha0)).intoArray(y, yOff0 + i);
+            IntVector.fromArray(SPECIES, y, yOff1 + i).add(xv.mul(alpha1)).intoArray(y, yOff1 + i);
+            IntVector.fromArray(SPECIES, y, yOff2 + i).add(xv.mul(alpha2)).intoArray(y, yOff2 + i);
+            IntVector.fromArray(SPECIES, y, yOff3 + i).add(xv.mul(alpha3)).intoArray(y, yOff3 + i);
+        }
+        for (; i < length; i++) {
+            int value = x[xOff + i];
+            y[yOff0 + i] += alpha0 * value;
+            y[yOff1 + i] += alpha1 * value;
+            y[yOff2 + i] += alpha2 * value;
+            y[yOff3 + i] += alpha3 * value;
+        }
+    }
+
+    /**
+     * Computes y += x a vector at a time, the tail with scalar code.
+     *
+     * @param x The source array.
+     * @param xOff The offset in x.
+     * @param y The accumulator array.
+     * @param yOff The offset in y.
+     * @param length The number of elements.
+     */
+    @Override
+    public void add(int[] x, int xOff, int[] y, int yOff, int length) {
+        int i = 0;
+        int upper = SPECIES.loopBound(length);
+        for (; i < upper; i += SPECIES.length()) {
+            IntVector xv = IntVector.fromArray(SPECIES, x, xOff + i);
+            IntVector.fromArray(SPECIES, y, yOff + i).add(xv).intoArray(y, yOff + i);
+        }
+        for (; i < length; i++) {
+            y[yOff + i] += x[xOff + i];
+        }
+    }
+
+    /**
+     * Computes the dot product of x and y with lane-wise partial sums that are reduced at the end.
+     *
+     * @param x The first array.
+     * @param xOff The offset in x.
+     * @param y The second array.
+     * @param yOff The offset in y.
+     * @param length The number of elements.
+     * @return the dot product.
+     */
+    @Override
+    public int dot(int[] x, int xOff, int[] y, int yOff, int length) {
+        int i = 0;
+        int upper = SPECIES.loopBound(length);
+        IntVector sum = IntVector.zero(SPECIES);
+        for (; i < upper; i += SPECIES.length()) {
+            IntVector xv = IntVector.fromArray(SPECIES, x, xOff + i);
+            sum = sum.add(xv.mul(IntVector.fromArray(SPECIES, y, yOff + i)));
+        }
+        int result = sum.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            result += x[xOff + i] * y[yOff + i];
+        }
+        return result;
+    }
+}